@@ -0,0 +1,56 @@
+package elevator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of commands of elevator, elevator is driven by headless event loop, so nothing waits for wall clock
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ElevatorBenchmark {
+
+    private EventLoop eventLoop;
+    private Elevator elevator;
+    private int floor = 1;
+
+    @Setup
+    public void setUp() {
+        this.eventLoop = new EventLoop(false);
+        this.elevator = new Elevator(new SilentMessenger(), this.eventLoop, new FloorCalls(), new FloorCalls());
+        this.elevator.setFloorsNumber(20);
+        this.elevator.setElevatorSpeed(2F);
+        this.elevator.setFloorHeight(3F);
+        this.elevator.setDoorsTime(2);
+    }
+
+    /**
+     * Check of calls by free elevator without calls
+     */
+    @Benchmark
+    public void checkQueueWithoutCalls() {
+        this.elevator.checkQueueAndMoveElevator();
+    }
+
+    /**
+     * Check of call from cabin and whole trip of elevator to called floor
+     * @return floor of elevator after trip
+     * @throws InterruptedException if event loop was interrupted
+     */
+    @Benchmark
+    public int checkQueueAndMoveElevator() throws InterruptedException {
+        this.floor = (this.floor + 6) % 20 + 1;
+        this.elevator.getElevatorCalls().set(this.floor);
+        this.elevator.checkQueueAndMoveElevator();
+        this.eventLoop.run();
+        return this.elevator.getCurrentFloor();
+    }
+}
@@ -0,0 +1,40 @@
+package elevator;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of parsing of user input
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InputLoopBenchmark {
+
+    @Param({"э12", "л5", "2л5", "э99"})
+    public String input;
+
+    private InputLoop inputLoop;
+
+    @Setup
+    public void setUp() {
+        this.inputLoop = new InputLoop(new SilentMessenger());
+        this.inputLoop.setFloorsNumber(20);
+        this.inputLoop.setElevatorCalls(Collections.nCopies(2, new FloorCalls()));
+    }
+
+    @Benchmark
+    public boolean parseInput() {
+        this.inputLoop.parseInput(this.input);
+        return this.inputLoop.getInputState();
+    }
+}
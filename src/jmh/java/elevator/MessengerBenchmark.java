@@ -0,0 +1,118 @@
+package elevator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark of printing of messages, console is replaced by stream which drops output
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessengerBenchmark {
+
+    private PrintStream console;
+    private Messenger messenger;
+    private AsyncMessenger asyncMessenger;
+    private EncodedMessenger encodedMessenger;
+
+    @Setup
+    public void setUp() {
+        PrintStream output = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        });
+        this.console = System.out;
+        System.setOut(output);
+        this.messenger = new Messenger("[1] ");
+        MessageRingBuffer buffer = new MessageRingBuffer(output, 4096, OverflowPolicy.BLOCK, 10);
+        buffer.start();
+        this.asyncMessenger = new AsyncMessenger(buffer);
+        this.asyncMessenger.setPrefix("[1] ");
+        this.encodedMessenger = new EncodedMessenger(new EncodedOutput(new GatheringByteChannel() {
+            @Override
+            public long write(ByteBuffer[] srcs, int offset, int length) {
+                long written = 0;
+                for (int i = offset; i < offset + length; i++) {
+                    written += this.write(srcs[i]);
+                }
+                return written;
+            }
+
+            @Override
+            public long write(ByteBuffer[] srcs) {
+                return this.write(srcs, 0, srcs.length);
+            }
+
+            @Override
+            public int write(ByteBuffer src) {
+                int written = src.remaining();
+                src.position(src.limit());
+                return written;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        }, true));
+        this.encodedMessenger.setPrefix("[1] ");
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.asyncMessenger.getBuffer().close();
+        System.setOut(this.console);
+    }
+
+    @Benchmark
+    public void printMessage() {
+        this.messenger.printMessage("Лифт открыл двери\n");
+    }
+
+    @Benchmark
+    public void printFormattedMessage() {
+        this.messenger.printFormattedMessage("Лифт проезжает %s этаж%n", "12");
+    }
+
+    @Benchmark
+    public void asyncPrintMessage() {
+        this.asyncMessenger.printMessage("Лифт открыл двери\n");
+    }
+
+    @Benchmark
+    public void asyncPrintFormattedMessage() {
+        this.asyncMessenger.printFormattedMessage("Лифт проезжает %s этаж%n", "12");
+    }
+
+    @Benchmark
+    public void encodedPrintMessage() {
+        this.encodedMessenger.printMessage("Лифт открыл двери\n");
+    }
+
+    @Benchmark
+    public void encodedPrintFormattedMessage() {
+        this.encodedMessenger.printFormattedMessage("Лифт проезжает %s этаж%n", 12);
+    }
+}
@@ -0,0 +1,96 @@
+package elevator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark of whole simulation in headless mode
+ * Throughput of simulated events is reported by counter "events" (events per second)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SimulationBenchmark {
+
+    /**
+     * Counter of executed events of simulation
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounter {
+
+        public long events;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.events = 0;
+        }
+    }
+
+    @Param({"1", "4"})
+    public int elevatorsNumber;
+
+    @Param({"1000"})
+    public int callsNumber;
+
+    private long[] times;
+    private int[] floors;
+    private int[] elevators;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        this.times = new long[this.callsNumber];
+        this.floors = new int[this.callsNumber];
+        this.elevators = new int[this.callsNumber];
+        long time = 0;
+        for (int i = 0; i < this.callsNumber; i++) {
+            time += random.nextInt(20000);
+            this.times[i] = time;
+            this.floors[i] = random.nextInt(20) + 1;
+            // calls from porch are marked by zero elevator
+            this.elevators[i] = random.nextBoolean() ? 0 : random.nextInt(this.elevatorsNumber) + 1;
+        }
+    }
+
+    /**
+     * Simulation of all calls from the beginning
+     * @param counter - counter of executed events
+     * @return time of simulation after all calls are served
+     * @throws InterruptedException if event loop was interrupted
+     */
+    @Benchmark
+    public long simulate(EventCounter counter) throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        GroupController group = new GroupController(new SilentMessenger(), eventLoop, new EtaDispatcher(),
+                new FloorCalls());
+        Elevator template = new Elevator(new SilentMessenger(), eventLoop, new FloorCalls(), new FloorCalls());
+        template.setFloorsNumber(20);
+        template.setElevatorSpeed(2F);
+        template.setFloorHeight(3F);
+        template.setDoorsTime(2);
+        group.createElevators(template, this.elevatorsNumber);
+        for (int i = 0; i < this.callsNumber; i++) {
+            if (this.elevators[i] == 0) {
+                eventLoop.scheduleAt(this.times[i], EventType.HALL_CALL, this.floors[i], group);
+            } else {
+                eventLoop.scheduleAt(this.times[i], EventType.CAR_CALL, this.floors[i],
+                        group.getElevators().get(this.elevators[i] - 1));
+            }
+        }
+        eventLoop.run();
+        counter.events += eventLoop.getExecutedCount();
+        return eventLoop.getTime();
+    }
+}
@@ -0,0 +1,60 @@
+package elevator;
+
+/**
+ * Class to print output to console asynchronously
+ * Messages are published to buffer and written by separate thread, so printing does not wait for console
+ */
+class AsyncMessenger extends Messenger {
+
+    private MessageRingBuffer buffer;
+
+    AsyncMessenger(MessageRingBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Return buffer of messages shared by messengers
+     * @return buffer of messages
+     */
+    protected MessageRingBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Create messenger with the same buffer of messages
+     * @return new instance of messenger
+     */
+    @Override
+    public Messenger copy() {
+        return new AsyncMessenger(this.buffer);
+    }
+
+    /**
+     * Publish message for printing to console
+     * @param message message to print
+     */
+    @Override
+    public void printMessage(String message){
+        this.buffer.publish(this.getPrefix(), null, message);
+    }
+
+    /**
+     * Publish formatted message for printing to console
+     * @param template for formatting message
+     * @param value value for message
+     */
+    @Override
+    public void printFormattedMessage(String template, String value){
+        this.buffer.publish(this.getPrefix(), template, value);
+    }
+
+    /**
+     * Publish formatted message with number for printing to console, number is formatted by writer thread
+     * @param template for formatting message
+     * @param value number for message
+     */
+    @Override
+    public void printFormattedMessage(String template, int value){
+        this.buffer.publish(this.getPrefix(), template, value);
+    }
+}
@@ -0,0 +1,54 @@
+package elevator;
+
+/**
+ * Signal about new inputs for elevators
+ * Inputs from cabin and porch wake up thread waiting for them, signal given while nobody waits is not lost
+ */
+class CallSignal {
+
+    private final Object lock = new Object();
+    private boolean signalled = false;
+
+    /**
+     * Notify waiting thread about new input
+     */
+    protected void signal() {
+        synchronized (this.lock) {
+            this.signalled = true;
+            this.lock.notifyAll();
+        }
+    }
+
+    /**
+     * Wait for new input without time limit
+     * @throws InterruptedException if waiting was interrupted
+     */
+    protected void await() throws InterruptedException {
+        synchronized (this.lock) {
+            while (!this.signalled) {
+                this.lock.wait();
+            }
+            this.signalled = false;
+        }
+    }
+
+    /**
+     * Wait for new input no longer than given time
+     * @param timeout - maximum time of waiting (milliseconds)
+     * @return true if there was new input, false if time is out
+     * @throws InterruptedException if waiting was interrupted
+     */
+    protected boolean await(long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout * 1000000;
+        synchronized (this.lock) {
+            long left = timeout;
+            while (!this.signalled && left > 0) {
+                this.lock.wait(left);
+                left = (deadline - System.nanoTime()) / 1000000;
+            }
+            boolean result = this.signalled;
+            this.signalled = false;
+            return result;
+        }
+    }
+}
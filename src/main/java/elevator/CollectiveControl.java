@@ -0,0 +1,225 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Collective control of elevator stops
+ * Keeps sets of stops above and below elevator and serves all stops
+ * in current direction before reversing
+ */
+class CollectiveControl {
+
+    private final FloorCalls upStops = new FloorCalls();
+    private final FloorCalls downStops = new FloorCalls();
+    private SchedulingPolicy policy = SchedulingPolicy.LOOK;
+    private Direction direction = Direction.UP;
+    private int floorsNumber = 5;
+
+    /**
+     * Set policy of serving stops
+     * @param policy - LOOK or SCAN
+     */
+    protected void setPolicy(SchedulingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Get policy of serving stops
+     * @return LOOK or SCAN
+     */
+    protected SchedulingPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Set direction of serving stops
+     * @param direction - UP or DOWN
+     */
+    protected void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Get direction of serving stops
+     * @return UP or DOWN
+     */
+    protected Direction getDirection() {
+        return this.direction;
+    }
+
+    /**
+     * Set number of floors in building, used by SCAN to find last floor
+     * @param number of floors in building
+     */
+    protected void setFloorsNumber(int number) {
+        this.floorsNumber = number;
+    }
+
+    /**
+     * Remove all stops and start serving in direction up
+     */
+    protected void clear() {
+        this.upStops.clearAll();
+        this.downStops.clearAll();
+        this.direction = Direction.UP;
+    }
+
+    /**
+     * Add stop, stop above elevator is served on the way up, stop below - on the way down
+     * @param floor - floor of stop
+     * @param currentFloor - current floor of elevator
+     */
+    protected void addStop(int floor, int currentFloor) {
+        if (floor > currentFloor || (floor == currentFloor && this.direction == Direction.UP)) {
+            this.upStops.set(floor);
+        } else {
+            this.downStops.set(floor);
+        }
+    }
+
+    /**
+     * Add stops on all called floors, calls stay registered
+     * @param calls - called floors
+     * @param currentFloor - current floor of elevator
+     */
+    protected void addStops(FloorCalls calls, int currentFloor) {
+        for (int floor = calls.nextSetFloor(1); floor > 0; floor = calls.nextSetFloor(floor + 1)) {
+            this.addStop(floor, currentFloor);
+        }
+    }
+
+    /**
+     * Remove stop after it was served
+     * @param floor - floor of stop
+     * @return true if there was stop on this floor
+     */
+    protected boolean removeStop(int floor) {
+        boolean removedUp = this.upStops.clear(floor);
+        boolean removedDown = this.downStops.clear(floor);
+        return removedUp || removedDown;
+    }
+
+    /**
+     * Check there is stop on floor
+     * @param floor - floor to check
+     * @return true if there is stop on floor
+     */
+    protected boolean isStop(int floor) {
+        return this.upStops.isSet(floor) || this.downStops.isSet(floor);
+    }
+
+    /**
+     * Check there are stops to serve
+     * @return true if there are stops
+     */
+    protected boolean hasStops() {
+        return !this.upStops.isEmpty() || !this.downStops.isEmpty();
+    }
+
+    /**
+     * Return word of stops in both directions, floor f is bit f % 64 of word f / 64
+     * @param index - index of word
+     * @return bits of floors to stop
+     */
+    protected long getStopsWord(int index) {
+        return this.upStops.getWord(index) | this.downStops.getWord(index);
+    }
+
+    /**
+     * Return number of stops to serve
+     * @return number of stops
+     */
+    protected int getStopsCount() {
+        return this.upStops.size() + this.downStops.size();
+    }
+
+    /**
+     * Find floor where elevator must go next, direction is reversed when there are no stops ahead
+     * With SCAN policy elevator goes to the last floor in current direction before reversing,
+     * such floor is returned even if there is no stop on it
+     * @param currentFloor - current floor of elevator
+     * @return floor where elevator must go next, -1 if there are no stops
+     */
+    protected int nextStop(int currentFloor) {
+        if (!this.hasStops()) {
+            return -1;
+        }
+        if (this.direction == Direction.UP) {
+            if (!this.upStops.isEmpty()) {
+                return this.upStops.nextSetFloor(1);
+            }
+            if (this.policy == SchedulingPolicy.SCAN && currentFloor < this.floorsNumber) {
+                return this.floorsNumber;
+            }
+            this.direction = Direction.DOWN;
+            return this.downStops.previousSetFloor(this.downStops.getCapacity());
+        }
+        if (!this.downStops.isEmpty()) {
+            return this.downStops.previousSetFloor(this.downStops.getCapacity());
+        }
+        if (this.policy == SchedulingPolicy.SCAN && currentFloor > 1) {
+            return 1;
+        }
+        this.direction = Direction.UP;
+        return this.upStops.nextSetFloor(1);
+    }
+
+    /**
+     * Find floor where elevator must go next without changing direction of serving stops
+     * @param currentFloor - current floor of elevator
+     * @return floor where elevator must go next, -1 if there are no stops
+     */
+    protected int peekStop(int currentFloor) {
+        Direction direction = this.direction;
+        int stop = this.nextStop(currentFloor);
+        this.direction = direction;
+        return stop;
+    }
+
+    /**
+     * Create independent copy of stops and settings, used for planning
+     * @return copy of collective control
+     */
+    protected CollectiveControl copy() {
+        CollectiveControl copy = new CollectiveControl();
+        this.copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * Replace stops and settings of other collective control by stops and settings of this one,
+     * used for planning without memory allocation
+     * @param copy - collective control to overwrite
+     */
+    protected void copyTo(CollectiveControl copy) {
+        copy.upStops.copyFrom(this.upStops);
+        copy.downStops.copyFrom(this.downStops);
+        copy.policy = this.policy;
+        copy.direction = this.direction;
+        copy.floorsNumber = this.floorsNumber;
+    }
+
+    /**
+     * Write stops and direction to checkpoint, settings are not written
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        this.upStops.writeState(output);
+        this.downStops.writeState(output);
+        output.writeBoolean(this.direction == Direction.UP);
+    }
+
+    /**
+     * Replace stops and direction by ones read from checkpoint
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.upStops.readState(input);
+        this.downStops.readState(input);
+        this.direction = input.readBoolean() ? Direction.UP : Direction.DOWN;
+    }
+}
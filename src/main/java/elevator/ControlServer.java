@@ -0,0 +1,601 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local server of calls from porch and cabins for building panels, test rigs and generators of load
+ * All clients are served by single thread with selector, calls are registered by InputLoop as calls from console.
+ * First byte of connection chooses protocol:
+ * text protocol - lines in UTF-8 with commands of console (э5, л5, 2л5), every command is answered by line
+ * "Ввод принят" or "Некорректный ввод", command "события" subscribes client to events of elevators,
+ * they are sent as lines "событие time elevator type floor", elevator 0 is group of elevators;
+ * binary protocol - connection starts with byte 0, commands are frames of 4 bytes: type (1 - call from porch,
+ * 2 - call from cabin, 3 - subscription), number of elevator from 1, floor (short), all numbers are big-endian.
+ * Server sends frames starting with kind byte: answer (16) with status byte 1 - accepted or 0 - rejected,
+ * event (32) with time (long), id of passenger or -1 (long), floor (int), elevator (short), code of JournalEvent (byte)
+ * Client which does not read its answers is not read either, events for slow subscriber are dropped
+ */
+class ControlServer implements Runnable, Closeable, EventRecorder {
+
+    static final int BINARY = 0;
+    static final int HALL_CALL = 1;
+    static final int CAR_CALL = 2;
+    static final int SUBSCRIBE = 3;
+    static final int FRAME_SIZE = 4;
+    static final int ANSWER = 16;
+    static final int EVENT = 32;
+    static final int EVENT_SIZE = 24;
+
+    /**
+     * Size of input and output buffers of client (bytes)
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Maximal size of one answer or event (bytes)
+     */
+    private static final int MAX_MESSAGE_SIZE = 128;
+
+    /**
+     * Number of events waiting for sending to subscribers, power of two
+     */
+    private static final int EVENTS_CAPACITY = 1 << 14;
+
+    private static final byte[] ACCEPTED = "Ввод принят\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REJECTED = "Некорректный ввод\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUBSCRIBED = "Подписка на события\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENTS_COMMAND = "события".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_PREFIX = "событие ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HALL_PREFIX = "э".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CAR_SEPARATOR = "л".getBytes(StandardCharsets.UTF_8);
+    private static final byte[][] EVENT_NAMES = new byte[JournalEvent.values().length][];
+
+    static {
+        for (JournalEvent type : JournalEvent.values()) {
+            EVENT_NAMES[type.ordinal()] = type.name().toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final InputLoop inputLoop;
+    private final EventLoop eventLoop;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final List<Client> subscribers = new ArrayList<>();
+    // events are packed by three longs: time, passenger, floor with elevator and type
+    private final long[] events = new long[EVENTS_CAPACITY * 3];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong commandsCount = new AtomicLong();
+    private final AtomicBoolean eventsSignalled = new AtomicBoolean();
+    private volatile long tail = 0;
+    private volatile int subscribersCount = 0;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * State of connected client, used only by thread of server
+     */
+    private static class Client {
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+        private boolean protocolKnown = false;
+        private boolean binary = false;
+        private boolean subscribed = false;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Create server on local address
+     * @param inputLoop - input connected to simulation, it registers calls of clients
+     * @param eventLoop - event loop giving time of events
+     * @param port - port of server, 0 for any free port
+     * @throws IOException if port can not be opened
+     */
+    ControlServer(InputLoop inputLoop, EventLoop eventLoop, int port) throws IOException {
+        this.inputLoop = inputLoop;
+        this.eventLoop = eventLoop;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            this.serverChannel.configureBlocking(false);
+            this.serverChannel.register(this.selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            this.serverChannel.close();
+            this.selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Return port of server
+     * @return local port
+     */
+    protected int getPort() {
+        return this.serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Return number of commands received from clients
+     * @return number of commands
+     */
+    protected long getCommandsCount() {
+        return this.commandsCount.get();
+    }
+
+    /**
+     * Return number of events dropped because subscribers did not read them in time
+     * @return number of dropped events
+     */
+    protected long getDroppedEventsCount() {
+        return this.droppedEvents.get();
+    }
+
+    /**
+     * Start thread of server
+     */
+    protected synchronized void start() {
+        if (this.thread == null) {
+            this.running = true;
+            this.thread = new Thread(this, "control-server");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+    }
+
+    /**
+     * Stop thread of server and close all connections
+     * @throws IOException if waiting for thread of server was interrupted
+     */
+    public void close() throws IOException {
+        Thread serverThread;
+        synchronized (this) {
+            serverThread = this.thread;
+            this.running = false;
+        }
+        this.selector.wakeup();
+        if (serverThread == null) {
+            this.closeChannels();
+            return;
+        }
+        try {
+            serverThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Server is not stopped", e);
+        }
+    }
+
+    /**
+     * Put event of simulation to queue of events for subscribers, called by thread of event loop
+     * Without subscribers events are not queued, when queue is full event is dropped
+     * Selector is woken up only by first event after queue was drained
+     * @param elevator - index of elevator or -1 for group of elevators
+     * @param type - type of event
+     * @param floor - floor of event
+     * @param passenger - id of passenger or -1
+     */
+    public void append(int elevator, JournalEvent type, int floor, long passenger) {
+        if (this.subscribersCount == 0) {
+            return;
+        }
+        long position = this.head.get();
+        if (position - this.tail >= EVENTS_CAPACITY) {
+            this.droppedEvents.incrementAndGet();
+            return;
+        }
+        int index = (int) (position & (EVENTS_CAPACITY - 1)) * 3;
+        this.events[index] = this.eventLoop.getTime();
+        this.events[index + 1] = passenger;
+        this.events[index + 2] = ((long) floor << 32) | ((elevator & 0xFFFFL) << 8) | type.getCode();
+        this.head.lazySet(position + 1);
+        if (!this.eventsSignalled.getAndSet(true)) {
+            this.selector.wakeup();
+        }
+    }
+
+    /**
+     * Entry point of thread of server
+     * Accepting of clients, reading of commands, sending of answers and events
+     */
+    public void run() {
+        try {
+            while (this.running) {
+                this.selector.select();
+                this.sendEvents();
+                Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        // client was disconnected while events were sent
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            this.accept();
+                        } else {
+                            this.handle(key);
+                        }
+                    } catch (IOException e) {
+                        this.disconnect(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // selector is broken, server stops
+        } finally {
+            this.closeChannels();
+        }
+    }
+
+    /**
+     * Accept new client
+     * @throws IOException if client can not be registered
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = this.serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.register(this.selector, SelectionKey.OP_READ, new Client(channel));
+    }
+
+    /**
+     * Read commands of client and write its answers and events
+     * @param key - key of client
+     * @throws IOException if connection is broken
+     */
+    private void handle(SelectionKey key) throws IOException {
+        Client client = (Client) key.attachment();
+        if (key.isReadable() && client.channel.read(client.input) < 0) {
+            this.disconnect(key);
+            return;
+        }
+        this.parseCommands(client);
+        this.flush(key, client);
+    }
+
+    /**
+     * Execute all complete commands in input of client while there is space for answers
+     * @param client - client
+     */
+    private void parseCommands(Client client) {
+        ByteBuffer input = client.input;
+        input.flip();
+        if (!client.protocolKnown && input.hasRemaining()) {
+            client.protocolKnown = true;
+            client.binary = input.get(input.position()) == BINARY;
+            if (client.binary) {
+                input.get();
+            }
+        }
+        boolean incomplete = false;
+        while (client.output.remaining() >= MAX_MESSAGE_SIZE) {
+            if (client.binary ? !this.parseFrame(client) : !this.parseLine(client)) {
+                incomplete = true;
+                break;
+            }
+        }
+        input.compact();
+        if (incomplete && !client.binary && !input.hasRemaining()) {
+            // line longer than buffer is rejected
+            input.clear();
+            client.output.put(REJECTED);
+        }
+    }
+
+    /**
+     * Execute binary command
+     * @param client - client in binary protocol
+     * @return true if command was executed, false if frame is not complete
+     */
+    private boolean parseFrame(Client client) {
+        ByteBuffer input = client.input;
+        if (input.remaining() < FRAME_SIZE) {
+            return false;
+        }
+        int type = input.get();
+        int elevator = input.get() & 0xFF;
+        int floor = input.getShort() & 0xFFFF;
+        this.commandsCount.incrementAndGet();
+        boolean accepted;
+        if (type == HALL_CALL) {
+            accepted = this.inputLoop.hallCall(floor);
+        } else if (type == CAR_CALL) {
+            accepted = this.inputLoop.carCall(elevator, floor);
+        } else {
+            accepted = type == SUBSCRIBE;
+            if (accepted) {
+                this.subscribe(client);
+            }
+        }
+        client.output.put((byte) ANSWER).put((byte) (accepted ? 1 : 0));
+        return true;
+    }
+
+    /**
+     * Execute text command
+     * @param client - client in text protocol
+     * @return true if command was executed, false if line is not complete
+     */
+    private boolean parseLine(Client client) {
+        ByteBuffer input = client.input;
+        int start = input.position();
+        int end = start;
+        while (end < input.limit() && input.get(end) != '\n') {
+            end++;
+        }
+        if (end == input.limit()) {
+            return false;
+        }
+        input.position(end + 1);
+        if (end > start && input.get(end - 1) == '\r') {
+            end--;
+        }
+        if (end == start) {
+            return true;
+        }
+        this.commandsCount.incrementAndGet();
+        if (matches(input, start, end, EVENTS_COMMAND)) {
+            this.subscribe(client);
+            client.output.put(SUBSCRIBED);
+            return true;
+        }
+        boolean accepted = false;
+        if (startsWith(input, start, end, HALL_PREFIX)) {
+            accepted = this.inputLoop.hallCall(parseNumber(input, start + HALL_PREFIX.length, end));
+        } else {
+            int separator = indexOf(input, start, end, CAR_SEPARATOR);
+            if (separator >= 0) {
+                int elevator = separator == start ? 1 : parseNumber(input, start, separator);
+                accepted = this.inputLoop.carCall(elevator,
+                        parseNumber(input, separator + CAR_SEPARATOR.length, end));
+            }
+        }
+        client.output.put(accepted ? ACCEPTED : REJECTED);
+        return true;
+    }
+
+    /**
+     * Subscribe client to events of elevators
+     * @param client - client
+     */
+    private void subscribe(Client client) {
+        if (!client.subscribed) {
+            client.subscribed = true;
+            this.subscribers.add(client);
+            this.subscribersCount = this.subscribers.size();
+        }
+    }
+
+    /**
+     * Move queued events to outputs of subscribers, subscriber without space for event loses it
+     */
+    private void sendEvents() {
+        // flag is cleared before reading of queue, so event appended later wakes up selector again
+        this.eventsSignalled.getAndSet(false);
+        long position = this.tail;
+        long last = this.head.get();
+        if (position == last) {
+            return;
+        }
+        for (; position < last; position++) {
+            int index = (int) (position & (EVENTS_CAPACITY - 1)) * 3;
+            long time = this.events[index];
+            long passenger = this.events[index + 1];
+            long packed = this.events[index + 2];
+            int floor = (int) (packed >>> 32);
+            int elevator = (short) (packed >>> 8);
+            int type = (int) (packed & 0xFF);
+            for (Client client : this.subscribers) {
+                if (client.output.remaining() < MAX_MESSAGE_SIZE) {
+                    this.droppedEvents.incrementAndGet();
+                } else if (client.binary) {
+                    client.output.put((byte) EVENT).putLong(time).putLong(passenger).putInt(floor)
+                            .putShort((short) elevator).put((byte) type);
+                } else {
+                    client.output.put(EVENT_PREFIX);
+                    putNumber(client.output, time);
+                    client.output.put((byte) ' ');
+                    putNumber(client.output, elevator + 1);
+                    client.output.put((byte) ' ').put(EVENT_NAMES[type - 1]).put((byte) ' ');
+                    putNumber(client.output, floor);
+                    client.output.put((byte) '\n');
+                }
+            }
+        }
+        this.tail = last;
+        // backward order, because client can be disconnected and removed from subscribers
+        for (int i = this.subscribers.size() - 1; i >= 0; i--) {
+            Client client = this.subscribers.get(i);
+            SelectionKey key = client.channel.keyFor(this.selector);
+            try {
+                this.flush(key, client);
+            } catch (IOException e) {
+                this.disconnect(key);
+            }
+        }
+    }
+
+    /**
+     * Write output of client, client is not read while its output is nearly full
+     * @param key - key of client
+     * @param client - client
+     * @throws IOException if connection is broken
+     */
+    private void flush(SelectionKey key, Client client) throws IOException {
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        ByteBuffer output = client.output;
+        output.flip();
+        client.channel.write(output);
+        output.compact();
+        int interest = output.position() > 0 ? SelectionKey.OP_WRITE : 0;
+        if (output.remaining() >= MAX_MESSAGE_SIZE) {
+            interest |= SelectionKey.OP_READ;
+        }
+        key.interestOps(interest);
+        if ((interest & SelectionKey.OP_READ) != 0 && client.input.position() > 0 && output.position() == 0) {
+            // commands left in input after output was full
+            this.parseCommands(client);
+            if (client.output.position() > 0) {
+                this.flush(key, client);
+            }
+        }
+    }
+
+    /**
+     * Close connection of client
+     * @param key - key of client
+     */
+    private void disconnect(SelectionKey key) {
+        if (key == null) {
+            return;
+        }
+        Client client = (Client) key.attachment();
+        key.cancel();
+        if (client != null) {
+            if (client.subscribed) {
+                this.subscribers.remove(client);
+                this.subscribersCount = this.subscribers.size();
+            }
+            try {
+                client.channel.close();
+            } catch (IOException e) {
+                // connection is already broken
+            }
+        }
+    }
+
+    /**
+     * Close all connections, server channel and selector
+     */
+    private void closeChannels() {
+        this.subscribersCount = 0;
+        if (this.selector.isOpen()) {
+            for (SelectionKey key : this.selector.keys()) {
+                if (key.attachment() instanceof Client) {
+                    this.disconnect(key);
+                }
+            }
+        }
+        try {
+            this.serverChannel.close();
+            this.selector.close();
+        } catch (IOException e) {
+            // server is stopped anyway
+        }
+    }
+
+    /**
+     * Check bytes of buffer are equal to text
+     * @param buffer - buffer
+     * @param start - first byte
+     * @param end - end of bytes, exclusive
+     * @param text - bytes of text
+     * @return true if bytes are equal
+     */
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] text) {
+        return end - start == text.length && startsWith(buffer, start, end, text);
+    }
+
+    /**
+     * Check bytes of buffer start with text
+     * @param buffer - buffer
+     * @param start - first byte
+     * @param end - end of bytes, exclusive
+     * @param text - bytes of text
+     * @return true if bytes start with text
+     */
+    private static boolean startsWith(ByteBuffer buffer, int start, int end, byte[] text) {
+        if (end - start < text.length) {
+            return false;
+        }
+        for (int i = 0; i < text.length; i++) {
+            if (buffer.get(start + i) != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find text in bytes of buffer
+     * @param buffer - buffer
+     * @param start - first byte
+     * @param end - end of bytes, exclusive
+     * @param text - bytes of text
+     * @return position of text or -1 if there is no text
+     */
+    private static int indexOf(ByteBuffer buffer, int start, int end, byte[] text) {
+        for (int i = start; i <= end - text.length; i++) {
+            if (startsWith(buffer, i, end, text)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parse positive decimal number from bytes of buffer
+     * @param buffer - buffer
+     * @param start - first byte
+     * @param end - end of bytes, exclusive
+     * @return number or -1 if bytes are not number
+     */
+    private static int parseNumber(ByteBuffer buffer, int start, int end) {
+        if (start >= end || end - start > 9) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            number = number * 10 + digit;
+        }
+        return number;
+    }
+
+    /**
+     * Write decimal digits of number to buffer
+     * @param buffer - buffer
+     * @param number - number
+     */
+    private static void putNumber(ByteBuffer buffer, long number) {
+        if (number < 0) {
+            buffer.put((byte) '-');
+            number = -number;
+        }
+        long divisor = 1;
+        while (number / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + number / divisor % 10));
+        }
+    }
+}
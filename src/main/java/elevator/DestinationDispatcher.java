@@ -0,0 +1,52 @@
+package elevator;
+
+import java.util.List;
+
+/**
+ * Destination dispatch: passenger enters destination on landing and is assigned to elevator at once
+ * Elevator is selected by estimated time of arrival plus time of stops it must add for passenger,
+ * so passengers going to the same floor are grouped in the same elevator
+ */
+class DestinationDispatcher extends EtaDispatcher {
+
+    /**
+     * Select elevator with lowest cost for passenger: estimated time of arrival to origin floor
+     * plus time of new stops on origin and destination floors, elevator which would be full with passengers already assigned to it costs double stops
+     * @param elevators - elevators of group
+     * @param passenger - passenger calling elevator
+     * @return elevator to serve passenger
+     */
+    @Override
+    public Elevator selectElevator(List<Elevator> elevators, Passenger passenger) {
+        Elevator selected = null;
+        long bestCost = Long.MAX_VALUE;
+        for (int i = 0; i < elevators.size(); i++) {
+            Elevator elevator = elevators.get(i);
+            long stopTime = elevator.getDoorsTime() * 1000L + elevator.getBoardingTime();
+            long cost = elevator.estimateArrivalTime(passenger.getOrigin());
+            if (!elevator.hasStop(passenger.getOrigin())) {
+                cost += stopTime;
+            }
+            if (!elevator.hasStop(passenger.getDestination())) {
+                cost += stopTime;
+            }
+            if (elevator.getExpectedLoad() + passenger.getWeight() > elevator.getCapacity()) {
+                cost += 2 * stopTime;
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                selected = elevator;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Passengers are assigned to elevators on arrival
+     * @return true
+     */
+    @Override
+    public boolean isDestinationDispatch() {
+        return true;
+    }
+}
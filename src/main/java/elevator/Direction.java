@@ -0,0 +1,16 @@
+package elevator;
+
+/**
+ * Directions of moving of elevator and of serving stops
+ */
+enum Direction {
+    /**
+     * Moving to upper floors
+     */
+    UP,
+
+    /**
+     * Moving to lower floors
+     */
+    DOWN
+}
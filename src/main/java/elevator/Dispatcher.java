@@ -0,0 +1,34 @@
+package elevator;
+
+import java.util.List;
+
+/**
+ * Strategy of assignment of calls from porch to elevators of group
+ */
+interface Dispatcher {
+    /**
+     * Select elevator which will serve call from porch
+     * @param elevators - elevators of group
+     * @param floor - floor of call
+     * @return elevator to serve call
+     */
+    Elevator selectElevator(List<Elevator> elevators, int floor);
+
+    /**
+     * Select elevator for passenger, by default passenger is served as call from origin floor
+     * @param elevators - elevators of group
+     * @param passenger - passenger calling elevator
+     * @return elevator to serve passenger
+     */
+    default Elevator selectElevator(List<Elevator> elevators, Passenger passenger) {
+        return this.selectElevator(elevators, passenger.getOrigin());
+    }
+
+    /**
+     * Check passengers are assigned to elevators on arrival by their destination
+     * @return true for destination dispatch, false if passengers take any elevator coming to their floor
+     */
+    default boolean isDestinationDispatch() {
+        return false;
+    }
+}
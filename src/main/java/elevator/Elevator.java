@@ -1,37 +1,84 @@
 package elevator;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-import static elevator.Main.elevatorQueue;
-import static elevator.Main.porchQueue;
+class Elevator implements Runnable, EventHandler {
 
-class Elevator implements Runnable {
-
-    private Float elevatorSpeed = 1F;
-    private Float floorHeight = 3F;
-    private Integer doorsTime = 5;
-    private Integer floorsNumber = 5;
-    private Integer currentFloor = 1;
-    private Boolean busy = false;
+    private float elevatorSpeed = 1F;
+    private float floorHeight = 3F;
+    private float acceleration = 0F;
+    private float jerk = 0F;
+    private MotionProfile motionProfile;
+    private int doorsTime = 5;
+    private int floorsNumber = 5;
+    private int currentFloor = 1;
+    private boolean busy = false;
+    private Direction direction = Direction.UP;
+    private int floorsLeft = 0;
+    private int runFloors = 0;
+    private long runTime = 0L;
+    private int targetFloor = 1;
+    private long freeTime = 0L;
+    private boolean stopAtTarget = true;
+    private boolean expressRuns = false;
+    private int departureFloor = 1;
+    private long departureTime = 0L;
+    private SimulationEvent arrival;
+    private SimulationEvent doorsClose;
+    private int capacity = 1000;
+    private int boardingTime = 1000;
+    private int load = 0;
+    private boolean passengersLeft = false;
+    private final List<Passenger> passengers = new ArrayList<>();
+    private Landings landings;
+    private EventHandler hallCallHandler;
+    private CollectiveControl collectiveControl = new CollectiveControl();
+    private final CollectiveControl plan = new CollectiveControl();
+    private final FloorCalls hallStops = new FloorCalls();
     private Messenger messenger;
+    private EventLoop eventLoop;
+    private FloorCalls elevatorCalls;
+    private FloorCalls porchCalls;
+    private SimulationMetrics metrics;
+    private EventRecorder journal;
+    private PredictiveParking parking;
+    private final ElevatorState state = new ElevatorState(Main.MAX_FLOORS_NUMBER);
+    private int number = 0;
 
     Elevator(Messenger messenger) {
+        this(messenger, new EventLoop(false));
+    }
+
+    Elevator(Messenger messenger, EventLoop eventLoop) {
+        this(messenger, eventLoop, new FloorCalls(), new FloorCalls());
+    }
+
+    Elevator(Messenger messenger, EventLoop eventLoop, FloorCalls elevatorCalls, FloorCalls porchCalls) {
         this.messenger = messenger;
+        this.eventLoop = eventLoop;
+        this.elevatorCalls = elevatorCalls;
+        this.porchCalls = porchCalls;
+        this.metrics = new SimulationMetrics(eventLoop, 1);
     }
 
     /**
      * Set speed of elevator's moving (meters per second)
      * @param speed - speed of elevator's moving
      */
-    protected void setElevatorSpeed(Float speed){
+    protected void setElevatorSpeed(float speed){
         this.elevatorSpeed = speed;
+        this.motionProfile = null;
     }
 
     /**
      * Get speed of elevator's moving (meters per second)
      * @return - speed of elevator's moving
      */
-    protected Float getElevatorSpeed(){
+    protected float getElevatorSpeed(){
         return this.elevatorSpeed;
     }
 
@@ -39,23 +86,70 @@ class Elevator implements Runnable {
      * Set height of floor in building (meters)
      * @param height - height of floor in building (meters)
      */
-    protected void setFloorHeight(Float height){
+    protected void setFloorHeight(float height){
         this.floorHeight = height;
+        this.motionProfile = null;
     }
 
     /**
      * Get height of floor in building (meters)
      * @return height of floor in building (meters)
      */
-    protected Float getFloorHeight(){
+    protected float getFloorHeight(){
         return this.floorHeight;
     }
 
+    /**
+     * Set maximal acceleration of elevator (meters per second squared)
+     * @param acceleration - maximal acceleration, 0 for unlimited
+     */
+    protected void setAcceleration(float acceleration) {
+        this.acceleration = acceleration;
+        this.motionProfile = null;
+    }
+
+    /**
+     * Get maximal acceleration of elevator (meters per second squared)
+     * @return maximal acceleration, 0 for unlimited
+     */
+    protected float getAcceleration() {
+        return this.acceleration;
+    }
+
+    /**
+     * Set maximal jerk of elevator (meters per second cubed)
+     * @param jerk - maximal jerk, 0 for unlimited
+     */
+    protected void setJerk(float jerk) {
+        this.jerk = jerk;
+        this.motionProfile = null;
+    }
+
+    /**
+     * Get maximal jerk of elevator (meters per second cubed)
+     * @return maximal jerk, 0 for unlimited
+     */
+    protected float getJerk() {
+        return this.jerk;
+    }
+
+    /**
+     * Get motion profile of elevator, its table of travel times is computed on first use after change of settings
+     * @return motion profile for current speed, floor height, acceleration, jerk and number of floors
+     */
+    protected MotionProfile getMotionProfile() {
+        if (this.motionProfile == null) {
+            this.motionProfile = new MotionProfile(this.elevatorSpeed, this.floorHeight, this.acceleration, this.jerk,
+                    this.floorsNumber);
+        }
+        return this.motionProfile;
+    }
+
     /**
      * Set time of cycle open-close for elevator's doors (seconds)
      * @param time - time of cycle open-close for elevator's doors (seconds)
      */
-    protected void setDoorsTime(Integer time){
+    protected void setDoorsTime(int time){
         this.doorsTime = time;
     }
 
@@ -63,23 +157,99 @@ class Elevator implements Runnable {
      * Get time of cycle open-close for elevator's doors (seconds)
      * @return time of cycle open-close for elevator's doors (seconds)
      */
-    protected Integer getDoorsTime(){
+    protected int getDoorsTime(){
         return this.doorsTime;
     }
 
+    /**
+     * Set capacity of cabin (kilograms)
+     * @param capacity - maximal weight of passengers in cabin
+     */
+    protected void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get capacity of cabin (kilograms)
+     * @return maximal weight of passengers in cabin
+     */
+    protected int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Set time of boarding or alighting of one passenger (milliseconds), doors stay open longer by this time
+     * @param time - time of boarding or alighting of one passenger (milliseconds)
+     */
+    protected void setBoardingTime(int time) {
+        this.boardingTime = time;
+    }
+
+    /**
+     * Get time of boarding or alighting of one passenger (milliseconds)
+     * @return time of boarding or alighting of one passenger (milliseconds)
+     */
+    protected int getBoardingTime() {
+        return this.boardingTime;
+    }
+
+    /**
+     * Get passengers riding in cabin
+     * @return passengers in cabin
+     */
+    protected List<Passenger> getPassengers() {
+        return this.passengers;
+    }
+
+    /**
+     * Get weight of passengers in cabin (kilograms)
+     * @return load of cabin
+     */
+    protected int getLoad() {
+        return this.load;
+    }
+
+    /**
+     * Return weight of passengers in cabin and passengers on landings assigned to elevator (kilograms)
+     * @return expected load of cabin
+     */
+    protected long getExpectedLoad() {
+        return this.landings == null ? this.load : this.load + this.landings.getAssignedWeight(this.number);
+    }
+
+    /**
+     * Set landings where passengers wait for elevator
+     * @param landings - landings of building
+     * @param hallCallHandler - receives call from porch when passengers are left on landing
+     */
+    protected void setLandings(Landings landings, EventHandler hallCallHandler) {
+        this.landings = landings;
+        this.hallCallHandler = hallCallHandler;
+    }
+
+    /**
+     * Get landings where passengers wait for elevator
+     * @return landings of building or null if elevator has no passengers
+     */
+    protected Landings getLandings() {
+        return this.landings;
+    }
+
     /**
      * Set number of floors in building
      * @param number of floors in building
      */
-    protected void setFloorsNumber(Integer number){
+    protected void setFloorsNumber(int number){
         this.floorsNumber = number;
+        this.motionProfile = null;
+        this.collectiveControl.setFloorsNumber(number);
     }
 
     /**
      * Return number of floors in building
      * @return number of floors in building
      */
-    protected Integer getFloorsNumber(){
+    protected int getFloorsNumber(){
         return this.floorsNumber;
     }
 
@@ -87,7 +257,7 @@ class Elevator implements Runnable {
      * Set current floor of elevator
      * @param floor current floor of elevator
      */
-    protected void setCurrentFloor(Integer floor){
+    protected void setCurrentFloor(int floor){
         this.currentFloor = floor;
     }
 
@@ -95,7 +265,7 @@ class Elevator implements Runnable {
      * Get current floor of elevator
      * @return current floor of elevator
      */
-    protected Integer getCurrentFloor() {
+    protected int getCurrentFloor() {
         return  this.currentFloor;
     }
 
@@ -103,32 +273,308 @@ class Elevator implements Runnable {
      * Set state of elevator
      * @param busy state of elevator: true - busy, false - free
      */
-    protected void setBusy(Boolean busy){
+    protected void setBusy(boolean busy){
+        if (busy != this.busy) {
+            this.metrics.busyChanged(this.number, busy);
+            if (!busy && this.parking != null) {
+                this.parking.invalidateTargets();
+            }
+        }
         this.busy = busy;
     }
 
+    /**
+     * Set statistics of simulation recorded by elevator
+     * @param metrics - statistics of simulation
+     * @param number - index of elevator in statistics, starting from 0
+     */
+    protected void setMetrics(SimulationMetrics metrics, int number) {
+        this.metrics = metrics;
+        this.number = number;
+        metrics.setElevatorState(number, this.state);
+    }
+
+    /**
+     * Get statistics of simulation recorded by elevator
+     * @return statistics of simulation
+     */
+    protected SimulationMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Set journal where elevator appends its events
+     * @param journal - journal of events or null to stop journaling
+     */
+    protected void setJournal(EventRecorder journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Return state of elevator published for other threads, fields of elevator are used only by its thread
+     * @return published state of elevator
+     */
+    protected ElevatorState getState() {
+        return this.state;
+    }
+
+    /**
+     * Publish position, load and stops of elevator to its state, used by thread of elevator after every change
+     */
+    protected void publishState() {
+        ElevatorState state = this.state;
+        int flags = (this.busy ? ElevatorState.BUSY : 0) | (this.direction == Direction.UP ? ElevatorState.UP : 0)
+                | (this.isDoorsOpen() ? ElevatorState.DOORS_OPEN : 0)
+                | (this.busy && this.floorsLeft > 0 ? ElevatorState.MOVING : 0);
+        int words = Math.min((this.floorsNumber >>> 6) + 1, state.getStopsWords());
+        state.beginUpdate();
+        state.setPosition(this.currentFloor, this.busy ? this.targetFloor : this.currentFloor, flags);
+        state.setLoad(this.load, this.passengers.size());
+        for (int i = 0; i < words; i++) {
+            state.setStops(i, this.collectiveControl.getStopsWord(i) | this.elevatorCalls.getWord(i)
+                    | this.porchCalls.getWord(i));
+        }
+        state.endUpdate();
+    }
+
+    /**
+     * Set model of calls which chooses floor where elevator waits without calls
+     * @param parking - model of calls or null to leave idle elevator on floor of last stop
+     */
+    protected void setParking(PredictiveParking parking) {
+        this.parking = parking;
+    }
+
+    /**
+     * Get floor taken by elevator for waiting of calls
+     * @return current floor of free elevator, target of run to parking floor or -1 if elevator serves calls
+     */
+    protected int getParkingFloor() {
+        if (!this.getBusy()) {
+            return this.getCurrentFloor();
+        }
+        return !this.stopAtTarget && !this.getCollectiveControl().hasStops() ? this.targetFloor : -1;
+    }
+
+    /**
+     * Append event of elevator to journal if journal is set
+     * @param type - type of event
+     * @param floor - floor of event
+     * @param passenger - id of passenger or -1
+     */
+    private void journal(JournalEvent type, int floor, long passenger) {
+        if (this.journal != null) {
+            this.journal.append(this.number, type, floor, passenger);
+        }
+    }
+
+    /**
+     * Get index of elevator in statistics
+     * @return index of elevator, starting from 0
+     */
+    protected int getNumber() {
+        return this.number;
+    }
+
+    /**
+     * Copy settings of other elevator to this elevator, motion profile of template is shared by elevators
+     * @param template - elevator which settings are copied
+     */
+    protected void copySettings(Elevator template) {
+        this.setElevatorSpeed(template.getElevatorSpeed());
+        this.setFloorHeight(template.getFloorHeight());
+        this.setAcceleration(template.getAcceleration());
+        this.setJerk(template.getJerk());
+        this.setDoorsTime(template.getDoorsTime());
+        this.setFloorsNumber(template.getFloorsNumber());
+        this.setSchedulingPolicy(template.getSchedulingPolicy());
+        this.setExpressRuns(template.getExpressRuns());
+        this.setCapacity(template.getCapacity());
+        this.setBoardingTime(template.getBoardingTime());
+        this.motionProfile = template.getMotionProfile();
+    }
+
+    /**
+     * Return elevator to first floor without calls and stops, used to reuse elevator in next simulation
+     */
+    protected void reset() {
+        this.currentFloor = 1;
+        this.busy = false;
+        this.direction = Direction.UP;
+        this.floorsLeft = 0;
+        this.runFloors = 0;
+        this.runTime = 0L;
+        this.targetFloor = 1;
+        this.freeTime = 0L;
+        this.stopAtTarget = true;
+        this.departureFloor = 1;
+        this.departureTime = 0L;
+        this.arrival = null;
+        this.doorsClose = null;
+        this.collectiveControl.clear();
+        this.hallStops.clearAll();
+        this.passengers.clear();
+        this.load = 0;
+        this.passengersLeft = false;
+        this.elevatorCalls.clearAll();
+        this.porchCalls.clearAll();
+        this.publishState();
+    }
+
+    /**
+     * Write state of elevator to checkpoint: position, run, stops, calls and passengers in cabin
+     * Settings are not written, elevator is restored with settings of simulation which reads checkpoint
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeShort(this.currentFloor);
+        output.writeBoolean(this.busy);
+        output.writeBoolean(this.direction == Direction.UP);
+        output.writeShort(this.floorsLeft);
+        output.writeShort(this.runFloors);
+        output.writeLong(this.runTime);
+        output.writeShort(this.targetFloor);
+        output.writeLong(this.freeTime);
+        output.writeBoolean(this.stopAtTarget);
+        output.writeShort(this.departureFloor);
+        output.writeLong(this.departureTime);
+        output.writeBoolean(this.passengersLeft);
+        output.writeInt(this.passengers.size());
+        for (Passenger passenger : this.passengers) {
+            passenger.writeState(output);
+        }
+        this.collectiveControl.writeState(output);
+        this.elevatorCalls.writeState(output);
+        this.porchCalls.writeState(output);
+        this.hallStops.writeState(output);
+    }
+
+    /**
+     * Replace state of elevator by state read from checkpoint
+     * Events of elevator must be already restored in event loop, they are found there by type
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or does not fit building
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.currentFloor = input.readUnsignedShort();
+        this.busy = input.readBoolean();
+        this.direction = input.readBoolean() ? Direction.UP : Direction.DOWN;
+        this.floorsLeft = input.readUnsignedShort();
+        this.runFloors = input.readUnsignedShort();
+        this.runTime = input.readLong();
+        this.targetFloor = input.readUnsignedShort();
+        this.freeTime = input.readLong();
+        this.stopAtTarget = input.readBoolean();
+        this.departureFloor = input.readUnsignedShort();
+        this.departureTime = input.readLong();
+        this.passengersLeft = input.readBoolean();
+        if (this.currentFloor < 1 || this.currentFloor > this.floorsNumber
+                || this.targetFloor < 1 || this.targetFloor > this.floorsNumber) {
+            throw new IOException("Incorrect floor of elevator in checkpoint");
+        }
+        this.passengers.clear();
+        this.load = 0;
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            Passenger passenger = Passenger.readState(input);
+            this.passengers.add(passenger);
+            this.load += passenger.getWeight();
+        }
+        this.collectiveControl.readState(input);
+        this.elevatorCalls.readState(input);
+        this.porchCalls.readState(input);
+        this.hallStops.readState(input);
+        this.arrival = this.getEventLoop().findEvent(this, EventType.ARRIVE);
+        this.doorsClose = this.getEventLoop().findEvent(this, EventType.DOORS_CLOSE);
+        this.publishState();
+    }
+
+    /**
+     * Set mode of moving
+     * @param expressRuns - true if whole moving is one event without reporting of passed floors,
+     *                    false if every floor is reached by own event
+     */
+    protected void setExpressRuns(boolean expressRuns) {
+        this.expressRuns = expressRuns;
+    }
+
+    /**
+     * Get mode of moving
+     * @return true if whole moving is one event, false if every floor is reached by own event
+     */
+    protected boolean getExpressRuns() {
+        return this.expressRuns;
+    }
+
+    /**
+     * Get floor which elevator is passing now, it is computed from time of moving
+     * Floors of run are passed evenly in time
+     * @return floor of elevator at current time of simulation
+     */
+    protected int getPosition() {
+        if (this.floorsLeft == 0 || this.runTime == 0) {
+            return this.getCurrentFloor();
+        }
+        long passed = Math.min((this.getEventLoop().getTime() - this.departureTime) * this.runFloors / this.runTime,
+                this.runFloors);
+        return this.direction == Direction.UP ? this.departureFloor + (int) passed : this.departureFloor - (int) passed;
+    }
+
+    /**
+     * Check elevator will stop on floor
+     * @param floor - floor to check
+     * @return true if floor is stop or call of elevator
+     */
+    protected boolean hasStop(int floor) {
+        return this.getCollectiveControl().isStop(floor) || this.getElevatorCalls().isSet(floor)
+                || this.getPorchCalls().isSet(floor);
+    }
+
+    /**
+     * Check doors of elevator are open
+     * @return true if doors are open and closing of doors is scheduled
+     */
+    protected boolean isDoorsOpen() {
+        return this.doorsClose != null;
+    }
+
+    /**
+     * Merge call from porch with call already served by elevator on the same floor
+     * Call on floor where doors are open keeps doors open longer instead of new cycle of doors
+     * @param floor - called floor
+     * @return true if call is merged, false if call must be dispatched
+     */
+    protected boolean absorbCall(int floor) {
+        if (this.isDoorsOpen() && floor == this.getCurrentFloor()) {
+            this.extendDwell();
+            return true;
+        }
+        return this.getPorchCalls().isSet(floor) || this.hallStops.isSet(floor);
+    }
+
     /**
      * Get state of elevator
      * @return state of elevator: true - busy, false - free
      */
-    protected Boolean getBusy() {
+    protected boolean getBusy() {
         return this.busy;
     }
 
     /**
-     * Return elevatorQueue - queue of inputs from elevator cabin
-     * @return elevatorQueue - queue of inputs from elevator cabin
+     * Return elevatorCalls - calls from elevator cabin
+     * @return elevatorCalls - calls from elevator cabin
      */
-    protected LinkedBlockingQueue getElevatorQueue() {
-        return elevatorQueue;
+    protected FloorCalls getElevatorCalls() {
+        return this.elevatorCalls;
     }
 
     /**
-     * Return porchQueue - queue of inputs from porch
-     * @return porchQueue - queue of inputs from porch
+     * Return porchCalls - calls from porch assigned to elevator
+     * @return porchCalls - calls from porch assigned to elevator
      */
-    protected LinkedBlockingQueue getPorchQueue() {
-        return porchQueue;
+    protected FloorCalls getPorchCalls() {
+        return this.porchCalls;
     }
 
     /**
@@ -139,15 +585,47 @@ class Elevator implements Runnable {
         return this.messenger;
     }
 
+    /**
+     * Return collective control which keeps stops of elevator
+     * @return collective control which keeps stops of elevator
+     */
+    protected CollectiveControl getCollectiveControl() {
+        return this.collectiveControl;
+    }
+
+    /**
+     * Set policy of serving stops
+     * @param policy - LOOK or SCAN
+     */
+    protected void setSchedulingPolicy(SchedulingPolicy policy) {
+        this.collectiveControl.setPolicy(policy);
+    }
+
+    /**
+     * Get policy of serving stops
+     * @return LOOK or SCAN
+     */
+    protected SchedulingPolicy getSchedulingPolicy() {
+        return this.collectiveControl.getPolicy();
+    }
+
+    /**
+     * Return event loop which drives elevator
+     * @return event loop which drives elevator
+     */
+    protected EventLoop getEventLoop() {
+        return this.eventLoop;
+    }
+
     /**
      * Entry point for start of work
-     * Periodical checking of queues and sending commands to elevator
+     * Checking of calls and execution of elevator's events, between them thread waits for next event or new input
      */
     public void run() {
         try {
             while (true) {
-                Thread.sleep(10);
                 this.checkQueueAndMoveElevator();
+                this.getEventLoop().awaitNext();
             }
         } catch (InterruptedException e) {
             this.getMessenger().printMessage("Ошибка в работе лифта");
@@ -155,47 +633,245 @@ class Elevator implements Runnable {
     }
 
     /**
-     * Checking of queues and sending commands to elevator
+     * Handle event of simulation addressed to elevator
+     * @param event - event to handle
+     */
+    public void handleEvent(SimulationEvent event) {
+        switch (event.getType()) {
+            case HALL_CALL:
+                this.metrics.hallCall(event.getFloor());
+                this.journal(JournalEvent.HALL_CALL, event.getFloor(), -1);
+                this.getPorchCalls().set(event.getFloor());
+                this.checkQueueAndMoveElevator();
+                break;
+            case CAR_CALL:
+                this.metrics.carCall(this.number, event.getFloor());
+                this.journal(JournalEvent.CAR_CALL, event.getFloor(), -1);
+                this.getElevatorCalls().set(event.getFloor());
+                this.checkQueueAndMoveElevator();
+                break;
+            case ARRIVE:
+                this.arrival = null;
+                this.arriveAtFloor();
+                break;
+            case DOORS_OPEN:
+                this.openCloseDoors();
+                break;
+            case DOORS_CLOSE:
+                this.doorsClose = null;
+                this.getMessenger().printMessage("Лифт закрыл двери\n");
+                this.journal(JournalEvent.DOORS_CLOSE, event.getFloor(), -1);
+                this.metrics.doorsClosed(this.number);
+                this.setBusy(false);
+                if (this.passengersLeft) {
+                    this.departWithoutPassengers(event.getFloor());
+                } else {
+                    this.checkQueueAndMoveElevator();
+                }
+                break;
+        }
+        this.publishState();
+    }
+
+    /**
+     * Checking of calls and sending commands to elevator
+     * Calls become stops of collective control, free elevator goes to next stop,
+     * nearest call from cabin chooses direction of free elevator without stops,
+     * moving elevator stops on called floor ahead if it still can brake before it,
+     * calls of floor where doors are open keep doors open longer,
+     * free elevator without stops goes to parking floor chosen by model of calls without opening of doors
      */
     protected void checkQueueAndMoveElevator() {
-        try {
-            if(!this.getBusy()){
-                if(!this.getElevatorQueue().isEmpty()){
-                    Integer target = (int)this.getElevatorQueue().take();
-                    this.move(target);
-                } else if(!this.getPorchQueue().isEmpty()){
-                    Integer target = (int)this.getPorchQueue().take();
-                    this.move(target);
+        if (this.isDoorsOpen()) {
+            boolean elevatorCall = this.getElevatorCalls().clear(this.getCurrentFloor());
+            boolean porchCall = this.getPorchCalls().clear(this.getCurrentFloor());
+            if (elevatorCall || porchCall) {
+                this.extendDwell();
+            }
+        }
+        if (this.getBusy() && this.floorsLeft > 0
+                && this.replanRun(this.runFloors - this.floorsLeft + (this.expressRuns ? 0 : 1))) {
+            this.getEventLoop().cancel(this.arrival);
+            this.scheduleArrival();
+        }
+        if(!this.getBusy()){
+            CollectiveControl control = this.getCollectiveControl();
+            int current = this.getCurrentFloor();
+            FloorCalls elevatorCalls = this.getElevatorCalls();
+            if (!control.hasStops() && !elevatorCalls.isEmpty() && !elevatorCalls.isSet(current)) {
+                int above = elevatorCalls.nextSetFloor(current);
+                int below = elevatorCalls.previousSetFloor(current);
+                boolean up = above > 0 && (below <= 0 || above - current <= current - below);
+                control.setDirection(up ? Direction.UP : Direction.DOWN);
+            }
+            int floor;
+            while ((floor = elevatorCalls.poll()) > 0) {
+                control.addStop(floor, current);
+            }
+            while ((floor = this.getPorchCalls().poll()) > 0) {
+                control.addStop(floor, current);
+                this.hallStops.set(floor);
+            }
+            int target = control.nextStop(current);
+            if (target > 0) {
+                this.stopAtTarget = control.isStop(target);
+                this.move(target);
+            } else if (this.parking != null) {
+                int parkingFloor = this.parking.selectFloor(this, this.getEventLoop().getTime());
+                if (parkingFloor != current) {
+                    this.stopAtTarget = false;
+                    this.move(parkingFloor);
                 }
             }
-        } catch (InterruptedException e) {
-            this.getMessenger().printMessage("Ошибка в работе лифта");
         }
+        this.publishState();
     }
 
     /**
-     * Move elevator to target floor, command to doors
+     * Start moving of elevator to target floor, doors will be opened on arrival
+     * Elevator stays busy until doors are closed
      * @param targetFloor - target floor
      */
-    protected void move(Integer targetFloor) {
+    protected void move(int targetFloor) {
         this.setBusy(true);
-        if (!targetFloor.equals(this.getCurrentFloor())){
-            this.elevatorMoving(this.getNumberOfFloorsToPass(targetFloor), this.getTimePerFloor());
+        this.targetFloor = targetFloor;
+        this.freeTime = this.getEventLoop().getTime() + this.getTravelTime(this.getCurrentFloor(), targetFloor)
+                + (this.stopAtTarget ? this.getDoorsTime()*1000 : 0);
+        if (targetFloor != this.getCurrentFloor()){
+            this.elevatorRun(this.getNumberOfFloorsToPass(targetFloor),
+                    this.getTravelTime(this.getCurrentFloor(), targetFloor));
+        } else {
+            this.getEventLoop().schedule(0, EventType.DOORS_OPEN, this.getCurrentFloor(), this);
         }
-        this.openCloseDoors();
-        this.setBusy(false);
     }
 
     /**
-     * Compute time needed for elevator to pass one floor (milliseconds)
+     * Compute time needed for elevator to move to next floor from stop to stop (milliseconds)
      * @return time needed for elevator to pass one floor (milliseconds)
      */
-    protected Long getTimePerFloor() {
-        Long result = 0L;
-        if(this.getElevatorSpeed() > 0){
-            result = (long)(this.getFloorHeight()/this.getElevatorSpeed() * 1000);
+    protected long getTimePerFloor() {
+        return this.getMotionProfile().getTravelTime(1);
+    }
+
+    /**
+     * Get time needed for elevator to move between floors from table of motion profile (milliseconds)
+     * @param fromFloor - floor where moving starts
+     * @param toFloor - floor where moving ends
+     * @return time needed for moving (milliseconds)
+     */
+    protected long getTravelTime(int fromFloor, int toFloor) {
+        return this.getMotionProfile().getTravelTime(this.getFloorsCountToMove(toFloor - fromFloor));
+    }
+
+    /**
+     * Check moving elevator can stop on floor before target of current run
+     * @param floor - floor to check
+     * @return true if floor is ahead of elevator and elevator still can brake before it
+     */
+    private boolean canStopOnRun(int floor) {
+        int floors = this.direction == Direction.UP ? floor - this.departureFloor : this.departureFloor - floor;
+        return floors > this.runFloors - this.floorsLeft && floors < this.runFloors
+                && floors >= this.getMotionProfile().getStoppingDistance(this.getEventLoop().getTime() - this.departureTime);
+    }
+
+    /**
+     * Find nearest called floor ahead of moving elevator where it can still stop before target of current run
+     * @param minimalFloors - minimal distance of stop from floor of departure (floors)
+     * @return called floor or -1 if elevator can not stop on called floor before target
+     */
+    private int findStopOnRun(int minimalFloors) {
+        int floors = Math.max(this.getMotionProfile().getStoppingDistance(this.getEventLoop().getTime()
+                - this.departureTime), minimalFloors);
+        if (this.direction == Direction.UP) {
+            int elevatorCall = this.getElevatorCalls().nextSetFloor(this.departureFloor + floors);
+            int porchCall = this.getPorchCalls().nextSetFloor(this.departureFloor + floors);
+            int stop = elevatorCall > 0 && porchCall > 0 ? Math.min(elevatorCall, porchCall) : Math.max(elevatorCall, porchCall);
+            return stop > 0 && stop < this.targetFloor ? stop : -1;
+        }
+        int from = this.departureFloor - floors;
+        if (from < 1) {
+            return -1;
+        }
+        int stop = Math.max(this.getElevatorCalls().previousSetFloor(from), this.getPorchCalls().previousSetFloor(from));
+        return stop > 0 && stop > this.targetFloor ? stop : -1;
+    }
+
+    /**
+     * Shorten current run to nearest called floor ahead where elevator can still stop
+     * Floor is reachable if it is not nearer than passed floors and braking point of run to it is not passed,
+     * call of this floor becomes stop of collective control, target of run stays stop and is served later
+     * @param minimalFloors - minimal distance of new target from floor of departure (floors)
+     * @return true if target of run was changed
+     */
+    protected boolean replanRun(int minimalFloors) {
+        int stop = this.findStopOnRun(minimalFloors);
+        if (stop <= 0) {
+            return false;
+        }
+        MotionProfile profile = this.getMotionProfile();
+        this.getElevatorCalls().clear(stop);
+        if (this.getPorchCalls().clear(stop)) {
+            this.hallStops.set(stop);
         }
-        return result;
+        this.getCollectiveControl().addStop(stop, this.departureFloor);
+        int passed = this.runFloors - this.floorsLeft;
+        this.targetFloor = stop;
+        this.stopAtTarget = true;
+        this.runFloors = this.getFloorsCountToMove(stop - this.departureFloor);
+        this.runTime = profile.getTravelTime(this.runFloors);
+        this.floorsLeft = this.runFloors - passed;
+        this.freeTime = this.departureTime + this.runTime + this.getDoorsTime()*1000;
+        return true;
+    }
+
+    /**
+     * Estimate time until elevator opens doors on given floor (milliseconds)
+     * Elevator finishes current moving and serves stops and calls in order of collective control
+     * until it passes given floor, plan of elevator is reused, so estimation is done by thread of group only
+     * Moving elevator stops on floor or on call ahead of it when it still can brake before this floor,
+     * the same as it replans current run, then target of run stays stop of plan
+     * @param floor - floor to arrive
+     * @return estimated time of arrival (milliseconds)
+     */
+    protected long estimateArrivalTime(int floor) {
+        long now = this.getEventLoop().getTime();
+        long doorsTime = this.getDoorsTime()*1000;
+        long time = 0;
+        int position = this.getCurrentFloor();
+        CollectiveControl plan = this.plan;
+        this.getCollectiveControl().copyTo(plan);
+        if (this.getBusy()) {
+            time = Math.max(this.freeTime - now, 0);
+            position = this.targetFloor;
+            if (this.floorsLeft > 0) {
+                int stop = this.findStopOnRun(this.runFloors - this.floorsLeft + (this.expressRuns ? 0 : 1));
+                if (this.canStopOnRun(floor) && (stop <= 0
+                        || this.getFloorsCountToMove(floor - this.departureFloor)
+                        <= this.getFloorsCountToMove(stop - this.departureFloor))) {
+                    return Math.max(this.departureTime + this.getTravelTime(this.departureFloor, floor) - now, 0);
+                }
+                if (stop > 0) {
+                    time = Math.max(this.departureTime + this.getTravelTime(this.departureFloor, stop) - now, 0)
+                            + doorsTime;
+                    position = stop;
+                }
+            }
+        }
+        plan.addStops(this.getElevatorCalls(), position);
+        plan.addStops(this.getPorchCalls(), position);
+        if (this.getBusy()) {
+            // stop and calls of floor where elevator opens doors are served by this stop
+            plan.removeStop(position);
+        }
+        int stop;
+        while ((stop = plan.nextStop(position)) > 0) {
+            if (Math.min(position, stop) <= floor && floor <= Math.max(position, stop)) {
+                break;
+            }
+            time += this.getTravelTime(position, stop) + (plan.removeStop(stop) ? doorsTime : 0);
+            position = stop;
+        }
+        return time + this.getTravelTime(position, floor);
     }
 
     /**
@@ -203,44 +879,102 @@ class Elevator implements Runnable {
      * @param targetFloor - floor number where elevator must be
      * @return difference between current and target position of elevator (it may be negative number)
      */
-    protected Integer getNumberOfFloorsToPass(Integer targetFloor){
+    protected int getNumberOfFloorsToPass(int targetFloor){
         return targetFloor - this.getCurrentFloor();
     }
 
     /**
-     * Moving of elevator, printing state of moving to console
+     * Start moving of elevator with the same time for every floor, printing state of moving to console
      * @param floors number of floors to pass (if negative - means elevator need to go down)
      * @param floorTime time needed for elevator to pass one floor (milliseconds)
      */
-    protected void elevatorMoving(Integer floors, Long floorTime) {
-        Messenger messenger = this.getMessenger();
-        String direction = this.getDirection(floors);
-        Integer floorsToMove = this.getFloorsCountToMove(floors);
-        try {
-            for (Integer fl = 0; fl < floorsToMove; fl++){
-                if(!(direction.equals("down") && fl == 0)){
-                    messenger.printFormattedMessage("Лифт проезжает %s этаж%n", this.getCurrentFloor().toString());
-                }
+    protected void elevatorMoving(int floors, long floorTime) {
+        this.elevatorRun(floors, floorTime * this.getFloorsCountToMove(floors));
+    }
 
-                Thread.sleep(floorTime);
-                this.changeCurrentFloor(direction);
+    /**
+     * Start run of elevator, printing state of moving to console
+     * Floors of run are reached by ARRIVE events evenly spread over time of run,
+     * in express mode target floor is reached by single ARRIVE event without printing of passed floors
+     * @param floors number of floors to pass (if negative - means elevator need to go down)
+     * @param runTime time of whole run from stop to stop (milliseconds)
+     */
+    protected void elevatorRun(int floors, long runTime) {
+        this.direction = this.getDirection(floors);
+        this.floorsLeft = this.getFloorsCountToMove(floors);
+        this.runFloors = this.floorsLeft;
+        this.runTime = runTime;
+        if (this.floorsLeft == 0) {
+            return;
+        }
+        this.getCollectiveControl().setDirection(this.direction);
+        this.departureFloor = this.getCurrentFloor();
+        this.departureTime = this.getEventLoop().getTime();
+        this.journal(JournalEvent.DEPART, this.departureFloor, -1);
+        if (!this.expressRuns && this.direction == Direction.UP) {
+            this.getMessenger().printFormattedMessage("Лифт проезжает %s этаж%n", this.getCurrentFloor());
+        }
+        this.scheduleArrival();
+    }
 
-                if (fl == (floorsToMove-1)){
-                    messenger.printFormattedMessage("Лифт на %s этаже%n", this.getCurrentFloor().toString());
-                }
+    /**
+     * Schedule ARRIVE event on next floor of run, in express mode - on target floor
+     */
+    private void scheduleArrival() {
+        long time = this.expressRuns ? this.departureTime + this.runTime
+                : this.getFloorArrivalTime(this.runFloors - this.floorsLeft + 1);
+        this.arrival = this.getEventLoop().scheduleAt(time, EventType.ARRIVE, this.getCurrentFloor(), this);
+    }
+
+    /**
+     * Get time when elevator reaches floor of current run
+     * @param passed - number of floors passed since departure
+     * @return time of simulation (milliseconds)
+     */
+    private long getFloorArrivalTime(int passed) {
+        return this.departureTime + this.runTime * passed / this.runFloors;
+    }
+
+    /**
+     * Reach next floor while moving, printing state of moving to console
+     * Every reached floor is point of decision to stop on called floor ahead
+     * On last floor of moving doors are opened, if elevator only turns around there - it becomes free
+     */
+    protected void arriveAtFloor() {
+        Messenger messenger = this.getMessenger();
+        if (this.expressRuns) {
+            this.setCurrentFloor(this.targetFloor);
+            this.floorsLeft = 0;
+        } else {
+            this.changeCurrentFloor(this.direction);
+            this.floorsLeft--;
+            if (this.floorsLeft > 0) {
+                this.replanRun(this.runFloors - this.floorsLeft);
+            }
+        }
+        this.journal(JournalEvent.ARRIVE, this.getCurrentFloor(), -1);
+        if (this.floorsLeft > 0) {
+            messenger.printFormattedMessage("Лифт проезжает %s этаж%n", this.getCurrentFloor());
+            this.scheduleArrival();
+        } else {
+            messenger.printFormattedMessage("Лифт на %s этаже%n", this.getCurrentFloor());
+            if (this.stopAtTarget) {
+                this.getEventLoop().schedule(0, EventType.DOORS_OPEN, this.getCurrentFloor(), this);
+            } else {
+                this.stopAtTarget = true;
+                this.setBusy(false);
+                this.checkQueueAndMoveElevator();
             }
-        } catch (InterruptedException e) {
-            messenger.printMessage("Ошибка при движении лифта");
         }
     }
 
     /**
      * Get direction for elevator moving
      * @param floorsNumber - number of floors to pass (if negative - means elevator need to go down)
-     * @return direction for elevator moving: up or down
+     * @return direction for elevator moving: UP or DOWN
      */
-    protected String getDirection(Integer floorsNumber) {
-        return floorsNumber > 0 ? "up" : "down";
+    protected Direction getDirection(int floorsNumber) {
+        return floorsNumber > 0 ? Direction.UP : Direction.DOWN;
     }
 
     /**
@@ -248,16 +982,16 @@ class Elevator implements Runnable {
      * @param floors number of floors to pass (if negative - means elevator need to go down)
      * @return count of floors to move (not negative number)
      */
-    protected Integer getFloorsCountToMove(Integer floors) {
+    protected int getFloorsCountToMove(int floors) {
         return floors > 0 ? floors : -floors;
     }
 
     /**
      * Change current position of elevator
-     * @param direction of moving - up or down
+     * @param direction of moving - UP or DOWN
      */
-    protected void changeCurrentFloor(String direction) {
-        if(direction.equals("up")){
+    protected void changeCurrentFloor(Direction direction) {
+        if(direction == Direction.UP){
             if (this.getCurrentFloor() < this.getFloorsNumber()){
                 this.setCurrentFloor(this.getCurrentFloor()+1);
             }
@@ -267,16 +1001,135 @@ class Elevator implements Runnable {
     }
 
     /**
-     * Prints doors moving to console
+     * Prints doors opening to console, doors are closed by DOORS_CLOSE event after doors time
+     * and time of boarding and alighting of passengers
+     * Stop and calls on current floor are served by opening of doors
      */
     protected void openCloseDoors() {
-        Messenger messenger = this.getMessenger();
-        try {
-            messenger.printMessage("Лифт открыл двери\n");
-            Thread.sleep(this.getDoorsTime()*1000);
-            messenger.printMessage("Лифт закрыл двери\n");
-        } catch (InterruptedException e) {
-            messenger.printMessage("Ошибка в ходе работы дверей лифта");
+        int floor = this.getCurrentFloor();
+        this.getCollectiveControl().removeStop(floor);
+        this.getElevatorCalls().clear(floor);
+        this.getPorchCalls().clear(floor);
+        this.hallStops.clear(floor);
+        this.getMessenger().printMessage("Лифт открыл двери\n");
+        this.metrics.doorsOpened(this.number, floor);
+        this.journal(JournalEvent.DOORS_OPEN, floor, -1);
+        long exchangeTime = (long) this.exchangePassengers() * this.getBoardingTime();
+        this.doorsClose = this.getEventLoop().schedule(this.getDoorsTime()*1000 + exchangeTime, EventType.DOORS_CLOSE,
+                floor, this);
+    }
+
+    /**
+     * Keep doors open after new call of current floor: doors close not earlier than doors time after call,
+     * passengers arrived on landing enter cabin and prolong dwell by their boarding time
+     */
+    private void extendDwell() {
+        this.metrics.callsServed(this.number, this.getCurrentFloor());
+        long exchangeTime = (long) this.exchangePassengers() * this.getBoardingTime();
+        long closeTime = Math.max(this.doorsClose.getTime(), this.getEventLoop().getTime() + this.getDoorsTime()*1000)
+                + exchangeTime;
+        if (closeTime != this.doorsClose.getTime()) {
+            this.getEventLoop().cancel(this.doorsClose);
+            this.doorsClose = this.getEventLoop().scheduleAt(closeTime, EventType.DOORS_CLOSE,
+                    this.getCurrentFloor(), this);
+            this.freeTime = closeTime;
+        }
+    }
+
+    /**
+     * Let passengers of current floor out of cabin and take waiting passengers in
+     * Passengers who left cabin return to pool of landings
+     * Passengers going in direction of next stop enter in order of arrival while capacity allows,
+     * elevator without passengers and stops takes passengers of any direction, preferring current direction
+     * Every entered passenger chooses floor in cabin, passengers left on landing call elevator again
+     * when doors are closed and elevator departs
+     * @return number of passengers who left or entered cabin
+     */
+    protected int exchangePassengers() {
+        int floor = this.getCurrentFloor();
+        long time = this.getEventLoop().getTime();
+        int alighted = 0;
+        for (int i = 0; i < this.passengers.size(); ) {
+            Passenger passenger = this.passengers.get(i);
+            if (passenger.getDestination() == floor) {
+                this.passengers.remove(i);
+                this.load -= passenger.getWeight();
+                this.metrics.passengerAlighted(time - passenger.getBoardingTime());
+                this.journal(JournalEvent.ALIGHT, floor, passenger.getId());
+                if (this.landings != null) {
+                    this.landings.recycle(passenger);
+                }
+                alighted++;
+            } else {
+                i++;
+            }
+        }
+        if (this.landings == null) {
+            return alighted;
+        }
+        CollectiveControl control = this.getCollectiveControl();
+        boolean up = control.getDirection() == Direction.UP;
+        int next = control.peekStop(floor);
+        if (!this.passengers.isEmpty() || next > 0) {
+            up = next <= 0 || next == floor ? up : next > floor;
+        } else if (!this.landings.hasPassengers(floor, up, this.number)) {
+            up = !up;
+        }
+        int boarded = this.board(floor, up, this.number, time) + this.board(floor, up, -1, time);
+        if (boarded > 0 || alighted > 0) {
+            this.getMessenger().printFormattedMessage("Вошло пассажиров - %s%n", boarded);
+            this.getMessenger().printFormattedMessage("Вышло пассажиров - %s%n", alighted);
+        }
+        if (this.landings.hasPassengers(floor, true, this.number)
+                || this.landings.hasPassengers(floor, false, this.number)) {
+            if (!this.passengersLeft) {
+                this.metrics.passengersLeft();
+            }
+            this.passengersLeft = true;
+        }
+        return alighted + boarded;
+    }
+
+    /**
+     * Leave passengers who did not enter cabin on landing: elevator does not reopen doors for them,
+     * they call elevators of group again after elevator departs
+     * @param floor - floor of landing
+     */
+    private void departWithoutPassengers(int floor) {
+        this.passengersLeft = false;
+        this.landings.release(floor, this.number);
+        this.getPorchCalls().clear(floor);
+        this.checkQueueAndMoveElevator();
+        if (this.hallCallHandler != null) {
+            this.getEventLoop().schedule(0, EventType.HALL_RECALL, floor, this.hallCallHandler);
+        }
+    }
+
+    /**
+     * Take waiting passengers from queue of landing into cabin while capacity allows,
+     * passenger heavier than capacity enters empty cabin alone
+     * @param floor - floor of landing
+     * @param up - direction of passengers
+     * @param elevator - index of elevator assigned to passengers or -1 for passengers taking any elevator
+     * @param time - current time of simulation (milliseconds)
+     * @return number of entered passengers
+     */
+    private int board(int floor, boolean up, int elevator, long time) {
+        int boarded = 0;
+        Passenger passenger;
+        while ((passenger = this.landings.peek(floor, up, elevator)) != null
+                && (this.load + passenger.getWeight() <= this.getCapacity() || this.passengers.isEmpty())) {
+            this.landings.poll(floor, up, elevator);
+            passenger.setBoardingTime(time);
+            this.passengers.add(passenger);
+            this.load += passenger.getWeight();
+            this.metrics.passengerBoarded(time - passenger.getArrivalTime());
+            this.metrics.carCall(this.number, passenger.getDestination());
+            this.journal(JournalEvent.BOARD, floor, passenger.getId());
+            this.journal(JournalEvent.CAR_CALL, passenger.getDestination(), passenger.getId());
+            this.getElevatorCalls().set(passenger.getDestination());
+            boarded++;
         }
+        return boarded;
     }
 }
\ No newline at end of file
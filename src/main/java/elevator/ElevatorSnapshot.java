@@ -0,0 +1,144 @@
+package elevator;
+
+/**
+ * Consistent copy of state of elevator made by reader of ElevatorState
+ * Snapshot belongs to reader, it may be filled again to read state without memory allocation
+ */
+class ElevatorSnapshot {
+
+    private final long[] stops;
+    private int floor = 1;
+    private int targetFloor = 1;
+    private int flags = ElevatorState.UP;
+    private long load = 0;
+    private int passengersCount = 0;
+    private long version = 0;
+
+    /**
+     * Create empty snapshot
+     * @param stopsWords - number of words of stops, every word holds 64 floors
+     */
+    ElevatorSnapshot(int stopsWords) {
+        this.stops = new long[stopsWords];
+    }
+
+    /**
+     * Set fields of snapshot read from state
+     * @param floor - current floor
+     * @param targetFloor - target of run or current floor
+     * @param flags - flags of state
+     * @param load - weight of passengers in cabin (kilograms)
+     * @param passengersCount - number of passengers in cabin
+     * @param version - number of updates of state
+     */
+    protected void set(int floor, int targetFloor, int flags, long load, int passengersCount, long version) {
+        this.floor = floor;
+        this.targetFloor = targetFloor;
+        this.flags = flags;
+        this.load = load;
+        this.passengersCount = passengersCount;
+        this.version = version;
+    }
+
+    /**
+     * Return words of stops, they are filled by reader of state
+     * @return words of stops
+     */
+    protected long[] getStops() {
+        return this.stops;
+    }
+
+    /**
+     * Return current floor of elevator
+     * @return current floor
+     */
+    protected int getFloor() {
+        return this.floor;
+    }
+
+    /**
+     * Return target of run, for free elevator it is current floor
+     * @return target floor
+     */
+    protected int getTargetFloor() {
+        return this.targetFloor;
+    }
+
+    /**
+     * Check elevator is busy with run or open doors
+     * @return true if elevator is busy
+     */
+    protected boolean isBusy() {
+        return (this.flags & ElevatorState.BUSY) != 0;
+    }
+
+    /**
+     * Check direction of elevator is up
+     * @return true for direction up, false for down
+     */
+    protected boolean isGoingUp() {
+        return (this.flags & ElevatorState.UP) != 0;
+    }
+
+    /**
+     * Check doors of elevator are open
+     * @return true if doors are open
+     */
+    protected boolean isDoorsOpen() {
+        return (this.flags & ElevatorState.DOORS_OPEN) != 0;
+    }
+
+    /**
+     * Check elevator is moving between floors
+     * @return true if elevator is in run
+     */
+    protected boolean isMoving() {
+        return (this.flags & ElevatorState.MOVING) != 0;
+    }
+
+    /**
+     * Return weight of passengers in cabin (kilograms)
+     * @return weight of passengers
+     */
+    protected long getLoad() {
+        return this.load;
+    }
+
+    /**
+     * Return number of passengers in cabin
+     * @return number of passengers
+     */
+    protected int getPassengersCount() {
+        return this.passengersCount;
+    }
+
+    /**
+     * Return number of updates of state before snapshot, equal versions mean equal snapshots
+     * @return version of state
+     */
+    protected long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Check floor is stop of elevator
+     * @param floor - floor to check
+     * @return true if floor is called in elevator or assigned to it
+     */
+    protected boolean isStop(int floor) {
+        int index = floor >>> 6;
+        return floor >= 0 && index < this.stops.length && (this.stops[index] & 1L << floor) != 0;
+    }
+
+    /**
+     * Count stops of elevator
+     * @return number of called floors
+     */
+    protected int getStopsCount() {
+        int count = 0;
+        for (long word : this.stops) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,132 @@
+package elevator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * State of elevator published by thread of elevator for readers on other threads without locks
+ * Publishing makes sequence odd, writes fields and makes sequence even again, reader copies fields between
+ * two reads of sequence and repeats copying if sequence was odd or changed, so it never sees half of update.
+ * Only thread of elevator publishes state, it does not allocate memory and never waits for readers.
+ * Stops are called floors of elevator: stops of collective control, calls from cabin and assigned calls from porch
+ */
+class ElevatorState {
+
+    static final int BUSY = 1;
+    static final int UP = 2;
+    static final int DOORS_OPEN = 4;
+    static final int MOVING = 8;
+
+    private static final int FLOOR = 0;
+    private static final int TARGET = 1;
+    private static final int FLAGS = 2;
+    private static final int LOAD = 3;
+    private static final int PASSENGERS = 4;
+    private static final int STOPS = 5;
+
+    private final AtomicLongArray fields;
+    private final int stopsWords;
+    private volatile long sequence = 0;
+
+    /**
+     * Create state of elevator standing on first floor
+     * @param floorsCapacity - maximal floor number
+     */
+    ElevatorState(int floorsCapacity) {
+        this.stopsWords = (floorsCapacity >>> 6) + 1;
+        this.fields = new AtomicLongArray(STOPS + this.stopsWords);
+        this.fields.set(FLOOR, 1);
+        this.fields.set(TARGET, 1);
+        this.fields.set(FLAGS, UP);
+    }
+
+    /**
+     * Return number of words of stops, every word holds 64 floors
+     * @return number of words of stops
+     */
+    protected int getStopsWords() {
+        return this.stopsWords;
+    }
+
+    /**
+     * Start update of state, readers wait until update is finished
+     */
+    protected void beginUpdate() {
+        this.sequence = this.sequence + 1;
+    }
+
+    /**
+     * Finish update of state and make it visible to readers
+     */
+    protected void endUpdate() {
+        this.sequence = this.sequence + 1;
+    }
+
+    /**
+     * Set position of elevator, must be called between beginUpdate and endUpdate
+     * @param floor - current floor
+     * @param targetFloor - target of run or current floor
+     * @param flags - flags BUSY, UP, DOORS_OPEN and MOVING
+     */
+    protected void setPosition(int floor, int targetFloor, int flags) {
+        this.fields.set(FLOOR, floor);
+        this.fields.set(TARGET, targetFloor);
+        this.fields.set(FLAGS, flags);
+    }
+
+    /**
+     * Set load of cabin, must be called between beginUpdate and endUpdate
+     * @param load - weight of passengers in cabin (kilograms)
+     * @param passengers - number of passengers in cabin
+     */
+    protected void setLoad(long load, int passengers) {
+        this.fields.set(LOAD, load);
+        this.fields.set(PASSENGERS, passengers);
+    }
+
+    /**
+     * Set word of stops, must be called between beginUpdate and endUpdate
+     * @param index - index of word, floor f is bit f % 64 of word f / 64
+     * @param stops - bits of called floors
+     */
+    protected void setStops(int index, long stops) {
+        this.fields.set(STOPS + index, stops);
+    }
+
+    /**
+     * Copy consistent state of elevator to snapshot, waits only while update is not finished
+     * @param snapshot - snapshot to fill, it may be reused by reader
+     */
+    protected void read(ElevatorSnapshot snapshot) {
+        long[] stops = snapshot.getStops();
+        int words = Math.min(stops.length, this.stopsWords);
+        while (true) {
+            long before = this.sequence;
+            if ((before & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            long floor = this.fields.get(FLOOR);
+            long targetFloor = this.fields.get(TARGET);
+            long flags = this.fields.get(FLAGS);
+            long load = this.fields.get(LOAD);
+            long passengers = this.fields.get(PASSENGERS);
+            for (int i = 0; i < words; i++) {
+                stops[i] = this.fields.get(STOPS + i);
+            }
+            if (this.sequence == before) {
+                snapshot.set((int) floor, (int) targetFloor, (int) flags, load, (int) passengers, before >>> 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return new consistent snapshot of elevator
+     * @return snapshot of state
+     */
+    protected ElevatorSnapshot getSnapshot() {
+        ElevatorSnapshot snapshot = new ElevatorSnapshot(this.stopsWords);
+        this.read(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,73 @@
+package elevator;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class to print output of elevators through output of encoded messages
+ * Prefix of messenger is encoded once, messages are batched by output shared with copies of messenger
+ */
+class EncodedMessenger extends Messenger {
+
+    private final EncodedOutput output;
+    private byte[] encodedPrefix = new byte[0];
+
+    EncodedMessenger(EncodedOutput output) {
+        this.output = output;
+    }
+
+    /**
+     * Return output of messages shared by messengers
+     * @return output of messages
+     */
+    protected EncodedOutput getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Set and encode prefix for messages
+     * @param prefix - text printed before every message
+     */
+    @Override
+    public void setPrefix(String prefix) {
+        super.setPrefix(prefix);
+        this.encodedPrefix = prefix.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create messenger with the same output of messages
+     * @return new instance of messenger
+     */
+    @Override
+    public Messenger copy() {
+        return new EncodedMessenger(this.output);
+    }
+
+    /**
+     * Write message to output
+     * @param message message to print
+     */
+    @Override
+    public void printMessage(String message){
+        this.output.write(this.encodedPrefix, message);
+    }
+
+    /**
+     * Write formatted message to output
+     * @param template for formatting message
+     * @param value value for message
+     */
+    @Override
+    public void printFormattedMessage(String template, String value){
+        this.output.write(this.encodedPrefix, template, value);
+    }
+
+    /**
+     * Write formatted message with number to output, digits of number are written without string
+     * @param template for formatting message
+     * @param value number for message, floor or count of passengers
+     */
+    @Override
+    public void printFormattedMessage(String template, int value){
+        this.output.write(this.encodedPrefix, template, value);
+    }
+}
@@ -0,0 +1,384 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Output of messages as bytes encoded once
+ * Every message and template of message is encoded to UTF-8 on first use and kept, number for template is written
+ * as digits directly to output buffer, so message is copied to buffer without formatting and strings.
+ * Messages are collected in chunks of direct buffers and all chunks are written by one gathering write
+ * when they are full or when output is flushed, message longer than chunk is written by its parts without copying.
+ * Templates support only %s for value, %n and %%, other templates are formatted by String.format
+ * Output is shared by messengers of elevators, errors of writing stop output instead of stopping simulation
+ */
+class EncodedOutput implements Closeable {
+
+    /**
+     * Size of one chunk of batch (bytes)
+     */
+    static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Number of chunks written by one gathering write
+     */
+    static final int CHUNKS = 16;
+
+    /**
+     * Maximal number of kept encoded messages and templates, other ones are encoded on every use
+     */
+    private static final int MAX_ENCODED = 1024;
+
+    private final GatheringByteChannel channel;
+    private final boolean batched;
+    private final ByteBuffer[] chunks = new ByteBuffer[CHUNKS];
+    private final ByteBuffer[] parts = new ByteBuffer[4];
+    private final Map<String, byte[]> messages = new HashMap<>();
+    private final Map<String, EncodedTemplate> templates = new HashMap<>();
+    private final byte[] digits = new byte[11];
+    private int chunk = 0;
+    private long count = 0;
+    private long writtenBytes = 0;
+    private boolean failed = false;
+
+    /**
+     * Template encoded to bytes before and after value, template without value has no bytes after value
+     */
+    private static class EncodedTemplate {
+        private final byte[] head;
+        private final byte[] tail;
+
+        EncodedTemplate(byte[] head, byte[] tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+    }
+
+    /**
+     * Create output to channel
+     * @param channel - channel of console or file
+     * @param batched - true for writing when chunks are full or flushed, false for writing every message at once
+     */
+    EncodedOutput(GatheringByteChannel channel, boolean batched) {
+        this.channel = channel;
+        this.batched = batched;
+        for (int i = 0; i < CHUNKS; i++) {
+            this.chunks[i] = ByteBuffer.allocateDirect(CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Create output to standard output of process, standard output is not closed by output
+     * @param batched - true for writing when chunks are full or flushed, false for writing every message at once
+     * @return output to console
+     */
+    static EncodedOutput openConsole(boolean batched) {
+        return new EncodedOutput(new FileOutputStream(FileDescriptor.out).getChannel(), batched);
+    }
+
+    /**
+     * Create output to file, existing file is rewritten
+     * @param path - path to file
+     * @param batched - true for writing when chunks are full or flushed, false for writing every message at once
+     * @return output to file
+     * @throws IOException if file can not be opened
+     */
+    static EncodedOutput openFile(Path path, boolean batched) throws IOException {
+        return new EncodedOutput(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), batched);
+    }
+
+    /**
+     * Return number of written messages, including messages waiting in chunks
+     * @return number of messages
+     */
+    protected synchronized long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Return number of bytes written to channel
+     * @return number of bytes
+     */
+    protected synchronized long getWrittenBytes() {
+        return this.writtenBytes;
+    }
+
+    /**
+     * Check output was stopped by error of writing
+     * @return true if some messages were not written
+     */
+    protected synchronized boolean isFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Write plain message
+     * @param prefix - encoded prefix of message
+     * @param message - message to write
+     */
+    protected synchronized void write(byte[] prefix, String message) {
+        if (this.failed) {
+            return;
+        }
+        byte[] encoded = this.messages.get(message);
+        if (encoded == null) {
+            encoded = message.getBytes(StandardCharsets.UTF_8);
+            if (this.messages.size() < MAX_ENCODED) {
+                this.messages.put(message, encoded);
+            }
+        }
+        this.writeBytes(prefix, encoded);
+    }
+
+    /**
+     * Write message formatted by template with text value
+     * @param prefix - encoded prefix of message
+     * @param template - template of message
+     * @param value - value for template
+     */
+    protected synchronized void write(byte[] prefix, String template, String value) {
+        if (this.failed) {
+            return;
+        }
+        EncodedTemplate encoded = this.getTemplate(template);
+        if (encoded == null) {
+            this.writeBytes(prefix, String.format(template, value).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        byte[] bytes = encoded.tail == null ? null : String.valueOf(value).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = this.reserve(prefix.length + encoded.head.length
+                + (bytes == null ? 0 : bytes.length + encoded.tail.length));
+        if (buffer == null) {
+            this.writeParts(prefix, encoded.head, bytes, encoded.tail);
+        } else {
+            buffer.put(prefix).put(encoded.head);
+            if (bytes != null) {
+                buffer.put(bytes).put(encoded.tail);
+            }
+        }
+        this.finishMessage();
+    }
+
+    /**
+     * Write message formatted by template with number, digits of number are written without string
+     * @param prefix - encoded prefix of message
+     * @param template - template of message
+     * @param value - number for template
+     */
+    protected synchronized void write(byte[] prefix, String template, int value) {
+        if (this.failed) {
+            return;
+        }
+        EncodedTemplate encoded = this.getTemplate(template);
+        if (encoded == null) {
+            this.writeBytes(prefix, String.format(template, Integer.toString(value)).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        int tail = encoded.tail == null ? 0 : this.digits.length + encoded.tail.length;
+        ByteBuffer buffer = this.reserve(prefix.length + encoded.head.length + tail);
+        if (buffer == null) {
+            this.write(prefix, template, Integer.toString(value));
+            return;
+        }
+        buffer.put(prefix).put(encoded.head);
+        if (encoded.tail != null) {
+            this.putNumber(buffer, value);
+            buffer.put(encoded.tail);
+        }
+        this.finishMessage();
+    }
+
+    /**
+     * Write all collected messages to channel
+     */
+    protected synchronized void flush() {
+        if (!this.failed && this.chunks[0].position() > 0) {
+            this.writeChunks();
+        }
+    }
+
+    /**
+     * Write all collected messages and close channel
+     * @throws IOException if channel can not be closed
+     */
+    public synchronized void close() throws IOException {
+        this.flush();
+        this.channel.close();
+    }
+
+    /**
+     * Find encoded template or encode it
+     * @param template - template of message
+     * @return encoded template or null if template has other placeholders than %s, %n and %%
+     */
+    private EncodedTemplate getTemplate(String template) {
+        EncodedTemplate encoded = this.templates.get(template);
+        if (encoded == null && !this.templates.containsKey(template)) {
+            encoded = encodeTemplate(template);
+            if (this.templates.size() < MAX_ENCODED) {
+                this.templates.put(template, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Encode template to bytes before and after its value
+     * @param template - template of message
+     * @return encoded template or null if template has other placeholders than %s, %n and %% or more than one %s
+     */
+    private static EncodedTemplate encodeTemplate(String template) {
+        StringBuilder head = new StringBuilder();
+        StringBuilder tail = null;
+        StringBuilder text = head;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c != '%') {
+                text.append(c);
+                continue;
+            }
+            char next = i + 1 < template.length() ? template.charAt(++i) : 0;
+            if (next == 'n') {
+                text.append(System.lineSeparator());
+            } else if (next == '%') {
+                text.append('%');
+            } else if (next == 's' && tail == null) {
+                tail = new StringBuilder();
+                text = tail;
+            } else {
+                return null;
+            }
+        }
+        return new EncodedTemplate(head.toString().getBytes(StandardCharsets.UTF_8),
+                tail == null ? null : tail.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Find place for message in chunks, full chunks are written when there are no free chunks
+     * @param length - maximal length of message (bytes)
+     * @return chunk having place for message or null if message is longer than chunk
+     */
+    private ByteBuffer reserve(int length) {
+        ByteBuffer buffer = this.chunks[this.chunk];
+        if (buffer.remaining() >= length) {
+            return buffer;
+        }
+        if (length > CHUNK_SIZE) {
+            return null;
+        }
+        if (this.chunk + 1 < CHUNKS) {
+            this.chunk++;
+        } else {
+            this.writeChunks();
+        }
+        return this.chunks[this.chunk];
+    }
+
+    /**
+     * Write encoded message
+     * @param prefix - encoded prefix of message
+     * @param message - bytes of message
+     */
+    private void writeBytes(byte[] prefix, byte[] message) {
+        ByteBuffer buffer = this.reserve(prefix.length + message.length);
+        if (buffer == null) {
+            this.writeParts(prefix, message, null, null);
+        } else {
+            buffer.put(prefix).put(message);
+        }
+        this.finishMessage();
+    }
+
+    /**
+     * Count written message and write it at once if output is not batched
+     */
+    private void finishMessage() {
+        this.count++;
+        if (!this.batched) {
+            this.flush();
+        }
+    }
+
+    /**
+     * Write digits of number to buffer
+     * @param buffer - buffer of message
+     * @param value - number to write
+     */
+    private void putNumber(ByteBuffer buffer, int value) {
+        long number = Math.abs((long) value);
+        int position = this.digits.length;
+        do {
+            this.digits[--position] = (byte) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        if (value < 0) {
+            this.digits[--position] = '-';
+        }
+        buffer.put(this.digits, position, this.digits.length - position);
+    }
+
+    /**
+     * Write used chunks to channel by gathering write and clear them
+     */
+    private void writeChunks() {
+        int used = this.chunk + 1;
+        for (int i = 0; i < used; i++) {
+            this.chunks[i].flip();
+        }
+        this.gather(this.chunks, used);
+        for (int i = 0; i < used; i++) {
+            this.chunks[i].clear();
+        }
+        this.chunk = 0;
+    }
+
+    /**
+     * Write collected messages and then parts of long message by one gathering write
+     * @param prefix - encoded prefix of message
+     * @param head - bytes of message before value
+     * @param value - bytes of value or null
+     * @param tail - bytes of message after value or null
+     */
+    private void writeParts(byte[] prefix, byte[] head, byte[] value, byte[] tail) {
+        this.flush();
+        int used = 0;
+        for (byte[] part : new byte[][]{prefix, head, value, tail}) {
+            if (part != null && part.length > 0) {
+                this.parts[used++] = ByteBuffer.wrap(part);
+            }
+        }
+        this.gather(this.parts, used);
+        for (int i = 0; i < used; i++) {
+            this.parts[i] = null;
+        }
+    }
+
+    /**
+     * Write buffers to channel until all of them are written, error of writing stops output
+     * @param buffers - buffers to write
+     * @param used - number of buffers from the beginning of array
+     */
+    private void gather(ByteBuffer[] buffers, int used) {
+        if (this.failed || used == 0) {
+            return;
+        }
+        try {
+            while (buffers[used - 1].hasRemaining()) {
+                this.writtenBytes += this.channel.write(buffers, 0, used);
+            }
+        } catch (IOException e) {
+            this.failed = true;
+        }
+    }
+}
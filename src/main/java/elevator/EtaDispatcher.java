@@ -0,0 +1,29 @@
+package elevator;
+
+import java.util.List;
+
+/**
+ * Dispatcher which assigns call from porch to elevator with lowest estimated time of arrival
+ */
+class EtaDispatcher implements Dispatcher {
+
+    /**
+     * Select elevator with lowest estimated time of arrival, first elevator wins on equal time
+     * @param elevators - elevators of group
+     * @param floor - floor of call
+     * @return elevator to serve call
+     */
+    public Elevator selectElevator(List<Elevator> elevators, int floor) {
+        Elevator selected = null;
+        long bestTime = Long.MAX_VALUE;
+        for (int i = 0; i < elevators.size(); i++) {
+            Elevator elevator = elevators.get(i);
+            long time = elevator.estimateArrivalTime(floor);
+            if (time < bestTime) {
+                bestTime = time;
+                selected = elevator;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,13 @@
+package elevator;
+
+/**
+ * Receiver of events from EventLoop
+ */
+interface EventHandler {
+    /**
+     * Handle event which time has come
+     * Event is reused by event loop after handling, so it must not be kept
+     * @param event - event to handle
+     */
+    void handleEvent(SimulationEvent event);
+}
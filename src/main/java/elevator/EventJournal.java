@@ -0,0 +1,164 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary journal of simulation events
+ * Journal is directory of segment files journal-000000.bin, journal-000001.bin, ... of fixed size,
+ * every segment is mapped to memory, so record is appended by few writes to memory without system calls.
+ * When segment is full, next segment is created. Unused tail of last segment is cut when journal is closed,
+ * after crash it stays filled with zeros, reader stops at first record with zero type.
+ * All numbers are little-endian:
+ * header of segment - magic number "ELJR" (int), version (int), size of record (int), number of segment (int)
+ * record - time of simulation in milliseconds (long), id of passenger or -1 (long), floor (int),
+ * index of elevator or -1 for group of elevators (short), code of JournalEvent (byte), reserved (byte)
+ * Journal is written by thread of event loop, errors of writing stop journal instead of stopping simulation
+ */
+class EventJournal implements Closeable, EventRecorder {
+
+    static final int MAGIC = 0x454C4A52;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 24;
+
+    /**
+     * Default size of segment (bytes)
+     */
+    static final long SEGMENT_SIZE = 64L << 20;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final EventLoop eventLoop;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segment = -1;
+    private long count = 0;
+    private boolean failed = false;
+
+    /**
+     * Create journal in directory, directory is created if it does not exist
+     * @param directory - directory of segment files
+     * @param segmentSize - size of segment file (bytes), it is rounded down to whole records
+     * @param eventLoop - event loop giving time of records
+     * @throws IOException if first segment can not be created
+     */
+    EventJournal(Path directory, long segmentSize, EventLoop eventLoop) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Incorrect size of segment");
+        }
+        this.directory = directory;
+        this.segmentSize = HEADER_SIZE + (segmentSize - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        this.eventLoop = eventLoop;
+        Files.createDirectories(directory);
+        this.roll();
+    }
+
+    /**
+     * Get path to segment file
+     * @param directory - directory of journal
+     * @param segment - number of segment, starting from 0
+     * @return path to segment file
+     */
+    static Path getSegmentPath(Path directory, int segment) {
+        return directory.resolve(String.format("journal-%06d.bin", segment));
+    }
+
+    /**
+     * Return number of appended records
+     * @return number of records
+     */
+    protected long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Return number of created segments
+     * @return number of segments
+     */
+    protected int getSegmentsCount() {
+        return this.segment + 1;
+    }
+
+    /**
+     * Check journal was stopped by error of writing
+     * @return true if some records were not written
+     */
+    protected boolean isFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Append record with current time of simulation
+     * @param elevator - index of elevator or -1 for group of elevators
+     * @param type - type of record
+     * @param floor - floor of event
+     * @param passenger - id of passenger or -1
+     */
+    public void append(int elevator, JournalEvent type, int floor, long passenger) {
+        if (this.failed) {
+            return;
+        }
+        if (this.buffer.remaining() < RECORD_SIZE) {
+            try {
+                this.roll();
+            } catch (IOException e) {
+                this.failed = true;
+                return;
+            }
+        }
+        this.buffer.putLong(this.eventLoop.getTime());
+        this.buffer.putLong(passenger);
+        this.buffer.putInt(floor);
+        this.buffer.putShort((short) elevator);
+        this.buffer.put((byte) type.getCode());
+        this.buffer.put((byte) 0);
+        this.count++;
+    }
+
+    /**
+     * Close full segment and create next one
+     * @throws IOException if segment can not be created
+     */
+    private void roll() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+            this.channel = null;
+        }
+        this.segment++;
+        this.channel = FileChannel.open(getSegmentPath(this.directory, this.segment), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.putInt(MAGIC);
+        this.buffer.putInt(VERSION);
+        this.buffer.putInt(RECORD_SIZE);
+        this.buffer.putInt(this.segment);
+    }
+
+    /**
+     * Flush records to disk and cut unused tail of last segment,
+     * if file system does not allow to cut mapped file, tail of zeros stays in segment
+     * @throws IOException if segment can not be written
+     */
+    public void close() throws IOException {
+        if (this.channel == null) {
+            return;
+        }
+        this.buffer.force();
+        try {
+            this.channel.truncate(this.buffer.position());
+        } catch (IOException e) {
+            // reader stops at first record with zero type
+        } finally {
+            this.channel.close();
+            this.channel = null;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Discrete-event core of simulation with virtual clock
+ * In headless mode events are executed one by one without waiting,
+ * in paced mode execution of every event waits for its time on the wall clock, which can be sped up by pace
+ * Thread driving elevators waits for next event or for new input on single call signal
+ * Cars and passengers are not threads: every wait of agent (doors, travel, waiting for car) is scheduled event
+ * or place in queue, so one thread runs any number of concurrent agents parked between their events
+ * Executed and cancelled events are kept in pool and filled again by next scheduling,
+ * so steady-state simulation does not allocate events
+ */
+class EventLoop {
+
+    private final PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+    private final ArrayDeque<SimulationEvent> pool = new ArrayDeque<>();
+    private final CallSignal callSignal = new CallSignal();
+    private final boolean paced;
+    private final double pace;
+    private final long wallStart = System.nanoTime();
+    private long time = 0;
+    private long sequence = 0;
+    private long executedCount = 0;
+
+    /**
+     * Create event loop
+     * @param paced - true for waiting wall clock (interactive mode), false for running at full speed (headless mode)
+     */
+    EventLoop(boolean paced) {
+        this(paced, 1);
+    }
+
+    /**
+     * Create event loop
+     * @param paced - true for waiting wall clock (interactive mode), false for running at full speed (headless mode)
+     * @param pace - milliseconds of simulation per millisecond of wall clock in paced mode, 1 for real time
+     */
+    EventLoop(boolean paced, double pace) {
+        if (!(pace > 0)) {
+            throw new IllegalArgumentException("Pace must be positive");
+        }
+        this.paced = paced;
+        this.pace = pace;
+    }
+
+    /**
+     * Return mode of event loop
+     * @return true - paced to wall clock, false - headless
+     */
+    protected boolean isPaced() {
+        return this.paced;
+    }
+
+    /**
+     * Return speed of paced mode
+     * @return milliseconds of simulation per millisecond of wall clock
+     */
+    protected double getPace() {
+        return this.pace;
+    }
+
+    /**
+     * Return signal which wakes up event loop on new input
+     * @return signal about new inputs
+     */
+    protected CallSignal getCallSignal() {
+        return this.callSignal;
+    }
+
+    /**
+     * Get current time of simulation (milliseconds)
+     * @return current time of simulation (milliseconds)
+     */
+    protected long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Get current time of simulation, which can be read from any thread (milliseconds)
+     * In paced mode it is time of wall clock, in headless mode - time of last executed event
+     * @return current time of simulation (milliseconds)
+     */
+    protected long getCurrentTime() {
+        return this.paced ? this.getWallTime() : this.time;
+    }
+
+    /**
+     * Check there are events to execute
+     * @return true if there are scheduled events
+     */
+    protected boolean hasEvents() {
+        return !this.events.isEmpty();
+    }
+
+    /**
+     * Return number of scheduled events
+     * @return number of scheduled events
+     */
+    protected int getEventsCount() {
+        return this.events.size();
+    }
+
+    /**
+     * Return time of nearest scheduled event (milliseconds)
+     * @return time of nearest event or Long.MAX_VALUE if there are no events
+     */
+    protected long getNextEventTime() {
+        return this.events.isEmpty() ? Long.MAX_VALUE : this.events.peek().getTime();
+    }
+
+    /**
+     * Return number of executed events
+     * @return number of executed events
+     */
+    protected long getExecutedCount() {
+        return this.executedCount;
+    }
+
+    /**
+     * Schedule event after delay from current time of simulation
+     * @param delay - delay of event (milliseconds)
+     * @param type - type of event
+     * @param floor - floor of event
+     * @param handler - receiver of event
+     * @return scheduled event
+     */
+    protected SimulationEvent schedule(long delay, EventType type, int floor, EventHandler handler) {
+        return this.scheduleAt(this.time + Math.max(delay, 0), type, floor, handler);
+    }
+
+    /**
+     * Schedule event at given time of simulation, events from the past are executed at current time
+     * Event is taken from pool of executed events if it is not empty
+     * @param time - time of event (milliseconds)
+     * @param type - type of event
+     * @param floor - floor of event
+     * @param handler - receiver of event
+     * @return scheduled event, valid until it is executed or cancelled
+     */
+    protected SimulationEvent scheduleAt(long time, EventType type, int floor, EventHandler handler) {
+        SimulationEvent event = this.pool.pollLast();
+        if (event == null) {
+            event = new SimulationEvent(Math.max(time, this.time), this.sequence++, type, floor, handler);
+        } else {
+            event.set(Math.max(time, this.time), this.sequence++, type, floor, handler);
+        }
+        this.events.add(event);
+        return event;
+    }
+
+    /**
+     * Remove scheduled event, so it is not executed, removed event returns to pool
+     * @param event - event to remove
+     * @return true if event was scheduled and not executed yet
+     */
+    protected boolean cancel(SimulationEvent event) {
+        if (event != null && this.events.remove(event)) {
+            this.pool.addLast(event);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find scheduled event of receiver by type
+     * @param handler - receiver of event
+     * @param type - type of event
+     * @return nearest event or null if there is no such event
+     */
+    protected SimulationEvent findEvent(EventHandler handler, EventType type) {
+        SimulationEvent found = null;
+        for (SimulationEvent event : this.events) {
+            if (event.getHandler() == handler && event.getType() == type
+                    && (found == null || event.compareTo(found) < 0)) {
+                found = event;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Write clock and scheduled events to checkpoint
+     * Receivers of events can not be written, so they are written as codes
+     * @param output - output of checkpoint
+     * @param codes - function returning code of receiver
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output, ToIntFunction<EventHandler> codes) throws IOException {
+        output.writeLong(this.time);
+        output.writeLong(this.sequence);
+        output.writeLong(this.executedCount);
+        output.writeInt(this.events.size());
+        for (SimulationEvent event : this.events) {
+            output.writeLong(event.getTime());
+            output.writeLong(event.getSequence());
+            output.writeByte(event.getType().ordinal());
+            output.writeInt(event.getFloor());
+            output.writeInt(codes.applyAsInt(event.getHandler()));
+        }
+    }
+
+    /**
+     * Replace clock and scheduled events by ones read from checkpoint
+     * @param input - input of checkpoint
+     * @param handlers - function returning receiver of event by its code, null for unknown code
+     * @throws IOException if checkpoint can not be read or has unknown event
+     */
+    protected void readState(DataInput input, IntFunction<EventHandler> handlers) throws IOException {
+        this.reset();
+        this.time = input.readLong();
+        this.sequence = input.readLong();
+        this.executedCount = input.readLong();
+        int count = input.readInt();
+        EventType[] types = EventType.values();
+        for (int i = 0; i < count; i++) {
+            long time = input.readLong();
+            long sequence = input.readLong();
+            int type = input.readUnsignedByte();
+            int floor = input.readInt();
+            EventHandler handler = handlers.apply(input.readInt());
+            if (type >= types.length || handler == null) {
+                throw new IOException("Unknown event in checkpoint");
+            }
+            this.events.add(new SimulationEvent(time, sequence, types[type], floor, handler));
+        }
+    }
+
+    /**
+     * Remove all scheduled events and move clock to the beginning of simulation, used to reuse event loop
+     */
+    protected void reset() {
+        this.events.clear();
+        this.time = 0;
+        this.sequence = 0;
+        this.executedCount = 0;
+    }
+
+    /**
+     * Execute nearest event, in paced mode wait until its time comes
+     * @return true if event was executed, false if there are no events
+     * @throws InterruptedException if waiting was interrupted
+     */
+    protected boolean runNext() throws InterruptedException {
+        if (this.events.isEmpty()) {
+            this.synchronizeWithWallClock();
+            return false;
+        }
+        SimulationEvent event = this.events.peek();
+        if (this.paced) {
+            long delay = event.getTime() - this.getWallTime();
+            if (delay > 0) {
+                Thread.sleep(this.toWallDelay(delay));
+            }
+        }
+        this.events.poll();
+        this.time = event.getTime();
+        this.executedCount++;
+        event.getHandler().handleEvent(event);
+        this.pool.addLast(event);
+        return true;
+    }
+
+    /**
+     * Execute nearest event or wait for new input, whichever comes first
+     * Without scheduled events thread is parked until new input
+     * @return true if event was executed, false if waiting was finished by new input
+     * @throws InterruptedException if waiting was interrupted
+     */
+    protected boolean awaitNext() throws InterruptedException {
+        if (this.events.isEmpty()) {
+            this.callSignal.await();
+            this.synchronizeWithWallClock();
+            return false;
+        }
+        if (this.paced) {
+            long delay = this.events.peek().getTime() - this.getWallTime();
+            if (delay > 0 && this.callSignal.await(this.toWallDelay(delay))) {
+                this.synchronizeWithWallClock();
+                return false;
+            }
+        }
+        return this.runNext();
+    }
+
+    /**
+     * Execute all events up to given time of simulation and move clock to this time
+     * @param time - time of simulation to stop at (milliseconds)
+     * @throws InterruptedException if waiting was interrupted
+     */
+    protected void runUntil(long time) throws InterruptedException {
+        while (!this.events.isEmpty() && this.events.peek().getTime() <= time) {
+            this.runNext();
+        }
+        this.time = Math.max(this.time, time);
+    }
+
+    /**
+     * Execute events until there are no scheduled events
+     * @throws InterruptedException if waiting was interrupted
+     */
+    protected void run() throws InterruptedException {
+        while (this.runNext()) {
+            // all work is done by runNext
+        }
+    }
+
+    /**
+     * Move clock of paced event loop forward to wall clock, so new events are scheduled from real time
+     */
+    private void synchronizeWithWallClock() {
+        if (this.paced) {
+            this.time = Math.max(this.time, this.getWallTime());
+        }
+    }
+
+    /**
+     * Get time of simulation passed on wall clock since creation of event loop (milliseconds)
+     * @return time passed on wall clock multiplied by pace (milliseconds)
+     */
+    private long getWallTime() {
+        long time = System.nanoTime() - this.wallStart;
+        return this.pace == 1 ? time / 1000000 : (long) (time * this.pace / 1000000);
+    }
+
+    /**
+     * Convert delay of simulation to delay on wall clock, rounding up so event is not executed before its time
+     * @param delay - delay of simulation (milliseconds)
+     * @return delay on wall clock (milliseconds)
+     */
+    private long toWallDelay(long delay) {
+        return this.pace == 1 ? delay : (long) Math.ceil(delay / this.pace);
+    }
+}
@@ -0,0 +1,16 @@
+package elevator;
+
+/**
+ * Receiver of events of elevators and group of elevators, events are appended by thread of event loop
+ */
+interface EventRecorder {
+    /**
+     * Append event with current time of simulation
+     * @param elevator - index of elevator or -1 for group of elevators
+     * @param type - type of event
+     * @param floor - floor of event
+     * @param passenger - id of passenger or -1
+     */
+    void append(int elevator, JournalEvent type, int floor, long passenger);
+
+}
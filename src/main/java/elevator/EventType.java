@@ -0,0 +1,36 @@
+package elevator;
+
+/**
+ * Types of events in simulation
+ */
+enum EventType {
+    /**
+     * Call of elevator from porch of building
+     */
+    HALL_CALL,
+
+    /**
+     * Choice of floor from elevator cabin
+     */
+    CAR_CALL,
+
+    /**
+     * Elevator reaches next floor
+     */
+    ARRIVE,
+
+    /**
+     * Elevator opens doors
+     */
+    DOORS_OPEN,
+
+    /**
+     * Elevator closes doors
+     */
+    DOORS_CLOSE,
+
+    /**
+     * Call of elevator again for passengers left on landing, they were already counted by their first call
+     */
+    HALL_RECALL
+}
@@ -0,0 +1,220 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free set of called floors, one bit per floor
+ * Repeated calls of the same floor are merged, calls do not allocate memory
+ */
+class FloorCalls {
+
+    private final AtomicLongArray words;
+    private final int capacity;
+
+    FloorCalls() {
+        this(Main.MAX_FLOORS_NUMBER);
+    }
+
+    /**
+     * Create set of calls for floors from 1 to capacity
+     * @param capacity - maximal floor number
+     */
+    FloorCalls(int capacity) {
+        this.capacity = capacity;
+        this.words = new AtomicLongArray((capacity >>> 6) + 1);
+    }
+
+    /**
+     * Return maximal floor number which can be called
+     * @return maximal floor number
+     */
+    protected int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Register call of floor
+     * @param floor - called floor
+     * @return true if floor was not called yet, false if call is merged with existing one
+     */
+    protected boolean set(int floor) {
+        int index = floor >>> 6;
+        long bit = 1L << floor;
+        while (true) {
+            long word = this.words.get(index);
+            if ((word & bit) != 0) {
+                return false;
+            }
+            if (this.words.compareAndSet(index, word, word | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove call of floor
+     * @param floor - floor to clear
+     * @return true if floor was called
+     */
+    protected boolean clear(int floor) {
+        int index = floor >>> 6;
+        long bit = 1L << floor;
+        while (true) {
+            long word = this.words.get(index);
+            if ((word & bit) == 0) {
+                return false;
+            }
+            if (this.words.compareAndSet(index, word, word & ~bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return word of set, floor f is bit f % 64 of word f / 64
+     * @param index - index of word
+     * @return bits of called floors or 0 if index is out of set
+     */
+    protected long getWord(int index) {
+        return index < this.words.length() ? this.words.get(index) : 0;
+    }
+
+    /**
+     * Check floor is called
+     * @param floor - floor to check
+     * @return true if floor is called
+     */
+    protected boolean isSet(int floor) {
+        return (this.words.get(floor >>> 6) & (1L << floor)) != 0;
+    }
+
+    /**
+     * Check there are no calls
+     * @return true if no floor is called
+     */
+    protected boolean isEmpty() {
+        for (int i = 0; i < this.words.length(); i++) {
+            if (this.words.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return number of called floors
+     * @return number of called floors
+     */
+    protected int size() {
+        int size = 0;
+        for (int i = 0; i < this.words.length(); i++) {
+            size += Long.bitCount(this.words.get(i));
+        }
+        return size;
+    }
+
+    /**
+     * Find nearest called floor at or above given floor
+     * @param floor - floor to start search from
+     * @return called floor or -1 if there are no called floors above
+     */
+    protected int nextSetFloor(int floor) {
+        if (floor > this.capacity) {
+            return -1;
+        }
+        floor = Math.max(floor, 0);
+        int index = floor >>> 6;
+        long word = this.words.get(index) & (-1L << floor);
+        while (word == 0) {
+            if (++index == this.words.length()) {
+                return -1;
+            }
+            word = this.words.get(index);
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Find nearest called floor at or below given floor
+     * @param floor - floor to start search from
+     * @return called floor or -1 if there are no called floors below
+     */
+    protected int previousSetFloor(int floor) {
+        if (floor < 0) {
+            return -1;
+        }
+        floor = Math.min(floor, this.capacity);
+        int index = floor >>> 6;
+        long word = this.words.get(index) & (-1L >>> (63 - (floor & 63)));
+        while (word == 0) {
+            if (index-- == 0) {
+                return -1;
+            }
+            word = this.words.get(index);
+        }
+        return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Take lowest called floor, removing its call
+     * @return called floor or -1 if there are no calls
+     */
+    protected int poll() {
+        int floor = this.nextSetFloor(0);
+        while (floor >= 0 && !this.clear(floor)) {
+            floor = this.nextSetFloor(floor);
+        }
+        return floor;
+    }
+
+    /**
+     * Remove all calls
+     */
+    protected void clearAll() {
+        for (int i = 0; i < this.words.length(); i++) {
+            this.words.set(i, 0);
+        }
+    }
+
+    /**
+     * Replace calls of this set by calls of other set with the same capacity
+     * @param other - set of calls to copy
+     */
+    protected void copyFrom(FloorCalls other) {
+        for (int i = 0; i < this.words.length(); i++) {
+            this.words.lazySet(i, other.words.get(i));
+        }
+    }
+
+    /**
+     * Write called floors to checkpoint
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeInt(this.size());
+        for (int floor = this.nextSetFloor(1); floor > 0; floor = this.nextSetFloor(floor + 1)) {
+            output.writeShort(floor);
+        }
+    }
+
+    /**
+     * Replace calls by called floors read from checkpoint
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or has floor out of capacity
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.clearAll();
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            int floor = input.readUnsignedShort();
+            if (floor < 1 || floor > this.capacity) {
+                throw new IOException("Incorrect floor in checkpoint");
+            }
+            this.set(floor);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,337 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller of group of elevators in building
+ * Takes calls from porch and assigns them to elevators by dispatcher,
+ * every elevator has own calls from cabin
+ * Passengers wait on landings shared by elevators, with destination dispatch they are assigned to elevator on arrival
+ * With model of calls every dispatched call is learned and free elevators wait on floors of likely calls
+ */
+class GroupController implements Runnable, EventHandler {
+
+    private final List<Elevator> elevators = new ArrayList<>();
+    private Messenger messenger;
+    private EventLoop eventLoop;
+    private Dispatcher dispatcher;
+    private FloorCalls porchCalls;
+    private SimulationMetrics metrics;
+    private Landings landings;
+    private EventRecorder journal;
+    private PredictiveParking parking;
+
+    GroupController(Messenger messenger, EventLoop eventLoop, Dispatcher dispatcher) {
+        this(messenger, eventLoop, dispatcher, new FloorCalls());
+    }
+
+    GroupController(Messenger messenger, EventLoop eventLoop, Dispatcher dispatcher, FloorCalls porchCalls) {
+        this.messenger = messenger;
+        this.eventLoop = eventLoop;
+        this.dispatcher = dispatcher;
+        this.porchCalls = porchCalls;
+        this.metrics = new SimulationMetrics(eventLoop, 1);
+        this.landings = new Landings(Main.MAX_FLOORS_NUMBER, 1);
+    }
+
+    /**
+     * Return instance of Messenger
+     * @return instance of Messenger
+     */
+    protected Messenger getMessenger() {
+        return this.messenger;
+    }
+
+    /**
+     * Return event loop shared by elevators of group
+     * @return event loop shared by elevators of group
+     */
+    protected EventLoop getEventLoop() {
+        return this.eventLoop;
+    }
+
+    /**
+     * Return dispatcher of calls from porch
+     * @return dispatcher of calls from porch
+     */
+    protected Dispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Return porchCalls - calls from porch, not assigned to elevators yet
+     * @return porchCalls - calls from porch
+     */
+    protected FloorCalls getPorchCalls() {
+        return this.porchCalls;
+    }
+
+    /**
+     * Return statistics of simulation shared by elevators of group
+     * @return statistics of simulation
+     */
+    protected SimulationMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Return landings where passengers wait for elevators of group
+     * @return landings of building
+     */
+    protected Landings getLandings() {
+        return this.landings;
+    }
+
+    /**
+     * Set journal where group and its elevators append their events, elevators must be already created
+     * @param journal - journal of events or null to stop journaling
+     */
+    protected void setJournal(EventRecorder journal) {
+        this.journal = journal;
+        for (Elevator elevator : this.elevators) {
+            elevator.setJournal(journal);
+        }
+    }
+
+    /**
+     * Set model of calls which parks free elevators, elevators must be already created
+     * @param parking - model of calls or null to leave free elevators on floors of last stops
+     */
+    protected void setParking(PredictiveParking parking) {
+        this.parking = parking;
+        for (Elevator elevator : this.elevators) {
+            elevator.setParking(parking);
+        }
+    }
+
+    /**
+     * Return model of calls which parks free elevators
+     * @return model of calls or null if free elevators are not parked
+     */
+    protected PredictiveParking getParking() {
+        return this.parking;
+    }
+
+    /**
+     * Return elevators of group
+     * @return elevators of group
+     */
+    protected List<Elevator> getElevators() {
+        return this.elevators;
+    }
+
+    /**
+     * Add elevator to group, elevator must be driven by event loop of group
+     * @param elevator - elevator to add
+     */
+    protected void addElevator(Elevator elevator) {
+        this.elevators.add(elevator);
+    }
+
+    /**
+     * Fill group with elevators having settings of given elevator
+     * If there are more than one elevator, messages of every elevator are marked with its number
+     * Elevators record statistics of group and take passengers from landings of group
+     * @param template - first elevator of group, its settings are copied to other elevators
+     * @param number - number of elevators in group
+     */
+    protected void createElevators(Elevator template, int number) {
+        this.addElevator(template);
+        for (int i = 2; i <= number; i++) {
+            Elevator elevator = new Elevator(template.getMessenger().copy(), this.getEventLoop(),
+                    new FloorCalls(), new FloorCalls());
+            elevator.copySettings(template);
+            this.addElevator(elevator);
+        }
+        this.metrics = new SimulationMetrics(this.getEventLoop(), this.elevators.size());
+        this.landings = new Landings(Main.MAX_FLOORS_NUMBER, this.elevators.size());
+        for (int i = 0; i < this.elevators.size(); i++) {
+            this.elevators.get(i).setMetrics(this.metrics, i);
+            this.elevators.get(i).setLandings(this.landings, this);
+        }
+        if (number > 1) {
+            for (int i = 0; i < this.elevators.size(); i++) {
+                this.elevators.get(i).getMessenger().setPrefix("[" + (i + 1) + "] ");
+            }
+        }
+    }
+
+    /**
+     * Return calls from cabins of elevators
+     * @return calls from cabins, in order of elevators
+     */
+    protected List<FloorCalls> getElevatorCalls() {
+        List<FloorCalls> calls = new ArrayList<>();
+        for (Elevator elevator : this.elevators) {
+            calls.add(elevator.getElevatorCalls());
+        }
+        return calls;
+    }
+
+    /**
+     * Assign all waiting calls from porch to elevators selected by dispatcher
+     * Call of floor already served by elevator is merged with it instead of sending one more elevator
+     * With model of calls every call is learned and free elevators choose parking floors again
+     */
+    protected void dispatchHallCalls() {
+        int floor;
+        boolean dispatched = false;
+        while ((floor = this.getPorchCalls().poll()) > 0) {
+            dispatched = true;
+            this.learnCall(floor);
+            if (this.absorbCall(floor)) {
+                continue;
+            }
+            Elevator elevator = this.getDispatcher().selectElevator(this.elevators, floor);
+            elevator.getPorchCalls().set(floor);
+            elevator.checkQueueAndMoveElevator();
+        }
+        if (dispatched) {
+            this.parkElevators();
+        }
+    }
+
+    /**
+     * Add call from porch to model of calls if it is set
+     * @param floor - called floor
+     */
+    private void learnCall(int floor) {
+        if (this.parking != null) {
+            this.parking.recordCall(floor, this.getEventLoop().getTime());
+        }
+    }
+
+    /**
+     * Send free elevators to parking floors, elevator which left its parking floor for call makes it free for others
+     */
+    private void parkElevators() {
+        if (this.parking == null) {
+            return;
+        }
+        for (int i = 0; i < this.elevators.size(); i++) {
+            Elevator elevator = this.elevators.get(i);
+            if (!elevator.getBusy()) {
+                elevator.checkQueueAndMoveElevator();
+            }
+        }
+    }
+
+    /**
+     * Merge call from porch with elevator which already serves its floor
+     * @param floor - called floor
+     * @return true if call is merged
+     */
+    private boolean absorbCall(int floor) {
+        for (int i = 0; i < this.elevators.size(); i++) {
+            if (this.elevators.get(i).absorbCall(floor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Put arrived passenger on landing of origin floor and call elevator
+     * With destination dispatch passenger is assigned to elevator at once,
+     * otherwise call from porch is assigned to elevator which takes any passengers of floor
+     * @param passenger - arrived passenger
+     */
+    protected void addPassenger(Passenger passenger) {
+        this.getMetrics().hallCall(passenger.getOrigin());
+        if (this.journal != null) {
+            this.journal.append(-1, JournalEvent.HALL_CALL, passenger.getOrigin(), passenger.getId());
+        }
+        if (this.getDispatcher().isDestinationDispatch()) {
+            this.assignPassenger(passenger);
+        } else {
+            this.landings.add(passenger);
+            this.getPorchCalls().set(passenger.getOrigin());
+            this.dispatchHallCalls();
+        }
+    }
+
+    /**
+     * Assign passenger to elevator selected by dispatcher and call this elevator to origin floor
+     * @param passenger - waiting passenger
+     */
+    protected void assignPassenger(Passenger passenger) {
+        this.learnCall(passenger.getOrigin());
+        Elevator elevator = this.getDispatcher().selectElevator(this.elevators, passenger);
+        passenger.setElevator(elevator.getNumber());
+        this.landings.add(passenger);
+        elevator.getPorchCalls().set(passenger.getOrigin());
+        elevator.checkQueueAndMoveElevator();
+        this.parkElevators();
+    }
+
+    /**
+     * Checking of calls of all elevators and sending commands to free elevators
+     */
+    protected void checkElevators() {
+        for (int i = 0; i < this.elevators.size(); i++) {
+            this.elevators.get(i).checkQueueAndMoveElevator();
+        }
+    }
+
+    /**
+     * Entry point for start of work
+     * Dispatching of calls and execution of events of all elevators,
+     * between them thread waits for next event or new input
+     */
+    public void run() {
+        try {
+            while (true) {
+                this.dispatchHallCalls();
+                this.checkElevators();
+                this.getEventLoop().awaitNext();
+            }
+        } catch (InterruptedException e) {
+            this.getMessenger().printMessage("Ошибка в работе лифтов");
+        }
+    }
+
+    /**
+     * Handle call from porch scheduled in simulation
+     * With destination dispatch passengers left on landing of floor are assigned again,
+     * call again for passengers left on landing is not counted in statistics and journal
+     * @param event - event to handle
+     */
+    public void handleEvent(SimulationEvent event) {
+        if (event.getType() == EventType.HALL_CALL || event.getType() == EventType.HALL_RECALL) {
+            if (event.getType() == EventType.HALL_CALL) {
+                this.getMetrics().hallCall(event.getFloor());
+                if (this.journal != null) {
+                    this.journal.append(-1, JournalEvent.HALL_CALL, event.getFloor(), -1);
+                }
+            }
+            if (this.getDispatcher().isDestinationDispatch() && this.reassignPassengers(event.getFloor())) {
+                return;
+            }
+            this.getPorchCalls().set(event.getFloor());
+            this.dispatchHallCalls();
+        }
+    }
+
+    /**
+     * Assign passengers of floor who take any elevator, passengers going in the same direction
+     * are assigned together to elevator selected for the first of them
+     * @param floor - floor of landing
+     * @return true if there were such passengers
+     */
+    private boolean reassignPassengers(int floor) {
+        boolean reassigned = false;
+        for (int direction = 0; direction < 2; direction++) {
+            boolean up = direction == 0;
+            Passenger passenger = this.landings.peek(floor, up, -1);
+            if (passenger != null) {
+                Elevator elevator = this.getDispatcher().selectElevator(this.elevators, passenger);
+                this.landings.assign(floor, up, -1, elevator.getNumber());
+                elevator.getPorchCalls().set(floor);
+                elevator.checkQueueAndMoveElevator();
+                reassigned = true;
+            }
+        }
+        return reassigned;
+    }
+}
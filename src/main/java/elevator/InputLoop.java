@@ -1,10 +1,8 @@
 package elevator;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
-import java.util.concurrent.LinkedBlockingQueue;
-
-import static elevator.Main.elevatorQueue;
-import static elevator.Main.porchQueue;
 
 import static java.lang.Integer.parseInt;
 
@@ -13,9 +11,13 @@ import static java.lang.Integer.parseInt;
  */
 class InputLoop implements Runnable {
 
-    private Integer floorsNumber = 5;
-    private Boolean inputState = false;
+    private int floorsNumber = 5;
+    private boolean inputState = false;
     private Messenger messenger;
+    private List<FloorCalls> elevatorCallsList = Collections.singletonList(new FloorCalls());
+    private FloorCalls porchCalls = new FloorCalls();
+    private CallSignal callSignal = new CallSignal();
+    private SimulationMetrics metrics;
 
     InputLoop(Messenger messenger) {
         this.messenger = messenger;
@@ -25,7 +27,7 @@ class InputLoop implements Runnable {
      * Set number of floors in building
      * @param number of floors in building
      */
-    protected void setFloorsNumber(Integer number){
+    protected void setFloorsNumber(int number){
         this.floorsNumber = number;
     }
 
@@ -33,7 +35,7 @@ class InputLoop implements Runnable {
      * Return number of floors in building
      * @return number of floors in building
      */
-    protected Integer getFloorsNumber(){
+    protected int getFloorsNumber(){
         return this.floorsNumber;
     }
 
@@ -41,7 +43,7 @@ class InputLoop implements Runnable {
      * Set inputState - flag for correctness check of user input
      * @param state flag for correctness check of user input
      */
-    protected void setInputState(Boolean state) {
+    protected void setInputState(boolean state) {
         this.inputState = state;
     }
 
@@ -49,7 +51,7 @@ class InputLoop implements Runnable {
      * Return inputState - flag for correctness check of user input
      * @return flag for correctness check of user input
      */
-    protected Boolean getInputState() {
+    protected boolean getInputState() {
         return this.inputState;
     }
 
@@ -69,6 +71,41 @@ class InputLoop implements Runnable {
         return this.messenger;
     }
 
+    /**
+     * Set signal to wake up elevators on new input
+     * @param callSignal - signal about new inputs
+     */
+    protected void setCallSignal(CallSignal callSignal) {
+        this.callSignal = callSignal;
+    }
+
+    /**
+     * Return signal to wake up elevators on new input
+     * @return signal about new inputs
+     */
+    protected CallSignal getCallSignal() {
+        return this.callSignal;
+    }
+
+    /**
+     * Set statistics of simulation, calls are registered in them
+     * @param metrics - statistics of simulation
+     */
+    protected void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Return statistics of simulation, statistics of one elevator are created if they were not set
+     * @return statistics of simulation
+     */
+    protected SimulationMetrics getMetrics() {
+        if (this.metrics == null) {
+            this.metrics = new SimulationMetrics(new EventLoop(true), 1);
+        }
+        return this.metrics;
+    }
+
     /**
      * Print message to console by inputState
      */
@@ -82,23 +119,58 @@ class InputLoop implements Runnable {
     }
 
     /**
-     * Return elevatorQueue - queue of inputs from elevator cabin
-     * @return elevatorQueue - queue of inputs from elevator cabin
+     * Return elevatorCalls - calls from elevator cabin
+     * @return elevatorCalls - calls from elevator cabin
      */
-    protected LinkedBlockingQueue getElevatorQueue() {
-        return elevatorQueue;
+    protected FloorCalls getElevatorCalls() {
+        return this.getElevatorCalls(1);
     }
 
     /**
-     * Return porchQueue - queue of inputs from porch
-     * @return porchQueue - queue of inputs from porch
+     * Return calls from cabin of elevator with given number
+     * @param number - number of elevator, starting from 1
+     * @return calls from elevator cabin
      */
-    protected LinkedBlockingQueue getPorchQueue() {
-        return porchQueue;
+    protected FloorCalls getElevatorCalls(int number) {
+        return this.elevatorCallsList.get(number - 1);
     }
 
     /**
-     * Get user input and analyze it, writing results to appropriate queue and call printing response to console
+     * Set calls from cabins of elevators in group
+     * @param calls - calls from cabins, in order of elevators
+     */
+    protected void setElevatorCalls(List<FloorCalls> calls) {
+        this.elevatorCallsList = calls;
+    }
+
+    /**
+     * Return number of elevators which cabins are available for input
+     * @return number of elevators
+     */
+    protected int getElevatorsNumber() {
+        return this.elevatorCallsList.size();
+    }
+
+    /**
+     * Return porchCalls - calls from porch
+     * @return porchCalls - calls from porch
+     */
+    protected FloorCalls getPorchCalls() {
+        return this.porchCalls;
+    }
+
+    /**
+     * Set calls from porch
+     * @param calls - calls from porch
+     */
+    protected void setPorchCalls(FloorCalls calls) {
+        this.porchCalls = calls;
+    }
+
+    /**
+     * Get user input and analyze it, registering call in appropriate set of calls, waking up elevators
+     * and call printing response to console
+     * Input from cabin may start with number of elevator in group (Example: 2л5)
      * @param enter user input
      */
     protected void parseInput(String enter) {
@@ -106,24 +178,50 @@ class InputLoop implements Runnable {
         try {
             if(enter.indexOf("э") == 0){
                 enter = enter.replace("э", "");
-                if(parseInt(enter) > 0 && parseInt(enter) <= this.getFloorsNumber()){
-                    this.getPorchQueue().add(parseInt(enter));
-                    this.setInputState(true);
-                }
-            } else if (enter.indexOf("л") == 0){
-                enter = enter.replace("л", "");
-                if(parseInt(enter) > 0 && parseInt(enter) <= this.getFloorsNumber()){
-                    this.getElevatorQueue().add(parseInt(enter));
-                    this.setInputState(true);
-                }
+                this.setInputState(this.hallCall(parseInt(enter)));
+            } else if (enter.indexOf("л") >= 0){
+                int cabinPosition = enter.indexOf("л");
+                int elevator = cabinPosition == 0 ? 1 : parseInt(enter.substring(0, cabinPosition));
+                enter = enter.substring(cabinPosition).replace("л", "");
+                this.setInputState(this.carCall(elevator, parseInt(enter)));
             }
         } catch (NumberFormatException e) {
             this.setInputState(false);
         }
-
         this.printConfirm();
     }
 
+    /**
+     * Register call from porch and wake up elevators, calls can be registered from any thread
+     * @param floor - called floor
+     * @return true if call is registered, false if floor is out of building
+     */
+    protected boolean hallCall(int floor) {
+        if (floor <= 0 || floor > this.getFloorsNumber()) {
+            return false;
+        }
+        this.getMetrics().hallCall(floor);
+        this.getPorchCalls().set(floor);
+        this.getCallSignal().signal();
+        return true;
+    }
+
+    /**
+     * Register call from cabin and wake up elevators, calls can be registered from any thread
+     * @param elevator - number of elevator, starting from 1
+     * @param floor - chosen floor
+     * @return true if call is registered, false if floor or elevator does not exist
+     */
+    protected boolean carCall(int elevator, int floor) {
+        if (floor <= 0 || floor > this.getFloorsNumber() || elevator <= 0 || elevator > this.getElevatorsNumber()) {
+            return false;
+        }
+        this.getMetrics().carCall(elevator - 1, floor);
+        this.getElevatorCalls(elevator).set(floor);
+        this.getCallSignal().signal();
+        return true;
+    }
+
     /**
      * Entry point for start of work
      * Getting input from console and passing it to parser
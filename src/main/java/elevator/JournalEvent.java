@@ -0,0 +1,65 @@
+package elevator;
+
+/**
+ * Types of records in journal of events, code of type in record is its ordinal plus 1,
+ * so zero code marks end of records in segment
+ */
+enum JournalEvent {
+    /**
+     * Call of elevator from porch, passenger is set if call is made by passenger
+     */
+    HALL_CALL,
+
+    /**
+     * Choice of floor in cabin, passenger is set if floor is chosen by entered passenger
+     */
+    CAR_CALL,
+
+    /**
+     * Elevator departs from floor
+     */
+    DEPART,
+
+    /**
+     * Elevator reaches floor while moving or at the end of run
+     */
+    ARRIVE,
+
+    /**
+     * Elevator opens doors
+     */
+    DOORS_OPEN,
+
+    /**
+     * Elevator closes doors
+     */
+    DOORS_CLOSE,
+
+    /**
+     * Passenger enters cabin
+     */
+    BOARD,
+
+    /**
+     * Passenger leaves cabin on floor of destination
+     */
+    ALIGHT;
+
+    /**
+     * Get code of type written in record
+     * @return code of type, starting from 1
+     */
+    protected int getCode() {
+        return this.ordinal() + 1;
+    }
+
+    /**
+     * Find type by code written in record
+     * @param code - code of type
+     * @return type of record or null for unknown code
+     */
+    static JournalEvent fromCode(int code) {
+        JournalEvent[] types = values();
+        return code > 0 && code <= types.length ? types[code - 1] : null;
+    }
+}
@@ -0,0 +1,138 @@
+package elevator;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of journal of events written by EventJournal
+ * Segments are mapped to memory and scanned record by record without creation of objects,
+ * records passed through filter are added to summary
+ * Records are ordered by time, so scan stops at first record after end of time range
+ */
+class JournalReader {
+
+    /**
+     * Value of filter which passes any elevator or passenger
+     */
+    static final int ANY = Integer.MIN_VALUE;
+
+    private final Path directory;
+    private int elevator = ANY;
+    private JournalEvent type;
+    private int fromFloor = 0;
+    private int toFloor = Integer.MAX_VALUE;
+    private long fromTime = Long.MIN_VALUE;
+    private long toTime = Long.MAX_VALUE;
+    private long passenger = ANY;
+
+    /**
+     * Create reader of journal
+     * @param directory - directory of segment files
+     */
+    JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Pass only records of elevator
+     * @param elevator - index of elevator, -1 for group of elevators or ANY
+     */
+    protected void setElevator(int elevator) {
+        this.elevator = elevator;
+    }
+
+    /**
+     * Pass only records of type
+     * @param type - type of records or null for any type
+     */
+    protected void setType(JournalEvent type) {
+        this.type = type;
+    }
+
+    /**
+     * Pass only records of floors from range
+     * @param fromFloor - first floor of range
+     * @param toFloor - last floor of range
+     */
+    protected void setFloors(int fromFloor, int toFloor) {
+        this.fromFloor = fromFloor;
+        this.toFloor = toFloor;
+    }
+
+    /**
+     * Pass only records of time range
+     * @param fromTime - start of range (milliseconds)
+     * @param toTime - end of range, inclusive (milliseconds)
+     */
+    protected void setTimes(long fromTime, long toTime) {
+        this.fromTime = fromTime;
+        this.toTime = toTime;
+    }
+
+    /**
+     * Pass only records of passenger
+     * @param passenger - id of passenger or ANY
+     */
+    protected void setPassenger(long passenger) {
+        this.passenger = passenger;
+    }
+
+    /**
+     * Scan all segments of journal
+     * @return summary of records passed through filter
+     * @throws IOException if journal can not be read or segment is not part of journal
+     */
+    protected JournalSummary scan() throws IOException {
+        JournalSummary summary = new JournalSummary();
+        int typeCode = this.type == null ? 0 : this.type.getCode();
+        for (int segment = 0; Files.exists(EventJournal.getSegmentPath(this.directory, segment)); segment++) {
+            MappedByteBuffer buffer = map(EventJournal.getSegmentPath(this.directory, segment), segment);
+            for (int position = EventJournal.HEADER_SIZE; position + EventJournal.RECORD_SIZE <= buffer.limit();
+                 position += EventJournal.RECORD_SIZE) {
+                int code = buffer.get(position + 22) & 0xFF;
+                if (code == 0) {
+                    return summary;
+                }
+                long time = buffer.getLong(position);
+                if (time > this.toTime) {
+                    return summary;
+                }
+                int floor = buffer.getInt(position + 16);
+                int elevator = buffer.getShort(position + 20);
+                long passenger = buffer.getLong(position + 8);
+                if (time >= this.fromTime && (typeCode == 0 || code == typeCode)
+                        && (this.elevator == ANY || elevator == this.elevator)
+                        && floor >= this.fromFloor && floor <= this.toFloor
+                        && (this.passenger == ANY || passenger == this.passenger)) {
+                    summary.add(time, elevator, code, floor);
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Map segment file to memory and check its header
+     * @param path - path to segment file
+     * @param segment - expected number of segment
+     * @return buffer of segment
+     * @throws IOException if segment can not be read or has other header
+     */
+    private static MappedByteBuffer map(Path path, int segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < EventJournal.HEADER_SIZE || buffer.getInt(0) != EventJournal.MAGIC
+                    || buffer.getInt(4) != EventJournal.VERSION || buffer.getInt(8) != EventJournal.RECORD_SIZE
+                    || buffer.getInt(12) != segment) {
+                throw new IOException("File is not segment of journal");
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package elevator;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Aggregates of records of journal: number of records by type, by elevator and by floor, range of time
+ */
+class JournalSummary {
+
+    private final long[] types = new long[JournalEvent.values().length + 1];
+    // index of elevator is shifted by one, so records of group of elevators are counted first
+    private long[] elevators = new long[2];
+    private final long[] floors = new long[Main.MAX_FLOORS_NUMBER + 1];
+    private long count = 0;
+    private long firstTime = 0;
+    private long lastTime = 0;
+
+    /**
+     * Add record to aggregates
+     * @param time - time of record (milliseconds)
+     * @param elevator - index of elevator or -1 for group of elevators
+     * @param type - code of type of record
+     * @param floor - floor of record
+     */
+    protected void add(long time, int elevator, int type, int floor) {
+        if (this.count == 0) {
+            this.firstTime = time;
+        }
+        this.lastTime = time;
+        this.count++;
+        if (type < this.types.length) {
+            this.types[type]++;
+        }
+        if (elevator >= -1) {
+            if (elevator + 1 >= this.elevators.length) {
+                this.elevators = Arrays.copyOf(this.elevators, Math.max(elevator + 2, this.elevators.length * 2));
+            }
+            this.elevators[elevator + 1]++;
+        }
+        if (floor >= 0 && floor < this.floors.length) {
+            this.floors[floor]++;
+        }
+    }
+
+    /**
+     * Return number of records
+     * @return number of records
+     */
+    protected long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Return time of first record
+     * @return time of first record (milliseconds), 0 if there are no records
+     */
+    protected long getFirstTime() {
+        return this.firstTime;
+    }
+
+    /**
+     * Return time of last record
+     * @return time of last record (milliseconds), 0 if there are no records
+     */
+    protected long getLastTime() {
+        return this.lastTime;
+    }
+
+    /**
+     * Return number of records of type
+     * @param type - type of records
+     * @return number of records
+     */
+    protected long getCount(JournalEvent type) {
+        return this.types[type.getCode()];
+    }
+
+    /**
+     * Return number of records of elevator
+     * @param elevator - index of elevator or -1 for group of elevators
+     * @return number of records
+     */
+    protected long getElevatorCount(int elevator) {
+        return elevator + 1 < this.elevators.length ? this.elevators[elevator + 1] : 0;
+    }
+
+    /**
+     * Return number of records of floor
+     * @param floor - floor of records
+     * @return number of records
+     */
+    protected long getFloorCount(int floor) {
+        return this.floors[floor];
+    }
+
+    /**
+     * Print summary to console
+     * @param messenger instance of Messenger class for interaction with console
+     */
+    protected void printSummary(Messenger messenger) {
+        messenger.printFormattedMessage("Записей журнала - %s\n", String.valueOf(this.count));
+        if (this.count == 0) {
+            return;
+        }
+        messenger.printFormattedMessage("Время записей - %s\n", String.format(Locale.ROOT, "%.1f - %.1f с",
+                this.firstTime / 1000.0, this.lastTime / 1000.0));
+        for (JournalEvent type : JournalEvent.values()) {
+            if (this.getCount(type) != 0) {
+                messenger.printFormattedMessage(type + " - %s\n", String.valueOf(this.getCount(type)));
+            }
+        }
+        if (this.elevators[0] != 0) {
+            messenger.printFormattedMessage("Группа лифтов - %s\n", String.valueOf(this.elevators[0]));
+        }
+        for (int i = 1; i < this.elevators.length; i++) {
+            if (this.elevators[i] != 0) {
+                messenger.printFormattedMessage("Лифт " + i + " - %s\n", String.valueOf(this.elevators[i]));
+            }
+        }
+        StringBuilder floors = new StringBuilder();
+        for (int i = 1; i < this.floors.length; i++) {
+            if (this.floors[i] != 0) {
+                floors.append(floors.length() == 0 ? "" : ", ").append(i).append(" - ").append(this.floors[i]);
+            }
+        }
+        messenger.printFormattedMessage("Записи по этажам: %s\n", floors.length() == 0 ? "нет" : floors.toString());
+    }
+}
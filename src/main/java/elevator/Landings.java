@@ -0,0 +1,260 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Passengers waiting for elevators on landings of floors
+ * Every floor has queues of passengers going up and going down, which may take any elevator,
+ * and the same queues for every elevator with passengers assigned to it by destination dispatch
+ * Queues of floor are created when first passenger comes to floor
+ * Passengers who left elevators are kept in pool and filled again for next arrived passengers
+ */
+class Landings {
+
+    private final int elevatorsNumber;
+    private final ArrayDeque<Passenger>[][] queues;
+    private final long[] assignedWeight;
+    private final ArrayDeque<Passenger> pool = new ArrayDeque<>();
+    private long waitingCount = 0;
+
+    /**
+     * Create empty landings
+     * @param floorsCapacity - maximal floor number
+     * @param elevatorsNumber - number of elevators
+     */
+    @SuppressWarnings("unchecked")
+    Landings(int floorsCapacity, int elevatorsNumber) {
+        this.elevatorsNumber = elevatorsNumber;
+        this.queues = (ArrayDeque<Passenger>[][]) new ArrayDeque<?>[floorsCapacity + 1][];
+        this.assignedWeight = new long[elevatorsNumber + 1];
+    }
+
+    /**
+     * Return number of waiting passengers on all floors
+     * @return number of waiting passengers
+     */
+    protected long getWaitingCount() {
+        return this.waitingCount;
+    }
+
+    /**
+     * Return weight of passengers waiting for elevator on all floors
+     * @param elevator - index of elevator or -1 for passengers taking any elevator
+     * @return total weight of waiting passengers (kilograms)
+     */
+    protected long getAssignedWeight(int elevator) {
+        return this.assignedWeight[elevator + 1];
+    }
+
+    /**
+     * Create arrived passenger, passenger is taken from pool of passengers who left elevators if it is not empty
+     * @param origin - floor where passenger calls elevator
+     * @param destination - floor where passenger goes
+     * @param arrivalTime - time of arrival on landing (milliseconds)
+     * @param weight - weight of passenger (kilograms)
+     * @return passenger without elevator, time of boarding and id
+     */
+    protected Passenger obtain(int origin, int destination, long arrivalTime, int weight) {
+        Passenger passenger = this.pool.pollLast();
+        if (passenger == null) {
+            return new Passenger(origin, destination, arrivalTime, weight);
+        }
+        passenger.set(origin, destination, arrivalTime, weight);
+        return passenger;
+    }
+
+    /**
+     * Return passenger who left elevator to pool, passenger is not used by caller after it
+     * @param passenger - passenger who left elevator
+     */
+    protected void recycle(Passenger passenger) {
+        this.pool.addLast(passenger);
+    }
+
+    /**
+     * Add passenger to queue of origin floor, direction and assigned elevator
+     * @param passenger - arrived passenger
+     */
+    protected void add(Passenger passenger) {
+        this.getQueue(passenger.getOrigin(), passenger.isGoingUp(), passenger.getElevator()).add(passenger);
+        this.assignedWeight[passenger.getElevator() + 1] += passenger.getWeight();
+        this.waitingCount++;
+    }
+
+    /**
+     * Return first passenger in queue without removing the passenger
+     * @param floor - floor of landing
+     * @param up - direction of passengers
+     * @param elevator - index of assigned elevator or -1 for passengers taking any elevator
+     * @return first passenger or null if nobody is waiting
+     */
+    protected Passenger peek(int floor, boolean up, int elevator) {
+        ArrayDeque<Passenger>[] floorQueues = this.queues[floor];
+        return floorQueues == null || floorQueues[index(up, elevator)] == null
+                ? null : floorQueues[index(up, elevator)].peek();
+    }
+
+    /**
+     * Remove first passenger from queue
+     * @param floor - floor of landing
+     * @param up - direction of passengers
+     * @param elevator - index of assigned elevator or -1 for passengers taking any elevator
+     * @return first passenger or null if nobody is waiting
+     */
+    protected Passenger poll(int floor, boolean up, int elevator) {
+        Passenger passenger = this.peek(floor, up, elevator);
+        if (passenger != null) {
+            this.queues[floor][index(up, elevator)].poll();
+            this.assignedWeight[elevator + 1] -= passenger.getWeight();
+            this.waitingCount--;
+        }
+        return passenger;
+    }
+
+    /**
+     * Check there are passengers for elevator on floor
+     * @param floor - floor of landing
+     * @param up - direction of passengers
+     * @param elevator - index of elevator, passengers taking any elevator are counted too
+     * @return true if elevator may take somebody going in given direction
+     */
+    protected boolean hasPassengers(int floor, boolean up, int elevator) {
+        return this.peek(floor, up, elevator) != null || this.peek(floor, up, -1) != null;
+    }
+
+    /**
+     * Cancel assignment of passengers of floor to elevator, they will take any elevator
+     * @param floor - floor of landing
+     * @param elevator - index of elevator
+     */
+    protected void release(int floor, int elevator) {
+        this.assign(floor, true, elevator, -1);
+        this.assign(floor, false, elevator, -1);
+    }
+
+    /**
+     * Move all passengers of queue to queue of other elevator keeping their order
+     * @param floor - floor of landing
+     * @param up - direction of passengers
+     * @param fromElevator - index of current elevator or -1 for passengers taking any elevator
+     * @param toElevator - index of new elevator or -1 for passengers taking any elevator
+     */
+    protected void assign(int floor, boolean up, int fromElevator, int toElevator) {
+        if (fromElevator == toElevator || this.peek(floor, up, fromElevator) == null) {
+            return;
+        }
+        ArrayDeque<Passenger> from = this.queues[floor][index(up, fromElevator)];
+        ArrayDeque<Passenger> to = this.getQueue(floor, up, toElevator);
+        long weight = 0;
+        for (Passenger passenger : from) {
+            passenger.setElevator(toElevator);
+            weight += passenger.getWeight();
+        }
+        this.assignedWeight[fromElevator + 1] -= weight;
+        this.assignedWeight[toElevator + 1] += weight;
+        if (to.isEmpty()) {
+            this.queues[floor][index(up, fromElevator)] = to;
+            this.queues[floor][index(up, toElevator)] = from;
+        } else {
+            to.addAll(from);
+            from.clear();
+        }
+    }
+
+    /**
+     * Remove all waiting passengers
+     */
+    protected void clear() {
+        for (ArrayDeque<Passenger>[] floorQueues : this.queues) {
+            if (floorQueues != null) {
+                for (ArrayDeque<Passenger> queue : floorQueues) {
+                    if (queue != null) {
+                        queue.clear();
+                    }
+                }
+            }
+        }
+        Arrays.fill(this.assignedWeight, 0);
+        this.waitingCount = 0;
+    }
+
+    /**
+     * Write waiting passengers to checkpoint in order of queues
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeLong(this.waitingCount);
+        for (ArrayDeque<Passenger>[] floorQueues : this.queues) {
+            if (floorQueues != null) {
+                for (ArrayDeque<Passenger> queue : floorQueues) {
+                    if (queue != null) {
+                        for (Passenger passenger : queue) {
+                            passenger.writeState(output);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace waiting passengers by ones read from checkpoint
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or has passenger out of building
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.clear();
+        long count = input.readLong();
+        for (long i = 0; i < count; i++) {
+            Passenger passenger = Passenger.readState(input);
+            if (passenger.getOrigin() < 1 || passenger.getOrigin() >= this.queues.length
+                    || passenger.getElevator() < -1 || passenger.getElevator() >= this.elevatorsNumber) {
+                throw new IOException("Incorrect passenger in checkpoint");
+            }
+            this.add(passenger);
+        }
+    }
+
+    /**
+     * Get queue of passengers, creating it on first use
+     * @param floor - floor of landing
+     * @param up - direction of passengers
+     * @param elevator - index of assigned elevator or -1 for passengers taking any elevator
+     * @return queue of passengers
+     */
+    private ArrayDeque<Passenger> getQueue(int floor, boolean up, int elevator) {
+        if (this.queues[floor] == null) {
+            this.queues[floor] = createQueues(2 * (this.elevatorsNumber + 1));
+        }
+        int index = index(up, elevator);
+        if (this.queues[floor][index] == null) {
+            this.queues[floor][index] = new ArrayDeque<>();
+        }
+        return this.queues[floor][index];
+    }
+
+    /**
+     * Create array of queues of floor, queues are created when they are used
+     * @param size - number of queues
+     * @return array of empty places for queues
+     */
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Passenger>[] createQueues(int size) {
+        return (ArrayDeque<Passenger>[]) new ArrayDeque<?>[size];
+    }
+
+    /**
+     * Compute index of queue on floor
+     * @param up - direction of passengers
+     * @param elevator - index of assigned elevator or -1 for passengers taking any elevator
+     * @return index of queue
+     */
+    private static int index(boolean up, int elevator) {
+        return 2 * (elevator + 1) + (up ? 0 : 1);
+    }
+}
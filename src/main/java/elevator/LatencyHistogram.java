@@ -0,0 +1,188 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations with logarithmic buckets
+ * Values below 32 have own buckets, every power of two above is split into 16 linear buckets,
+ * so error of percentiles is below 7% for any value, recording does not allocate memory
+ */
+class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - 5) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record duration, negative durations are recorded as zero
+     * @param value - duration (milliseconds)
+     */
+    protected void record(long value) {
+        value = Math.max(value, 0);
+        this.counts.incrementAndGet(getBucket(value));
+        this.count.incrementAndGet();
+        this.sum.addAndGet(value);
+        long current;
+        while (value > (current = this.max.get()) && !this.max.compareAndSet(current, value)) {
+            // other thread recorded value at the same time
+        }
+    }
+
+    /**
+     * Return number of recorded values
+     * @return number of recorded values
+     */
+    protected long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Return maximal recorded value
+     * @return maximal value or 0 if there are no values
+     */
+    protected long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Return mean of recorded values
+     * @return mean value or 0 if there are no values
+     */
+    protected double getMean() {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) this.sum.get() / count;
+    }
+
+    /**
+     * Return value below which given percent of recorded values lies
+     * @param percent - percent of values, from 0 to 100
+     * @return upper bound of bucket containing percentile or 0 if there are no values
+     */
+    protected long getPercentile(double percent) {
+        long count = this.count.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max((long) Math.ceil(count * percent / 100), 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * Add all values recorded by other histogram
+     * @param other - histogram to add
+     */
+    protected void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                this.counts.addAndGet(i, count);
+            }
+        }
+        this.count.addAndGet(other.count.get());
+        this.sum.addAndGet(other.sum.get());
+        long value = other.max.get();
+        long current;
+        while (value > (current = this.max.get()) && !this.max.compareAndSet(current, value)) {
+            // other thread recorded value at the same time
+        }
+    }
+
+    /**
+     * Remove all recorded values
+     */
+    protected void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+        this.count.set(0);
+        this.sum.set(0);
+        this.max.set(0);
+    }
+
+    /**
+     * Write recorded values to checkpoint, only non-empty buckets are written
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        int buckets = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets += this.counts.get(i) != 0 ? 1 : 0;
+        }
+        output.writeShort(buckets);
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = this.counts.get(i);
+            if (count != 0) {
+                output.writeShort(i);
+                output.writeLong(count);
+            }
+        }
+        output.writeLong(this.count.get());
+        output.writeLong(this.sum.get());
+        output.writeLong(this.max.get());
+    }
+
+    /**
+     * Replace recorded values by values read from checkpoint
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or has unknown bucket
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.reset();
+        int buckets = input.readUnsignedShort();
+        for (int i = 0; i < buckets; i++) {
+            int bucket = input.readUnsignedShort();
+            if (bucket >= BUCKETS) {
+                throw new IOException("Incorrect bucket of histogram in checkpoint");
+            }
+            this.counts.set(bucket, input.readLong());
+        }
+        this.count.set(input.readLong());
+        this.sum.set(input.readLong());
+        this.max.set(input.readLong());
+    }
+
+    /**
+     * Find bucket of value
+     * @param value - non-negative value
+     * @return index of bucket
+     */
+    static int getBucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - 4));
+        return LINEAR_BUCKETS + (exponent - 5) * SUB_BUCKETS + subBucket - SUB_BUCKETS;
+    }
+
+    /**
+     * Find largest value of bucket
+     * @param bucket - index of bucket
+     * @return largest value which falls into bucket
+     */
+    static long getUpperBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 5;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << (exponent - 4)) - 1;
+    }
+}
@@ -1,6 +1,17 @@
 package elevator;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 /**
  * Main class for program with entry point
@@ -8,14 +19,14 @@ import java.util.concurrent.LinkedBlockingQueue;
 public class Main {
 
     /**
-     * Queue for signals from porch of building
+     * Maximal number of floors in building
      */
-    static LinkedBlockingQueue porchQueue = new LinkedBlockingQueue();
+    static final int MAX_FLOORS_NUMBER = 1000;
 
     /**
-     * Queue for signals from elevator
+     * Maximal number of elevators in group
      */
-    static LinkedBlockingQueue elevatorQueue = new LinkedBlockingQueue();
+    static final int MAX_ELEVATORS_NUMBER = 100;
 
     /**
      * Print default settings of program to console
@@ -47,10 +58,10 @@ public class Main {
      * @param elevator instance of Elevator class
      */
     static void printSettings(Messenger messenger, InputLoop inputLoop, Elevator elevator) {
-        messenger.printFormattedMessage("Количество этажей в здании - %s\n", inputLoop.getFloorsNumber().toString());
-        messenger.printFormattedMessage("Скорость движения лифта - %s м/с\n", elevator.getElevatorSpeed().toString());
-        messenger.printFormattedMessage("Высота этажа в здании - %s метра\n", elevator.getFloorHeight().toString());
-        messenger.printFormattedMessage("Время между открытием и закрытием дверей лифта - %s секунд\n", elevator.getDoorsTime().toString());
+        messenger.printFormattedMessage("Количество этажей в здании - %s\n", String.valueOf(inputLoop.getFloorsNumber()));
+        messenger.printFormattedMessage("Скорость движения лифта - %s м/с\n", String.valueOf(elevator.getElevatorSpeed()));
+        messenger.printFormattedMessage("Высота этажа в здании - %s метра\n", String.valueOf(elevator.getFloorHeight()));
+        messenger.printFormattedMessage("Время между открытием и закрытием дверей лифта - %s секунд\n", String.valueOf(elevator.getDoorsTime()));
     }
 
     /**
@@ -61,6 +72,7 @@ public class Main {
         messenger.printMessage("Доступные действия:\n");
         messenger.printMessage("Вызов лифта из подъезда с этажа - введите 'э+номер_этажа' и нажмите Enter (Пример: э12)\n");
         messenger.printMessage("Выбор этажа из кабины лифта - введите 'л+номер_этажа' и нажмите Enter (Пример: л21)\n");
+        messenger.printMessage("Выбор этажа из кабины лифта в группе - введите 'номер_лифта+л+номер_этажа' и нажмите Enter (Пример: 2л21)\n");
     }
 
     /**
@@ -83,14 +95,14 @@ public class Main {
     }
 
     /**
-     * Check args is actually numbers and there are four entries in args
+     * Check args is actually numbers and there are four or five entries in args
      * @param messenger instance of Messenger class for interaction with console
      * @param exiter instance of Exiter to terminate program
      * @param args arguments for program
      */
     static void checkArgs(Messenger messenger, Exiter exiter, String[] args) {
-        if (args.length != 4) {
-            messenger.printErrorMessage("Должно быть 4 аргумента");
+        if (args.length != 4 && args.length != 5) {
+            messenger.printErrorMessage("Должно быть 4 или 5 аргументов");
             exiter.exit();
         }
         try {
@@ -116,9 +128,9 @@ public class Main {
      */
     static void parseFloorsNumberParam(Messenger messenger, Exiter exiter, InputLoop inputLoop, Elevator elevator, String[] args) {
         try {
-            Integer number = Integer.parseInt(args[0]);
-            if (number > 20 || number < 5){
-                messenger.printErrorMessage("Количество этажей должно быть от 5 до 20");
+            int number = Integer.parseInt(args[0]);
+            if (number > MAX_FLOORS_NUMBER || number < 5){
+                messenger.printErrorMessage("Количество этажей должно быть от 5 до " + MAX_FLOORS_NUMBER);
                 exiter.exit();
             }
             inputLoop.setFloorsNumber(number);
@@ -157,27 +169,738 @@ public class Main {
         }
     }
 
+    /**
+     * Parse number of elevators in building from args
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param args arguments for program
+     * @return number of elevators, one elevator if argument is not given
+     */
+    static int parseElevatorsNumberParam(Messenger messenger, Exiter exiter, String[] args) {
+        int number = 1;
+        if (args.length == 5) {
+            try {
+                number = Integer.parseInt(args[4]);
+                if (number > MAX_ELEVATORS_NUMBER || number < 1){
+                    messenger.printErrorMessage("Количество лифтов должно быть от 1 до " + MAX_ELEVATORS_NUMBER);
+                    exiter.exit();
+                }
+            } catch (NumberFormatException e) {
+                messenger.printErrorMessage("Количество лифтов должно быть целым числом");
+                exiter.exit();
+            }
+        }
+        return number;
+    }
+
+    /**
+     * Create messenger for elevators of headless simulation, encoded output is written in batches
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @return messenger for elevators
+     */
+    static Messenger createElevatorMessenger(Messenger messenger, Exiter exiter) {
+        return createElevatorMessenger(messenger, exiter, true);
+    }
+
+    /**
+     * Create messenger for elevators
+     * Asynchronous output is enabled by system property elevator.output=async, output is disabled by elevator.output=none,
+     * policy for full buffer of messages is set by system property elevator.output.overflow (block, drop or sample)
+     * Output of pre-encoded messages is enabled by elevator.output=encoded, it is written to console
+     * or to file set by system property elevator.output.file
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param batched true for writing encoded output in batches, false for writing every message at once
+     * @return messenger for elevators
+     */
+    static Messenger createElevatorMessenger(Messenger messenger, Exiter exiter, boolean batched) {
+        if ("none".equals(System.getProperty("elevator.output"))) {
+            return new SilentMessenger();
+        }
+        if ("encoded".equals(System.getProperty("elevator.output"))) {
+            return createEncodedMessenger(messenger, exiter, batched);
+        }
+        if (!"async".equals(System.getProperty("elevator.output"))) {
+            return new Messenger();
+        }
+        OverflowPolicy policy = OverflowPolicy.BLOCK;
+        try {
+            policy = OverflowPolicy.valueOf(System.getProperty("elevator.output.overflow", "block").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            messenger.printErrorMessage("Политика переполнения вывода должна быть block, drop или sample");
+            exiter.exit();
+        }
+        MessageRingBuffer buffer = new MessageRingBuffer(System.out, 4096, policy, 10);
+        buffer.start();
+        return new AsyncMessenger(buffer);
+    }
+
+    /**
+     * Create messenger writing pre-encoded messages to console or to file set by system property elevator.output.file
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param batched true for writing messages in batches, false for writing every message at once
+     * @return messenger for elevators
+     */
+    static Messenger createEncodedMessenger(Messenger messenger, Exiter exiter, boolean batched) {
+        String path = System.getProperty("elevator.output.file");
+        if (path == null) {
+            return new EncodedMessenger(EncodedOutput.openConsole(batched));
+        }
+        try {
+            return new EncodedMessenger(EncodedOutput.openFile(Paths.get(path), batched));
+        } catch (IOException | InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка записи файла вывода лифтов");
+            exiter.exit();
+            return new SilentMessenger();
+        }
+    }
+
+    /**
+     * Register statistics of simulation as MBean elevator:type=SimulationMetrics
+     * @param messenger instance of Messenger class for interaction with console
+     * @param metrics statistics of simulation
+     */
+    static void registerMetrics(Messenger messenger, SimulationMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+                    new ObjectName("elevator:type=SimulationMetrics"));
+        } catch (JMException e) {
+            messenger.printErrorMessage("Статистика симуляции недоступна через JMX");
+        }
+    }
+
+    /**
+     * Print messages of elevators left in buffer of asynchronous or encoded output
+     * @param simulation headless simulation
+     */
+    static void flushMessages(Simulation simulation) {
+        Messenger elevatorMessenger = simulation.getGroupController().getElevators().get(0).getMessenger();
+        if (elevatorMessenger instanceof AsyncMessenger) {
+            ((AsyncMessenger) elevatorMessenger).getBuffer().flush();
+        } else if (elevatorMessenger instanceof EncodedMessenger) {
+            ((EncodedMessenger) elevatorMessenger).getOutput().flush();
+        }
+    }
+
+    /**
+     * Replay trace of calls in headless simulation and print its results
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param simulation headless simulation which group of elevators replays calls
+     * @param path path to text or binary trace of calls
+     */
+    static void replayTrace(Messenger messenger, Exiter exiter, Simulation simulation, String path) {
+        GroupController groupController = simulation.getGroupController();
+        EventLoop eventLoop = groupController.getEventLoop();
+        try (TraceReader reader = new TraceReader(Paths.get(path))) {
+            TraceReplay replay = new TraceReplay(groupController, reader);
+            long start = System.nanoTime();
+            replay.start();
+            eventLoop.run();
+            long wallTime = Math.max(System.nanoTime() - start, 1);
+            flushMessages(simulation);
+            messenger.printFormattedMessage("Воспроизведено вызовов - %s\n", String.valueOf(replay.getReplayedCount()));
+            messenger.printFormattedMessage("Пропущено вызовов - %s\n", String.valueOf(replay.getSkippedCount()));
+            messenger.printFormattedMessage("Время симуляции - %s секунд\n", String.valueOf(eventLoop.getTime() / 1000));
+            messenger.printFormattedMessage("Событий в секунду - %s\n",
+                    String.valueOf(eventLoop.getExecutedCount() * 1000000000L / wallTime));
+            simulation.getMetrics().printSummary(messenger);
+        } catch (IOException | InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка чтения трассы вызовов");
+            exiter.exit();
+        } catch (InterruptedException e) {
+            messenger.printErrorMessage("Ошибка в работе лифтов");
+        }
+    }
+
+    /**
+     * Create dispatcher of calls from porch chosen by system property elevator.dispatch
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @return dispatcher by estimated time of arrival (collective, default) or destination dispatcher (destination)
+     */
+    static Dispatcher createDispatcher(Messenger messenger, Exiter exiter) {
+        String dispatch = System.getProperty("elevator.dispatch", "collective");
+        if (dispatch.equals("destination")) {
+            return new DestinationDispatcher();
+        }
+        if (!dispatch.equals("collective")) {
+            messenger.printErrorMessage("Способ диспетчеризации должен быть collective или destination");
+            exiter.exit();
+        }
+        return new EtaDispatcher();
+    }
+
+    /**
+     * Check parking of free elevators chosen by system property elevator.parking
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @return true for parking on floors of likely calls (predictive), false for waiting on floor of last stop (none)
+     */
+    static boolean parseParkingProperty(Messenger messenger, Exiter exiter) {
+        String parking = System.getProperty("elevator.parking", "none");
+        if (parking.equals("predictive")) {
+            return true;
+        }
+        if (!parking.equals("none")) {
+            messenger.printErrorMessage("Парковка лифтов должна быть none или predictive");
+            exiter.exit();
+        }
+        return false;
+    }
+
+    /**
+     * Set policy of serving stops by elevator chosen by system property elevator.scheduling
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param elevator elevator which policy is set: look (default) reverses after the last stop,
+     *                 scan reverses only at the last floor of building
+     */
+    static void parseSchedulingProperty(Messenger messenger, Exiter exiter, Elevator elevator) {
+        String scheduling = System.getProperty("elevator.scheduling", "look");
+        if (scheduling.equals("scan")) {
+            elevator.setSchedulingPolicy(SchedulingPolicy.SCAN);
+            return;
+        }
+        if (!scheduling.equals("look")) {
+            messenger.printErrorMessage("Порядок обслуживания остановок должен быть look или scan");
+            exiter.exit();
+        }
+        elevator.setSchedulingPolicy(SchedulingPolicy.LOOK);
+    }
+
+    /**
+     * Parse capacity of cabin and time of boarding of passenger from system properties
+     * elevator.capacity (kilograms) and elevator.boarding (milliseconds)
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param elevator elevator which parameters are set
+     */
+    static void parsePassengerProperties(Messenger messenger, Exiter exiter, Elevator elevator) {
+        long capacity = parseLongProperty(messenger, exiter, "elevator.capacity", elevator.getCapacity(),
+                "Грузоподъемность лифта должна быть целым числом килограммов больше нуля");
+        long boardingTime = parseLongProperty(messenger, exiter, "elevator.boarding", elevator.getBoardingTime(),
+                "Время входа пассажира должно быть целым числом миллисекунд больше нуля");
+        elevator.setCapacity((int) Math.min(capacity, Integer.MAX_VALUE));
+        elevator.setBoardingTime((int) Math.min(boardingTime, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Parse motion profile of elevator from system properties elevator.acceleration (meters per second squared)
+     * and elevator.jerk (meters per second cubed), 0 or absent property means unlimited
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param elevator elevator which parameters are set
+     */
+    static void parseMotionProperties(Messenger messenger, Exiter exiter, Elevator elevator) {
+        float acceleration = -1;
+        float jerk = -1;
+        try {
+            acceleration = Float.parseFloat(System.getProperty("elevator.acceleration", "0"));
+            jerk = Float.parseFloat(System.getProperty("elevator.jerk", "0"));
+        } catch (NumberFormatException e) {
+            acceleration = -1;
+        }
+        if (!(acceleration >= 0) || !(jerk >= 0) || Float.isInfinite(acceleration) || Float.isInfinite(jerk)) {
+            messenger.printErrorMessage("Ускорение и рывок лифта должны быть неотрицательными числами");
+            exiter.exit();
+            return;
+        }
+        elevator.setAcceleration(acceleration);
+        elevator.setJerk(jerk);
+    }
+
+    /**
+     * Create profile of random traffic from system properties elevator.traffic and elevator.traffic.rate
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param traffic name of profile (up, down, inter, office) or path to origin-destination matrix
+     * @param floorsNumber number of floors in building
+     * @return profile of traffic
+     */
+    static TrafficProfile createTrafficProfile(Messenger messenger, Exiter exiter, String traffic, int floorsNumber) {
+        long rate = parseLongProperty(messenger, exiter, "elevator.traffic.rate", 300,
+                "Интенсивность вызовов должна быть целым числом вызовов в час больше нуля");
+        TrafficProfile profile = TrafficProfile.create(traffic, floorsNumber, rate);
+        if (profile != null) {
+            return profile;
+        }
+        try {
+            TrafficMatrix matrix = TrafficMatrix.parse(Files.readAllLines(Paths.get(traffic), StandardCharsets.UTF_8));
+            if (matrix.getFloorsNumber() != floorsNumber) {
+                messenger.printErrorMessage("Матрица поездок должна содержать строку и столбец для каждого этажа");
+                exiter.exit();
+            }
+            return TrafficProfile.constant(rate, matrix);
+        } catch (IOException | InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка чтения матрицы поездок");
+        } catch (IllegalArgumentException e) {
+            messenger.printErrorMessage("Некорректная матрица поездок");
+        }
+        exiter.exit();
+        return null;
+    }
+
+    /**
+     * Generate random traffic in headless simulation and print its results
+     * Duration of traffic is set by system property elevator.traffic.hours, seed by elevator.seed
+     * With property elevator.resume simulation is continued from checkpoint instead of start of traffic,
+     * with property elevator.checkpoint checkpoint is written every elevator.checkpoint.hours of simulation
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param simulation headless simulation
+     * @param profile profile of traffic
+     */
+    static void runTraffic(Messenger messenger, Exiter exiter, Simulation simulation, TrafficProfile profile) {
+        long hours = parseLongProperty(messenger, exiter, "elevator.traffic.hours", 24,
+                "Продолжительность движения должна быть целым числом часов больше нуля");
+        long seed = parseSeedProperty(messenger, exiter);
+        long checkpointHours = parseLongProperty(messenger, exiter, "elevator.checkpoint.hours", 1,
+                "Интервал контрольных точек должен быть целым числом часов больше нуля");
+        String resume = System.getProperty("elevator.resume");
+        String checkpoint = System.getProperty("elevator.checkpoint");
+        EventLoop eventLoop = simulation.getEventLoop();
+        TrafficGenerator generator;
+        if (resume == null) {
+            generator = simulation.scheduleTraffic(profile, seed, hours * TrafficProfile.HOUR);
+        } else {
+            try {
+                generator = SimulationCheckpoint.read(simulation, profile, Paths.get(resume));
+            } catch (IOException | InvalidPathException e) {
+                generator = null;
+            }
+            if (generator == null) {
+                messenger.printErrorMessage("Ошибка чтения контрольной точки");
+                exiter.exit();
+                return;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            if (checkpoint == null) {
+                simulation.run();
+            } else {
+                long checkpointTime = eventLoop.getTime();
+                while (eventLoop.hasEvents()) {
+                    checkpointTime += checkpointHours * TrafficProfile.HOUR;
+                    while (eventLoop.hasEvents() && eventLoop.getNextEventTime() <= checkpointTime) {
+                        eventLoop.runNext();
+                    }
+                    SimulationCheckpoint.write(simulation, generator, Paths.get(checkpoint));
+                }
+            }
+        } catch (IOException | InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка записи контрольной точки");
+            exiter.exit();
+            return;
+        } catch (InterruptedException e) {
+            messenger.printErrorMessage("Ошибка в работе лифтов");
+            return;
+        }
+        long wallTime = Math.max(System.nanoTime() - start, 1);
+        flushMessages(simulation);
+        messenger.printFormattedMessage("Сгенерировано вызовов - %s\n", String.valueOf(generator.getGeneratedCount()));
+        messenger.printFormattedMessage("Время симуляции - %s секунд\n", String.valueOf(eventLoop.getTime() / 1000));
+        messenger.printFormattedMessage("Событий в секунду - %s\n",
+                String.valueOf(eventLoop.getExecutedCount() * 1000000000L / wallTime));
+        simulation.getMetrics().printSummary(messenger);
+    }
+
+    /**
+     * Parse integer system property
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param name name of property
+     * @param defaultValue value of property if it is not set
+     * @param error message printed if property is not positive integer number
+     * @return value of property
+     */
+    static long parseLongProperty(Messenger messenger, Exiter exiter, String name, long defaultValue, String error) {
+        long value = defaultValue;
+        try {
+            value = Long.parseLong(System.getProperty(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            value = 0;
+        }
+        if (value <= 0) {
+            messenger.printErrorMessage(error);
+            exiter.exit();
+        }
+        return value;
+    }
+
+    /**
+     * Parse pace of real-time simulation from system property elevator.pace
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @return seconds of simulation per second of wall clock, 0 if property is not set
+     */
+    static double parsePaceProperty(Messenger messenger, Exiter exiter) {
+        String property = System.getProperty("elevator.pace");
+        if (property == null) {
+            return 0;
+        }
+        double pace = 0;
+        try {
+            pace = Double.parseDouble(property);
+        } catch (NumberFormatException e) {
+            pace = 0;
+        }
+        if (!(pace > 0) || Double.isInfinite(pace)) {
+            messenger.printErrorMessage("Темп симуляции должен быть числом больше нуля");
+            exiter.exit();
+            return 0;
+        }
+        return pace;
+    }
+
+    /**
+     * Parse seed of simulations from system property elevator.seed
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @return seed of simulations, 1 if property is not set
+     */
+    static long parseSeedProperty(Messenger messenger, Exiter exiter) {
+        long seed = 1;
+        try {
+            seed = Long.parseLong(System.getProperty("elevator.seed", "1"));
+        } catch (NumberFormatException e) {
+            messenger.printErrorMessage("Зерно симуляций должно быть целым числом");
+            exiter.exit();
+        }
+        return seed;
+    }
+
+    /**
+     * Run independent headless simulations with random calls in parallel and print their joint statistics
+     * Number of simulations, seed and number of calls in every simulation are set by
+     * system properties elevator.runs, elevator.seed and elevator.calls,
+     * with system property elevator.traffic calls are generated by profile of traffic instead
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param template elevator which settings are used in all simulations
+     * @param elevatorsNumber number of elevators in every simulation
+     */
+    static void runSimulations(Messenger messenger, Exiter exiter, Elevator template, int elevatorsNumber) {
+        int runs = (int) parseLongProperty(messenger, exiter, "elevator.runs", 1,
+                "Количество симуляций должно быть целым числом больше нуля");
+        long seed = parseSeedProperty(messenger, exiter);
+        int calls = (int) parseLongProperty(messenger, exiter, "elevator.calls", 1000,
+                "Количество вызовов должно быть целым числом больше нуля");
+        String traffic = System.getProperty("elevator.traffic");
+        TrafficProfile profile = traffic == null ? null
+                : createTrafficProfile(messenger, exiter, traffic, template.getFloorsNumber());
+        long duration = traffic == null ? 0 : TrafficProfile.HOUR * parseLongProperty(messenger, exiter,
+                "elevator.traffic.hours", 24, "Продолжительность движения должна быть целым числом часов больше нуля");
+        Dispatcher dispatcher = createDispatcher(messenger, exiter);
+        boolean parking = parseParkingProperty(messenger, exiter);
+        SimulationRunner runner = new SimulationRunner();
+        long start = System.nanoTime();
+        List<SimulationMetrics> results = runner.run(runs, seed, simulationSeed -> {
+            Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(false), dispatcher);
+            Elevator elevator = simulation.createElevator(new SilentMessenger());
+            elevator.copySettings(template);
+            elevator.setExpressRuns(true);
+            simulation.createElevators(elevator, elevatorsNumber);
+            if (parking) {
+                simulation.enableParking();
+            }
+            if (profile == null) {
+                simulation.scheduleRandomCalls(simulationSeed, calls, Simulation.CALLS_INTERVAL);
+            } else {
+                simulation.scheduleTraffic(profile, simulationSeed, duration);
+            }
+            return simulation;
+        });
+        long wallTime = Math.max(System.nanoTime() - start, 1);
+        runner.shutdown();
+        LatencyHistogram waitTime = new LatencyHistogram();
+        LatencyHistogram rideTime = new LatencyHistogram();
+        for (SimulationMetrics metrics : results) {
+            waitTime.add(metrics.getWaitTime());
+            rideTime.add(metrics.getRideTime());
+        }
+        messenger.printFormattedMessage("Выполнено симуляций - %s\n", String.valueOf(results.size()));
+        messenger.printFormattedMessage("Симуляций в секунду - %s\n",
+                String.valueOf(results.size() * 1000000000L / wallTime));
+        messenger.printFormattedMessage("Ожидание лифта: %s\n", SimulationMetrics.formatHistogram(waitTime));
+        messenger.printFormattedMessage("Поездка до этажа: %s\n", SimulationMetrics.formatHistogram(rideTime));
+    }
+
+    /**
+     * Search for the cheapest configuration of building and elevators which meets target waiting time
+     * Arguments are grids of values: single value, values separated by comma or range from:to:step
+     * Target 95th percentile of waiting time in seconds is set by system property elevator.sweep,
+     * results of all configurations are written to CSV file from property elevator.sweep.output
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param args grids of floors numbers, speeds, floor heights, doors times and elevators numbers
+     */
+    static void runSweep(Messenger messenger, Exiter exiter, String[] args) {
+        long target = parseLongProperty(messenger, exiter, "elevator.sweep", 1,
+                "Целевое время ожидания должно быть целым числом секунд больше нуля");
+        if (args.length != 5) {
+            messenger.printErrorMessage("Для перебора параметров нужно задать 5 диапазонов");
+            exiter.exit();
+            return;
+        }
+        List<SweepConfiguration> configurations;
+        try {
+            configurations = ParameterSweep.createConfigurations(ParameterSweep.parseGrid(args[0]),
+                    ParameterSweep.parseGrid(args[1]), ParameterSweep.parseGrid(args[2]),
+                    ParameterSweep.parseGrid(args[3]), ParameterSweep.parseGrid(args[4]));
+        } catch (NumberFormatException e) {
+            messenger.printErrorMessage("Диапазон параметров задается числом, списком через запятую или от:до:шаг");
+            exiter.exit();
+            return;
+        }
+        for (SweepConfiguration configuration : configurations) {
+            if (configuration.getFloorsNumber() < 5
+                    || configuration.getFloorsNumber() > MAX_FLOORS_NUMBER
+                    || configuration.getElevatorSpeed() <= 0 || configuration.getFloorHeight() <= 0
+                    || configuration.getDoorsTime() <= 0 || configuration.getElevatorsNumber() <= 0) {
+                messenger.printErrorMessage("Недопустимые параметры: " + configuration);
+                exiter.exit();
+                return;
+            }
+        }
+        int runs = (int) parseLongProperty(messenger, exiter, "elevator.runs", 10,
+                "Количество симуляций должно быть целым числом больше нуля");
+        long seed = parseSeedProperty(messenger, exiter);
+        int calls = (int) parseLongProperty(messenger, exiter, "elevator.calls", 1000,
+                "Количество вызовов должно быть целым числом больше нуля");
+        messenger.printFormattedMessage("Конфигураций для перебора - %s\n", String.valueOf(configurations.size()));
+
+        SimulationRunner runner = new SimulationRunner();
+        SweepConfiguration best = new ParameterSweep(runner, target * 1000, runs, calls, seed).run(configurations);
+        runner.shutdown();
+
+        String output = System.getProperty("elevator.sweep.output", "sweep.csv");
+        try (Writer writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+            ParameterSweep.writeResults(configurations, writer);
+        } catch (IOException | InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка записи результатов перебора");
+        }
+        if (best == null) {
+            messenger.printMessage("Нет конфигурации с заданным временем ожидания\n");
+        } else {
+            messenger.printFormattedMessage("Лучшая конфигурация: %s\n", best.toString());
+        }
+    }
+
+    /**
+     * Open journal of events of headless simulation in directory set by system property elevator.journal,
+     * size of segment in megabytes is set by elevator.journal.segment
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param simulation headless simulation
+     * @return journal connected to group of elevators or null if property is not set
+     */
+    static EventJournal openJournal(Messenger messenger, Exiter exiter, Simulation simulation) {
+        String directory = System.getProperty("elevator.journal");
+        if (directory == null) {
+            return null;
+        }
+        long segment = parseLongProperty(messenger, exiter, "elevator.journal.segment",
+                EventJournal.SEGMENT_SIZE >> 20, "Размер сегмента журнала должен быть целым числом мегабайт от 1 до 2047");
+        try {
+            EventJournal journal = new EventJournal(Paths.get(directory), Math.min(segment, 2047) << 20,
+                    simulation.getEventLoop());
+            simulation.getGroupController().setJournal(journal);
+            return journal;
+        } catch (IOException | InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка записи журнала событий");
+            exiter.exit();
+            return null;
+        }
+    }
+
+    /**
+     * Close journal of events and print number of its records
+     * @param messenger instance of Messenger class for interaction with console
+     * @param journal journal of events or null
+     */
+    static void closeJournal(Messenger messenger, EventJournal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            messenger.printErrorMessage("Ошибка записи журнала событий");
+            return;
+        }
+        if (journal.isFailed()) {
+            messenger.printErrorMessage("Ошибка записи журнала событий");
+        }
+        messenger.printFormattedMessage("Записано событий в журнал - %s\n", String.valueOf(journal.getCount()));
+    }
+
+    /**
+     * Start local server of calls on port set by system property elevator.server.port,
+     * server registers calls through input of interactive simulation and sends events of elevators to subscribers
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     * @param simulation interactive simulation
+     * @param inputLoop input connected to simulation
+     * @return started server or null if property is not set
+     */
+    static ControlServer startControlServer(Messenger messenger, Exiter exiter, Simulation simulation,
+                                            InputLoop inputLoop) {
+        String property = System.getProperty("elevator.server.port");
+        if (property == null) {
+            return null;
+        }
+        int port = -1;
+        try {
+            port = Integer.parseInt(property);
+        } catch (NumberFormatException e) {
+            port = -1;
+        }
+        if (port < 0 || port > 65535) {
+            messenger.printErrorMessage("Порт сервера управления должен быть целым числом от 0 до 65535");
+            exiter.exit();
+            return null;
+        }
+        ControlServer server;
+        try {
+            server = new ControlServer(inputLoop, simulation.getEventLoop(), port);
+        } catch (IOException e) {
+            messenger.printErrorMessage("Ошибка запуска сервера управления");
+            exiter.exit();
+            return null;
+        }
+        simulation.getGroupController().setJournal(server);
+        server.start();
+        messenger.printFormattedMessage("Сервер управления на порту %s\n", String.valueOf(server.getPort()));
+        return server;
+    }
+
+    /**
+     * Scan journal of events in directory set by system property elevator.journal.query and print summary of records
+     * Records are filtered by properties elevator.journal.elevator (number of elevator from 1, 0 for group),
+     * elevator.journal.type (type of record), elevator.journal.floor and elevator.journal.passenger
+     * @param messenger instance of Messenger class for interaction with console
+     * @param exiter instance of Exiter to terminate program
+     */
+    static void queryJournal(Messenger messenger, Exiter exiter) {
+        JournalReader reader;
+        try {
+            reader = new JournalReader(Paths.get(System.getProperty("elevator.journal.query")));
+        } catch (InvalidPathException e) {
+            messenger.printErrorMessage("Ошибка чтения журнала событий");
+            exiter.exit();
+            return;
+        }
+        try {
+            String elevator = System.getProperty("elevator.journal.elevator");
+            if (elevator != null) {
+                reader.setElevator(Integer.parseInt(elevator) - 1);
+            }
+            String floor = System.getProperty("elevator.journal.floor");
+            if (floor != null) {
+                reader.setFloors(Integer.parseInt(floor), Integer.parseInt(floor));
+            }
+            String passenger = System.getProperty("elevator.journal.passenger");
+            if (passenger != null) {
+                reader.setPassenger(Long.parseLong(passenger));
+            }
+            String type = System.getProperty("elevator.journal.type");
+            if (type != null) {
+                reader.setType(JournalEvent.valueOf(type.toUpperCase(Locale.ROOT)));
+            }
+        } catch (IllegalArgumentException e) {
+            messenger.printErrorMessage("Некорректный фильтр журнала событий");
+            exiter.exit();
+            return;
+        }
+        try {
+            reader.scan().printSummary(messenger);
+        } catch (IOException e) {
+            messenger.printErrorMessage("Ошибка чтения журнала событий");
+            exiter.exit();
+        }
+    }
+
     /**
      * Entry point to start program
      * @param args arguments for program:
      *             first argument - number of floors in building,
      *             second argument - speed of elevator,
      *             third argument - height of floor in building,
-     *             fourth argument - time of cycle open-close for elevator's doors
+     *             fourth argument - time of cycle open-close for elevator's doors,
+     *             fifth argument (optional) - number of elevators in building
+     *             with system property elevator.replay calls are replayed from trace file instead of console,
+     *             with system property elevator.traffic random traffic is generated in headless simulation,
+     *             with system property elevator.pace simulation is paced to wall clock sped up by given factor,
+     *             with system property elevator.server.port calls are also accepted from local clients,
+     *             with system property elevator.runs many simulations with random calls are run in parallel,
+     *             with system property elevator.sweep arguments are grids of parameters searched for the best,
+     *             with system property elevator.journal.query journal of events is scanned instead of simulation
      */
     public static void main(String[] args) {
         Messenger messenger = new Messenger();
         messenger.printMessage("*** Симулятор лифта ***\n");
+        if (System.getProperty("elevator.sweep") != null) {
+            runSweep(messenger, new Exiter(), args);
+            return;
+        }
+        if (System.getProperty("elevator.journal.query") != null) {
+            queryJournal(messenger, new Exiter());
+            return;
+        }
 
-        Elevator elevator = new Elevator(new Messenger());
+        String tracePath = System.getProperty("elevator.replay");
+        String traffic = System.getProperty("elevator.traffic");
+        boolean headless = tracePath != null || traffic != null;
+        double pace = parsePaceProperty(messenger, new Exiter());
+        EventLoop eventLoop = new EventLoop(!headless || pace > 0, pace > 0 ? pace : 1);
+        Simulation simulation = new Simulation(new Messenger(), eventLoop, createDispatcher(messenger, new Exiter()));
+        Elevator elevator = simulation.createElevator(createElevatorMessenger(messenger, new Exiter(),
+                headless && pace <= 0));
         InputLoop inputLoop = new InputLoop(new Messenger());
+        elevator.setExpressRuns(headless);
 
         parseArgs(messenger, args, inputLoop, elevator);
+        parsePassengerProperties(messenger, new Exiter(), elevator);
+        parseMotionProperties(messenger, new Exiter(), elevator);
+        parseSchedulingProperty(messenger, new Exiter(), elevator);
+        int elevatorsNumber = parseElevatorsNumberParam(messenger, new Exiter(), args);
+        messenger.printFormattedMessage("Количество лифтов - %s\n", elevatorsNumber);
+        if (System.getProperty("elevator.runs") != null) {
+            runSimulations(messenger, new Exiter(), elevator, elevatorsNumber);
+            return;
+        }
+        simulation.createElevators(elevator, elevatorsNumber);
+        if (parseParkingProperty(messenger, new Exiter())) {
+            simulation.enableParking();
+        }
+        SimulationMetrics metrics = simulation.getMetrics();
+        registerMetrics(messenger, metrics);
+        if (tracePath != null) {
+            EventJournal journal = openJournal(messenger, new Exiter(), simulation);
+            replayTrace(messenger, new Exiter(), simulation, tracePath);
+            closeJournal(messenger, journal);
+            return;
+        }
+        if (traffic != null) {
+            TrafficProfile profile = createTrafficProfile(messenger, new Exiter(), traffic, elevator.getFloorsNumber());
+            EventJournal journal = openJournal(messenger, new Exiter(), simulation);
+            runTraffic(messenger, new Exiter(), simulation, profile);
+            closeJournal(messenger, journal);
+            return;
+        }
+
         printAvailableActions(messenger);
+        simulation.connect(inputLoop);
+        startControlServer(messenger, new Exiter(), simulation, inputLoop);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> metrics.printSummary(messenger)));
 
         Thread inputThread = new Thread(inputLoop);
-        Thread elevatorThread = new Thread(elevator);
+        Thread groupThread = new Thread(simulation.getGroupController());
         inputThread.start();
-        elevatorThread.start();
+        groupThread.start();
     }
 }
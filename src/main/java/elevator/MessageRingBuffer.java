@@ -0,0 +1,287 @@
+package elevator;
+
+import java.io.PrintStream;
+import java.util.Formatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free buffer of messages with single writer thread
+ * Producers publish messages into pre-sized records, writer formats messages in batches,
+ * number for template is kept in record as int, so producer does not create string for it
+ * and flushes every batch to output stream at once
+ */
+class MessageRingBuffer implements Runnable {
+
+    /**
+     * Maximal number of messages written by one flush of output stream
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private final PrintStream out;
+    private final OverflowPolicy policy;
+    private final int sampleRate;
+    private final int mask;
+    private final MessageRecord[] records;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final StringBuilder batch = new StringBuilder();
+    private final Formatter formatter = new Formatter(this.batch);
+    private volatile long head = 0;
+    private volatile boolean running = false;
+    private volatile boolean parked = false;
+    private volatile Thread writer;
+
+    /**
+     * Record of message, records are created once and reused
+     */
+    private static class MessageRecord {
+        private String prefix;
+        private String template;
+        private String value;
+        private int number;
+        private boolean numeric;
+    }
+
+    /**
+     * Create buffer of messages
+     * @param out - output stream for messages
+     * @param capacity - number of messages in buffer, rounded up to power of two
+     * @param policy - policy for full buffer
+     * @param sampleRate - for SAMPLE policy every sampleRate-th message of overflow is kept
+     */
+    MessageRingBuffer(PrintStream out, int capacity, OverflowPolicy policy, int sampleRate) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.out = out;
+        this.policy = policy;
+        this.sampleRate = Math.max(sampleRate, 1);
+        this.mask = size - 1;
+        this.records = new MessageRecord[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.records[i] = new MessageRecord();
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Return number of messages in buffer
+     * @return number of messages in buffer
+     */
+    protected int getCapacity() {
+        return this.records.length;
+    }
+
+    /**
+     * Return policy for full buffer
+     * @return policy for full buffer
+     */
+    protected OverflowPolicy getPolicy() {
+        return this.policy;
+    }
+
+    /**
+     * Return number of dropped messages
+     * @return number of dropped messages
+     */
+    protected long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Return number of messages written to output stream
+     * @return number of written messages
+     */
+    protected long getWrittenCount() {
+        return this.written.get();
+    }
+
+    /**
+     * Start writer thread
+     */
+    protected synchronized void start() {
+        if (this.writer == null) {
+            this.running = true;
+            this.writer = new Thread(this, "messenger");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+    }
+
+    /**
+     * Publish message for writing, full buffer is handled by overflow policy
+     * @param prefix - prefix of message
+     * @param template - template for formatting message, null for plain message
+     * @param value - value for template or plain message
+     * @return true if message was published, false if it was dropped
+     */
+    protected boolean publish(String prefix, String template, String value) {
+        return this.publish(prefix, template, value, 0, false);
+    }
+
+    /**
+     * Publish message with number for writing, full buffer is handled by overflow policy
+     * @param prefix - prefix of message
+     * @param template - template for formatting message
+     * @param number - number for template
+     * @return true if message was published, false if it was dropped
+     */
+    protected boolean publish(String prefix, String template, int number) {
+        return this.publish(prefix, template, null, number, true);
+    }
+
+    /**
+     * Publish message with text or number for writing, full buffer is handled by overflow policy
+     * @param prefix - prefix of message
+     * @param template - template for formatting message, null for plain message
+     * @param value - value for template or plain message
+     * @param number - number for template
+     * @param numeric - true if template takes number instead of value
+     * @return true if message was published, false if it was dropped
+     */
+    private boolean publish(String prefix, String template, String value, int number, boolean numeric) {
+        if (this.offer(prefix, template, value, number, numeric)) {
+            return true;
+        }
+        if (this.policy == OverflowPolicy.DROP
+                || (this.policy == OverflowPolicy.SAMPLE && this.overflows.incrementAndGet() % this.sampleRate != 0)) {
+            this.dropped.incrementAndGet();
+            return false;
+        }
+        while (!this.offer(prefix, template, value, number, numeric)) {
+            this.wakeUpWriter();
+            LockSupport.parkNanos(100000);
+        }
+        return true;
+    }
+
+    /**
+     * Try to put message into free record of buffer
+     * @param prefix - prefix of message
+     * @param template - template for formatting message, null for plain message
+     * @param value - value for template or plain message
+     * @param number - number for template
+     * @param numeric - true if template takes number instead of value
+     * @return true if message was put, false if buffer is full
+     */
+    private boolean offer(String prefix, String template, String value, int number, boolean numeric) {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int) position & this.mask;
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    MessageRecord record = this.records[index];
+                    record.prefix = prefix;
+                    record.template = template;
+                    record.value = value;
+                    record.number = number;
+                    record.numeric = numeric;
+                    this.sequences.lazySet(index, position + 1);
+                    if (this.parked) {
+                        this.wakeUpWriter();
+                    }
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * Wake up parked writer thread
+     */
+    private void wakeUpWriter() {
+        Thread thread = this.writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Write next batch of published messages to output stream
+     * @return number of written messages
+     */
+    protected int writeBatch() {
+        int count = 0;
+        long position = this.head;
+        while (count < BATCH_SIZE) {
+            int index = (int) position & this.mask;
+            if (this.sequences.get(index) != position + 1) {
+                break;
+            }
+            MessageRecord record = this.records[index];
+            if (record.prefix != null) {
+                this.batch.append(record.prefix);
+            }
+            if (record.template == null) {
+                this.batch.append(record.value);
+            } else if (record.numeric) {
+                this.formatter.format(record.template, record.number);
+            } else {
+                this.formatter.format(record.template, record.value);
+            }
+            record.prefix = null;
+            record.template = null;
+            record.value = null;
+            this.sequences.lazySet(index, position + this.records.length);
+            position++;
+            count++;
+        }
+        if (count > 0) {
+            this.head = position;
+            this.out.print(this.batch);
+            this.out.flush();
+            this.batch.setLength(0);
+            this.written.addAndGet(count);
+        }
+        return count;
+    }
+
+    /**
+     * Entry point of writer thread
+     * Writes batches of messages, parks when there are no messages
+     */
+    public void run() {
+        while (this.running || this.head != this.tail.get()) {
+            if (this.writeBatch() == 0) {
+                this.parked = true;
+                if (this.head == this.tail.get() && this.running) {
+                    LockSupport.parkNanos(this, 10000000);
+                }
+                this.parked = false;
+            }
+        }
+    }
+
+    /**
+     * Wait until all published messages are written
+     */
+    protected void flush() {
+        while (this.head != this.tail.get() && this.writer != null && this.writer.isAlive()) {
+            this.wakeUpWriter();
+            LockSupport.parkNanos(100000);
+        }
+    }
+
+    /**
+     * Write all published messages and stop writer thread
+     * @throws InterruptedException if waiting for writer thread was interrupted
+     */
+    protected void close() throws InterruptedException {
+        Thread thread = this.writer;
+        this.running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+    }
+}
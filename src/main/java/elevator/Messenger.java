@@ -4,12 +4,46 @@ package elevator;
  * Class to print output to console
  */
 class Messenger {
+
+    private String prefix = "";
+
+    Messenger() {
+    }
+
+    Messenger(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Set prefix for messages, used to distinguish elevators in group
+     * @param prefix - text printed before every message
+     */
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Get prefix for messages
+     * @return text printed before every message
+     */
+    public String getPrefix() {
+        return this.prefix;
+    }
+
+    /**
+     * Create messenger of the same kind for other elevator
+     * @return new instance of messenger
+     */
+    public Messenger copy() {
+        return new Messenger();
+    }
+
     /**
      * Print message to console
      * @param message message to print
      */
     public void printMessage(String message){
-        System.out.print(message);
+        System.out.print(this.prefix + message);
     }
 
     /**
@@ -18,7 +52,16 @@ class Messenger {
      * @param value value for message
      */
     public void printFormattedMessage(String template, String value){
-        System.out.format(template, value);
+        System.out.format(this.prefix + template, value);
+    }
+
+    /**
+     * Print formatted message with number to console, number is formatted only when message is printed
+     * @param template for formatting message
+     * @param value number for message, floor or count of passengers
+     */
+    public void printFormattedMessage(String template, int value){
+        this.printFormattedMessage(template, Integer.toString(value));
     }
 
     /**
@@ -28,4 +71,4 @@ class Messenger {
     public void printErrorMessage(String message){
         System.err.println(message);
     }
-}
+}
\ No newline at end of file
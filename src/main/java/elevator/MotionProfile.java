@@ -0,0 +1,146 @@
+package elevator;
+
+/**
+ * Motion profile of car type: rated speed, acceleration and jerk
+ * Travel time for every distance in floors is computed once when profile is created,
+ * so simulation and estimation of arrival take it from table
+ * Acceleration or jerk equal to 0 is unlimited, without limits car moves every floor in the same time
+ */
+class MotionProfile {
+
+    private final float speed;
+    private final float floorHeight;
+    private final float acceleration;
+    private final float jerk;
+    private final long[] travelTimes;
+    private final long[] brakingPoints;
+
+    /**
+     * Create motion profile and compute table of travel times
+     * @param speed - rated speed of car (meters per second)
+     * @param floorHeight - height of floor in building (meters)
+     * @param acceleration - maximal acceleration of car (meters per second squared), 0 for unlimited
+     * @param jerk - maximal jerk of car (meters per second cubed), 0 for unlimited
+     * @param floorsNumber - number of floors in building
+     */
+    MotionProfile(float speed, float floorHeight, float acceleration, float jerk, int floorsNumber) {
+        this.speed = speed;
+        this.floorHeight = floorHeight;
+        this.acceleration = acceleration;
+        this.jerk = jerk;
+        this.travelTimes = new long[Math.max(floorsNumber, 2)];
+        this.brakingPoints = new long[this.travelTimes.length];
+        for (int floors = 1; floors < this.travelTimes.length; floors++) {
+            this.travelTimes[floors] = this.computeTravelTime(floors);
+            this.brakingPoints[floors] = this.computeBrakingPoint(floors);
+        }
+    }
+
+    /**
+     * Return time of run from stop to stop over given number of floors (milliseconds)
+     * @param floors - distance of run in floors, not negative
+     * @return travel time (milliseconds)
+     */
+    protected long getTravelTime(int floors) {
+        return floors < this.travelTimes.length ? this.travelTimes[floors] : this.computeTravelTime(floors);
+    }
+
+    /**
+     * Find nearest distance where car, departed to farther floor, can still stop
+     * Run to nearer floor is the same as run to farther one until it starts braking, so car can stop
+     * on floor if braking point of run to this floor has not been passed yet
+     * @param elapsed - time since departure (milliseconds)
+     * @return distance from floor of departure (floors), at least 1
+     */
+    protected int getStoppingDistance(long elapsed) {
+        int low = 1;
+        int high = this.brakingPoints.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.brakingPoints[middle] >= elapsed) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compute time since departure when car must start braking to stop after given number of floors (milliseconds)
+     * @param floors - distance of run in floors, not negative
+     * @return braking point (milliseconds)
+     */
+    private long computeBrakingPoint(int floors) {
+        if (this.speed <= 0 || this.acceleration <= 0) {
+            return this.computeTravelTime(floors);
+        }
+        double distance = floors * (double) this.floorHeight;
+        return Math.round((computeTravelTime(distance, this.speed, this.acceleration, this.jerk)
+                - computeBrakingTime(distance, this.speed, this.acceleration, this.jerk)) * 1000);
+    }
+
+    /**
+     * Compute time of run over given number of floors (milliseconds)
+     * @param floors - distance of run in floors, not negative
+     * @return travel time (milliseconds), 0 if car does not move
+     */
+    private long computeTravelTime(int floors) {
+        if (this.speed <= 0) {
+            return 0;
+        }
+        if (this.acceleration <= 0) {
+            return floors * (long) (this.floorHeight / this.speed * 1000);
+        }
+        return Math.round(computeTravelTime(floors * (double) this.floorHeight, this.speed, this.acceleration,
+                this.jerk) * 1000);
+    }
+
+    /**
+     * Compute time of run from stop to stop by jerk-limited profile (seconds)
+     * Short run does not reach rated speed or maximal acceleration, so it takes longer per meter than long run
+     * @param distance - distance of run (meters)
+     * @param speed - rated speed (meters per second)
+     * @param acceleration - maximal acceleration (meters per second squared), positive
+     * @param jerk - maximal jerk (meters per second cubed), 0 for unlimited
+     * @return travel time (seconds)
+     */
+    static double computeTravelTime(double distance, double speed, double acceleration, double jerk) {
+        if (distance <= 0) {
+            return 0;
+        }
+        if (jerk <= 0) {
+            if (distance >= speed * speed / acceleration) {
+                return distance / speed + speed / acceleration;
+            }
+            return 2 * Math.sqrt(distance / acceleration);
+        }
+        // acceleration which can not be reached before rated speed is not used
+        double peak = Math.min(acceleration, Math.sqrt(speed * jerk));
+        double rampTime = peak / jerk;
+        if (distance >= speed * (speed / peak + rampTime)) {
+            return distance / speed + speed / peak + rampTime;
+        }
+        if (distance >= 2 * peak * rampTime * rampTime) {
+            return Math.sqrt(rampTime * rampTime + 4 * distance / peak) + rampTime;
+        }
+        return 4 * Math.cbrt(distance / (2 * jerk));
+    }
+
+    /**
+     * Compute time of braking at the end of run from stop to stop, it is equal to time of acceleration (seconds)
+     * @param distance - distance of run (meters)
+     * @param speed - rated speed (meters per second)
+     * @param acceleration - maximal acceleration (meters per second squared), positive
+     * @param jerk - maximal jerk (meters per second cubed), 0 for unlimited
+     * @return braking time (seconds)
+     */
+    static double computeBrakingTime(double distance, double speed, double acceleration, double jerk) {
+        double peak = jerk <= 0 ? acceleration : Math.min(acceleration, Math.sqrt(speed * jerk));
+        double rampTime = jerk <= 0 ? 0 : peak / jerk;
+        if (distance >= speed * (speed / peak + rampTime)) {
+            return speed / peak + rampTime;
+        }
+        return computeTravelTime(distance, speed, acceleration, jerk) / 2;
+    }
+}
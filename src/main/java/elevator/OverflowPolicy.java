@@ -0,0 +1,21 @@
+package elevator;
+
+/**
+ * Policies of asynchronous output when buffer of messages is full
+ */
+enum OverflowPolicy {
+    /**
+     * Wait until writer frees place for message
+     */
+    BLOCK,
+
+    /**
+     * Drop message
+     */
+    DROP,
+
+    /**
+     * Wait for place only for every n-th message, drop other messages
+     */
+    SAMPLE
+}
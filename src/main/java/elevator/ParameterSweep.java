@@ -0,0 +1,232 @@
+package elevator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sweep of parameters of building and elevators searching for the cheapest configuration
+ * which meets target 95th percentile of waiting time
+ * Configurations are evaluated in parallel by the same seeded runs, so they are compared on the same calls
+ * Evaluation stops early when cheaper configuration already meets target
+ * or when waiting time is far above target, simulations are reused by every thread of runner
+ */
+class ParameterSweep {
+
+    /**
+     * Number of checks for early stop during evaluation of configuration
+     */
+    private static final int STOP_CHECKS = 4;
+
+    /**
+     * Evaluation stops early when waiting time exceeds target this number of times
+     */
+    private static final int STOP_FACTOR = 2;
+
+    private final SimulationRunner runner;
+    private final long targetWaitTime;
+    private final int runsNumber;
+    private final int callsNumber;
+    private final long seed;
+    private final AtomicReference<SweepConfiguration> best = new AtomicReference<>();
+    private final ThreadLocal<Map<Integer, Simulation>> simulations = ThreadLocal.withInitial(HashMap::new);
+
+    /**
+     * Create sweep
+     * @param runner - runner of simulations in parallel
+     * @param targetWaitTime - target 95th percentile of waiting time (milliseconds)
+     * @param runsNumber - number of simulations for every configuration
+     * @param callsNumber - number of calls from porch in every simulation
+     * @param seed - seed of calls of simulations
+     */
+    ParameterSweep(SimulationRunner runner, long targetWaitTime, int runsNumber, int callsNumber, long seed) {
+        this.runner = runner;
+        this.targetWaitTime = targetWaitTime;
+        this.runsNumber = runsNumber;
+        this.callsNumber = callsNumber;
+        this.seed = seed;
+    }
+
+    /**
+     * Return the cheapest configuration found which meets target
+     * @return best configuration or null if no configuration meets target
+     */
+    protected SweepConfiguration getBest() {
+        return this.best.get();
+    }
+
+    /**
+     * Parse grid of values: single value, values separated by comma (1,2,4) or range with step (from:to:step)
+     * @param grid - text of grid
+     * @return values of grid
+     * @throws NumberFormatException if grid is incorrect
+     */
+    static List<Double> parseGrid(String grid) {
+        List<Double> values = new ArrayList<>();
+        String[] range = grid.split(":");
+        if (range.length == 3) {
+            double from = Double.parseDouble(range[0]);
+            double to = Double.parseDouble(range[1]);
+            double step = Double.parseDouble(range[2]);
+            if (!(step > 0) || from > to) {
+                throw new NumberFormatException("Incorrect range: " + grid);
+            }
+            for (int i = 0; from + i * step <= to + step * 1e-9; i++) {
+                values.add(from + i * step);
+            }
+        } else if (range.length == 1) {
+            for (String value : grid.split(",")) {
+                values.add(Double.parseDouble(value));
+            }
+        } else {
+            throw new NumberFormatException("Incorrect range: " + grid);
+        }
+        return values;
+    }
+
+    /**
+     * Create all combinations of parameters, ordered by cost
+     * @param floors - numbers of floors
+     * @param speeds - speeds of elevators
+     * @param heights - heights of floors
+     * @param doors - times of cycle open-close for doors
+     * @param elevators - numbers of elevators
+     * @return configurations from the cheapest
+     */
+    static List<SweepConfiguration> createConfigurations(List<Double> floors, List<Double> speeds,
+            List<Double> heights, List<Double> doors, List<Double> elevators) {
+        List<SweepConfiguration> configurations = new ArrayList<>();
+        for (Double floorsNumber : floors) {
+            for (Double speed : speeds) {
+                for (Double height : heights) {
+                    for (Double doorsTime : doors) {
+                        for (Double elevatorsNumber : elevators) {
+                            configurations.add(new SweepConfiguration(floorsNumber.intValue(), speed.floatValue(),
+                                    height.floatValue(), doorsTime.intValue(), elevatorsNumber.intValue()));
+                        }
+                    }
+                }
+            }
+        }
+        configurations.sort(Comparator.comparingDouble(SweepConfiguration::getCost));
+        return configurations;
+    }
+
+    /**
+     * Evaluate all configurations in parallel
+     * @param configurations - configurations to evaluate
+     * @return the cheapest configuration which meets target or null
+     */
+    protected SweepConfiguration run(List<SweepConfiguration> configurations) {
+        this.runner.forEach(configurations.size(), index -> this.evaluate(configurations.get(index)));
+        return this.best.get();
+    }
+
+    /**
+     * Evaluate configuration by seeded runs, runs with the same index have the same seed in all configurations
+     * @param configuration - configuration to evaluate
+     */
+    protected void evaluate(SweepConfiguration configuration) {
+        Elevator template = configuration.createTemplate();
+        Simulation simulation = this.getSimulation(configuration.getElevatorsNumber(), template);
+        int checkInterval = Math.max(this.runsNumber / STOP_CHECKS, 1);
+        for (int run = 0; run < this.runsNumber; run++) {
+            if (this.isBeaten(configuration)) {
+                configuration.setStatus(SweepStatus.PRUNED);
+                return;
+            }
+            simulation.reset(template);
+            simulation.scheduleRandomCalls(SimulationRunner.getSeed(this.seed, run), this.callsNumber,
+                    Simulation.CALLS_INTERVAL);
+            try {
+                simulation.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            configuration.addRun(simulation.getMetrics());
+            if ((run + 1) % checkInterval == 0 && run + 1 < this.runsNumber
+                    && configuration.getWaitTime().getPercentile(95) > STOP_FACTOR * this.targetWaitTime) {
+                configuration.setStatus(SweepStatus.STOPPED);
+                return;
+            }
+        }
+        if (configuration.getWaitTime().getPercentile(95) > this.targetWaitTime) {
+            configuration.setStatus(SweepStatus.INFEASIBLE);
+            return;
+        }
+        configuration.setStatus(SweepStatus.FEASIBLE);
+        SweepConfiguration current;
+        while (isBetter(configuration, current = this.best.get()) && !this.best.compareAndSet(current, configuration)) {
+            // other thread found better configuration at the same time
+        }
+        if (this.best.get() != configuration && configuration.getCost() > this.best.get().getCost()) {
+            configuration.setStatus(SweepStatus.PRUNED);
+        }
+    }
+
+    /**
+     * Write table of results in CSV format
+     * @param configurations - evaluated configurations
+     * @param writer - destination of table
+     * @throws IOException if table can not be written
+     */
+    static void writeResults(List<SweepConfiguration> configurations, Writer writer) throws IOException {
+        writer.write("floors,speed,height,doors,elevators,cost,runs,wait_mean_s,wait_p95_s,wait_max_s,status\n");
+        for (SweepConfiguration configuration : configurations) {
+            LatencyHistogram waitTime = configuration.getWaitTime();
+            writer.write(String.format(Locale.ROOT, "%d,%.2f,%.2f,%d,%d,%.2f,%d,%.1f,%.1f,%.1f,%s%n",
+                    configuration.getFloorsNumber(), configuration.getElevatorSpeed(),
+                    configuration.getFloorHeight(), configuration.getDoorsTime(),
+                    configuration.getElevatorsNumber(), configuration.getCost(), configuration.getRuns(),
+                    waitTime.getMean() / 1000, waitTime.getPercentile(95) / 1000.0, waitTime.getMax() / 1000.0,
+                    configuration.getStatus().name().toLowerCase()));
+        }
+    }
+
+    /**
+     * Check cheaper configuration already meets target
+     * @param configuration - configuration to check
+     * @return true if configuration can not become the best
+     */
+    private boolean isBeaten(SweepConfiguration configuration) {
+        SweepConfiguration current = this.best.get();
+        return current != null && current.getCost() < configuration.getCost();
+    }
+
+    /**
+     * Compare configurations which meet target: lower cost wins, equal costs are compared by waiting time
+     * @param configuration - new configuration
+     * @param current - current best configuration or null
+     * @return true if new configuration is better
+     */
+    private static boolean isBetter(SweepConfiguration configuration, SweepConfiguration current) {
+        if (current == null || configuration.getCost() < current.getCost()) {
+            return true;
+        }
+        return configuration.getCost() == current.getCost()
+                && configuration.getWaitTime().getPercentile(95) < current.getWaitTime().getPercentile(95);
+    }
+
+    /**
+     * Get simulation of current thread for given number of elevators, simulations are created once and reused
+     * @param elevatorsNumber - number of elevators
+     * @param template - elevator which settings are used by new simulation
+     * @return simulation of current thread
+     */
+    private Simulation getSimulation(int elevatorsNumber, Elevator template) {
+        return this.simulations.get().computeIfAbsent(elevatorsNumber, number -> {
+            Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(false), new EtaDispatcher());
+            Elevator elevator = simulation.createElevator(new SilentMessenger());
+            elevator.copySettings(template);
+            simulation.createElevators(elevator, number);
+            return simulation;
+        });
+    }
+}
@@ -0,0 +1,167 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Passenger travelling from floor of origin to floor of destination
+ * Passenger waits on landing of origin floor until elevator picks the passenger up and rides until destination floor
+ */
+class Passenger {
+
+    private int origin;
+    private int destination;
+    private long arrivalTime;
+    private int weight;
+    private int elevator = -1;
+    private long boardingTime = -1;
+    private long id = -1;
+
+    /**
+     * Create passenger
+     * @param origin - floor where passenger calls elevator
+     * @param destination - floor where passenger goes
+     * @param arrivalTime - time of arrival on landing (milliseconds)
+     * @param weight - weight of passenger (kilograms)
+     */
+    Passenger(int origin, int destination, long arrivalTime, int weight) {
+        this.set(origin, destination, arrivalTime, weight);
+    }
+
+    /**
+     * Fill passenger, used by landings to reuse passenger who left elevator
+     * Elevator, time of boarding and id are cleared
+     * @param origin - floor where passenger calls elevator
+     * @param destination - floor where passenger goes
+     * @param arrivalTime - time of arrival on landing (milliseconds)
+     * @param weight - weight of passenger (kilograms)
+     */
+    protected void set(int origin, int destination, long arrivalTime, int weight) {
+        this.origin = origin;
+        this.destination = destination;
+        this.arrivalTime = arrivalTime;
+        this.weight = weight;
+        this.elevator = -1;
+        this.boardingTime = -1;
+        this.id = -1;
+    }
+
+    /**
+     * Get floor where passenger calls elevator
+     * @return floor of origin
+     */
+    protected int getOrigin() {
+        return this.origin;
+    }
+
+    /**
+     * Get floor where passenger goes
+     * @return floor of destination
+     */
+    protected int getDestination() {
+        return this.destination;
+    }
+
+    /**
+     * Get direction of trip
+     * @return true if passenger goes up
+     */
+    protected boolean isGoingUp() {
+        return this.destination > this.origin;
+    }
+
+    /**
+     * Get time of arrival on landing (milliseconds)
+     * @return time of arrival
+     */
+    protected long getArrivalTime() {
+        return this.arrivalTime;
+    }
+
+    /**
+     * Get weight of passenger (kilograms)
+     * @return weight of passenger
+     */
+    protected int getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Get elevator assigned to passenger by destination dispatch
+     * @return index of elevator, starting from 0, or -1 if passenger takes any elevator
+     */
+    protected int getElevator() {
+        return this.elevator;
+    }
+
+    /**
+     * Set elevator assigned to passenger by destination dispatch
+     * @param elevator - index of elevator, starting from 0, or -1 if passenger takes any elevator
+     */
+    protected void setElevator(int elevator) {
+        this.elevator = elevator;
+    }
+
+    /**
+     * Get time when passenger entered elevator (milliseconds)
+     * @return time of boarding or -1 if passenger is waiting
+     */
+    protected long getBoardingTime() {
+        return this.boardingTime;
+    }
+
+    /**
+     * Set time when passenger entered elevator (milliseconds)
+     * @param boardingTime - time of boarding
+     */
+    protected void setBoardingTime(long boardingTime) {
+        this.boardingTime = boardingTime;
+    }
+
+    /**
+     * Get id of passenger in journal of events
+     * @return id of passenger or -1 if it is not set
+     */
+    protected long getId() {
+        return this.id;
+    }
+
+    /**
+     * Set id of passenger in journal of events
+     * @param id - id of passenger, not negative
+     */
+    protected void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Write passenger to checkpoint
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeShort(this.origin);
+        output.writeShort(this.destination);
+        output.writeLong(this.arrivalTime);
+        output.writeInt(this.weight);
+        output.writeInt(this.elevator);
+        output.writeLong(this.boardingTime);
+        output.writeLong(this.id);
+    }
+
+    /**
+     * Read passenger from checkpoint
+     * @param input - input of checkpoint
+     * @return read passenger
+     * @throws IOException if checkpoint can not be read
+     */
+    static Passenger readState(DataInput input) throws IOException {
+        Passenger passenger = new Passenger(input.readUnsignedShort(), input.readUnsignedShort(), input.readLong(),
+                input.readInt());
+        passenger.elevator = input.readInt();
+        passenger.boardingTime = input.readLong();
+        passenger.id = input.readLong();
+        return passenger;
+    }
+}
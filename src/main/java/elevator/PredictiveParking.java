@@ -0,0 +1,289 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Parking of idle elevators on floors where next call from porch is most likely
+ * Day is divided into slots, every slot has weights of floors: every call adds 1 to weight of its floor in slot
+ * of time of call, weights of slot decay exponentially with given half-life, so model learns during simulation
+ * and forgets old traffic without separate training. Weights of slot are decayed only when slot is used.
+ * Likelihood of call from floor is sum of decayed weights of current and next slot.
+ * Idle elevator goes to the most likely floor which is not taken by other idle or parking elevator,
+ * it stays on its floor if this floor is not less likely than chosen one by factor of hysteresis.
+ * The most likely floors are kept as targets of parking and recomputed only when slot changes
+ * or elevator becomes free, so choice of floor does not scan all floors
+ */
+class PredictiveParking {
+
+    /**
+     * Length of slot of day (milliseconds)
+     */
+    static final long SLOT = 15 * 60 * 1000L;
+
+    /**
+     * Default half-life of weights of calls (milliseconds)
+     */
+    static final long HALF_LIFE = TrafficProfile.HOUR * 24;
+
+    private static final int SLOTS = (int) (TrafficProfile.HOUR * 24 / SLOT);
+    private static final double HYSTERESIS = 1.25;
+
+    private final List<Elevator> elevators;
+    private final int floorsNumber;
+    private final double halfLife;
+    private final double[][] weights = new double[SLOTS][];
+    private final long[] decayTimes = new long[SLOTS];
+    private final double[] likelihoods;
+    private int[] targets = new int[0];
+    private int targetsCount = 0;
+    private int targetsSlot = -1;
+
+    /**
+     * Create empty model of calls
+     * @param elevators - elevators of group, parking of every elevator depends on positions of others
+     * @param floorsNumber - number of floors in building
+     * @param halfLife - time after which weight of call is halved (milliseconds)
+     */
+    PredictiveParking(List<Elevator> elevators, int floorsNumber, long halfLife) {
+        this.elevators = elevators;
+        this.floorsNumber = floorsNumber;
+        this.halfLife = halfLife;
+        this.likelihoods = new double[floorsNumber + 1];
+    }
+
+    /**
+     * Add call from porch to model
+     * @param floor - called floor
+     * @param time - time of call (milliseconds)
+     */
+    protected void recordCall(int floor, long time) {
+        if (floor < 1 || floor > this.floorsNumber) {
+            return;
+        }
+        int slot = getSlot(time);
+        if (this.weights[slot] == null) {
+            this.weights[slot] = new double[this.floorsNumber + 1];
+            this.decayTimes[slot] = time;
+        }
+        this.decay(slot, time);
+        this.weights[slot][floor] += 1;
+    }
+
+    /**
+     * Compute likelihood of next call from floor
+     * @param floor - floor of building
+     * @param time - current time (milliseconds)
+     * @return decayed weight of floor in current and next slot, 0 if there were no calls
+     */
+    protected double getWeight(int floor, long time) {
+        int slot = getSlot(time);
+        int next = (slot + 1) % SLOTS;
+        return this.getWeight(slot, floor, this.getDecayFactor(slot, time))
+                + this.getWeight(next, floor, this.getDecayFactor(next, time));
+    }
+
+    /**
+     * Choose floor where idle elevator waits for next call
+     * @param elevator - idle elevator
+     * @param time - current time (milliseconds)
+     * @return floor to park or current floor of elevator if it stays
+     */
+    protected int selectFloor(Elevator elevator, long time) {
+        int slot = getSlot(time);
+        if (slot != this.targetsSlot) {
+            this.updateTargets(slot, time);
+        }
+        int current = elevator.getCurrentFloor();
+        for (int i = 0; i < this.targetsCount; i++) {
+            int best = this.targets[i];
+            if (this.isTaken(best, elevator)) {
+                continue;
+            }
+            if (best == current || !this.isTaken(current, elevator)
+                    && this.likelihoods[current] * HYSTERESIS >= this.likelihoods[best]) {
+                return current;
+            }
+            return best;
+        }
+        return current;
+    }
+
+    /**
+     * Mark targets of parking as outdated, they are recomputed with calls recorded since last computing
+     * on next choice of floor, called when elevator becomes free
+     */
+    protected void invalidateTargets() {
+        this.targetsSlot = -1;
+    }
+
+    /**
+     * Remove all calls from model, used to reuse model in next simulation
+     */
+    protected void clear() {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            this.weights[slot] = null;
+            this.decayTimes[slot] = 0;
+        }
+        this.invalidateTargets();
+    }
+
+    /**
+     * Write weights of model to checkpoint, only slots and floors having calls are written
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        int slots = 0;
+        for (double[] slotWeights : this.weights) {
+            slots += slotWeights != null ? 1 : 0;
+        }
+        output.writeShort(slots);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            double[] slotWeights = this.weights[slot];
+            if (slotWeights == null) {
+                continue;
+            }
+            int floors = 0;
+            for (double weight : slotWeights) {
+                floors += weight != 0 ? 1 : 0;
+            }
+            output.writeShort(slot);
+            output.writeLong(this.decayTimes[slot]);
+            output.writeShort(floors);
+            for (int floor = 1; floor < slotWeights.length; floor++) {
+                if (slotWeights[floor] != 0) {
+                    output.writeShort(floor);
+                    output.writeDouble(slotWeights[floor]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace weights of model by weights read from checkpoint
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or does not fit building
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.clear();
+        int slots = input.readUnsignedShort();
+        for (int i = 0; i < slots; i++) {
+            int slot = input.readUnsignedShort();
+            if (slot >= SLOTS) {
+                throw new IOException("Incorrect slot of parking model in checkpoint");
+            }
+            this.weights[slot] = new double[this.floorsNumber + 1];
+            this.decayTimes[slot] = input.readLong();
+            int floors = input.readUnsignedShort();
+            for (int j = 0; j < floors; j++) {
+                int floor = input.readUnsignedShort();
+                if (floor < 1 || floor > this.floorsNumber) {
+                    throw new IOException("Incorrect floor of parking model in checkpoint");
+                }
+                this.weights[slot][floor] = input.readDouble();
+            }
+        }
+    }
+
+    /**
+     * Compute likelihoods of floors and keep the most likely floors as targets of parking,
+     * number of targets is number of elevators, because other elevators can take only one floor less
+     * @param slot - current slot of day
+     * @param time - current time (milliseconds)
+     */
+    private void updateTargets(int slot, long time) {
+        if (this.targets.length != this.elevators.size()) {
+            this.targets = new int[this.elevators.size()];
+        }
+        int next = (slot + 1) % SLOTS;
+        double slotFactor = this.getDecayFactor(slot, time);
+        double nextFactor = this.getDecayFactor(next, time);
+        int count = 0;
+        for (int floor = 1; floor <= this.floorsNumber; floor++) {
+            double weight = this.getWeight(slot, floor, slotFactor) + this.getWeight(next, floor, nextFactor);
+            this.likelihoods[floor] = weight;
+            if (weight <= 0
+                    || count == this.targets.length && weight <= this.likelihoods[this.targets[count - 1]]) {
+                continue;
+            }
+            int i = count < this.targets.length ? count++ : count - 1;
+            while (i > 0 && this.likelihoods[this.targets[i - 1]] < weight) {
+                this.targets[i] = this.targets[i - 1];
+                i--;
+            }
+            this.targets[i] = floor;
+        }
+        this.targetsCount = count;
+        this.targetsSlot = slot;
+    }
+
+    /**
+     * Get slot of day for time
+     * @param time - time of simulation (milliseconds)
+     * @return index of slot
+     */
+    private static int getSlot(long time) {
+        return (int) (time / SLOT % SLOTS);
+    }
+
+    /**
+     * Decay weights of slot to given time
+     * @param slot - index of slot
+     * @param time - time of simulation (milliseconds), not earlier than last decay of slot
+     */
+    private void decay(int slot, long time) {
+        if (time > this.decayTimes[slot]) {
+            double factor = this.getDecayFactor(slot, time);
+            double[] slotWeights = this.weights[slot];
+            for (int floor = 1; floor < slotWeights.length; floor++) {
+                slotWeights[floor] *= factor;
+            }
+            this.decayTimes[slot] = time;
+        }
+    }
+
+    /**
+     * Get factor of decay of weights of slot from its last decay to given time
+     * @param slot - index of slot
+     * @param time - time of simulation (milliseconds)
+     * @return factor of decay, 1 if slot was decayed later
+     */
+    private double getDecayFactor(int slot, long time) {
+        long age = Math.max(time - this.decayTimes[slot], 0);
+        return Math.pow(0.5, age / this.halfLife);
+    }
+
+    /**
+     * Get weight of floor in slot decayed by given factor without changing of slot
+     * @param slot - index of slot
+     * @param floor - floor of building
+     * @param factor - factor of decay of slot
+     * @return decayed weight
+     */
+    private double getWeight(int slot, int floor, double factor) {
+        double[] slotWeights = this.weights[slot];
+        if (slotWeights == null || floor < 1 || floor >= slotWeights.length) {
+            return 0;
+        }
+        return slotWeights[floor] * factor;
+    }
+
+    /**
+     * Check other elevator waits on floor or parks there
+     * @param floor - floor of building
+     * @param elevator - elevator which chooses floor
+     * @return true if floor is taken by other elevator
+     */
+    private boolean isTaken(int floor, Elevator elevator) {
+        for (int i = 0; i < this.elevators.size(); i++) {
+            Elevator other = this.elevators.get(i);
+            if (other != elevator && other.getParkingFloor() == floor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package elevator;
+
+/**
+ * Policies of serving stops by elevator
+ */
+enum SchedulingPolicy {
+    /**
+     * Serve all stops in current direction, reverse after the last stop
+     */
+    LOOK,
+
+    /**
+     * Serve all stops in current direction, reverse only at the last floor of building
+     */
+    SCAN
+}
@@ -0,0 +1,42 @@
+package elevator;
+
+/**
+ * Messenger which does not print events, used for fast replay of long traces
+ */
+class SilentMessenger extends Messenger {
+
+    /**
+     * Create silent messenger for other elevator
+     * @return new instance of messenger
+     */
+    @Override
+    public Messenger copy() {
+        return new SilentMessenger();
+    }
+
+    /**
+     * Skip message
+     * @param message message to print
+     */
+    @Override
+    public void printMessage(String message){
+    }
+
+    /**
+     * Skip formatted message
+     * @param template for formatting message
+     * @param value value for message
+     */
+    @Override
+    public void printFormattedMessage(String template, String value){
+    }
+
+    /**
+     * Skip formatted message without formatting of number
+     * @param template for formatting message
+     * @param value number for message
+     */
+    @Override
+    public void printFormattedMessage(String template, int value){
+    }
+}
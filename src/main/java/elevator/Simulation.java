@@ -0,0 +1,171 @@
+package elevator;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Context of one simulation: clock, calls from porch, group of elevators and statistics
+ * Simulations do not share state, so many of them can exist and run in parallel in one JVM
+ */
+class Simulation {
+
+    /**
+     * Default mean time between random calls (milliseconds)
+     */
+    static final long CALLS_INTERVAL = 10000;
+
+    private final EventLoop eventLoop;
+    private final FloorCalls porchCalls = new FloorCalls();
+    private final GroupController groupController;
+
+    /**
+     * Create simulation with dispatching of calls by estimated time of arrival
+     * @param paced - true for waiting wall clock (interactive mode), false for running at full speed (headless mode)
+     */
+    Simulation(boolean paced) {
+        this(new Messenger(), new EventLoop(paced), new EtaDispatcher());
+    }
+
+    /**
+     * Create simulation
+     * @param messenger - messenger of group of elevators
+     * @param eventLoop - event loop of simulation
+     * @param dispatcher - dispatcher of calls from porch
+     */
+    Simulation(Messenger messenger, EventLoop eventLoop, Dispatcher dispatcher) {
+        this.eventLoop = eventLoop;
+        this.groupController = new GroupController(messenger, eventLoop, dispatcher, this.porchCalls);
+    }
+
+    /**
+     * Return event loop of simulation
+     * @return event loop of simulation
+     */
+    protected EventLoop getEventLoop() {
+        return this.eventLoop;
+    }
+
+    /**
+     * Return calls from porch, not assigned to elevators yet
+     * @return calls from porch
+     */
+    protected FloorCalls getPorchCalls() {
+        return this.porchCalls;
+    }
+
+    /**
+     * Return group of elevators
+     * @return group of elevators
+     */
+    protected GroupController getGroupController() {
+        return this.groupController;
+    }
+
+    /**
+     * Return statistics of simulation
+     * @return statistics of simulation
+     */
+    protected SimulationMetrics getMetrics() {
+        return this.groupController.getMetrics();
+    }
+
+    /**
+     * Create elevator driven by event loop of simulation, it is added to simulation by createElevators
+     * @param messenger - messenger of elevator
+     * @return new elevator with own calls
+     */
+    protected Elevator createElevator(Messenger messenger) {
+        return new Elevator(messenger, this.eventLoop, new FloorCalls(), new FloorCalls());
+    }
+
+    /**
+     * Fill group of simulation with elevators having settings of given elevator
+     * @param template - first elevator of group, its settings are copied to other elevators
+     * @param number - number of elevators in group
+     */
+    protected void createElevators(Elevator template, int number) {
+        this.groupController.createElevators(template, number);
+    }
+
+    /**
+     * Park free elevators of simulation on floors of likely calls learned during simulation,
+     * elevators must be already created
+     */
+    protected void enableParking() {
+        List<Elevator> elevators = this.groupController.getElevators();
+        this.groupController.setParking(new PredictiveParking(elevators, elevators.get(0).getFloorsNumber(),
+                PredictiveParking.HALF_LIFE));
+    }
+
+    /**
+     * Prepare simulation for next run: remove events and calls, return elevators to first floor
+     * and give them settings of template, statistics and model of calls are cleared
+     * @param template - elevator which settings are copied to elevators of simulation
+     */
+    protected void reset(Elevator template) {
+        this.eventLoop.reset();
+        this.porchCalls.clearAll();
+        this.groupController.getLandings().clear();
+        if (this.groupController.getParking() != null) {
+            this.groupController.getParking().clear();
+        }
+        for (Elevator elevator : this.groupController.getElevators()) {
+            elevator.reset();
+            elevator.copySettings(template);
+        }
+        this.getMetrics().reset();
+    }
+
+    /**
+     * Connect input to simulation, so calls of input are registered in calls of simulation
+     * @param inputLoop - input of calls
+     */
+    protected void connect(InputLoop inputLoop) {
+        inputLoop.setPorchCalls(this.porchCalls);
+        inputLoop.setElevatorCalls(this.groupController.getElevatorCalls());
+        inputLoop.setCallSignal(this.eventLoop.getCallSignal());
+        inputLoop.setMetrics(this.getMetrics());
+    }
+
+    /**
+     * Schedule random calls with uniformly distributed floors and intervals,
+     * every call from porch is followed by choice of random floor in cabin of random elevator
+     * @param seed - seed of random generator, the same seed gives the same calls
+     * @param callsNumber - number of calls from porch
+     * @param meanInterval - mean time between calls (milliseconds)
+     */
+    protected void scheduleRandomCalls(long seed, int callsNumber, long meanInterval) {
+        Random random = new Random(seed);
+        int floorsNumber = this.groupController.getElevators().get(0).getFloorsNumber();
+        int elevatorsNumber = this.groupController.getElevators().size();
+        long time = this.eventLoop.getTime();
+        for (int i = 0; i < callsNumber; i++) {
+            time += (long) (random.nextDouble() * 2 * meanInterval);
+            this.eventLoop.scheduleAt(time, EventType.HALL_CALL, random.nextInt(floorsNumber) + 1,
+                    this.groupController);
+            this.eventLoop.scheduleAt(time, EventType.CAR_CALL, random.nextInt(floorsNumber) + 1,
+                    this.groupController.getElevators().get(random.nextInt(elevatorsNumber)));
+        }
+    }
+
+    /**
+     * Start generation of random traffic in simulation
+     * @param profile - profile of traffic
+     * @param seed - seed of random numbers, the same seed gives the same calls
+     * @param duration - time of generation of calls (milliseconds)
+     * @return started generator of traffic
+     */
+    protected TrafficGenerator scheduleTraffic(TrafficProfile profile, long seed, long duration) {
+        TrafficGenerator generator = new TrafficGenerator(this.groupController, profile, seed);
+        generator.start(duration);
+        return generator;
+    }
+
+    /**
+     * Execute all scheduled events of simulation
+     * @throws InterruptedException if waiting of paced event loop was interrupted
+     */
+    protected void run() throws InterruptedException {
+        this.eventLoop.run();
+    }
+}
@@ -0,0 +1,169 @@
+package elevator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Checkpoint of headless simulation with generated traffic in compact binary format
+ * Checkpoint holds everything which changes during simulation: clock and scheduled events, state of random numbers,
+ * calls, stops and runs of elevators, waiting and riding passengers and statistics.
+ * Settings of elevators, dispatcher and profile of traffic are not written, they are taken from simulation which
+ * restores checkpoint, so one checkpoint can be resumed with other dispatcher or traffic to compare what-if runs.
+ * Resumed simulation with the same settings continues exactly as simulation which wrote checkpoint.
+ * All numbers are big-endian:
+ * header - magic number "ELCP" (int), version (int), number of elevators (int), traffic generator is written (boolean)
+ * state of traffic generator if it is written, event loop, calls from porch, landings, every elevator, statistics,
+ * model of calls is written (boolean) and its weights if it is written, they are skipped by simulation without model
+ * Events are written with code of receiver: index of elevator, -1 for group of elevators, -2 for traffic generator
+ */
+class SimulationCheckpoint {
+
+    static final int MAGIC = 0x454C4350;
+    static final int VERSION = 3;
+
+    private static final int GROUP_CODE = -1;
+    private static final int GENERATOR_CODE = -2;
+    private static final int UNKNOWN_CODE = Integer.MIN_VALUE;
+
+    private SimulationCheckpoint() {
+    }
+
+    /**
+     * Write checkpoint to file, file is replaced only when checkpoint is completely written
+     * @param simulation - simulation to write
+     * @param generator - traffic generator of simulation or null
+     * @param path - path to checkpoint file
+     * @throws IOException if file can not be written or simulation has events of other receivers
+     */
+    static void write(Simulation simulation, TrafficGenerator generator, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                write(simulation, generator, output);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Restore simulation from checkpoint file
+     * @param simulation - simulation with the same number of elevators as simulation which wrote checkpoint
+     * @param profile - profile of traffic for restored generator
+     * @param path - path to checkpoint file
+     * @return restored traffic generator or null if checkpoint has no generator
+     * @throws IOException if file can not be read or checkpoint does not fit simulation
+     */
+    static TrafficGenerator read(Simulation simulation, TrafficProfile profile, Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            return read(simulation, profile, input);
+        }
+    }
+
+    /**
+     * Write checkpoint of simulation
+     * @param simulation - simulation to write
+     * @param generator - traffic generator of simulation or null
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written or simulation has events of other receivers
+     */
+    static void write(Simulation simulation, TrafficGenerator generator, DataOutput output) throws IOException {
+        GroupController groupController = simulation.getGroupController();
+        List<Elevator> elevators = groupController.getElevators();
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(elevators.size());
+        output.writeBoolean(generator != null);
+        if (generator != null) {
+            generator.writeState(output);
+        }
+        boolean[] unknown = new boolean[1];
+        simulation.getEventLoop().writeState(output, handler -> {
+            int code = handler == groupController ? GROUP_CODE
+                    : handler == generator ? GENERATOR_CODE : elevators.indexOf(handler);
+            if (code == -1 && handler != groupController) {
+                unknown[0] = true;
+                return UNKNOWN_CODE;
+            }
+            return code;
+        });
+        if (unknown[0]) {
+            throw new IOException("Simulation has events which can not be written to checkpoint");
+        }
+        simulation.getPorchCalls().writeState(output);
+        groupController.getLandings().writeState(output);
+        for (Elevator elevator : elevators) {
+            elevator.writeState(output);
+        }
+        simulation.getMetrics().writeState(output);
+        PredictiveParking parking = groupController.getParking();
+        output.writeBoolean(parking != null);
+        if (parking != null) {
+            parking.writeState(output);
+        }
+    }
+
+    /**
+     * Restore simulation from checkpoint
+     * @param simulation - simulation with the same number of elevators as simulation which wrote checkpoint
+     * @param profile - profile of traffic for restored generator
+     * @param input - input of checkpoint
+     * @return restored traffic generator or null if checkpoint has no generator
+     * @throws IOException if checkpoint can not be read or does not fit simulation
+     */
+    static TrafficGenerator read(Simulation simulation, TrafficProfile profile, DataInput input) throws IOException {
+        GroupController groupController = simulation.getGroupController();
+        List<Elevator> elevators = groupController.getElevators();
+        if (input.readInt() != MAGIC) {
+            throw new IOException("File is not checkpoint of simulation");
+        }
+        if (input.readInt() != VERSION) {
+            throw new IOException("Unsupported version of checkpoint");
+        }
+        if (input.readInt() != elevators.size()) {
+            throw new IOException("Checkpoint has other number of elevators");
+        }
+        TrafficGenerator generator = null;
+        if (input.readBoolean()) {
+            generator = new TrafficGenerator(groupController, profile, 0);
+            generator.readState(input);
+        }
+        TrafficGenerator restored = generator;
+        simulation.getEventLoop().readState(input, code -> code == GROUP_CODE ? groupController
+                : code == GENERATOR_CODE ? restored
+                : code >= 0 && code < elevators.size() ? elevators.get(code) : null);
+        simulation.getPorchCalls().readState(input);
+        groupController.getLandings().readState(input);
+        for (Elevator elevator : elevators) {
+            elevator.readState(input);
+        }
+        simulation.getMetrics().readState(input);
+        if (input.readBoolean()) {
+            PredictiveParking parking = groupController.getParking();
+            if (parking == null) {
+                parking = new PredictiveParking(elevators, elevators.get(0).getFloorsNumber(),
+                        PredictiveParking.HALF_LIFE);
+            }
+            parking.readState(input);
+        }
+        return generator;
+    }
+}
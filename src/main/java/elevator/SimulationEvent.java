@@ -0,0 +1,83 @@
+package elevator;
+
+/**
+ * Timestamped event of simulation
+ * Events are ordered by time, events with equal time - by order of scheduling
+ * Event loop reuses executed and cancelled events, so receiver must not keep event after it is handled or cancelled
+ */
+class SimulationEvent implements Comparable<SimulationEvent> {
+
+    private long time;
+    private long sequence;
+    private EventType type;
+    private int floor;
+    private EventHandler handler;
+
+    SimulationEvent(long time, long sequence, EventType type, int floor, EventHandler handler) {
+        this.set(time, sequence, type, floor, handler);
+    }
+
+    /**
+     * Fill event, used by event loop to reuse event which is not scheduled any more
+     * @param time - time of event (milliseconds)
+     * @param sequence - order number of event scheduling
+     * @param type - type of event
+     * @param floor - floor of event
+     * @param handler - receiver of event
+     */
+    protected void set(long time, long sequence, EventType type, int floor, EventHandler handler) {
+        this.time = time;
+        this.sequence = sequence;
+        this.type = type;
+        this.floor = floor;
+        this.handler = handler;
+    }
+
+    /**
+     * Get time of event in simulation (milliseconds)
+     * @return time of event (milliseconds)
+     */
+    protected long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Get order number of event scheduling
+     * @return order number of event scheduling
+     */
+    protected long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Get type of event
+     * @return type of event
+     */
+    protected EventType getType() {
+        return this.type;
+    }
+
+    /**
+     * Get floor of event
+     * @return floor of event
+     */
+    protected int getFloor() {
+        return this.floor;
+    }
+
+    /**
+     * Get receiver of event
+     * @return receiver of event
+     */
+    protected EventHandler getHandler() {
+        return this.handler;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        if (this.time != other.time) {
+            return this.time < other.time ? -1 : 1;
+        }
+        return Long.compare(this.sequence, other.sequence);
+    }
+}
@@ -0,0 +1,538 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of simulation: time of waiting for elevator after call from porch,
+ * time of ride to floor chosen in cabin, time of open doors, calls per floor and utilization of elevators,
+ * with passengers - time of waiting and ride of every passenger
+ * Statistics are recorded without locks and memory allocation, they are available through JMX
+ * together with positions and loads of elevators read from their published states
+ */
+class SimulationMetrics implements SimulationMetricsMBean {
+
+    private final EventLoop eventLoop;
+    private final int elevatorsNumber;
+    private final int floorsCapacity;
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram rideTime = new LatencyHistogram();
+    private final LatencyHistogram doorDwell = new LatencyHistogram();
+    private final LatencyHistogram passengerWaitTime = new LatencyHistogram();
+    private final LatencyHistogram passengerRideTime = new LatencyHistogram();
+    private final AtomicLong leftBehind = new AtomicLong();
+    private final AtomicLongArray hallCalls;
+    private final AtomicLongArray carCalls;
+    // times of calls waiting for elevator, shifted by one so zero means no call
+    private final AtomicLongArray hallCallTimes;
+    private final AtomicLongArray carCallTimes;
+    private final AtomicLongArray doorsOpenTimes;
+    private final AtomicLongArray busyStartTimes;
+    private final AtomicLongArray busyTimes;
+    private final ElevatorState[] elevatorStates;
+    private volatile long startTime;
+
+    /**
+     * Create statistics of simulation
+     * @param eventLoop - event loop giving time of simulation
+     * @param elevatorsNumber - number of elevators
+     */
+    SimulationMetrics(EventLoop eventLoop, int elevatorsNumber) {
+        this(eventLoop, elevatorsNumber, Main.MAX_FLOORS_NUMBER);
+    }
+
+    /**
+     * Create statistics of simulation
+     * @param eventLoop - event loop giving time of simulation
+     * @param elevatorsNumber - number of elevators
+     * @param floorsCapacity - maximal floor number
+     */
+    SimulationMetrics(EventLoop eventLoop, int elevatorsNumber, int floorsCapacity) {
+        this.eventLoop = eventLoop;
+        this.elevatorsNumber = elevatorsNumber;
+        this.floorsCapacity = floorsCapacity;
+        this.hallCalls = new AtomicLongArray(floorsCapacity + 1);
+        this.carCalls = new AtomicLongArray(floorsCapacity + 1);
+        this.hallCallTimes = new AtomicLongArray(floorsCapacity + 1);
+        this.carCallTimes = new AtomicLongArray(elevatorsNumber * (floorsCapacity + 1));
+        this.doorsOpenTimes = new AtomicLongArray(elevatorsNumber);
+        this.busyStartTimes = new AtomicLongArray(elevatorsNumber);
+        this.busyTimes = new AtomicLongArray(elevatorsNumber);
+        this.elevatorStates = new ElevatorState[elevatorsNumber];
+        this.startTime = eventLoop.getCurrentTime();
+    }
+
+    /**
+     * Return number of elevators
+     * @return number of elevators
+     */
+    protected int getElevatorsNumber() {
+        return this.elevatorsNumber;
+    }
+
+    /**
+     * Return histogram of time of waiting for elevator after call from porch
+     * @return histogram of waiting time (milliseconds)
+     */
+    protected LatencyHistogram getWaitTime() {
+        return this.waitTime;
+    }
+
+    /**
+     * Return histogram of time from choice of floor in cabin to opening of doors on this floor
+     * @return histogram of ride time (milliseconds)
+     */
+    protected LatencyHistogram getRideTime() {
+        return this.rideTime;
+    }
+
+    /**
+     * Return histogram of time between opening and closing of doors
+     * @return histogram of door dwell (milliseconds)
+     */
+    protected LatencyHistogram getDoorDwell() {
+        return this.doorDwell;
+    }
+
+    /**
+     * Return histogram of time from arrival of passenger on landing to entering cabin
+     * @return histogram of waiting time of passengers (milliseconds)
+     */
+    protected LatencyHistogram getPassengerWaitTime() {
+        return this.passengerWaitTime;
+    }
+
+    /**
+     * Return histogram of time from entering cabin to leaving it on destination floor
+     * @return histogram of ride time of passengers (milliseconds)
+     */
+    protected LatencyHistogram getPassengerRideTime() {
+        return this.passengerRideTime;
+    }
+
+    /**
+     * Register passenger entering cabin
+     * @param waitTime - time of waiting on landing (milliseconds)
+     */
+    protected void passengerBoarded(long waitTime) {
+        this.passengerWaitTime.record(waitTime);
+    }
+
+    /**
+     * Register passenger leaving cabin on destination floor
+     * @param rideTime - time of ride in cabin (milliseconds)
+     */
+    protected void passengerAlighted(long rideTime) {
+        this.passengerRideTime.record(rideTime);
+    }
+
+    /**
+     * Register departure of elevator leaving waiting passengers on landing because of capacity or direction
+     */
+    protected void passengersLeft() {
+        this.leftBehind.incrementAndGet();
+    }
+
+    /**
+     * Register call from porch, waiting starts from the first call of floor
+     * @param floor - called floor
+     */
+    protected void hallCall(int floor) {
+        this.hallCalls.incrementAndGet(floor);
+        this.hallCallTimes.compareAndSet(floor, 0, this.eventLoop.getCurrentTime() + 1);
+    }
+
+    /**
+     * Register choice of floor in cabin, ride starts from the first choice of floor
+     * Ride of elevator unknown to statistics is not measured
+     * @param elevator - index of elevator, starting from 0
+     * @param floor - chosen floor
+     */
+    protected void carCall(int elevator, int floor) {
+        this.carCalls.incrementAndGet(floor);
+        if (elevator >= this.elevatorsNumber) {
+            return;
+        }
+        this.carCallTimes.compareAndSet(elevator * (this.floorsCapacity + 1) + floor, 0,
+                this.eventLoop.getCurrentTime() + 1);
+    }
+
+    /**
+     * Register opening of doors, it finishes waiting on floor and ride of elevator to floor
+     * @param elevator - index of elevator, starting from 0
+     * @param floor - floor of elevator
+     */
+    protected void doorsOpened(int elevator, int floor) {
+        this.callsServed(elevator, floor);
+        this.doorsOpenTimes.set(elevator, this.eventLoop.getCurrentTime() + 1);
+    }
+
+    /**
+     * Register serving of calls on floor where doors are open, it finishes waiting on floor and ride to floor
+     * @param elevator - index of elevator, starting from 0
+     * @param floor - floor of elevator
+     */
+    protected void callsServed(int elevator, int floor) {
+        long time = this.eventLoop.getCurrentTime();
+        long callTime = this.hallCallTimes.getAndSet(floor, 0);
+        if (callTime != 0) {
+            this.waitTime.record(time - callTime + 1);
+        }
+        callTime = this.carCallTimes.getAndSet(elevator * (this.floorsCapacity + 1) + floor, 0);
+        if (callTime != 0) {
+            this.rideTime.record(time - callTime + 1);
+        }
+    }
+
+    /**
+     * Register closing of doors
+     * @param elevator - index of elevator, starting from 0
+     */
+    protected void doorsClosed(int elevator) {
+        long openTime = this.doorsOpenTimes.getAndSet(elevator, 0);
+        if (openTime != 0) {
+            this.doorDwell.record(this.eventLoop.getCurrentTime() - openTime + 1);
+        }
+    }
+
+    /**
+     * Register change of state of elevator
+     * @param elevator - index of elevator, starting from 0
+     * @param busy - new state of elevator: true - busy, false - free
+     */
+    protected void busyChanged(int elevator, boolean busy) {
+        long time = this.eventLoop.getCurrentTime();
+        if (busy) {
+            this.busyStartTimes.compareAndSet(elevator, 0, time + 1);
+        } else {
+            long startTime = this.busyStartTimes.getAndSet(elevator, 0);
+            if (startTime != 0) {
+                this.busyTimes.addAndGet(elevator, time - startTime + 1);
+            }
+        }
+    }
+
+    public long getHallCallsCount() {
+        return sum(this.hallCalls);
+    }
+
+    public double getWaitTimeMean() {
+        return this.waitTime.getMean();
+    }
+
+    public long getWaitTime95() {
+        return this.waitTime.getPercentile(95);
+    }
+
+    public long getWaitTimeMax() {
+        return this.waitTime.getMax();
+    }
+
+    public long getRideCount() {
+        return this.rideTime.getCount();
+    }
+
+    public double getRideTimeMean() {
+        return this.rideTime.getMean();
+    }
+
+    public long getRideTime95() {
+        return this.rideTime.getPercentile(95);
+    }
+
+    public long getRideTimeMax() {
+        return this.rideTime.getMax();
+    }
+
+    public double getDoorDwellMean() {
+        return this.doorDwell.getMean();
+    }
+
+    public long getPassengersCount() {
+        return this.passengerWaitTime.getCount();
+    }
+
+    public double getPassengerWaitTimeMean() {
+        return this.passengerWaitTime.getMean();
+    }
+
+    public long getPassengerWaitTime95() {
+        return this.passengerWaitTime.getPercentile(95);
+    }
+
+    public double getPassengerRideTimeMean() {
+        return this.passengerRideTime.getMean();
+    }
+
+    public long getPassengerRideTime95() {
+        return this.passengerRideTime.getPercentile(95);
+    }
+
+    /**
+     * Set published state of elevator, read by JMX
+     * @param elevator - index of elevator
+     * @param state - published state of elevator
+     */
+    protected void setElevatorState(int elevator, ElevatorState state) {
+        if (elevator < this.elevatorsNumber) {
+            this.elevatorStates[elevator] = state;
+        }
+    }
+
+    /**
+     * Return consistent snapshots of elevators read from their published states
+     * @return snapshot of every elevator, null for elevator without state
+     */
+    protected ElevatorSnapshot[] getElevatorSnapshots() {
+        ElevatorSnapshot[] snapshots = new ElevatorSnapshot[this.elevatorsNumber];
+        for (int i = 0; i < this.elevatorsNumber; i++) {
+            ElevatorState state = this.elevatorStates[i];
+            snapshots[i] = state != null ? state.getSnapshot() : null;
+        }
+        return snapshots;
+    }
+
+    /**
+     * Return current floors of elevators
+     * @return floor of every elevator, 0 for elevator without state
+     */
+    public int[] getElevatorFloors() {
+        ElevatorSnapshot[] snapshots = this.getElevatorSnapshots();
+        int[] floors = new int[snapshots.length];
+        for (int i = 0; i < snapshots.length; i++) {
+            floors[i] = snapshots[i] != null ? snapshots[i].getFloor() : 0;
+        }
+        return floors;
+    }
+
+    /**
+     * Return weights of passengers in cabins of elevators (kilograms)
+     * @return load of every elevator
+     */
+    public long[] getElevatorLoads() {
+        ElevatorSnapshot[] snapshots = this.getElevatorSnapshots();
+        long[] loads = new long[snapshots.length];
+        for (int i = 0; i < snapshots.length; i++) {
+            loads[i] = snapshots[i] != null ? snapshots[i].getLoad() : 0;
+        }
+        return loads;
+    }
+
+    public long getLeftBehindCount() {
+        return this.leftBehind.get();
+    }
+
+    public long[] getHallCallsPerFloor() {
+        return toArray(this.hallCalls);
+    }
+
+    public long[] getCarCallsPerFloor() {
+        return toArray(this.carCalls);
+    }
+
+    /**
+     * Return part of time of simulation when elevators were busy
+     * @return utilization of every elevator, from 0 to 1
+     */
+    public double[] getUtilization() {
+        long time = this.eventLoop.getCurrentTime();
+        long duration = time - this.startTime;
+        double[] utilization = new double[this.elevatorsNumber];
+        for (int i = 0; i < this.elevatorsNumber; i++) {
+            long busyTime = this.busyTimes.get(i);
+            long startTime = this.busyStartTimes.get(i);
+            if (startTime != 0) {
+                busyTime += time - startTime + 1;
+            }
+            utilization[i] = duration > 0 ? Math.min((double) busyTime / duration, 1) : 0;
+        }
+        return utilization;
+    }
+
+    /**
+     * Remove all statistics and waiting calls, busy elevators are counted from current time
+     */
+    public void reset() {
+        long time = this.eventLoop.getCurrentTime();
+        this.waitTime.reset();
+        this.rideTime.reset();
+        this.doorDwell.reset();
+        this.passengerWaitTime.reset();
+        this.passengerRideTime.reset();
+        this.leftBehind.set(0);
+        for (int i = 0; i <= this.floorsCapacity; i++) {
+            this.hallCalls.set(i, 0);
+            this.carCalls.set(i, 0);
+            this.hallCallTimes.set(i, 0);
+        }
+        for (int i = 0; i < this.carCallTimes.length(); i++) {
+            this.carCallTimes.set(i, 0);
+        }
+        for (int i = 0; i < this.elevatorsNumber; i++) {
+            this.doorsOpenTimes.set(i, 0);
+            this.busyTimes.set(i, 0);
+            if (this.busyStartTimes.get(i) != 0) {
+                this.busyStartTimes.set(i, time + 1);
+            }
+        }
+        this.startTime = time;
+    }
+
+    /**
+     * Write statistics and waiting calls to checkpoint
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeLong(this.startTime);
+        output.writeLong(this.leftBehind.get());
+        this.waitTime.writeState(output);
+        this.rideTime.writeState(output);
+        this.doorDwell.writeState(output);
+        this.passengerWaitTime.writeState(output);
+        this.passengerRideTime.writeState(output);
+        for (AtomicLongArray array : this.getArrays()) {
+            writeArray(array, output);
+        }
+    }
+
+    /**
+     * Replace statistics and waiting calls by ones read from checkpoint
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or does not fit elevators and floors
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.startTime = input.readLong();
+        this.leftBehind.set(input.readLong());
+        this.waitTime.readState(input);
+        this.rideTime.readState(input);
+        this.doorDwell.readState(input);
+        this.passengerWaitTime.readState(input);
+        this.passengerRideTime.readState(input);
+        for (AtomicLongArray array : this.getArrays()) {
+            readArray(array, input);
+        }
+    }
+
+    /**
+     * Return arrays of statistics in order of checkpoint
+     * @return arrays of statistics
+     */
+    private AtomicLongArray[] getArrays() {
+        return new AtomicLongArray[] {this.hallCalls, this.carCalls, this.hallCallTimes, this.carCallTimes,
+                this.doorsOpenTimes, this.busyStartTimes, this.busyTimes};
+    }
+
+    /**
+     * Write non-zero elements of array with their indexes
+     * @param array - array to write
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    private static void writeArray(AtomicLongArray array, DataOutput output) throws IOException {
+        int count = 0;
+        for (int i = 0; i < array.length(); i++) {
+            count += array.get(i) != 0 ? 1 : 0;
+        }
+        output.writeInt(count);
+        for (int i = 0; i < array.length(); i++) {
+            long value = array.get(i);
+            if (value != 0) {
+                output.writeInt(i);
+                output.writeLong(value);
+            }
+        }
+    }
+
+    /**
+     * Replace elements of array by non-zero elements read with their indexes, other elements are zero
+     * @param array - array to overwrite
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read or has index out of array
+     */
+    private static void readArray(AtomicLongArray array, DataInput input) throws IOException {
+        for (int i = 0; i < array.length(); i++) {
+            array.set(i, 0);
+        }
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            int index = input.readInt();
+            if (index < 0 || index >= array.length()) {
+                throw new IOException("Incorrect statistics in checkpoint");
+            }
+            array.set(index, input.readLong());
+        }
+    }
+
+    /**
+     * Print summary of statistics to console
+     * @param messenger instance of Messenger class for interaction with console
+     */
+    protected void printSummary(Messenger messenger) {
+        messenger.printMessage("Статистика симуляции:\n");
+        messenger.printFormattedMessage("Ожидание лифта: %s\n", formatHistogram(this.waitTime));
+        messenger.printFormattedMessage("Поездка до этажа: %s\n", formatHistogram(this.rideTime));
+        messenger.printFormattedMessage("Двери открыты: %s\n", formatHistogram(this.doorDwell));
+        if (this.passengerWaitTime.getCount() > 0) {
+            messenger.printFormattedMessage("Ожидание пассажира: %s\n", formatHistogram(this.passengerWaitTime));
+            messenger.printFormattedMessage("Поездка пассажира: %s\n", formatHistogram(this.passengerRideTime));
+            messenger.printFormattedMessage("Отправлений с оставшимися пассажирами - %s\n",
+                    String.valueOf(this.leftBehind.get()));
+        }
+        StringBuilder floors = new StringBuilder();
+        for (int i = 1; i <= this.floorsCapacity; i++) {
+            if (this.hallCalls.get(i) != 0 || this.carCalls.get(i) != 0) {
+                floors.append(floors.length() == 0 ? "" : ", ")
+                        .append(i).append(" - ").append(this.hallCalls.get(i)).append('/').append(this.carCalls.get(i));
+            }
+        }
+        messenger.printFormattedMessage("Вызовы по этажам (подъезд/кабина): %s\n",
+                floors.length() == 0 ? "нет" : floors.toString());
+        double[] utilization = this.getUtilization();
+        for (int i = 0; i < utilization.length; i++) {
+            messenger.printFormattedMessage("Загрузка лифта " + (i + 1) + " - %s%%\n",
+                    String.valueOf(Math.round(utilization[i] * 100)));
+        }
+    }
+
+    /**
+     * Format histogram for summary
+     * @param histogram - histogram of durations (milliseconds)
+     * @return text with number of values, mean, 95th percentile and maximum in seconds
+     */
+    static String formatHistogram(LatencyHistogram histogram) {
+        return String.format(Locale.ROOT, "количество - %d, среднее - %.1f с, 95%% - %.1f с, максимум - %.1f с",
+                histogram.getCount(), histogram.getMean() / 1000, histogram.getPercentile(95) / 1000.0,
+                histogram.getMax() / 1000.0);
+    }
+
+    /**
+     * Sum all elements of array
+     * @param array - array to sum
+     * @return sum of elements
+     */
+    private static long sum(AtomicLongArray array) {
+        long sum = 0;
+        for (int i = 0; i < array.length(); i++) {
+            sum += array.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Copy array, element with index 0 is skipped, so elements are indexed by floor from 1
+     * @param array - array indexed by floor
+     * @return copy of array from first floor
+     */
+    private static long[] toArray(AtomicLongArray array) {
+        long[] result = new long[array.length() - 1];
+        for (int i = 1; i < array.length(); i++) {
+            result[i - 1] = array.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package elevator;
+
+/**
+ * Management interface of statistics of simulation, times are given in milliseconds
+ */
+public interface SimulationMetricsMBean {
+
+    long getHallCallsCount();
+
+    double getWaitTimeMean();
+
+    long getWaitTime95();
+
+    long getWaitTimeMax();
+
+    long getRideCount();
+
+    double getRideTimeMean();
+
+    long getRideTime95();
+
+    long getRideTimeMax();
+
+    double getDoorDwellMean();
+
+    long getPassengersCount();
+
+    double getPassengerWaitTimeMean();
+
+    long getPassengerWaitTime95();
+
+    double getPassengerRideTimeMean();
+
+    long getPassengerRideTime95();
+
+    long getLeftBehindCount();
+
+    long[] getHallCallsPerFloor();
+
+    long[] getCarCallsPerFloor();
+
+    double[] getUtilization();
+
+    int[] getElevatorFloors();
+
+    long[] getElevatorLoads();
+
+    void reset();
+}
@@ -0,0 +1,118 @@
+package elevator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Runner of many independent headless simulations in parallel on all cores
+ * Every simulation is created by factory from own seed, seeds are derived from one seed of run,
+ * so results of run are reproducible and do not depend on number of threads
+ */
+class SimulationRunner {
+
+    private final ForkJoinPool pool;
+
+    SimulationRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create runner
+     * @param parallelism - number of threads running simulations
+     */
+    SimulationRunner(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Return number of threads running simulations
+     * @return number of threads
+     */
+    protected int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Create and run simulations until all their events are executed
+     * @param number - number of simulations
+     * @param seed - seed of run
+     * @param factory - creates simulation with scheduled calls from seed of simulation
+     * @return statistics of simulations in order of their seeds
+     */
+    protected List<SimulationMetrics> run(int number, long seed, LongFunction<Simulation> factory) {
+        SimulationMetrics[] results = new SimulationMetrics[number];
+        this.forEach(number, index -> {
+            Simulation simulation = factory.apply(getSeed(seed, index));
+            try {
+                simulation.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            results[index] = simulation.getMetrics();
+        });
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Execute action for every index in parallel and wait for all of them
+     * @param number - number of indexes, from 0 to number - 1
+     * @param action - action executed for index
+     */
+    protected void forEach(int number, IntConsumer action) {
+        this.pool.invoke(new ForEachTask(0, number, action));
+    }
+
+    /**
+     * Stop threads of runner
+     */
+    protected void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Derive seed of simulation from seed of run by SplitMix64 mixing,
+     * so neighbour simulations get unrelated seeds
+     * @param seed - seed of run
+     * @param index - index of simulation
+     * @return seed of simulation
+     */
+    static long getSeed(long seed, int index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Task executing action for range of indexes, range is split in halves until one index is left
+     */
+    private static class ForEachTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        ForEachTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new ForEachTask(this.from, middle, this.action),
+                        new ForEachTask(middle, this.to, this.action));
+            } else if (this.to > this.from) {
+                this.action.accept(this.from);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package elevator;
+
+import java.util.Locale;
+
+/**
+ * Configuration of building and elevators in sweep of parameters with results of its evaluation
+ */
+class SweepConfiguration {
+
+    private final int floorsNumber;
+    private final float elevatorSpeed;
+    private final float floorHeight;
+    private final int doorsTime;
+    private final int elevatorsNumber;
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private volatile int runs = 0;
+    private volatile SweepStatus status = SweepStatus.NEW;
+
+    /**
+     * Create configuration
+     * @param floorsNumber - number of floors in building
+     * @param elevatorSpeed - speed of elevator's moving (meters per second)
+     * @param floorHeight - height of floor in building (meters)
+     * @param doorsTime - time of cycle open-close for elevator's doors (seconds)
+     * @param elevatorsNumber - number of elevators in building
+     */
+    SweepConfiguration(int floorsNumber, float elevatorSpeed, float floorHeight, int doorsTime,
+                       int elevatorsNumber) {
+        this.floorsNumber = floorsNumber;
+        this.elevatorSpeed = elevatorSpeed;
+        this.floorHeight = floorHeight;
+        this.doorsTime = doorsTime;
+        this.elevatorsNumber = elevatorsNumber;
+    }
+
+    /**
+     * Get number of floors in building
+     * @return number of floors in building
+     */
+    protected int getFloorsNumber() {
+        return this.floorsNumber;
+    }
+
+    /**
+     * Get speed of elevator's moving (meters per second)
+     * @return speed of elevator's moving
+     */
+    protected float getElevatorSpeed() {
+        return this.elevatorSpeed;
+    }
+
+    /**
+     * Get height of floor in building (meters)
+     * @return height of floor in building
+     */
+    protected float getFloorHeight() {
+        return this.floorHeight;
+    }
+
+    /**
+     * Get time of cycle open-close for elevator's doors (seconds)
+     * @return time of cycle open-close for doors
+     */
+    protected int getDoorsTime() {
+        return this.doorsTime;
+    }
+
+    /**
+     * Get number of elevators in building
+     * @return number of elevators
+     */
+    protected int getElevatorsNumber() {
+        return this.elevatorsNumber;
+    }
+
+    /**
+     * Return cost of configuration: every elevator costs 1 plus its speed in meters per second
+     * @return cost of configuration
+     */
+    protected double getCost() {
+        return this.elevatorsNumber * (1 + this.elevatorSpeed);
+    }
+
+    /**
+     * Return waiting time of all evaluated runs
+     * @return histogram of waiting time (milliseconds)
+     */
+    protected LatencyHistogram getWaitTime() {
+        return this.waitTime;
+    }
+
+    /**
+     * Return number of evaluated runs
+     * @return number of runs
+     */
+    protected int getRuns() {
+        return this.runs;
+    }
+
+    /**
+     * Register evaluated run, its waiting time is added to waiting time of configuration
+     * @param metrics - statistics of run
+     */
+    protected void addRun(SimulationMetrics metrics) {
+        this.waitTime.add(metrics.getWaitTime());
+        this.runs++;
+    }
+
+    /**
+     * Get result of evaluation
+     * @return status of configuration
+     */
+    protected SweepStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Set result of evaluation
+     * @param status - status of configuration
+     */
+    protected void setStatus(SweepStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Create elevator with settings of configuration, used as template for elevators of simulation
+     * @return elevator with settings of configuration
+     */
+    protected Elevator createTemplate() {
+        Elevator template = new Elevator(new SilentMessenger());
+        template.setFloorsNumber(this.floorsNumber);
+        template.setElevatorSpeed(this.elevatorSpeed);
+        template.setFloorHeight(this.floorHeight);
+        template.setDoorsTime(this.doorsTime);
+        template.setExpressRuns(true);
+        return template;
+    }
+
+    /**
+     * Describe configuration for console
+     * @return description of configuration and its waiting time
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "этажей - %d, скорость - %.1f м/с, высота этажа - %.1f м, "
+                        + "время дверей - %d с, лифтов - %d, стоимость - %.1f, 95%% ожидания - %.1f с",
+                this.floorsNumber, this.elevatorSpeed, this.floorHeight, this.doorsTime, this.elevatorsNumber,
+                this.getCost(), this.waitTime.getPercentile(95) / 1000.0);
+    }
+}
@@ -0,0 +1,31 @@
+package elevator;
+
+/**
+ * Results of configuration in sweep of parameters
+ */
+enum SweepStatus {
+    /**
+     * Configuration was not evaluated yet
+     */
+    NEW,
+
+    /**
+     * 95th percentile of waiting time meets target
+     */
+    FEASIBLE,
+
+    /**
+     * 95th percentile of waiting time exceeds target
+     */
+    INFEASIBLE,
+
+    /**
+     * Evaluation was stopped early, waiting time is far above target
+     */
+    STOPPED,
+
+    /**
+     * Evaluation was skipped or stopped, cheaper configuration meets target
+     */
+    PRUNED
+}
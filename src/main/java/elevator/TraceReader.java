@@ -0,0 +1,296 @@
+package elevator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of trace of calls through memory-mapped file
+ * File is mapped by windows, so trace of any size is read without loading it to memory
+ * Text trace has line "time_in_milliseconds call" for every call, where call is written as user input:
+ * э5 - call from porch, л5 - call from cabin, 2л5 - call from cabin of second elevator
+ * Binary trace starts with header "ELTR" and version, every call is record of 8 bytes:
+ * time since previous call (int, milliseconds), type (byte, 0 - porch, 1 - cabin), elevator (byte), floor (short)
+ */
+class TraceReader implements Closeable {
+
+    /**
+     * Header of binary trace
+     */
+    static final int MAGIC = 0x454C5452;
+
+    /**
+     * Version of binary trace
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of call record in binary trace (bytes)
+     */
+    static final int RECORD_SIZE = 8;
+
+    /**
+     * Size of mapped window of file (bytes)
+     */
+    private static final long WINDOW_SIZE = 64L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final boolean binary;
+    private MappedByteBuffer buffer;
+    private long windowStart = 0;
+    private long time = 0;
+    private EventType type;
+    private int elevator;
+    private int floor;
+    private long readCount = 0;
+    private long skippedCount = 0;
+
+    /**
+     * Open trace file, kind of trace is found by header
+     * @param path - path to trace file
+     * @throws IOException if file can not be read or binary trace has unknown version
+     */
+    TraceReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = this.channel.size();
+        this.map(0);
+        this.binary = this.size >= RECORD_SIZE && this.buffer.getInt(0) == MAGIC;
+        if (this.binary) {
+            if (this.buffer.getInt(4) != VERSION) {
+                this.channel.close();
+                throw new IOException("Unknown version of trace");
+            }
+            this.buffer.position(RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Check trace is binary
+     * @return true for binary trace, false for text trace
+     */
+    protected boolean isBinary() {
+        return this.binary;
+    }
+
+    /**
+     * Get time of current call (milliseconds)
+     * @return time of current call
+     */
+    protected long getTime() {
+        return this.time;
+    }
+
+    /**
+     * Get type of current call
+     * @return HALL_CALL or CAR_CALL
+     */
+    protected EventType getType() {
+        return this.type;
+    }
+
+    /**
+     * Get number of elevator for call from cabin
+     * @return number of elevator, starting from 1
+     */
+    protected int getElevator() {
+        return this.elevator;
+    }
+
+    /**
+     * Get floor of current call
+     * @return floor of current call
+     */
+    protected int getFloor() {
+        return this.floor;
+    }
+
+    /**
+     * Return number of read calls
+     * @return number of read calls
+     */
+    protected long getReadCount() {
+        return this.readCount;
+    }
+
+    /**
+     * Return number of skipped incorrect lines of text trace
+     * @return number of skipped lines
+     */
+    protected long getSkippedCount() {
+        return this.skippedCount;
+    }
+
+    /**
+     * Read next call of trace
+     * @return true if call was read, false at the end of trace
+     * @throws IOException if file can not be read
+     */
+    protected boolean next() throws IOException {
+        boolean result = this.binary ? this.nextRecord() : this.nextLine();
+        if (result) {
+            this.readCount++;
+        }
+        return result;
+    }
+
+    /**
+     * Read next record of binary trace
+     * @return true if record was read
+     * @throws IOException if file can not be read
+     */
+    private boolean nextRecord() throws IOException {
+        if (this.remaining() < RECORD_SIZE) {
+            return false;
+        }
+        if (this.buffer.remaining() < RECORD_SIZE) {
+            this.map(this.windowStart + this.buffer.position());
+        }
+        this.time += this.buffer.getInt() & 0xFFFFFFFFL;
+        this.type = this.buffer.get() == 0 ? EventType.HALL_CALL : EventType.CAR_CALL;
+        this.elevator = this.buffer.get() & 0xFF;
+        this.floor = this.buffer.getShort() & 0xFFFF;
+        return true;
+    }
+
+    /**
+     * Read next correct line of text trace, incorrect lines are skipped
+     * @return true if line was read
+     * @throws IOException if file can not be read
+     */
+    private boolean nextLine() throws IOException {
+        while (true) {
+            int symbol = this.nextByte();
+            while (symbol == ' ' || symbol == '\t' || symbol == '\r' || symbol == '\n') {
+                symbol = this.nextByte();
+            }
+            if (symbol < 0) {
+                return false;
+            }
+            if (symbol == '#') {
+                this.skipLine(symbol);
+                continue;
+            }
+            if (this.parseLine(symbol)) {
+                return true;
+            }
+            this.skippedCount++;
+        }
+    }
+
+    /**
+     * Parse line of text trace starting with given byte
+     * @param symbol - first byte of line
+     * @return true if line is correct
+     * @throws IOException if file can not be read
+     */
+    private boolean parseLine(int symbol) throws IOException {
+        long lineTime = 0;
+        int digits = 0;
+        while (symbol >= '0' && symbol <= '9') {
+            lineTime = lineTime * 10 + symbol - '0';
+            digits++;
+            symbol = this.nextByte();
+        }
+        if (digits == 0 || (symbol != ' ' && symbol != '\t')) {
+            this.skipLine(symbol);
+            return false;
+        }
+        while (symbol == ' ' || symbol == '\t') {
+            symbol = this.nextByte();
+        }
+        int lineElevator = 0;
+        while (symbol >= '0' && symbol <= '9') {
+            lineElevator = lineElevator * 10 + symbol - '0';
+            symbol = this.nextByte();
+        }
+        // э is 0xD1 0x8D and л is 0xD0 0xBB in UTF-8
+        int second = this.nextByte();
+        EventType lineType;
+        if (symbol == 0xD1 && second == 0x8D && lineElevator == 0) {
+            lineType = EventType.HALL_CALL;
+        } else if (symbol == 0xD0 && second == 0xBB) {
+            lineType = EventType.CAR_CALL;
+            lineElevator = Math.max(lineElevator, 1);
+        } else {
+            this.skipLine(second);
+            return false;
+        }
+        int lineFloor = 0;
+        digits = 0;
+        symbol = this.nextByte();
+        while (symbol >= '0' && symbol <= '9') {
+            lineFloor = lineFloor * 10 + symbol - '0';
+            digits++;
+            symbol = this.nextByte();
+        }
+        while (symbol == ' ' || symbol == '\t' || symbol == '\r') {
+            symbol = this.nextByte();
+        }
+        if (digits == 0 || (symbol != '\n' && symbol >= 0)) {
+            this.skipLine(symbol);
+            return false;
+        }
+        this.time = lineTime;
+        this.type = lineType;
+        this.elevator = lineElevator;
+        this.floor = lineFloor;
+        return true;
+    }
+
+    /**
+     * Skip bytes until end of line
+     * @param symbol - current byte
+     * @throws IOException if file can not be read
+     */
+    private void skipLine(int symbol) throws IOException {
+        while (symbol != '\n' && symbol >= 0) {
+            symbol = this.nextByte();
+        }
+    }
+
+    /**
+     * Read next byte of file, mapping next window when current one is over
+     * @return next byte or -1 at the end of file
+     * @throws IOException if file can not be read
+     */
+    private int nextByte() throws IOException {
+        if (!this.buffer.hasRemaining()) {
+            long position = this.windowStart + this.buffer.position();
+            if (position >= this.size) {
+                return -1;
+            }
+            this.map(position);
+        }
+        return this.buffer.get() & 0xFF;
+    }
+
+    /**
+     * Return number of bytes not read yet
+     * @return number of bytes till the end of file
+     */
+    private long remaining() {
+        return this.size - this.windowStart - this.buffer.position();
+    }
+
+    /**
+     * Map window of file starting at given position
+     * @param position - position in file
+     * @throws IOException if file can not be mapped
+     */
+    private void map(long position) throws IOException {
+        this.windowStart = position;
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, this.size - position));
+    }
+
+    /**
+     * Close trace file
+     * @throws IOException if file can not be closed
+     */
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,92 @@
+package elevator;
+
+import java.io.IOException;
+
+/**
+ * Replay of trace of calls in simulation
+ * Calls are streamed from trace lazily: only one call of trace is scheduled in event loop at a time,
+ * next call is read when previous one is delivered, so memory does not depend on size of trace
+ */
+class TraceReplay implements EventHandler {
+
+    private final GroupController groupController;
+    private final TraceReader reader;
+    private final int floorsNumber;
+    private final int elevatorsNumber;
+    private int elevator;
+    private long replayedCount = 0;
+    private long skippedCount = 0;
+
+    /**
+     * Create replay of trace, elevators of group must be already created
+     * @param groupController - group of elevators receiving calls
+     * @param reader - reader of trace
+     */
+    TraceReplay(GroupController groupController, TraceReader reader) {
+        this.groupController = groupController;
+        this.reader = reader;
+        this.floorsNumber = groupController.getElevators().get(0).getFloorsNumber();
+        this.elevatorsNumber = groupController.getElevators().size();
+    }
+
+    /**
+     * Return number of delivered calls
+     * @return number of delivered calls
+     */
+    protected long getReplayedCount() {
+        return this.replayedCount;
+    }
+
+    /**
+     * Return number of calls skipped because of wrong floor or elevator, including incorrect lines of trace
+     * @return number of skipped calls
+     */
+    protected long getSkippedCount() {
+        return this.skippedCount + this.reader.getSkippedCount();
+    }
+
+    /**
+     * Schedule first call of trace
+     * @throws IOException if trace can not be read
+     */
+    protected void start() throws IOException {
+        this.scheduleNext();
+    }
+
+    /**
+     * Deliver call of trace to group of elevators and schedule next call
+     * @param event - event to handle
+     */
+    public void handleEvent(SimulationEvent event) {
+        if (event.getType() == EventType.HALL_CALL) {
+            this.groupController.handleEvent(event);
+        } else {
+            this.groupController.getElevators().get(this.elevator - 1).handleEvent(event);
+        }
+        this.replayedCount++;
+        try {
+            this.scheduleNext();
+        } catch (IOException e) {
+            this.groupController.getMessenger().printErrorMessage("Ошибка чтения трассы вызовов");
+        }
+    }
+
+    /**
+     * Read next correct call of trace and schedule it at its time
+     * @throws IOException if trace can not be read
+     */
+    private void scheduleNext() throws IOException {
+        while (this.reader.next()) {
+            int floor = this.reader.getFloor();
+            boolean hallCall = this.reader.getType() == EventType.HALL_CALL;
+            if (floor < 1 || floor > this.floorsNumber || (!hallCall
+                    && (this.reader.getElevator() < 1 || this.reader.getElevator() > this.elevatorsNumber))) {
+                this.skippedCount++;
+                continue;
+            }
+            this.elevator = this.reader.getElevator();
+            this.groupController.getEventLoop().scheduleAt(this.reader.getTime(), this.reader.getType(), floor, this);
+            return;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package elevator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writer of binary trace of calls, format of trace is described in TraceReader
+ */
+class TraceWriter implements Closeable {
+
+    private final DataOutputStream output;
+    private long time = 0;
+
+    /**
+     * Create binary trace file and write its header
+     * @param path - path to trace file
+     * @throws IOException if file can not be written
+     */
+    TraceWriter(Path path) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        this.output.writeInt(TraceReader.MAGIC);
+        this.output.writeInt(TraceReader.VERSION);
+    }
+
+    /**
+     * Write call to trace, calls must be written in order of time
+     * @param time - time of call (milliseconds)
+     * @param type - HALL_CALL or CAR_CALL
+     * @param elevator - number of elevator for call from cabin, starting from 1
+     * @param floor - called floor
+     * @throws IOException if file can not be written
+     */
+    protected void write(long time, EventType type, int elevator, int floor) throws IOException {
+        long delta = time - this.time;
+        if (delta < 0 || delta > 0xFFFFFFFFL) {
+            throw new IOException("Calls of trace must be ordered by time");
+        }
+        this.time = time;
+        this.output.writeInt((int) delta);
+        this.output.writeByte(type == EventType.HALL_CALL ? 0 : 1);
+        this.output.writeByte(type == EventType.HALL_CALL ? 0 : elevator);
+        this.output.writeShort(floor);
+    }
+
+    /**
+     * Copy all calls of trace (text or binary) to this trace
+     * @param reader - reader of source trace
+     * @throws IOException if trace can not be read or written
+     */
+    protected void writeAll(TraceReader reader) throws IOException {
+        while (reader.next()) {
+            this.write(reader.getTime(), reader.getType(), reader.getElevator(), reader.getFloor());
+        }
+    }
+
+    /**
+     * Flush and close trace file
+     * @throws IOException if file can not be written
+     */
+    public void close() throws IOException {
+        this.output.close();
+    }
+}
@@ -0,0 +1,158 @@
+package elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Generator of random passengers' traffic in simulation
+ * Passengers arrive as Poisson process with rate and origin-destination matrix of current period of profile,
+ * every passenger calls elevator from porch and chooses destination floor when enters cabin
+ * Calls are generated lazily: only next call is scheduled in event loop, so memory does not depend on duration,
+ * random numbers are produced by SplitMix64 from seed, so the same seed gives the same traffic
+ */
+class TrafficGenerator implements EventHandler {
+
+    /**
+     * Number of attempts to draw destination different from origin
+     */
+    private static final int DESTINATION_ATTEMPTS = 16;
+
+    /**
+     * Minimal weight of passenger (kilograms)
+     */
+    private static final int MIN_WEIGHT = 60;
+
+    /**
+     * Difference between maximal and minimal weight of passenger (kilograms)
+     */
+    private static final int WEIGHT_RANGE = 40;
+
+    private final GroupController groupController;
+    private final TrafficProfile profile;
+    private long state;
+    private long endTime = Long.MAX_VALUE;
+    private int destination;
+    private long generatedCount = 0;
+
+    /**
+     * Create generator
+     * @param groupController - group of elevators receiving calls
+     * @param profile - profile of traffic
+     * @param seed - seed of random numbers
+     */
+    TrafficGenerator(GroupController groupController, TrafficProfile profile, long seed) {
+        this.groupController = groupController;
+        this.profile = profile;
+        this.state = seed;
+    }
+
+    /**
+     * Return number of generated passengers
+     * @return number of generated passengers
+     */
+    protected long getGeneratedCount() {
+        return this.generatedCount;
+    }
+
+    /**
+     * Return time when generation of calls stops
+     * @return time of simulation (milliseconds)
+     */
+    protected long getEndTime() {
+        return this.endTime;
+    }
+
+    /**
+     * Schedule first call
+     * @param duration - time of generation of calls from current time of simulation (milliseconds)
+     */
+    protected void start(long duration) {
+        long time = this.groupController.getEventLoop().getTime();
+        this.endTime = duration > Long.MAX_VALUE - time ? Long.MAX_VALUE : time + duration;
+        if (this.profile.hasCalls()) {
+            this.scheduleNext(time);
+        }
+    }
+
+    /**
+     * Write state of random numbers and scheduled passenger to checkpoint, profile is not written
+     * @param output - output of checkpoint
+     * @throws IOException if checkpoint can not be written
+     */
+    protected void writeState(DataOutput output) throws IOException {
+        output.writeLong(this.state);
+        output.writeLong(this.endTime);
+        output.writeShort(this.destination);
+        output.writeLong(this.generatedCount);
+    }
+
+    /**
+     * Replace state of generator by state read from checkpoint, next call must be already restored in event loop
+     * @param input - input of checkpoint
+     * @throws IOException if checkpoint can not be read
+     */
+    protected void readState(DataInput input) throws IOException {
+        this.state = input.readLong();
+        this.endTime = input.readLong();
+        this.destination = input.readUnsignedShort();
+        this.generatedCount = input.readLong();
+    }
+
+    /**
+     * Deliver arrived passenger to group of elevators and schedule next passenger
+     * @param event - event to handle
+     */
+    public void handleEvent(SimulationEvent event) {
+        int weight = MIN_WEIGHT + (int) (this.nextDouble() * WEIGHT_RANGE);
+        Passenger passenger = this.groupController.getLandings().obtain(event.getFloor(), this.destination,
+                event.getTime(), weight);
+        passenger.setId(this.generatedCount++);
+        this.groupController.addPassenger(passenger);
+        this.scheduleNext(event.getTime());
+    }
+
+    /**
+     * Draw time of next call and schedule it, periods of profile without calls are skipped
+     * Arrival process is restarted at start of every period, it is exact for Poisson process
+     * @param time - time of previous call (milliseconds)
+     */
+    private void scheduleNext(long time) {
+        while (time < this.endTime) {
+            int period = this.profile.getPeriod(time);
+            long periodEnd = this.profile.getPeriodEnd(time);
+            double rate = this.profile.getRate(period);
+            double interval = rate > 0 ? -Math.log(1 - this.nextDouble()) / rate : Double.POSITIVE_INFINITY;
+            if (time + interval >= periodEnd) {
+                time = periodEnd;
+                continue;
+            }
+            time += (long) interval;
+            if (time >= this.endTime) {
+                return;
+            }
+            TrafficMatrix matrix = this.profile.getMatrix(period);
+            int origin = matrix.drawOrigin(this.nextDouble());
+            int attempt = 0;
+            do {
+                this.destination = matrix.drawDestination(origin, this.nextDouble());
+            } while (this.destination == origin && ++attempt < DESTINATION_ATTEMPTS);
+            if (this.destination != origin) {
+                this.groupController.getEventLoop().scheduleAt(time, EventType.HALL_CALL, origin, this);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Return next random number of SplitMix64 sequence
+     * @return uniform random number from 0 (inclusive) to 1 (exclusive)
+     */
+    private double nextDouble() {
+        long z = this.state += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,145 @@
+package elevator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Origin-destination matrix of passengers' traffic: weights of trips from every floor to every other floor
+ * Weights are stored as cumulative sums, so floors are drawn by binary search,
+ * floors with the same distribution of destinations share one row
+ */
+class TrafficMatrix {
+
+    private final double[] origins;
+    private final double[][] destinations;
+
+    /**
+     * Create matrix from cumulative weights
+     * @param origins - cumulative weights of origin floors
+     * @param destinations - cumulative weights of destination floors for every origin floor
+     */
+    private TrafficMatrix(double[] origins, double[][] destinations) {
+        this.origins = origins;
+        this.destinations = destinations;
+    }
+
+    /**
+     * Return number of floors of matrix
+     * @return number of floors
+     */
+    protected int getFloorsNumber() {
+        return this.origins.length;
+    }
+
+    /**
+     * Draw origin floor of trip
+     * @param random - uniform random number from 0 (inclusive) to 1 (exclusive)
+     * @return floor from 1
+     */
+    protected int drawOrigin(double random) {
+        return draw(this.origins, random);
+    }
+
+    /**
+     * Draw destination floor of trip
+     * @param origin - origin floor of trip
+     * @param random - uniform random number from 0 (inclusive) to 1 (exclusive)
+     * @return floor from 1, it can be equal to origin for mixed traffic, then destination is drawn again
+     */
+    protected int drawDestination(int origin, double random) {
+        return draw(this.destinations[origin - 1], random);
+    }
+
+    /**
+     * Create matrix of mixed traffic: trips up from first floor (lobby), trips down to lobby
+     * and trips between upper floors, floors are chosen uniformly
+     * @param floorsNumber - number of floors in building
+     * @param up - share of trips from lobby
+     * @param down - share of trips to lobby
+     * @param interFloor - share of trips between upper floors
+     * @return matrix of traffic
+     */
+    static TrafficMatrix mixed(int floorsNumber, double up, double down, double interFloor) {
+        double[] origins = new double[floorsNumber];
+        double[][] destinations = new double[floorsNumber][];
+        double[] fromLobby = new double[floorsNumber];
+        double[] fromUpper = new double[floorsNumber];
+        double upper = floorsNumber - 1;
+        for (int i = 0; i < floorsNumber; i++) {
+            double previous = i == 0 ? 0 : origins[i - 1];
+            origins[i] = previous + (i == 0 ? up : (down + interFloor) / upper);
+            fromLobby[i] = i == 0 ? 0 : i;
+            fromUpper[i] = i == 0 ? down : fromUpper[i - 1] + interFloor / upper;
+        }
+        destinations[0] = fromLobby;
+        Arrays.fill(destinations, 1, floorsNumber, fromUpper);
+        return new TrafficMatrix(origins, destinations);
+    }
+
+    /**
+     * Create matrix from weights of trips, weights of trips to the same floor are ignored
+     * @param weights - weights of trips, weights[i][j] is weight of trip from floor i + 1 to floor j + 1
+     * @return matrix of traffic
+     * @throws IllegalArgumentException if matrix is not square, has negative weights or has no trips
+     */
+    static TrafficMatrix fromWeights(double[][] weights) {
+        int floorsNumber = weights.length;
+        double[] origins = new double[floorsNumber];
+        double[][] destinations = new double[floorsNumber][floorsNumber];
+        for (int i = 0; i < floorsNumber; i++) {
+            if (weights[i].length != floorsNumber) {
+                throw new IllegalArgumentException("Matrix is not square");
+            }
+            double sum = 0;
+            for (int j = 0; j < floorsNumber; j++) {
+                if (weights[i][j] < 0 || Double.isNaN(weights[i][j])) {
+                    throw new IllegalArgumentException("Negative weight of trip");
+                }
+                sum += i == j ? 0 : weights[i][j];
+                destinations[i][j] = sum;
+            }
+            origins[i] = (i == 0 ? 0 : origins[i - 1]) + sum;
+        }
+        if (floorsNumber == 0 || !(origins[floorsNumber - 1] > 0)) {
+            throw new IllegalArgumentException("Matrix has no trips");
+        }
+        return new TrafficMatrix(origins, destinations);
+    }
+
+    /**
+     * Parse matrix of weights: one line per origin floor, weights are separated by comma or spaces,
+     * empty lines and lines starting with # are ignored
+     * @param lines - lines of matrix
+     * @return matrix of traffic
+     * @throws IllegalArgumentException if matrix is incorrect
+     */
+    static TrafficMatrix parse(List<String> lines) {
+        double[][] weights = lines.stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> Arrays.stream(line.split("[,;\\s]+")).mapToDouble(Double::parseDouble).toArray())
+                .toArray(double[][]::new);
+        return fromWeights(weights);
+    }
+
+    /**
+     * Draw index by cumulative weights
+     * @param cumulative - cumulative weights
+     * @param random - uniform random number from 0 (inclusive) to 1 (exclusive)
+     * @return index from 1 of first weight greater than random part of total weight
+     */
+    private static int draw(double[] cumulative, double random) {
+        double value = random * cumulative[cumulative.length - 1];
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low + 1;
+    }
+}
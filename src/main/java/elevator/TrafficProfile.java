@@ -0,0 +1,151 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Profile of passengers' traffic during day: day is split in periods with constant rate of calls
+ * and own origin-destination matrix, profile is repeated every day
+ */
+class TrafficProfile {
+
+    /**
+     * Length of day (milliseconds)
+     */
+    static final long DAY = 24 * 3600 * 1000L;
+
+    /**
+     * Length of hour (milliseconds)
+     */
+    static final long HOUR = 3600 * 1000L;
+
+    private final List<Long> starts = new ArrayList<>();
+    private final List<Double> rates = new ArrayList<>();
+    private final List<TrafficMatrix> matrices = new ArrayList<>();
+
+    /**
+     * Add period of day, periods are added in order of their start, first period starts at midnight
+     * @param start - start of period since midnight (milliseconds)
+     * @param rate - mean number of calls from porch per hour
+     * @param matrix - origin-destination matrix of period
+     * @throws IllegalArgumentException if period starts out of order or rate is negative
+     */
+    protected void addPeriod(long start, double rate, TrafficMatrix matrix) {
+        long previous = this.starts.isEmpty() ? -1 : this.starts.get(this.starts.size() - 1);
+        if (start <= previous || start >= DAY || (this.starts.isEmpty() && start != 0) || !(rate >= 0)) {
+            throw new IllegalArgumentException("Incorrect period of traffic");
+        }
+        this.starts.add(start);
+        this.rates.add(rate);
+        this.matrices.add(matrix);
+    }
+
+    /**
+     * Return number of periods of day
+     * @return number of periods
+     */
+    protected int getPeriodsNumber() {
+        return this.starts.size();
+    }
+
+    /**
+     * Return period at given time of simulation
+     * @param time - time of simulation (milliseconds)
+     * @return index of period
+     */
+    protected int getPeriod(long time) {
+        long timeOfDay = Math.floorMod(time, DAY);
+        int period = 0;
+        while (period + 1 < this.starts.size() && this.starts.get(period + 1) <= timeOfDay) {
+            period++;
+        }
+        return period;
+    }
+
+    /**
+     * Return time when period at given time ends
+     * @param time - time of simulation (milliseconds)
+     * @return time of simulation when next period starts (milliseconds)
+     */
+    protected long getPeriodEnd(long time) {
+        int period = this.getPeriod(time);
+        long end = period + 1 < this.starts.size() ? this.starts.get(period + 1) : DAY;
+        return time - Math.floorMod(time, DAY) + end;
+    }
+
+    /**
+     * Return mean rate of calls in period
+     * @param period - index of period
+     * @return mean number of calls per millisecond
+     */
+    protected double getRate(int period) {
+        return this.rates.get(period) / HOUR;
+    }
+
+    /**
+     * Check profile has calls in any period
+     * @return true if rate of any period is above zero
+     */
+    protected boolean hasCalls() {
+        return this.rates.stream().anyMatch(rate -> rate > 0);
+    }
+
+    /**
+     * Return origin-destination matrix of period
+     * @param period - index of period
+     * @return matrix of traffic
+     */
+    protected TrafficMatrix getMatrix(int period) {
+        return this.matrices.get(period);
+    }
+
+    /**
+     * Create profile with the same traffic during whole day
+     * @param rate - mean number of calls from porch per hour
+     * @param matrix - origin-destination matrix
+     * @return profile of traffic
+     */
+    static TrafficProfile constant(double rate, TrafficMatrix matrix) {
+        TrafficProfile profile = new TrafficProfile();
+        profile.addPeriod(0, rate, matrix);
+        return profile;
+    }
+
+    /**
+     * Create profile of traffic by name
+     * up - morning up-peak, most of trips are from lobby,
+     * down - evening down-peak, most of trips are to lobby,
+     * inter - trips between upper floors,
+     * office - working day: quiet night, up-peak from 7 to 10, lunch from 12 to 14, down-peak from 17 to 19
+     * and inter-floor traffic between them
+     * @param name - name of profile
+     * @param floorsNumber - number of floors in building
+     * @param rate - mean number of calls from porch per hour in peak
+     * @return profile of traffic or null if name is unknown
+     */
+    static TrafficProfile create(String name, int floorsNumber, double rate) {
+        TrafficMatrix upPeak = TrafficMatrix.mixed(floorsNumber, 0.85, 0.05, 0.1);
+        TrafficMatrix downPeak = TrafficMatrix.mixed(floorsNumber, 0.05, 0.85, 0.1);
+        TrafficMatrix interFloor = TrafficMatrix.mixed(floorsNumber, 0.1, 0.1, 0.8);
+        switch (name) {
+            case "up":
+                return constant(rate, upPeak);
+            case "down":
+                return constant(rate, downPeak);
+            case "inter":
+                return constant(rate, interFloor);
+            case "office":
+                TrafficProfile profile = new TrafficProfile();
+                profile.addPeriod(0, rate * 0.02, interFloor);
+                profile.addPeriod(7 * HOUR, rate, upPeak);
+                profile.addPeriod(10 * HOUR, rate * 0.4, interFloor);
+                profile.addPeriod(12 * HOUR, rate * 0.8, TrafficMatrix.mixed(floorsNumber, 0.45, 0.45, 0.1));
+                profile.addPeriod(14 * HOUR, rate * 0.4, interFloor);
+                profile.addPeriod(17 * HOUR, rate, downPeak);
+                profile.addPeriod(19 * HOUR, rate * 0.05, interFloor);
+                return profile;
+            default:
+                return null;
+        }
+    }
+}
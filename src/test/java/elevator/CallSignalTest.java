@@ -0,0 +1,45 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CallSignalTest {
+
+    @Test
+    void signalBeforeAwaitTest() throws InterruptedException {
+        CallSignal signal = new CallSignal();
+        signal.signal();
+        signal.signal();
+        assertTrue(signal.await(1000));
+        // signals given before waiting are merged
+        assertFalse(signal.await(10));
+    }
+
+    @Test
+    void timeoutTest() throws InterruptedException {
+        CallSignal signal = new CallSignal();
+        long start = System.nanoTime();
+        assertFalse(signal.await(50));
+        assertTrue((System.nanoTime() - start) / 1000000 >= 45);
+    }
+
+    @Test
+    void wakeUpTest() throws InterruptedException {
+        CallSignal signal = new CallSignal();
+        Thread input = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            signal.signal();
+        });
+        input.start();
+        long start = System.nanoTime();
+        signal.await();
+        assertTrue((System.nanoTime() - start) / 1000000 < 5000);
+        input.join();
+    }
+}
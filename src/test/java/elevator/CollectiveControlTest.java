@@ -0,0 +1,114 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CollectiveControlTest {
+
+    @Test
+    void policyTest() {
+        CollectiveControl control = new CollectiveControl();
+        assertEquals(SchedulingPolicy.LOOK, control.getPolicy());
+        control.setPolicy(SchedulingPolicy.SCAN);
+        assertEquals(SchedulingPolicy.SCAN, control.getPolicy());
+    }
+
+    @Test
+    void stopsTest() {
+        CollectiveControl control = new CollectiveControl();
+        assertFalse(control.hasStops());
+        assertEquals(-1, control.nextStop(1));
+
+        control.addStop(4, 2);
+        control.addStop(4, 2);
+        control.addStop(1, 2);
+        assertTrue(control.hasStops());
+        assertEquals(2, control.getStopsCount());
+        assertTrue(control.isStop(4));
+        assertFalse(control.isStop(3));
+
+        assertTrue(control.removeStop(4));
+        assertFalse(control.removeStop(4));
+        assertEquals(1, control.getStopsCount());
+    }
+
+    @Test
+    void lookTest() {
+        CollectiveControl control = new CollectiveControl();
+        control.setFloorsNumber(10);
+        control.addStop(5, 3);
+        control.addStop(1, 3);
+        control.addStop(4, 3);
+        control.addStop(2, 3);
+
+        // all stops above are served before reversing
+        assertEquals(4, control.nextStop(3));
+        control.removeStop(4);
+        assertEquals(5, control.nextStop(4));
+        control.removeStop(5);
+        assertEquals(Direction.UP, control.getDirection());
+
+        assertEquals(2, control.nextStop(5));
+        assertEquals(Direction.DOWN, control.getDirection());
+        control.removeStop(2);
+        assertEquals(1, control.nextStop(2));
+        control.removeStop(1);
+        assertEquals(-1, control.nextStop(1));
+    }
+
+    @Test
+    void scanTest() {
+        CollectiveControl control = new CollectiveControl();
+        control.setFloorsNumber(10);
+        control.setPolicy(SchedulingPolicy.SCAN);
+        control.addStop(2, 6);
+
+        // elevator goes to last floor before reversing, there is no stop on it
+        assertEquals(10, control.nextStop(6));
+        assertFalse(control.isStop(10));
+        assertEquals(Direction.UP, control.getDirection());
+
+        assertEquals(2, control.nextStop(10));
+        assertEquals(Direction.DOWN, control.getDirection());
+    }
+
+    @Test
+    void currentFloorStopTest() {
+        CollectiveControl control = new CollectiveControl();
+        control.setDirection(Direction.DOWN);
+        control.addStop(3, 3);
+        assertEquals(3, control.nextStop(3));
+        assertEquals(Direction.DOWN, control.getDirection());
+    }
+
+    @Test
+    void copyTest() {
+        CollectiveControl control = new CollectiveControl();
+        control.setPolicy(SchedulingPolicy.SCAN);
+        control.setDirection(Direction.DOWN);
+        control.addStop(2, 3);
+
+        CollectiveControl copy = control.copy();
+        copy.removeStop(2);
+        copy.addStop(5, 3);
+
+        assertEquals(SchedulingPolicy.SCAN, copy.getPolicy());
+        assertEquals(Direction.DOWN, copy.getDirection());
+        assertTrue(control.isStop(2));
+        assertFalse(control.isStop(5));
+    }
+
+    @Test
+    void peekStopTest() {
+        CollectiveControl control = new CollectiveControl();
+        control.addStop(2, 5);
+
+        assertEquals(2, control.peekStop(5));
+        assertEquals(Direction.UP, control.getDirection());
+        assertEquals(2, control.nextStop(5));
+        assertEquals(Direction.DOWN, control.getDirection());
+    }
+}
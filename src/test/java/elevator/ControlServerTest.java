@@ -0,0 +1,160 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ControlServerTest {
+
+    private InputLoop createInputLoop() {
+        InputLoop inputLoop = new InputLoop(new SilentMessenger());
+        inputLoop.setFloorsNumber(10);
+        inputLoop.setElevatorCalls(Arrays.asList(new FloorCalls(), new FloorCalls()));
+        return inputLoop;
+    }
+
+    private static Socket connect(ControlServer server) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(10000);
+        return socket;
+    }
+
+    @Test
+    void textCommandsTest() throws IOException {
+        InputLoop inputLoop = this.createInputLoop();
+        try (ControlServer server = new ControlServer(inputLoop, new EventLoop(true), 0)) {
+            server.start();
+            try (Socket socket = connect(server)) {
+                OutputStream output = socket.getOutputStream();
+                BufferedReader input = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                output.write("э5\n2л7\r\nл99\nабв\n".getBytes(StandardCharsets.UTF_8));
+                output.flush();
+
+                assertEquals("Ввод принят", input.readLine());
+                assertEquals("Ввод принят", input.readLine());
+                assertEquals("Некорректный ввод", input.readLine());
+                assertEquals("Некорректный ввод", input.readLine());
+                assertTrue(inputLoop.getPorchCalls().isSet(5));
+                assertTrue(inputLoop.getElevatorCalls(2).isSet(7));
+                assertEquals(1, inputLoop.getMetrics().getHallCallsPerFloor()[4]);
+
+                // subscriber receives events of elevators as lines
+                output.write("события\n".getBytes(StandardCharsets.UTF_8));
+                assertEquals("Подписка на события", input.readLine());
+                server.append(1, JournalEvent.ARRIVE, 3, -1);
+                server.append(-1, JournalEvent.HALL_CALL, 10, 42);
+                assertEquals("событие 0 2 arrive 3", input.readLine());
+                assertEquals("событие 0 0 hall_call 10", input.readLine());
+                assertEquals(5, server.getCommandsCount());
+            }
+        }
+    }
+
+    @Test
+    void binaryCommandsTest() throws IOException, InterruptedException {
+        InputLoop inputLoop = this.createInputLoop();
+        EventLoop eventLoop = new EventLoop(false);
+        try (ControlServer server = new ControlServer(inputLoop, eventLoop, 0)) {
+            server.start();
+            try (Socket socket = connect(server)) {
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                output.writeByte(ControlServer.BINARY);
+                output.write(new byte[] {ControlServer.HALL_CALL, 0, 0, 3});
+                output.write(new byte[] {ControlServer.CAR_CALL, 3, 0, 3});
+                output.write(new byte[] {ControlServer.SUBSCRIBE, 0, 0, 0});
+                output.flush();
+
+                assertEquals(ControlServer.ANSWER, input.readByte());
+                assertEquals(1, input.readByte());
+                assertEquals(ControlServer.ANSWER, input.readByte());
+                assertEquals(0, input.readByte());
+                assertEquals(ControlServer.ANSWER, input.readByte());
+                assertEquals(1, input.readByte());
+                assertTrue(inputLoop.getPorchCalls().isSet(3));
+                assertTrue(inputLoop.getElevatorCalls(2).isEmpty());
+
+                eventLoop.runUntil(1500);
+                server.append(0, JournalEvent.BOARD, 4, 7);
+                assertEquals(ControlServer.EVENT, input.readByte());
+                assertEquals(1500L, input.readLong());
+                assertEquals(7L, input.readLong());
+                assertEquals(4, input.readInt());
+                assertEquals(0, input.readShort());
+                assertEquals(JournalEvent.BOARD.getCode(), input.readByte());
+            }
+        }
+    }
+
+    @Test
+    void manyCommandsTest() throws IOException {
+        InputLoop inputLoop = this.createInputLoop();
+        int commands = 50000;
+        try (ControlServer server = new ControlServer(inputLoop, new EventLoop(true), 0)) {
+            server.start();
+            try (Socket first = connect(server); Socket second = connect(server)) {
+                // clients write all commands before reading answers, server stops reading until answers are read
+                byte[] frames = new byte[1 + commands * ControlServer.FRAME_SIZE];
+                for (int i = 0; i < commands; i++) {
+                    frames[1 + i * 4] = ControlServer.CAR_CALL;
+                    frames[1 + i * 4 + 1] = 1;
+                    frames[1 + i * 4 + 3] = (byte) (i % 10 + 1);
+                }
+                Thread writer = new Thread(() -> {
+                    try {
+                        first.getOutputStream().write(frames);
+                        second.getOutputStream().write("э1\n".getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        // test fails on reading
+                    }
+                });
+                writer.start();
+                DataInputStream input = new DataInputStream(first.getInputStream());
+                for (int i = 0; i < commands; i++) {
+                    assertEquals(ControlServer.ANSWER, input.readByte());
+                    assertEquals(1, input.readByte());
+                }
+                BufferedReader text = new BufferedReader(
+                        new InputStreamReader(second.getInputStream(), StandardCharsets.UTF_8));
+                assertEquals("Ввод принят", text.readLine());
+                assertEquals(commands + 1, server.getCommandsCount());
+                assertEquals(commands, inputLoop.getMetrics().getCarCallsPerFloor()[0] * 10);
+            }
+        }
+    }
+
+    @Test
+    void slowSubscriberTest() throws IOException {
+        try (ControlServer server = new ControlServer(this.createInputLoop(), new EventLoop(true), 0)) {
+            server.start();
+            try (Socket socket = connect(server)) {
+                socket.getOutputStream().write("события\n".getBytes(StandardCharsets.UTF_8));
+                BufferedReader input = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                assertEquals("Подписка на события", input.readLine());
+
+                // subscriber which does not read events does not stop simulation, its events are dropped
+                for (int i = 0; i < 1000000; i++) {
+                    server.append(0, JournalEvent.ARRIVE, 1, -1);
+                }
+                assertTrue(server.getDroppedEventsCount() > 0);
+            }
+        }
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("control-server")));
+    }
+}
@@ -0,0 +1,59 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DestinationDispatcherTest {
+
+    private final Elevator settings = TestBuilding.createSettings(20, 3F, 4);
+
+    @Test
+    void groupByDestinationTest() {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator first = TestBuilding.createElevator(eventLoop, this.settings, 1);
+        Elevator second = TestBuilding.createElevator(eventLoop, this.settings, 1);
+        List<Elevator> elevators = Arrays.asList(first, second);
+        Dispatcher dispatcher = new DestinationDispatcher();
+
+        assertTrue(dispatcher.isDestinationDispatch());
+        assertFalse(new EtaDispatcher().isDestinationDispatch());
+        assertEquals(first, dispatcher.selectElevator(elevators, new Passenger(1, 12, 0, 80)));
+
+        // passenger going to the same floor joins elevator which already stops there
+        second.getElevatorCalls().set(12);
+        first.getElevatorCalls().set(5);
+        assertEquals(second, dispatcher.selectElevator(elevators, new Passenger(1, 12, 0, 80)));
+        assertEquals(first, dispatcher.selectElevator(elevators, new Passenger(1, 5, 0, 80)));
+        // calls from porch are dispatched by estimated time of arrival
+        assertEquals(first, dispatcher.selectElevator(elevators, 3));
+    }
+
+    @Test
+    void fullElevatorTest() {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator first = TestBuilding.createElevator(eventLoop, this.settings, 1);
+        Elevator second = TestBuilding.createElevator(eventLoop, this.settings, 2);
+        second.setMetrics(new SimulationMetrics(eventLoop, 2), 1);
+        first.setCapacity(150);
+        Landings landings = new Landings(20, 2);
+        first.setLandings(landings, null);
+        second.setLandings(landings, null);
+        first.getElevatorCalls().set(12);
+        Passenger assigned = new Passenger(1, 12, 0, 80);
+        assigned.setElevator(0);
+        landings.add(assigned);
+
+        assertEquals(80L, first.getExpectedLoad());
+        // passengers already assigned to first elevator fill it, so free elevator is better than grouping
+        assertEquals(second, new DestinationDispatcher().selectElevator(Arrays.asList(first, second),
+                new Passenger(1, 12, 0, 80)));
+        assertEquals(first, new DestinationDispatcher().selectElevator(Arrays.asList(first, second),
+                new Passenger(1, 12, 0, 60)));
+    }
+}
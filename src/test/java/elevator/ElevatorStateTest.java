@@ -0,0 +1,115 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class ElevatorStateTest {
+
+    @Test
+    void publishTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(new SilentMessenger(), eventLoop);
+        elevator.setFloorsNumber(100);
+        ElevatorSnapshot snapshot = elevator.getState().getSnapshot();
+        assertEquals(1, snapshot.getFloor());
+        assertFalse(snapshot.isBusy());
+        assertEquals(0, snapshot.getStopsCount());
+
+        eventLoop.schedule(0, EventType.CAR_CALL, 70, elevator);
+        eventLoop.schedule(0, EventType.CAR_CALL, 9, elevator);
+        eventLoop.runUntil(4000);
+        elevator.getState().read(snapshot);
+
+        // moving elevator publishes its position and both stops, floor 70 is in second word
+        assertTrue(snapshot.isBusy());
+        assertTrue(snapshot.isMoving());
+        assertTrue(snapshot.isGoingUp());
+        assertFalse(snapshot.isDoorsOpen());
+        assertEquals(elevator.getCurrentFloor(), snapshot.getFloor());
+        assertEquals(9, snapshot.getTargetFloor());
+        assertTrue(snapshot.isStop(9));
+        assertTrue(snapshot.isStop(70));
+        assertFalse(snapshot.isStop(10));
+        assertEquals(2, snapshot.getStopsCount());
+
+        long version = snapshot.getVersion();
+        eventLoop.runUntil(eventLoop.getNextEventTime() + 1);
+        assertTrue(elevator.getState().getSnapshot().getVersion() > version);
+        eventLoop.run();
+        snapshot = elevator.getState().getSnapshot();
+        assertEquals(70, snapshot.getFloor());
+        assertFalse(snapshot.isBusy());
+        assertEquals(0, snapshot.getStopsCount());
+    }
+
+    @Test
+    void consistentReadTest() throws InterruptedException {
+        ElevatorState state = new ElevatorState(1000);
+        int words = state.getStopsWords();
+        AtomicLong torn = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+        long updates = 2000000;
+
+        // reader sees every field of one update, never mix of two updates
+        Thread reader = new Thread(() -> {
+            ElevatorSnapshot snapshot = new ElevatorSnapshot(words);
+            long last = 0;
+            while (last < updates) {
+                state.read(snapshot);
+                if (snapshot.getVersion() == 0) {
+                    // state of constructor before first update
+                    continue;
+                }
+                long value = snapshot.getLoad();
+                boolean consistent = snapshot.getFloor() == (int) value && snapshot.getTargetFloor() == (int) value
+                        && snapshot.getPassengersCount() == (int) value && snapshot.getVersion() == value;
+                for (long word : snapshot.getStops()) {
+                    consistent &= word == value;
+                }
+                if (!consistent || value < last) {
+                    torn.incrementAndGet();
+                }
+                last = value;
+                reads.incrementAndGet();
+            }
+        });
+        reader.start();
+        for (long i = 1; i <= updates; i++) {
+            state.beginUpdate();
+            state.setPosition((int) i, (int) i, ElevatorState.BUSY);
+            state.setLoad(i, (int) i);
+            for (int word = 0; word < words; word++) {
+                state.setStops(word, i);
+            }
+            state.endUpdate();
+        }
+        reader.join(10000);
+
+        assertFalse(reader.isAlive());
+        assertEquals(0L, torn.get());
+        assertTrue(reads.get() > 0);
+    }
+
+    @Test
+    void metricsTest() throws InterruptedException {
+        Simulation simulation = new Simulation(false);
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(20);
+        simulation.createElevators(elevator, 3);
+        simulation.scheduleRandomCalls(7, 50, 10000);
+        simulation.run();
+
+        int[] floors = new int[3];
+        for (int i = 0; i < 3; i++) {
+            floors[i] = simulation.getGroupController().getElevators().get(i).getCurrentFloor();
+        }
+        assertArrayEquals(floors, simulation.getMetrics().getElevatorFloors());
+        assertArrayEquals(new long[3], simulation.getMetrics().getElevatorLoads());
+    }
+}
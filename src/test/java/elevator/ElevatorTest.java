@@ -1,10 +1,10 @@
 package elevator;
 
-import static elevator.Main.elevatorQueue;
-import static elevator.Main.porchQueue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import static org.mockito.Mockito.*;
 
 class ElevatorTest {
@@ -12,35 +12,35 @@ class ElevatorTest {
     void elevatorSpeedTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setElevatorSpeed(1.5F);
-        assertEquals(Float.valueOf(1.5F), elevator.getElevatorSpeed());
+        assertEquals(1.5F, elevator.getElevatorSpeed());
     }
 
     @Test
     void floorsNumberTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setFloorsNumber(10);
-        assertEquals(Integer.valueOf(10), elevator.getFloorsNumber());
+        assertEquals(10, elevator.getFloorsNumber());
     }
 
     @Test
     void floorHeightTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setFloorHeight(2.5F);
-        assertEquals(Float.valueOf(2.5F), elevator.getFloorHeight());
+        assertEquals(2.5F, elevator.getFloorHeight());
     }
 
     @Test
     void doorsTimeTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setDoorsTime(8);
-        assertEquals(Integer.valueOf(8), elevator.getDoorsTime());
+        assertEquals(8, elevator.getDoorsTime());
     }
 
     @Test
     void currentFloorTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setCurrentFloor(7);
-        assertEquals(Integer.valueOf(7), elevator.getCurrentFloor());
+        assertEquals(7, elevator.getCurrentFloor());
     }
 
     @Test
@@ -51,26 +51,32 @@ class ElevatorTest {
     }
 
     @Test
-    void openCloseDoorsTest() {
+    void openCloseDoorsTest() throws InterruptedException {
         Messenger messenger = mock(Messenger.class);
         doNothing().when(messenger).printMessage(any());
         Elevator elevator = new Elevator(messenger);
         elevator.setDoorsTime(1);
         elevator.openCloseDoors();
         verify(messenger, times(1)).printMessage("Лифт открыл двери\n");
+        verify(messenger, never()).printMessage("Лифт закрыл двери\n");
+        elevator.getEventLoop().run();
+        assertEquals(1000L, elevator.getEventLoop().getTime());
+        verify(messenger, times(1)).printMessage("Лифт открыл двери\n");
         verify(messenger, times(1)).printMessage("Лифт закрыл двери\n");
     }
 
     @Test
-    void getElevatorQueueTest() {
+    void getElevatorCallsTest() {
         Elevator elevator = new Elevator(new Messenger());
-        assertEquals(elevatorQueue, elevator.getElevatorQueue());
+        assertTrue(elevator.getElevatorCalls().isEmpty());
+        assertTrue(elevator.getElevatorCalls() != new Elevator(new Messenger()).getElevatorCalls());
     }
 
     @Test
-    void getPorchQueueTest() {
+    void getPorchCallsTest() {
         Elevator elevator = new Elevator(new Messenger());
-        assertEquals(porchQueue, elevator.getPorchQueue());
+        assertTrue(elevator.getPorchCalls().isEmpty());
+        assertTrue(elevator.getPorchCalls() != new Elevator(new Messenger()).getPorchCalls());
     }
 
     @Test
@@ -81,7 +87,7 @@ class ElevatorTest {
     }
 
     @Test
-    void checkQueueAndMoveElevatorTest() {
+    void checkQueueAndMoveElevatorTest() throws InterruptedException {
         Messenger messenger = mock(Messenger.class);
         doNothing().when(messenger).printMessage(any());
         Elevator elevator = new Elevator(messenger);
@@ -91,14 +97,16 @@ class ElevatorTest {
         elevator.setFloorHeight(2F);
         elevator.setElevatorSpeed(10F);
 
-        elevator.getElevatorQueue().add(3);
+        elevator.getElevatorCalls().set(3);
         elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().run();
         // check that elevator open-close doors - means elevator execute move method
         verify(messenger, times(1)).printMessage("Лифт открыл двери\n");
         verify(messenger, times(1)).printMessage("Лифт закрыл двери\n");
 
-        elevator.getPorchQueue().add(5);
+        elevator.getPorchCalls().set(5);
         elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().run();
         // check that elevator open-close doors - means elevator execute move method
         verify(messenger, times(2)).printMessage("Лифт открыл двери\n");
         verify(messenger, times(2)).printMessage("Лифт закрыл двери\n");
@@ -109,18 +117,18 @@ class ElevatorTest {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setFloorHeight(2F);
         elevator.setElevatorSpeed(1F);
-        assertEquals(Long.valueOf(2000), elevator.getTimePerFloor());
+        assertEquals(2000, elevator.getTimePerFloor());
     }
 
     @Test
     void getNumberOfFloorsToPassTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setCurrentFloor(1);
-        assertEquals(Integer.valueOf(4), elevator.getNumberOfFloorsToPass(5));
+        assertEquals(4, elevator.getNumberOfFloorsToPass(5));
     }
 
     @Test
-    void moveTest() {
+    void moveTest() throws InterruptedException {
         Messenger messenger = mock(Messenger.class);
         doNothing().when(messenger).printFormattedMessage(any(), any());
         Elevator elevator = new Elevator(messenger);
@@ -132,48 +140,52 @@ class ElevatorTest {
         elevator.setElevatorSpeed(10F);
 
         elevator.move(3);
+        assertEquals(true, elevator.getBusy());
+        elevator.getEventLoop().run();
+        assertEquals(false, elevator.getBusy());
+        assertEquals(3, elevator.getCurrentFloor());
         // check that elevator pass floor - means elevator execute elevatorMoving method
-        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", "1");
+        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", 1);
     }
 
     @Test
     void getDirectionTest() {
         Elevator elevator = new Elevator(new Messenger());
-        assertEquals("up", elevator.getDirection(5));
-        assertEquals("down", elevator.getDirection(-5));
+        assertEquals(Direction.UP, elevator.getDirection(5));
+        assertEquals(Direction.DOWN, elevator.getDirection(-5));
     }
 
     @Test
     void getFloorsCountToMoveTest() {
         Elevator elevator = new Elevator(new Messenger());
-        assertEquals(Integer.valueOf(5), elevator.getFloorsCountToMove(5));
-        assertEquals(Integer.valueOf(5), elevator.getFloorsCountToMove(-5));
-        assertEquals(Integer.valueOf(0), elevator.getFloorsCountToMove(0));
+        assertEquals(5, elevator.getFloorsCountToMove(5));
+        assertEquals(5, elevator.getFloorsCountToMove(-5));
+        assertEquals(0, elevator.getFloorsCountToMove(0));
     }
 
     @Test
     void changeCurrentFloorTest() {
         Elevator elevator = new Elevator(new Messenger());
         elevator.setCurrentFloor(1);
-        elevator.changeCurrentFloor("up");
-        assertEquals(Integer.valueOf(2), elevator.getCurrentFloor());
+        elevator.changeCurrentFloor(Direction.UP);
+        assertEquals(2, elevator.getCurrentFloor());
 
         elevator.setFloorsNumber(5);
         elevator.setCurrentFloor(5);
-        elevator.changeCurrentFloor("up");
-        assertEquals(Integer.valueOf(5), elevator.getCurrentFloor());
+        elevator.changeCurrentFloor(Direction.UP);
+        assertEquals(5, elevator.getCurrentFloor());
 
         elevator.setCurrentFloor(4);
-        elevator.changeCurrentFloor("down");
-        assertEquals(Integer.valueOf(3), elevator.getCurrentFloor());
+        elevator.changeCurrentFloor(Direction.DOWN);
+        assertEquals(3, elevator.getCurrentFloor());
 
         elevator.setCurrentFloor(1);
-        elevator.changeCurrentFloor("down");
-        assertEquals(Integer.valueOf(1), elevator.getCurrentFloor());
+        elevator.changeCurrentFloor(Direction.DOWN);
+        assertEquals(1, elevator.getCurrentFloor());
     }
 
     @Test
-    void elevatorMovingTest() {
+    void elevatorMovingTest() throws InterruptedException {
 
         Messenger messenger = mock(Messenger.class);
         doNothing().when(messenger).printFormattedMessage(any(), any());
@@ -182,17 +194,394 @@ class ElevatorTest {
         elevator.setFloorsNumber(10);
         elevator.setCurrentFloor(1);
         elevator.elevatorMoving(3,1L);
+        elevator.getEventLoop().run();
 
-        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", "1");
-        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", "2");
-        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", "3");
-        verify(messenger, times(1)).printFormattedMessage("Лифт на %s этаже%n", "4");
+        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", 1);
+        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", 2);
+        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", 3);
+        verify(messenger, times(1)).printFormattedMessage("Лифт на %s этаже%n", 4);
 
         elevator.setCurrentFloor(9);
         elevator.elevatorMoving(-3,1L);
+        elevator.getEventLoop().run();
+
+        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", 8);
+        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", 7);
+        verify(messenger, times(1)).printFormattedMessage("Лифт на %s этаже%n", 6);
+    }
+
+    @Test
+    void handleEventTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        Elevator elevator = new Elevator(messenger);
+        elevator.setFloorsNumber(20);
+        EventLoop eventLoop = elevator.getEventLoop();
+
+        // one call per minute during an hour of simulation, executed without waiting
+        for (int minute = 0; minute < 60; minute++) {
+            EventType type = minute % 2 == 0 ? EventType.HALL_CALL : EventType.CAR_CALL;
+            eventLoop.scheduleAt(minute * 60000L, type, minute % 20 + 1, elevator);
+        }
+        long start = System.currentTimeMillis();
+        eventLoop.run();
+
+        assertTrue(System.currentTimeMillis() - start < 3600000L / 100);
+        assertTrue(eventLoop.getTime() >= 59 * 60000L);
+        verify(messenger, times(60)).printMessage("Лифт открыл двери\n");
+        verify(messenger, times(60)).printMessage("Лифт закрыл двери\n");
+        assertEquals(20, elevator.getCurrentFloor());
+        assertEquals(false, elevator.getBusy());
+    }
+
+    @Test
+    void getTravelTimeTest() {
+        Elevator elevator = new Elevator(new Messenger());
+        elevator.setFloorHeight(3F);
+        elevator.setElevatorSpeed(1F);
+        assertEquals(9000, elevator.getTravelTime(2, 5));
+        assertEquals(9000, elevator.getTravelTime(5, 2));
+        assertEquals(0, elevator.getTravelTime(4, 4));
+    }
+
+    @Test
+    void estimateArrivalTimeTest() throws InterruptedException {
+        Elevator elevator = new Elevator(new Messenger(), new EventLoop(false),
+                new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(10);
+        elevator.setFloorHeight(3F);
+        elevator.setElevatorSpeed(1F);
+        elevator.setDoorsTime(5);
+        elevator.setCurrentFloor(1);
+
+        assertEquals(12000, elevator.estimateArrivalTime(5));
+
+        // busy elevator moving to 4 floor stops on called 2 floor on its way, then serves 4 floor
+        elevator.getElevatorCalls().set(4);
+        elevator.checkQueueAndMoveElevator();
+        elevator.getPorchCalls().set(2);
+        assertEquals(3000 + 5000 + 6000 + 5000 + 3000, elevator.estimateArrivalTime(5));
+
+        // doors are open on 2 floor
+        elevator.getEventLoop().runUntil(3000);
+        assertEquals(5000 + 6000 + 5000 + 3000, elevator.estimateArrivalTime(5));
+    }
+
+    @Test
+    void schedulingPolicyTest() {
+        Elevator elevator = new Elevator(new Messenger());
+        assertEquals(SchedulingPolicy.LOOK, elevator.getSchedulingPolicy());
+        elevator.setSchedulingPolicy(SchedulingPolicy.SCAN);
+        assertEquals(SchedulingPolicy.SCAN, elevator.getSchedulingPolicy());
+    }
+
+    @Test
+    void lookSchedulingTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        Elevator elevator = new Elevator(messenger, new EventLoop(false),
+                new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(10);
+        elevator.setFloorHeight(3F);
+        elevator.setElevatorSpeed(1F);
+        elevator.setDoorsTime(5);
+        elevator.setCurrentFloor(3);
+
+        for (int floor : new int[] {5, 1, 4, 2}) {
+            elevator.getPorchCalls().set(floor);
+        }
+        elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().run();
+
+        InOrder inOrder = inOrder(messenger);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 4);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 5);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 2);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 1);
+        verify(messenger, times(4)).printMessage("Лифт открыл двери\n");
+        // 6 floors of moving and 4 doors cycles instead of 11 floors in order of calls
+        assertEquals(6 * 3000L + 4 * 5000L, elevator.getEventLoop().getTime());
+    }
+
+    @Test
+    void cabinDirectionTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        Elevator elevator = new Elevator(messenger, new EventLoop(false),
+                new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(10);
+        elevator.setCurrentFloor(5);
+
+        elevator.getPorchCalls().set(7);
+        elevator.getElevatorCalls().set(2);
+        elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().run();
+
+        InOrder inOrder = inOrder(messenger);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 2);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 7);
+    }
+
+    @Test
+    void scanSchedulingTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        Elevator elevator = new Elevator(messenger, new EventLoop(false),
+                new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(6);
+        elevator.setSchedulingPolicy(SchedulingPolicy.SCAN);
+        elevator.setCurrentFloor(3);
+
+        elevator.getPorchCalls().set(4);
+        elevator.getPorchCalls().set(1);
+        elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().run();
+
+        InOrder inOrder = inOrder(messenger);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 4);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 6);
+        inOrder.verify(messenger).printFormattedMessage("Лифт на %s этаже%n", 1);
+        // doors are not opened on last floor
+        verify(messenger, times(2)).printMessage("Лифт открыл двери\n");
+        assertEquals(false, elevator.getBusy());
+    }
+
+    @Test
+    void repeatedCallsTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        Elevator elevator = new Elevator(messenger, new EventLoop(false), new FloorCalls(), new FloorCalls());
+        for (int press = 0; press < 5; press++) {
+            elevator.getPorchCalls().set(3);
+            elevator.getElevatorCalls().set(3);
+        }
+        elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().run();
+
+        verify(messenger, times(1)).printMessage("Лифт открыл двери\n");
+    }
+
+    @Test
+    void expressRunTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(messenger, eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(500);
+        elevator.setElevatorSpeed(3F);
+        elevator.setFloorHeight(3F);
+        elevator.setExpressRuns(true);
+
+        elevator.getElevatorCalls().set(450);
+        elevator.checkQueueAndMoveElevator();
+        eventLoop.runUntil(100500);
+
+        // position is computed from time while moving
+        assertEquals(1, elevator.getCurrentFloor());
+        assertEquals(101, elevator.getPosition());
+
+        eventLoop.run();
+
+        assertEquals(450, elevator.getCurrentFloor());
+        assertEquals(450, elevator.getPosition());
+        assertEquals(449000L + 5000L, eventLoop.getTime());
+        // moving, opening and closing of doors
+        assertEquals(3L, eventLoop.getExecutedCount());
+        verify(messenger, never()).printFormattedMessage(eq("Лифт проезжает %s этаж%n"), anyInt());
+        verify(messenger, times(1)).printFormattedMessage("Лифт на %s этаже%n", 450);
+    }
 
-        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", "8");
-        verify(messenger, times(1)).printFormattedMessage("Лифт проезжает %s этаж%n", "7");
-        verify(messenger, times(1)).printFormattedMessage("Лифт на %s этаже%n", "6");
+    @Test
+    void motionProfileTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator template = new Elevator(mock(Messenger.class), eventLoop, new FloorCalls(), new FloorCalls());
+        template.setFloorsNumber(20);
+        template.setElevatorSpeed(2.5F);
+        template.setFloorHeight(3F);
+        template.setAcceleration(1F);
+        template.setJerk(1F);
+        template.setDoorsTime(1);
+        assertEquals(4606, template.getTimePerFloor());
+        assertEquals(15500, template.getTravelTime(11, 1));
+
+        // elevators of group share table of travel times
+        Elevator elevator = new Elevator(mock(Messenger.class), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.copySettings(template);
+        assertTrue(elevator.getMotionProfile() == template.getMotionProfile());
+        elevator.setElevatorSpeed(1F);
+        assertTrue(elevator.getMotionProfile() != template.getMotionProfile());
+
+        // floors of run are passed evenly during time of run
+        template.move(11);
+        eventLoop.runUntil(7750);
+        assertEquals(6, template.getPosition());
+        eventLoop.run();
+        assertEquals(11, template.getCurrentFloor());
+        assertEquals(15500L + 1000L, eventLoop.getTime());
+    }
+
+    @Test
+    void replanRunTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(new SilentMessenger(), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(20);
+        elevator.setExpressRuns(true);
+        elevator.getElevatorCalls().set(20);
+        elevator.checkQueueAndMoveElevator();
+        eventLoop.runUntil(10000);
+
+        // elevator has passed 3 floor, but still can stop on 8 floor
+        elevator.getPorchCalls().set(3);
+        elevator.getPorchCalls().set(8);
+        assertEquals(11000, elevator.estimateArrivalTime(8));
+        elevator.checkQueueAndMoveElevator();
+        eventLoop.runUntil(21000);
+        assertEquals(8, elevator.getCurrentFloor());
+        assertTrue(elevator.getPorchCalls().isSet(3));
+
+        // target of run is served after inserted stop, passed call - after reversing
+        eventLoop.run();
+        assertEquals(3, elevator.getCurrentFloor());
+        assertEquals(21000L + 5000L + 36000L + 5000L + 51000L + 5000L, eventLoop.getTime());
+    }
+
+    @Test
+    void replanOnFloorTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(new SilentMessenger(), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(20);
+        elevator.getElevatorCalls().set(20);
+        elevator.checkQueueAndMoveElevator();
+        eventLoop.runUntil(10000);
+
+        // call is noticed when elevator reaches 5 floor
+        elevator.getElevatorCalls().set(5);
+        eventLoop.runUntil(12000);
+        assertEquals(5, elevator.getCurrentFloor());
+        assertTrue(elevator.getBusy());
+        assertTrue(elevator.getCollectiveControl().isStop(20));
+        eventLoop.run();
+        assertEquals(20, elevator.getCurrentFloor());
+        assertEquals(12000L + 5000L + 45000L + 5000L, eventLoop.getTime());
+    }
+
+    @Test
+    void mergeCallsTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(new SilentMessenger(), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(10);
+        elevator.setExpressRuns(true);
+
+        // presses of floor where elevator goes are served by one opening of doors
+        eventLoop.scheduleAt(0, EventType.HALL_CALL, 3, elevator);
+        eventLoop.scheduleAt(1000, EventType.HALL_CALL, 3, elevator);
+        eventLoop.scheduleAt(2000, EventType.CAR_CALL, 3, elevator);
+        // press on floor where doors are open keeps them open for doors time
+        eventLoop.scheduleAt(8000, EventType.HALL_CALL, 3, elevator);
+        eventLoop.runUntil(8000);
+        assertTrue(elevator.isDoorsOpen());
+        assertTrue(elevator.absorbCall(3));
+        assertTrue(!elevator.absorbCall(4));
+        eventLoop.run();
+
+        assertEquals(1L, elevator.getMetrics().getDoorDwell().getCount());
+        assertEquals(6000L + 7000L, eventLoop.getTime());
+        assertTrue(!elevator.isDoorsOpen());
+        assertTrue(elevator.getPorchCalls().isEmpty());
+    }
+
+    @Test
+    void positionTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(mock(Messenger.class), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(10);
+        elevator.setCurrentFloor(8);
+        assertEquals(8, elevator.getPosition());
+
+        elevator.getElevatorCalls().set(2);
+        elevator.checkQueueAndMoveElevator();
+        eventLoop.runUntil(4500);
+
+        assertEquals(7, elevator.getCurrentFloor());
+        assertEquals(7, elevator.getPosition());
+    }
+
+    private Elevator createPassengerElevator(Landings landings) {
+        Elevator elevator = new Elevator(new SilentMessenger());
+        elevator.setFloorsNumber(10);
+        elevator.setDoorsTime(2);
+        elevator.setLandings(landings, null);
+        return elevator;
+    }
+
+    @Test
+    void passengersTest() throws InterruptedException {
+        Landings landings = new Landings(10, 1);
+        Elevator elevator = this.createPassengerElevator(landings);
+        EventLoop eventLoop = elevator.getEventLoop();
+        landings.add(new Passenger(1, 6, 0, 80));
+        landings.add(new Passenger(1, 4, 0, 70));
+        landings.add(new Passenger(1, 6, 0, 90));
+
+        elevator.getPorchCalls().set(1);
+        elevator.checkQueueAndMoveElevator();
+        eventLoop.runUntil(0);
+        assertEquals(3, elevator.getPassengers().size());
+        assertEquals(240, elevator.getLoad());
+        assertTrue(elevator.getElevatorCalls().isSet(4));
+        assertTrue(elevator.getElevatorCalls().isSet(6));
+        assertEquals(0L, landings.getWaitingCount());
+
+        // doors stay open longer by boarding time of every passenger
+        eventLoop.runUntil(4999);
+        assertEquals(true, elevator.getBusy());
+        eventLoop.run();
+        assertEquals(6, elevator.getCurrentFloor());
+        assertTrue(elevator.getPassengers().isEmpty());
+        assertEquals(0, elevator.getLoad());
+        assertEquals(3L, elevator.getMetrics().getPassengersCount());
+        assertEquals(3L, elevator.getMetrics().getPassengerRideTime().getCount());
+    }
+
+    @Test
+    void capacityTest() throws InterruptedException {
+        Landings landings = new Landings(10, 1);
+        Elevator elevator = this.createPassengerElevator(landings);
+        elevator.setCapacity(150);
+        landings.add(new Passenger(1, 5, 0, 80));
+        landings.add(new Passenger(1, 5, 0, 80));
+
+        elevator.getPorchCalls().set(1);
+        elevator.checkQueueAndMoveElevator();
+        elevator.getEventLoop().runUntil(0);
+
+        assertEquals(1, elevator.getPassengers().size());
+        assertEquals(1L, landings.getWaitingCount());
+        assertEquals(1L, elevator.getMetrics().getLeftBehindCount());
+        elevator.getEventLoop().run();
+        // elevator does not return without call from porch
+        assertEquals(5, elevator.getCurrentFloor());
+        assertEquals(1L, landings.getWaitingCount());
+
+        // passenger heavier than capacity enters empty cabin
+        Elevator small = this.createPassengerElevator(new Landings(10, 1));
+        small.setCapacity(50);
+        small.getLandings().add(new Passenger(1, 3, 0, 80));
+        small.setCurrentFloor(1);
+        assertEquals(1, small.exchangePassengers());
+    }
+
+    @Test
+    void boardingDirectionTest() {
+        Landings landings = new Landings(10, 1);
+        Elevator elevator = this.createPassengerElevator(landings);
+        elevator.setCurrentFloor(5);
+        landings.add(new Passenger(5, 2, 0, 80));
+        landings.add(new Passenger(5, 8, 0, 80));
+
+        // elevator going up to stop takes only passengers going up
+        elevator.getCollectiveControl().addStop(7, 5);
+        assertEquals(1, elevator.exchangePassengers());
+        assertEquals(8, elevator.getPassengers().get(0).getDestination());
+
+        // empty elevator without stops takes passengers of any direction
+        Elevator other = this.createPassengerElevator(landings);
+        other.setCurrentFloor(5);
+        assertEquals(1, other.exchangePassengers());
+        assertEquals(2, other.getPassengers().get(0).getDestination());
     }
 }
@@ -0,0 +1,127 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+
+class EncodedOutputTest {
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void writeTest() throws IOException {
+        Path file = Files.createTempFile("output", ".txt");
+        EncodedOutput output = EncodedOutput.openFile(file, true);
+        EncodedMessenger messenger = new EncodedMessenger(output);
+        Messenger copy = messenger.copy();
+        copy.setPrefix("[2] ");
+
+        messenger.printMessage("Лифт открыл двери\n");
+        copy.printFormattedMessage("Лифт проезжает %s этаж%n", 3);
+        copy.printFormattedMessage("Лифт на %s этаже%n", -2147483648);
+        messenger.printFormattedMessage("Загрузка - %s%%\n", "40");
+        messenger.printFormattedMessage("Вошло пассажиров - %5s\n", 12);
+
+        // messages are written only by flush
+        assertEquals("", read(file));
+        assertEquals(5L, output.getCount());
+        output.close();
+
+        String separator = System.lineSeparator();
+        assertEquals(output, ((EncodedMessenger) copy).getOutput());
+        assertEquals("Лифт открыл двери\n[2] Лифт проезжает 3 этаж" + separator
+                + "[2] Лифт на -2147483648 этаже" + separator
+                + "Загрузка - 40%\nВошло пассажиров -    12\n", read(file));
+        assertEquals(Files.size(file), output.getWrittenBytes());
+        assertFalse(output.isFailed());
+        Files.delete(file);
+    }
+
+    @Test
+    void unbatchedTest() throws IOException {
+        Path file = Files.createTempFile("output", ".txt");
+        EncodedOutput output = EncodedOutput.openFile(file, false);
+
+        new EncodedMessenger(output).printFormattedMessage("Лифт на %s этаже\n", 7);
+        assertEquals("Лифт на 7 этаже\n", read(file));
+        output.close();
+        Files.delete(file);
+    }
+
+    @Test
+    void batchesTest() throws IOException {
+        Path file = Files.createTempFile("output", ".txt");
+        EncodedOutput output = EncodedOutput.openFile(file, true);
+        EncodedMessenger messenger = new EncodedMessenger(output);
+        StringBuilder expected = new StringBuilder();
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 2 * EncodedOutput.CHUNK_SIZE; i++) {
+            longValue.append('э');
+        }
+
+        // chunks are written when they are full, message longer than chunk is written by its parts
+        for (int i = 0; i < 100000; i++) {
+            messenger.printFormattedMessage("%s,", i);
+            expected.append(i).append(',');
+            if (i == 50000) {
+                messenger.printFormattedMessage("[%s]", longValue.toString());
+                expected.append('[').append(longValue).append(']');
+            }
+        }
+        assertTrue(output.getWrittenBytes() > 0);
+        output.close();
+        assertEquals(expected.toString(), read(file));
+        Files.delete(file);
+    }
+
+    @Test
+    void failedTest() throws IOException {
+        Path file = Files.createTempFile("output", ".txt");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        EncodedOutput output = new EncodedOutput(channel, false);
+        channel.close();
+
+        // error of writing stops output without exception
+        output.write(new byte[0], "Лифт открыл двери\n");
+        output.write(new byte[0], "Лифт закрыл двери\n");
+        assertTrue(output.isFailed());
+        assertEquals(1L, output.getCount());
+        Files.delete(file);
+    }
+
+    @Test
+    void allocationTest() throws IOException {
+        Path file = Files.createTempFile("output", ".txt");
+        EncodedOutput output = EncodedOutput.openFile(file, true);
+        EncodedMessenger messenger = new EncodedMessenger(output);
+        messenger.setPrefix("[1] ");
+        for (int i = 0; i < 100000; i++) {
+            messenger.printFormattedMessage("Лифт проезжает %s этаж%n", i % 1000);
+        }
+
+        // messages with numbers are written without strings, allocation of message takes at least 16 bytes
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100000; i++) {
+            messenger.printFormattedMessage("Лифт проезжает %s этаж%n", i % 1000);
+            messenger.printMessage("Лифт открыл двери\n");
+        }
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+        output.close();
+        assertTrue(allocated < 100000, "Output of messages allocates " + allocated + " bytes");
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,63 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class EtaDispatcherTest {
+
+    private final Elevator settings = TestBuilding.createSettings(20, 1F, 5);
+
+    @Test
+    void selectElevatorTest() {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator first = TestBuilding.createElevator(eventLoop, this.settings, 1);
+        Elevator second = TestBuilding.createElevator(eventLoop, this.settings, 10);
+        List<Elevator> elevators = Arrays.asList(first, second);
+        Dispatcher dispatcher = new EtaDispatcher();
+
+        assertEquals(first, dispatcher.selectElevator(elevators, 3));
+        assertEquals(second, dispatcher.selectElevator(elevators, 9));
+
+        // first elevator wins on equal time
+        second.setCurrentFloor(9);
+        assertEquals(first, dispatcher.selectElevator(elevators, 5));
+    }
+
+    @Test
+    void selectBusyElevatorTest() {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator first = TestBuilding.createElevator(eventLoop, this.settings, 1);
+        Elevator second = TestBuilding.createElevator(eventLoop, this.settings, 4);
+        List<Elevator> elevators = Arrays.asList(first, second);
+        Dispatcher dispatcher = new EtaDispatcher();
+
+        // nearest elevator is busy with long trip away from call, so free elevator is selected
+        second.move(20);
+        assertEquals(first, dispatcher.selectElevator(elevators, 3));
+        // moving elevator stops on its way
+        assertEquals(second, dispatcher.selectElevator(elevators, 10));
+    }
+
+    @Test
+    void selectElevatorWithStopOnRunTest() {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator first = TestBuilding.createElevator(eventLoop, this.settings, 1);
+        Elevator second = TestBuilding.createElevator(eventLoop, this.settings, 14);
+        List<Elevator> elevators = Arrays.asList(first, second);
+        Dispatcher dispatcher = new EtaDispatcher();
+
+        // moving elevator reaches 7 floor faster than free one
+        first.getElevatorCalls().set(10);
+        first.checkQueueAndMoveElevator();
+        assertEquals(first, dispatcher.selectElevator(elevators, 7));
+
+        // moving elevator stops on called 3 floor before 7 floor, so free elevator is faster
+        first.getPorchCalls().set(3);
+        assertEquals(6000 + 5000 + 12000, first.estimateArrivalTime(7));
+        assertEquals(second, dispatcher.selectElevator(elevators, 7));
+    }
+}
@@ -0,0 +1,88 @@
+package elevator;
+
+import static elevator.TrafficProfile.HOUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class EventJournalTest {
+
+    static void delete(Path directory) throws IOException {
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void segmentsTest() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("journal");
+        EventLoop eventLoop = new EventLoop(false);
+        try {
+            // segment has header and 10 records
+            EventJournal journal = new EventJournal(directory, 16 + 10 * 24 + 5, eventLoop);
+            for (int i = 0; i < 25; i++) {
+                eventLoop.runUntil(i * 1000L);
+                journal.append(i % 2, JournalEvent.ARRIVE, i + 1, -1);
+            }
+            journal.close();
+
+            assertEquals(25, journal.getCount());
+            assertEquals(3, journal.getSegmentsCount());
+            assertFalse(journal.isFailed());
+            assertEquals(16 + 10 * 24, Files.size(EventJournal.getSegmentPath(directory, 0)));
+            // unused tail of last segment is cut
+            assertEquals(16 + 5 * 24, Files.size(EventJournal.getSegmentPath(directory, 2)));
+
+            JournalSummary summary = new JournalReader(directory).scan();
+            assertEquals(25, summary.getCount());
+            assertEquals(0, summary.getFirstTime());
+            assertEquals(24000, summary.getLastTime());
+            assertEquals(13, summary.getElevatorCount(0));
+            assertEquals(12, summary.getElevatorCount(1));
+            assertEquals(1, summary.getFloorCount(25));
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    void simulationTest() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("journal");
+        Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(false), new EtaDispatcher());
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(10);
+        simulation.createElevators(elevator, 2);
+        try {
+            EventJournal journal = new EventJournal(directory, EventJournal.SEGMENT_SIZE, simulation.getEventLoop());
+            simulation.getGroupController().setJournal(journal);
+            TrafficGenerator generator = simulation.scheduleTraffic(TrafficProfile.create("up", 10, 120), 3, HOUR);
+            simulation.run();
+            journal.close();
+
+            // every passenger calls elevator, enters and leaves cabin
+            SimulationMetrics metrics = simulation.getMetrics();
+            JournalSummary summary = new JournalReader(directory).scan();
+            assertEquals(journal.getCount(), summary.getCount());
+            assertEquals(generator.getGeneratedCount(), summary.getCount(JournalEvent.BOARD));
+            assertEquals(generator.getGeneratedCount(), summary.getCount(JournalEvent.ALIGHT));
+            assertEquals(metrics.getDoorDwell().getCount(), summary.getCount(JournalEvent.DOORS_CLOSE));
+            assertTrue(summary.getCount(JournalEvent.HALL_CALL) >= generator.getGeneratedCount());
+            // every passed floor of run is journaled
+            assertTrue(summary.getCount(JournalEvent.DEPART) > 0);
+            assertTrue(summary.getCount(JournalEvent.ARRIVE) > summary.getCount(JournalEvent.DEPART));
+        } finally {
+            delete(directory);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class EventLoopTest {
+
+    @Test
+    void pacedTest() {
+        assertTrue(new EventLoop(true).isPaced());
+        assertFalse(new EventLoop(false).isPaced());
+    }
+
+    @Test
+    void paceTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(true, 1000);
+        List<SimulationEvent> handled = new ArrayList<>();
+        eventLoop.schedule(100000, EventType.ARRIVE, 2, handled::add);
+
+        // 100 seconds of simulation take 100 milliseconds
+        long start = System.nanoTime();
+        eventLoop.run();
+        long wallTime = (System.nanoTime() - start) / 1000000;
+        assertEquals(1, handled.size());
+        assertEquals(1000.0, eventLoop.getPace());
+        assertTrue(wallTime >= 90 && wallTime < 5000);
+        assertTrue(eventLoop.getCurrentTime() >= 100000);
+    }
+
+    @Test
+    void scheduleTest() {
+        EventLoop eventLoop = new EventLoop(false);
+        EventHandler handler = event -> { };
+        assertFalse(eventLoop.hasEvents());
+
+        eventLoop.schedule(100, EventType.ARRIVE, 2, handler);
+        eventLoop.scheduleAt(50, EventType.HALL_CALL, 3, handler);
+
+        assertTrue(eventLoop.hasEvents());
+        assertEquals(2, eventLoop.getEventsCount());
+        assertEquals(0L, eventLoop.getTime());
+    }
+
+    @Test
+    void runNextTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        List<SimulationEvent> handled = new ArrayList<>();
+        EventHandler handler = handled::add;
+
+        eventLoop.schedule(3000, EventType.DOORS_CLOSE, 1, handler);
+        eventLoop.schedule(1000, EventType.ARRIVE, 2, handler);
+        eventLoop.schedule(1000, EventType.DOORS_OPEN, 2, handler);
+
+        assertTrue(eventLoop.runNext());
+        assertEquals(1000L, eventLoop.getTime());
+        assertEquals(EventType.ARRIVE, handled.get(0).getType());
+
+        assertTrue(eventLoop.runNext());
+        assertEquals(EventType.DOORS_OPEN, handled.get(1).getType());
+
+        assertTrue(eventLoop.runNext());
+        assertEquals(3000L, eventLoop.getTime());
+        assertEquals(EventType.DOORS_CLOSE, handled.get(2).getType());
+
+        assertFalse(eventLoop.runNext());
+    }
+
+    @Test
+    void runUntilTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        List<SimulationEvent> handled = new ArrayList<>();
+        EventHandler handler = handled::add;
+
+        eventLoop.scheduleAt(1000, EventType.HALL_CALL, 5, handler);
+        eventLoop.scheduleAt(5000, EventType.CAR_CALL, 1, handler);
+        eventLoop.runUntil(2000);
+
+        assertEquals(1, handled.size());
+        assertEquals(2000L, eventLoop.getTime());
+
+        // event from the past is executed at current time
+        eventLoop.scheduleAt(1500, EventType.CAR_CALL, 2, handler);
+        eventLoop.run();
+        assertEquals(2000L, handled.get(1).getTime());
+        assertEquals(5000L, eventLoop.getTime());
+    }
+
+    @Test
+    void runTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        List<SimulationEvent> handled = new ArrayList<>();
+
+        // every handled event schedules next one in a day of simulation time
+        EventHandler handler = new EventHandler() {
+            public void handleEvent(SimulationEvent event) {
+                handled.add(event);
+                if (handled.size() < 1000) {
+                    eventLoop.schedule(86400000L, EventType.ARRIVE, event.getFloor(), this);
+                }
+            }
+        };
+        eventLoop.schedule(0, EventType.ARRIVE, 1, handler);
+        eventLoop.run();
+
+        assertEquals(1000, handled.size());
+        assertEquals(999L * 86400000L, eventLoop.getTime());
+    }
+
+    @Test
+    void pacedRunTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(true);
+        eventLoop.schedule(50, EventType.ARRIVE, 1, event -> { });
+        long start = System.nanoTime();
+        eventLoop.run();
+        assertTrue((System.nanoTime() - start) / 1000000 >= 40);
+    }
+
+    @Test
+    void awaitNextTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        List<SimulationEvent> handled = new ArrayList<>();
+        eventLoop.schedule(1000, EventType.ARRIVE, 1, handled::add);
+
+        assertTrue(eventLoop.awaitNext());
+        assertEquals(1, handled.size());
+
+        eventLoop.getCallSignal().signal();
+        assertFalse(eventLoop.awaitNext());
+    }
+
+    @Test
+    void awaitNextWakeUpTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(true);
+        List<SimulationEvent> handled = new ArrayList<>();
+        eventLoop.schedule(60000, EventType.ARRIVE, 1, handled::add);
+
+        Thread input = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+            eventLoop.getCallSignal().signal();
+        });
+        input.start();
+        long start = System.nanoTime();
+
+        // input wakes up loop long before the event
+        assertFalse(eventLoop.awaitNext());
+        assertTrue((System.nanoTime() - start) / 1000000 < 30000);
+        assertTrue(eventLoop.getTime() >= 40);
+        assertTrue(handled.isEmpty());
+        input.join();
+    }
+}
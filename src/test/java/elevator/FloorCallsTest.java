@@ -0,0 +1,97 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FloorCallsTest {
+
+    @Test
+    void capacityTest() {
+        assertEquals(Main.MAX_FLOORS_NUMBER, new FloorCalls().getCapacity());
+        assertEquals(200, new FloorCalls(200).getCapacity());
+    }
+
+    @Test
+    void setClearTest() {
+        FloorCalls calls = new FloorCalls(20);
+        assertTrue(calls.isEmpty());
+
+        assertTrue(calls.set(7));
+        assertFalse(calls.set(7));
+        assertTrue(calls.isSet(7));
+        assertFalse(calls.isSet(8));
+        assertEquals(1, calls.size());
+
+        assertTrue(calls.clear(7));
+        assertFalse(calls.clear(7));
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    void searchTest() {
+        FloorCalls calls = new FloorCalls(200);
+        calls.set(3);
+        calls.set(70);
+        calls.set(200);
+
+        assertEquals(3, calls.nextSetFloor(1));
+        assertEquals(70, calls.nextSetFloor(4));
+        assertEquals(70, calls.nextSetFloor(70));
+        assertEquals(200, calls.nextSetFloor(71));
+        assertEquals(-1, calls.nextSetFloor(201));
+
+        assertEquals(200, calls.previousSetFloor(250));
+        assertEquals(70, calls.previousSetFloor(199));
+        assertEquals(3, calls.previousSetFloor(69));
+        assertEquals(-1, calls.previousSetFloor(2));
+    }
+
+    @Test
+    void pollTest() {
+        FloorCalls calls = new FloorCalls(100);
+        calls.set(64);
+        calls.set(5);
+
+        assertEquals(5, calls.poll());
+        assertEquals(64, calls.poll());
+        assertEquals(-1, calls.poll());
+    }
+
+    @Test
+    void copyFromTest() {
+        FloorCalls calls = new FloorCalls(20);
+        FloorCalls copy = new FloorCalls(20);
+        calls.set(2);
+        copy.set(9);
+
+        copy.copyFrom(calls);
+        assertTrue(copy.isSet(2));
+        assertFalse(copy.isSet(9));
+
+        calls.clearAll();
+        assertTrue(calls.isEmpty());
+        assertTrue(copy.isSet(2));
+    }
+
+    @Test
+    void concurrentSetTest() throws InterruptedException {
+        FloorCalls calls = new FloorCalls(64);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            int offset = i;
+            threads[i] = new Thread(() -> {
+                for (int floor = 1 + offset; floor <= 64; floor += threads.length) {
+                    calls.set(floor);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(64, calls.size());
+    }
+}
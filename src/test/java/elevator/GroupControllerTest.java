@@ -0,0 +1,156 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class GroupControllerTest {
+
+    private final Elevator settings = TestBuilding.createSettings(20, 2F, 3);
+
+    @Test
+    void porchCallsTest() {
+        GroupController group = new GroupController(new Messenger(), new EventLoop(false), new EtaDispatcher());
+        GroupController other = new GroupController(new Messenger(), new EventLoop(false), new EtaDispatcher());
+        assertTrue(group.getPorchCalls().isEmpty());
+        assertTrue(group.getPorchCalls() != other.getPorchCalls());
+    }
+
+    @Test
+    void createElevatorsTest() {
+        GroupController group = TestBuilding.createGroup(this.settings, 3);
+
+        assertEquals(3, group.getElevators().size());
+        assertEquals(3, group.getElevatorCalls().size());
+        for (Elevator elevator : group.getElevators()) {
+            assertEquals(group.getEventLoop(), elevator.getEventLoop());
+            assertEquals(20, elevator.getFloorsNumber());
+            assertEquals(2F, elevator.getElevatorSpeed());
+            assertEquals(3, elevator.getDoorsTime());
+        }
+        assertEquals("[1] ", group.getElevators().get(0).getMessenger().getPrefix());
+        assertEquals("[3] ", group.getElevators().get(2).getMessenger().getPrefix());
+        assertTrue(group.getElevators().get(0).getElevatorCalls() != group.getElevators().get(1).getElevatorCalls());
+        assertEquals(3, group.getMetrics().getElevatorsNumber());
+        assertEquals(group.getMetrics(), group.getElevators().get(2).getMetrics());
+        assertEquals(2, group.getElevators().get(2).getNumber());
+    }
+
+    @Test
+    void createSingleElevatorTest() {
+        GroupController group = TestBuilding.createGroup(this.settings, 1);
+        assertEquals(1, group.getElevators().size());
+        assertEquals("", group.getElevators().get(0).getMessenger().getPrefix());
+    }
+
+    @Test
+    void mergeHallCallsTest() throws InterruptedException {
+        GroupController group = TestBuilding.createGroup(this.settings, 2);
+        EventLoop eventLoop = group.getEventLoop();
+
+        // second press comes when doors of first elevator are open, free second elevator is not sent
+        eventLoop.scheduleAt(0, EventType.HALL_CALL, 1, group);
+        eventLoop.scheduleAt(1000, EventType.HALL_CALL, 1, group);
+        eventLoop.run();
+
+        assertEquals(1L, group.getMetrics().getDoorDwell().getCount());
+        assertEquals(4000L, eventLoop.getTime());
+        assertEquals(2L, group.getMetrics().getHallCallsCount());
+        // second press does not wait
+        assertEquals(2L, group.getMetrics().getWaitTime().getCount());
+        assertEquals(0L, group.getMetrics().getWaitTime().getMax());
+    }
+
+    @Test
+    void dispatchHallCallsTest() {
+        GroupController group = TestBuilding.createGroup(this.settings, 2);
+        Elevator first = group.getElevators().get(0);
+        Elevator second = group.getElevators().get(1);
+        second.setCurrentFloor(15);
+
+        group.getPorchCalls().set(14);
+        group.dispatchHallCalls();
+
+        assertTrue(group.getPorchCalls().isEmpty());
+        assertEquals(true, second.getBusy());
+        assertEquals(false, first.getBusy());
+    }
+
+    @Test
+    void handleEventTest() throws InterruptedException {
+        GroupController group = TestBuilding.createGroup(this.settings, 4);
+        EventLoop eventLoop = group.getEventLoop();
+
+        for (int call = 0; call < 12; call++) {
+            eventLoop.scheduleAt(call * 2000L, EventType.HALL_CALL, call * 7 % 20 + 1, group);
+        }
+        eventLoop.run();
+
+        int movedElevators = 0;
+        for (Elevator elevator : group.getElevators()) {
+            assertEquals(false, elevator.getBusy());
+            assertTrue(elevator.getPorchCalls().isEmpty());
+            if (elevator.getCurrentFloor() != 1) {
+                movedElevators++;
+            }
+        }
+        assertTrue(group.getPorchCalls().isEmpty());
+        assertTrue(movedElevators > 1);
+    }
+
+    @Test
+    void addPassengerTest() throws InterruptedException {
+        GroupController group = TestBuilding.createGroup(this.settings, 2);
+        group.getElevators().get(1).setCurrentFloor(10);
+
+        group.addPassenger(new Passenger(9, 2, 0, 80));
+        group.addPassenger(new Passenger(1, 5, 0, 80));
+        group.getEventLoop().run();
+
+        assertEquals(2L, group.getMetrics().getPassengersCount());
+        assertEquals(0L, group.getLandings().getWaitingCount());
+        assertEquals(5, group.getElevators().get(0).getCurrentFloor());
+        assertEquals(2, group.getElevators().get(1).getCurrentFloor());
+    }
+
+    @Test
+    void leftPassengersCallAgainTest() throws InterruptedException {
+        GroupController group = TestBuilding.createGroup(this.settings, 1);
+        group.getElevators().get(0).setCapacity(160);
+
+        for (int i = 0; i < 3; i++) {
+            group.addPassenger(new Passenger(1, 10, 0, 80));
+        }
+        group.getEventLoop().run();
+
+        // passenger left by full elevator calls it again without new call in statistics
+        assertEquals(1L, group.getMetrics().getLeftBehindCount());
+        assertEquals(3L, group.getMetrics().getPassengersCount());
+        assertEquals(3L, group.getMetrics().getHallCallsCount());
+        assertEquals(0L, group.getLandings().getWaitingCount());
+    }
+
+    @Test
+    void destinationDispatchTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        GroupController group = new GroupController(new SilentMessenger(), eventLoop, new DestinationDispatcher());
+        Elevator template = new Elevator(new SilentMessenger(), eventLoop);
+        template.setFloorsNumber(20);
+        template.setCapacity(200);
+        group.createElevators(template, 2);
+
+        for (int i = 0; i < 4; i++) {
+            group.addPassenger(new Passenger(1, 15, 0, 80));
+        }
+        // passengers going to the same floor are grouped while capacity allows
+        assertTrue(group.getLandings().peek(1, true, 0) != null);
+        assertTrue(group.getLandings().peek(1, true, 1) != null);
+        eventLoop.run();
+
+        assertEquals(4L, group.getMetrics().getPassengersCount());
+        assertEquals(0L, group.getLandings().getWaitingCount());
+        for (Elevator elevator : group.getElevators()) {
+            assertEquals(15, elevator.getCurrentFloor());
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package elevator;
 
-import static elevator.Main.elevatorQueue;
-import static elevator.Main.porchQueue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.*;
 
@@ -14,14 +14,25 @@ class InputLoopTest {
     void floorsNumberTest() {
         InputLoop inputLoop = new InputLoop(new Messenger());
         inputLoop.setFloorsNumber(10);
-        assertEquals(Integer.valueOf(10), inputLoop.getFloorsNumber());
+        assertEquals(10, inputLoop.getFloorsNumber());
+    }
+
+    @Test
+    void metricsTest() {
+        InputLoop inputLoop = new InputLoop(new Messenger());
+        SimulationMetrics metrics = inputLoop.getMetrics();
+        assertEquals(metrics, inputLoop.getMetrics());
+
+        SimulationMetrics simulationMetrics = new SimulationMetrics(new EventLoop(false), 2);
+        inputLoop.setMetrics(simulationMetrics);
+        assertEquals(simulationMetrics, inputLoop.getMetrics());
     }
 
     @Test
     void inputStateTest() {
         InputLoop inputLoop = new InputLoop(new Messenger());
         inputLoop.setInputState(true);
-        assertEquals(true, inputLoop.getInputState());
+        assertTrue(inputLoop.getInputState());
     }
 
     @Test
@@ -41,15 +52,19 @@ class InputLoopTest {
     }
 
     @Test
-    void getElevatorQueueTest() {
+    void getElevatorCallsTest() {
         InputLoop inputLoop = new InputLoop(new Messenger());
-        assertEquals(elevatorQueue, inputLoop.getElevatorQueue());
+        assertTrue(inputLoop.getElevatorCalls().isEmpty());
+        assertEquals(1, inputLoop.getElevatorsNumber());
     }
 
     @Test
-    void getPorchQueueTest() {
+    void getPorchCallsTest() {
         InputLoop inputLoop = new InputLoop(new Messenger());
-        assertEquals(porchQueue, inputLoop.getPorchQueue());
+        assertTrue(inputLoop.getPorchCalls().isEmpty());
+        FloorCalls calls = new FloorCalls();
+        inputLoop.setPorchCalls(calls);
+        assertEquals(calls, inputLoop.getPorchCalls());
     }
 
     @Test
@@ -73,21 +88,13 @@ class InputLoopTest {
 
         InputLoop inputLoop = new InputLoop(messenger);
         inputLoop.parseInput("э5");
-        assertEquals(Integer.valueOf(1), (Integer)inputLoop.getPorchQueue().size());
-        try {
-            assertEquals(Integer.valueOf(5), (Integer) inputLoop.getPorchQueue().take());
-        } catch (InterruptedException e){
-            System.out.print("Exception when getting value from porchQueue");
-        }
+        assertEquals(1, inputLoop.getPorchCalls().size());
+        assertEquals(5, inputLoop.getPorchCalls().poll());
         verify(messenger, times(1)).printMessage("Ввод принят\n");
 
         inputLoop.parseInput("л3");
-        assertEquals(Integer.valueOf(1), (Integer)inputLoop.getElevatorQueue().size());
-        try {
-            assertEquals(Integer.valueOf(3), (Integer) inputLoop.getElevatorQueue().take());
-        } catch (InterruptedException e){
-            System.out.print("Exception when getting value from elevatorQueue");
-        }
+        assertEquals(1, inputLoop.getElevatorCalls().size());
+        assertEquals(3, inputLoop.getElevatorCalls().poll());
         verify(messenger, times(2)).printMessage("Ввод принят\n");
 
         inputLoop.parseInput("5");
@@ -96,4 +103,66 @@ class InputLoopTest {
         inputLoop.parseInput("л35");
         verify(messenger, times(2)).printMessage("Некорректный ввод\n");
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseGroupInputTest() {
+        Messenger messenger = mock(Messenger.class);
+        doNothing().when(messenger).printMessage(any());
+        FloorCalls firstCalls = new FloorCalls();
+        FloorCalls secondCalls = new FloorCalls();
+
+        InputLoop inputLoop = new InputLoop(messenger);
+        inputLoop.setElevatorCalls(Arrays.asList(firstCalls, secondCalls));
+        assertEquals(2, inputLoop.getElevatorsNumber());
+        assertEquals(firstCalls, inputLoop.getElevatorCalls());
+
+        inputLoop.parseInput("2л4");
+        assertEquals(4, secondCalls.poll());
+        inputLoop.parseInput("л3");
+        assertEquals(3, firstCalls.poll());
+        verify(messenger, times(2)).printMessage("Ввод принят\n");
+
+        inputLoop.parseInput("3л4");
+        inputLoop.parseInput("0л4");
+        inputLoop.parseInput("xл4");
+        verify(messenger, times(3)).printMessage("Некорректный ввод\n");
+        assertTrue(firstCalls.isEmpty());
+        assertTrue(secondCalls.isEmpty());
+    }
+
+    @Test
+    void callSignalTest() {
+        Messenger messenger = mock(Messenger.class);
+        doNothing().when(messenger).printMessage(any());
+        CallSignal callSignal = mock(CallSignal.class);
+
+        InputLoop inputLoop = new InputLoop(messenger);
+        inputLoop.setElevatorCalls(Arrays.asList(new FloorCalls()));
+        inputLoop.setCallSignal(callSignal);
+        assertEquals(callSignal, inputLoop.getCallSignal());
+
+        inputLoop.parseInput("л3");
+        verify(callSignal, times(1)).signal();
+
+        inputLoop.parseInput("л100");
+        verify(callSignal, times(1)).signal();
+    }
+
+    @Test
+    void repeatedInputTest() {
+        Messenger messenger = mock(Messenger.class);
+        doNothing().when(messenger).printMessage(any());
+        FloorCalls porch = new FloorCalls();
+
+        InputLoop inputLoop = spy(new InputLoop(messenger));
+        doReturn(porch).when(inputLoop).getPorchCalls();
+        for (int press = 0; press < 5; press++) {
+            inputLoop.parseInput("э3");
+        }
+
+        // repeated presses are merged in one call
+        verify(messenger, times(5)).printMessage("Ввод принят\n");
+        assertEquals(1, porch.size());
+        assertTrue(porch.isSet(3));
+    }
+}
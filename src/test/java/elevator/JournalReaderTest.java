@@ -0,0 +1,83 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+class JournalReaderTest {
+
+    private static ByteBuffer createSegment(int records) {
+        ByteBuffer buffer = ByteBuffer.allocate(EventJournal.HEADER_SIZE + records * EventJournal.RECORD_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(EventJournal.MAGIC).putInt(EventJournal.VERSION).putInt(EventJournal.RECORD_SIZE).putInt(0);
+        return buffer;
+    }
+
+    @Test
+    void filterTest() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("journal");
+        EventLoop eventLoop = new EventLoop(false);
+        try (EventJournal journal = new EventJournal(directory, EventJournal.SEGMENT_SIZE, eventLoop)) {
+            journal.append(-1, JournalEvent.HALL_CALL, 1, 0);
+            eventLoop.runUntil(1000);
+            journal.append(0, JournalEvent.BOARD, 1, 0);
+            journal.append(0, JournalEvent.CAR_CALL, 5, 0);
+            eventLoop.runUntil(2000);
+            journal.append(1, JournalEvent.DOORS_OPEN, 5, -1);
+            eventLoop.runUntil(3000);
+            journal.append(0, JournalEvent.ALIGHT, 5, 0);
+            journal.append(1, JournalEvent.BOARD, 5, 1);
+        }
+        try {
+            JournalReader reader = new JournalReader(directory);
+            assertEquals(6, reader.scan().getCount());
+
+            reader.setType(JournalEvent.BOARD);
+            assertEquals(2, reader.scan().getCount());
+            reader.setElevator(1);
+            assertEquals(1, reader.scan().getCount());
+
+            reader.setType(null);
+            reader.setElevator(JournalReader.ANY);
+            reader.setPassenger(0);
+            JournalSummary summary = reader.scan();
+            assertEquals(4, summary.getCount());
+            assertEquals(1, summary.getElevatorCount(-1));
+            assertEquals(3000, summary.getLastTime());
+
+            reader.setPassenger(JournalReader.ANY);
+            reader.setFloors(5, 5);
+            reader.setTimes(1500, 2500);
+            summary = reader.scan();
+            assertEquals(1, summary.getCount());
+            assertEquals(1, summary.getCount(JournalEvent.DOORS_OPEN));
+        } finally {
+            EventJournalTest.delete(directory);
+        }
+    }
+
+    @Test
+    void unfinishedSegmentTest() throws IOException {
+        Path directory = Files.createTempDirectory("journal");
+        try {
+            // segment of crashed journal is filled with zeros after last record
+            ByteBuffer buffer = createSegment(3);
+            buffer.putLong(500).putLong(-1).putInt(2).putShort((short) 0).put((byte) JournalEvent.ARRIVE.getCode());
+            Files.write(EventJournal.getSegmentPath(directory, 0), buffer.array());
+            assertEquals(1, new JournalReader(directory).scan().getCount(JournalEvent.ARRIVE));
+
+            buffer.putInt(0, 0);
+            Files.write(EventJournal.getSegmentPath(directory, 0), buffer.array());
+            assertThrows(IOException.class, () -> new JournalReader(directory).scan());
+        } finally {
+            EventJournalTest.delete(directory);
+        }
+    }
+}
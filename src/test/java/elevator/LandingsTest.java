@@ -0,0 +1,66 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LandingsTest {
+
+    @Test
+    void queuesTest() {
+        Landings landings = new Landings(20, 2);
+        Passenger first = new Passenger(3, 10, 0, 80);
+        Passenger second = new Passenger(3, 7, 100, 70);
+        Passenger down = new Passenger(3, 1, 200, 90);
+        landings.add(first);
+        landings.add(second);
+        landings.add(down);
+
+        assertEquals(3L, landings.getWaitingCount());
+        assertTrue(landings.hasPassengers(3, true, 0));
+        assertTrue(landings.hasPassengers(3, false, 1));
+        assertFalse(landings.hasPassengers(4, true, 0));
+        // passengers leave queue in order of arrival
+        assertEquals(first, landings.peek(3, true, -1));
+        assertEquals(first, landings.poll(3, true, -1));
+        assertEquals(second, landings.poll(3, true, -1));
+        assertNull(landings.poll(3, true, -1));
+        assertEquals(1L, landings.getWaitingCount());
+
+        landings.clear();
+        assertEquals(0L, landings.getWaitingCount());
+        assertNull(landings.peek(3, false, -1));
+    }
+
+    @Test
+    void assignTest() {
+        Landings landings = new Landings(20, 2);
+        Passenger assigned = new Passenger(5, 9, 0, 80);
+        assigned.setElevator(1);
+        Passenger other = new Passenger(5, 8, 0, 80);
+        landings.add(assigned);
+        landings.add(other);
+
+        // assigned passenger waits only for own elevator
+        assertEquals(assigned, landings.peek(5, true, 1));
+        assertNull(landings.peek(5, true, 0));
+        assertTrue(landings.hasPassengers(5, true, 0));
+
+        landings.release(5, 1);
+        assertNull(landings.peek(5, true, 1));
+        assertEquals(-1, assigned.getElevator());
+        assertEquals(other, landings.poll(5, true, -1));
+        assertEquals(assigned, landings.poll(5, true, -1));
+
+        landings.add(other);
+        landings.add(assigned);
+        landings.assign(5, true, -1, 0);
+        assertEquals(0, assigned.getElevator());
+        assertEquals(other, landings.poll(5, true, 0));
+        assertEquals(assigned, landings.poll(5, true, 0));
+        assertEquals(0L, landings.getWaitingCount());
+    }
+}
@@ -0,0 +1,91 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsTest() {
+        assertEquals(0, LatencyHistogram.getBucket(0));
+        assertEquals(31, LatencyHistogram.getBucket(31));
+        assertEquals(32, LatencyHistogram.getBucket(32));
+        assertEquals(32, LatencyHistogram.getBucket(33));
+        assertEquals(33, LatencyHistogram.getBucket(34));
+        assertEquals(33L, LatencyHistogram.getUpperBound(32));
+
+        // every value lies in its bucket, buckets are precise to 1/16 of value
+        for (long value = 0; value < 1L << 40; value = value * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.getBucket(value);
+            long upperBound = LatencyHistogram.getUpperBound(bucket);
+            assertTrue(value <= upperBound);
+            assertTrue(bucket == 0 || LatencyHistogram.getUpperBound(bucket - 1) < value);
+            assertTrue(upperBound - value <= value / 16);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.getUpperBound(LatencyHistogram.getBucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void recordTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getPercentile(95));
+        assertEquals(0.0, histogram.getMean());
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+        histogram.record(-5);
+
+        assertEquals(101L, histogram.getCount());
+        assertEquals(100000L, histogram.getMax());
+        assertEquals(5050000.0 / 101, histogram.getMean(), 0.001);
+        assertEquals(0L, histogram.getPercentile(0));
+        long p95 = histogram.getPercentile(95);
+        assertTrue(p95 >= 94000 && p95 <= 94000 * 17 / 16, String.valueOf(p95));
+        assertEquals(100000L, histogram.getPercentile(100));
+
+        histogram.reset();
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+    }
+
+    @Test
+    void concurrentRecordTest() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            long value = i + 1;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100000; j++) {
+                    histogram.record(value);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400000L, histogram.getCount());
+        assertEquals(4L, histogram.getMax());
+        assertEquals(2.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    void addTest() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(30);
+        second.record(5000);
+
+        first.add(second);
+
+        assertEquals(3L, first.getCount());
+        assertEquals(5000L, first.getMax());
+        assertEquals(5040.0 / 3, first.getMean(), 0.001);
+        assertEquals(30L, first.getPercentile(50));
+        assertEquals(2L, second.getCount());
+    }
+}
@@ -2,6 +2,14 @@ package elevator;
 
 import static elevator.Main.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 import static org.mockito.Mockito.*;
@@ -88,7 +96,7 @@ class MainTest {
         String[] args = new String[0];
         checkArgs(messenger, exiter, args);
 
-        verify(messenger, times(1)).printErrorMessage("Должно быть 4 аргумента");
+        verify(messenger, times(1)).printErrorMessage("Должно быть 4 или 5 аргументов");
         verify(exiter, times(1)).exit();
 
         String[] notEmptyArgs = {"fake","1","1","1"};
@@ -108,6 +116,17 @@ class MainTest {
 
         verify(messenger, times(2)).printErrorMessage("Аргументы должны быть неотрицательными числами больше нуля");
         verify(exiter, times(4)).exit();
+
+        String[] groupArgs = {"5","1","1","1","3"};
+        checkArgs(messenger, exiter, groupArgs);
+
+        verify(exiter, times(4)).exit();
+
+        String[] tooManyArgs = {"5","1","1","1","3","1"};
+        checkArgs(messenger, exiter, tooManyArgs);
+
+        verify(messenger, times(2)).printErrorMessage("Должно быть 4 или 5 аргументов");
+        verify(exiter, times(5)).exit();
     }
 
     @Test
@@ -128,20 +147,20 @@ class MainTest {
         String[] otherArgs = {"4","1","1","1"};
         parseFloorsNumberParam(messenger, exiter, inputLoop, elevator, otherArgs);
 
-        verify(messenger, times(1)).printErrorMessage("Количество этажей должно быть от 5 до 20");
+        verify(messenger, times(1)).printErrorMessage("Количество этажей должно быть от 5 до 1000");
         verify(exiter, times(2)).exit();
 
-        String[] oneMoreArgs = {"40","1","1","1"};
+        String[] oneMoreArgs = {"1001","1","1","1"};
         parseFloorsNumberParam(messenger, exiter, inputLoop, elevator, oneMoreArgs);
 
-        verify(messenger, times(2)).printErrorMessage("Количество этажей должно быть от 5 до 20");
+        verify(messenger, times(2)).printErrorMessage("Количество этажей должно быть от 5 до 1000");
         verify(exiter, times(3)).exit();
 
         String[] normalArgs = {"12","1","1","1"};
         parseFloorsNumberParam(messenger, exiter, inputLoop, elevator, normalArgs);
 
-        assertEquals(Integer.valueOf(12), inputLoop.getFloorsNumber());
-        assertEquals(Integer.valueOf(12), elevator.getFloorsNumber());
+        assertEquals(12, inputLoop.getFloorsNumber());
+        assertEquals(12, elevator.getFloorsNumber());
     }
 
     @Test
@@ -173,8 +192,447 @@ class MainTest {
         String[] normalArgs = {"5","4.5","3.2","14"};
         parseElevatorParams(messenger, exiter, elevator, normalArgs);
 
-        assertEquals(Float.valueOf(4.5F), elevator.getElevatorSpeed());
-        assertEquals(Float.valueOf(3.2F), elevator.getFloorHeight());
-        assertEquals(Integer.valueOf(14), elevator.getDoorsTime());
+        assertEquals(4.5F, elevator.getElevatorSpeed());
+        assertEquals(3.2F, elevator.getFloorHeight());
+        assertEquals(14, elevator.getDoorsTime());
+    }
+
+    @Test
+    void parseElevatorsNumberParamTest() {
+        Messenger messenger = mock(Messenger.class);
+        doNothing().when(messenger).printErrorMessage(any());
+        Exiter exiter = mock(Exiter.class);
+        doNothing().when(exiter).exit();
+
+        String[] args = {"5","1","1","1"};
+        assertEquals(1, parseElevatorsNumberParam(messenger, exiter, args));
+
+        String[] groupArgs = {"5","1","1","1","4"};
+        assertEquals(4, parseElevatorsNumberParam(messenger, exiter, groupArgs));
+
+        String[] wrongArgs = {"5","1","1","1","2.5"};
+        parseElevatorsNumberParam(messenger, exiter, wrongArgs);
+
+        String[] manyArgs = {"5","1","1","1",String.valueOf(MAX_ELEVATORS_NUMBER + 1)};
+        parseElevatorsNumberParam(messenger, exiter, manyArgs);
+
+        verify(messenger, times(1)).printErrorMessage("Количество лифтов должно быть целым числом");
+        verify(messenger, times(1)).printErrorMessage("Количество лифтов должно быть от 1 до " + MAX_ELEVATORS_NUMBER);
+        verify(exiter, times(2)).exit();
+    }
+
+    @Test
+    void createElevatorMessengerTest() throws InterruptedException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        assertFalse(createElevatorMessenger(messenger, exiter) instanceof AsyncMessenger);
+
+        System.setProperty("elevator.output", "async");
+        System.setProperty("elevator.output.overflow", "drop");
+        try {
+            Messenger asyncMessenger = createElevatorMessenger(messenger, exiter);
+            assertTrue(asyncMessenger instanceof AsyncMessenger);
+            assertEquals(OverflowPolicy.DROP, ((AsyncMessenger) asyncMessenger).getBuffer().getPolicy());
+            ((AsyncMessenger) asyncMessenger).getBuffer().close();
+
+            System.setProperty("elevator.output.overflow", "fake");
+            ((AsyncMessenger) createElevatorMessenger(messenger, exiter)).getBuffer().close();
+            verify(messenger, times(1)).printErrorMessage("Политика переполнения вывода должна быть block, drop или sample");
+            verify(exiter, times(1)).exit();
+        } finally {
+            System.clearProperty("elevator.output");
+            System.clearProperty("elevator.output.overflow");
+        }
+
+        System.setProperty("elevator.output", "none");
+        try {
+            assertTrue(createElevatorMessenger(messenger, exiter) instanceof SilentMessenger);
+        } finally {
+            System.clearProperty("elevator.output");
+        }
+    }
+
+    @Test
+    void createEncodedMessengerTest() throws IOException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Path file = Files.createTempFile("output", ".txt");
+        System.setProperty("elevator.output", "encoded");
+        try {
+            assertTrue(createElevatorMessenger(messenger, exiter) instanceof EncodedMessenger);
+
+            System.setProperty("elevator.output.file", file.toString());
+            Messenger encodedMessenger = createElevatorMessenger(messenger, exiter, false);
+            encodedMessenger.printFormattedMessage("Лифт на %s этаже\n", 4);
+            ((EncodedMessenger) encodedMessenger).getOutput().close();
+            assertEquals("Лифт на 4 этаже\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+            System.setProperty("elevator.output.file", file.resolve("output.txt").toString());
+            assertTrue(createElevatorMessenger(messenger, exiter) instanceof SilentMessenger);
+            verify(messenger, times(1)).printErrorMessage("Ошибка записи файла вывода лифтов");
+            verify(exiter, times(1)).exit();
+        } finally {
+            System.clearProperty("elevator.output");
+            System.clearProperty("elevator.output.file");
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void replayTraceTest() throws IOException {
+        Simulation simulation = new Simulation(false);
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(10);
+        simulation.createElevators(elevator, 2);
+        Path trace = Files.createTempFile("trace", ".txt");
+        Files.write(trace, Arrays.asList("0 э5", "1000 2л9", "2000 л30"), StandardCharsets.UTF_8);
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+
+        replayTrace(messenger, exiter, simulation, trace.toString());
+
+        verify(messenger, times(1)).printFormattedMessage("Воспроизведено вызовов - %s\n", "2");
+        verify(messenger, times(1)).printFormattedMessage("Пропущено вызовов - %s\n", "1");
+        verify(exiter, never()).exit();
+
+        Files.delete(trace);
+        replayTrace(messenger, exiter, simulation, trace.toString());
+        verify(messenger, times(1)).printErrorMessage("Ошибка чтения трассы вызовов");
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void parseLongPropertyTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+
+        assertEquals(7L, parseLongProperty(messenger, exiter, "elevator.test", 7, "Ошибка"));
+        System.setProperty("elevator.test", "12");
+        try {
+            assertEquals(12L, parseLongProperty(messenger, exiter, "elevator.test", 7, "Ошибка"));
+            System.setProperty("elevator.test", "-3");
+            parseLongProperty(messenger, exiter, "elevator.test", 7, "Ошибка");
+            System.setProperty("elevator.test", "abc");
+            parseLongProperty(messenger, exiter, "elevator.test", 7, "Ошибка");
+        } finally {
+            System.clearProperty("elevator.test");
+        }
+        verify(messenger, times(2)).printErrorMessage("Ошибка");
+        verify(exiter, times(2)).exit();
+    }
+
+    @Test
+    void runSimulationsTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Elevator template = new Elevator(new SilentMessenger());
+        template.setFloorsNumber(10);
+        System.setProperty("elevator.runs", "8");
+        System.setProperty("elevator.calls", "50");
+        try {
+            runSimulations(messenger, exiter, template, 2);
+        } finally {
+            System.clearProperty("elevator.runs");
+            System.clearProperty("elevator.calls");
+        }
+        verify(messenger, times(1)).printFormattedMessage("Выполнено симуляций - %s\n", "8");
+        verify(exiter, never()).exit();
+    }
+
+    @Test
+    void runSweepTest() throws IOException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Path output = Files.createTempFile("sweep", ".csv");
+        System.setProperty("elevator.sweep", "1000");
+        System.setProperty("elevator.sweep.output", output.toString());
+        System.setProperty("elevator.runs", "2");
+        System.setProperty("elevator.calls", "50");
+        try {
+            runSweep(messenger, exiter, new String[]{"10", "1,2", "3", "4", "1:2:1"});
+            assertEquals(5, Files.readAllLines(output, StandardCharsets.UTF_8).size());
+
+            runSweep(messenger, exiter, new String[]{"10", "1", "3", "4"});
+            runSweep(messenger, exiter, new String[]{"10", "1:a:1", "3", "4", "1"});
+            runSweep(messenger, exiter, new String[]{"2000", "1", "3", "4", "1"});
+        } finally {
+            System.clearProperty("elevator.sweep");
+            System.clearProperty("elevator.sweep.output");
+            System.clearProperty("elevator.runs");
+            System.clearProperty("elevator.calls");
+            Files.delete(output);
+        }
+        verify(messenger, times(1)).printFormattedMessage("Конфигураций для перебора - %s\n", "4");
+        verify(messenger, times(1)).printFormattedMessage(eq("Лучшая конфигурация: %s\n"), anyString());
+        verify(messenger, times(1)).printErrorMessage("Для перебора параметров нужно задать 5 диапазонов");
+        verify(messenger, times(1))
+                .printErrorMessage("Диапазон параметров задается числом, списком через запятую или от:до:шаг");
+        verify(messenger, times(1)).printErrorMessage(startsWith("Недопустимые параметры: "));
+        verify(exiter, times(3)).exit();
+    }
+
+    @Test
+    void createTrafficProfileTest() throws IOException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Path matrix = Files.createTempFile("matrix", ".txt");
+        try {
+            assertEquals(7, createTrafficProfile(messenger, exiter, "office", 20).getPeriodsNumber());
+            Files.write(matrix, Arrays.asList("0 1 1 1 1", "1 0 0 0 0", "1 0 0 0 0", "1 0 0 0 0", "1 0 0 0 0"));
+            assertEquals(1, createTrafficProfile(messenger, exiter, matrix.toString(), 5).getPeriodsNumber());
+            verify(exiter, never()).exit();
+
+            createTrafficProfile(messenger, exiter, matrix.toString(), 6);
+            Files.write(matrix, Arrays.asList("0 x", "1 0"));
+            createTrafficProfile(messenger, exiter, matrix.toString(), 2);
+            createTrafficProfile(messenger, exiter, matrix.toString() + ".missing", 2);
+        } finally {
+            Files.delete(matrix);
+        }
+        verify(messenger, times(1))
+                .printErrorMessage("Матрица поездок должна содержать строку и столбец для каждого этажа");
+        verify(messenger, times(1)).printErrorMessage("Некорректная матрица поездок");
+        verify(messenger, times(1)).printErrorMessage("Ошибка чтения матрицы поездок");
+        verify(exiter, times(3)).exit();
+    }
+
+    @Test
+    void runTrafficTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(false), new EtaDispatcher());
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(10);
+        simulation.createElevators(elevator, 2);
+        System.setProperty("elevator.traffic.hours", "2");
+        try {
+            runTraffic(messenger, exiter, simulation, TrafficProfile.create("up", 10, 60));
+        } finally {
+            System.clearProperty("elevator.traffic.hours");
+        }
+        verify(messenger, times(1)).printFormattedMessage(eq("Сгенерировано вызовов - %s\n"), anyString());
+        verify(exiter, never()).exit();
+        assertTrue(simulation.getEventLoop().getTime() < 3 * TrafficProfile.HOUR);
+    }
+
+    @Test
+    void runTrafficCheckpointTest() throws IOException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        TrafficProfile profile = TrafficProfile.create("up", 10, 60);
+        Simulation first = new Simulation(new SilentMessenger(), new EventLoop(false), new EtaDispatcher());
+        Simulation second = new Simulation(new SilentMessenger(), new EventLoop(false), new EtaDispatcher());
+        for (Simulation simulation : new Simulation[] {first, second}) {
+            Elevator elevator = simulation.createElevator(new SilentMessenger());
+            elevator.setFloorsNumber(10);
+            simulation.createElevators(elevator, 2);
+        }
+        Path checkpoint = Files.createTempFile("checkpoint", ".bin");
+        System.setProperty("elevator.traffic.hours", "2");
+        try {
+            System.setProperty("elevator.checkpoint", checkpoint.toString());
+            runTraffic(messenger, exiter, first, profile);
+            System.clearProperty("elevator.checkpoint");
+            System.setProperty("elevator.resume", checkpoint.toString());
+            runTraffic(messenger, exiter, second, profile);
+            System.setProperty("elevator.resume", checkpoint.resolveSibling("missing.bin").toString());
+            runTraffic(messenger, exiter, second, profile);
+        } finally {
+            System.clearProperty("elevator.traffic.hours");
+            System.clearProperty("elevator.checkpoint");
+            System.clearProperty("elevator.resume");
+            Files.delete(checkpoint);
+        }
+        // last checkpoint is written after last event, so resumed simulation has nothing to do
+        assertEquals(first.getEventLoop().getTime(), second.getEventLoop().getTime());
+        assertEquals(first.getEventLoop().getExecutedCount(), second.getEventLoop().getExecutedCount());
+        verify(messenger, times(1)).printErrorMessage("Ошибка чтения контрольной точки");
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void journalTest() throws IOException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(false), new EtaDispatcher());
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(10);
+        simulation.createElevators(elevator, 2);
+        Path directory = Files.createTempDirectory("journal");
+        try {
+            assertEquals(null, openJournal(messenger, exiter, simulation));
+            System.setProperty("elevator.journal", directory.toString());
+            System.setProperty("elevator.traffic.hours", "1");
+            EventJournal journal = openJournal(messenger, exiter, simulation);
+            runTraffic(messenger, exiter, simulation, TrafficProfile.create("up", 10, 60));
+            closeJournal(messenger, journal);
+            verify(messenger, times(1)).printFormattedMessage("Записано событий в журнал - %s\n",
+                    String.valueOf(journal.getCount()));
+
+            System.setProperty("elevator.journal.query", directory.toString());
+            System.setProperty("elevator.journal.type", "doors_close");
+            queryJournal(messenger, exiter);
+            verify(messenger, times(1)).printFormattedMessage("Записей журнала - %s\n",
+                    String.valueOf(simulation.getMetrics().getDoorDwell().getCount()));
+            System.setProperty("elevator.journal.elevator", "1");
+            System.setProperty("elevator.journal.type", "close");
+            queryJournal(messenger, exiter);
+            verify(messenger, times(1)).printErrorMessage("Некорректный фильтр журнала событий");
+        } finally {
+            System.clearProperty("elevator.journal");
+            System.clearProperty("elevator.traffic.hours");
+            System.clearProperty("elevator.journal.query");
+            System.clearProperty("elevator.journal.elevator");
+            System.clearProperty("elevator.journal.type");
+            EventJournalTest.delete(directory);
+        }
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void startControlServerTest() throws IOException {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(true), new EtaDispatcher());
+        simulation.createElevators(simulation.createElevator(new SilentMessenger()), 1);
+        InputLoop inputLoop = new InputLoop(new SilentMessenger());
+        simulation.connect(inputLoop);
+
+        assertEquals(null, startControlServer(messenger, exiter, simulation, inputLoop));
+        try {
+            System.setProperty("elevator.server.port", "70000");
+            assertEquals(null, startControlServer(messenger, exiter, simulation, inputLoop));
+            System.setProperty("elevator.server.port", "0");
+            try (ControlServer server = startControlServer(messenger, exiter, simulation, inputLoop)) {
+                verify(messenger, times(1)).printFormattedMessage("Сервер управления на порту %s\n",
+                        String.valueOf(server.getPort()));
+            }
+        } finally {
+            System.clearProperty("elevator.server.port");
+        }
+        verify(messenger, times(1)).printErrorMessage("Порт сервера управления должен быть целым числом от 0 до 65535");
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void createDispatcherTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+
+        assertTrue(createDispatcher(messenger, exiter) instanceof EtaDispatcher);
+        try {
+            System.setProperty("elevator.dispatch", "destination");
+            assertTrue(createDispatcher(messenger, exiter).isDestinationDispatch());
+            System.setProperty("elevator.dispatch", "random");
+            createDispatcher(messenger, exiter);
+        } finally {
+            System.clearProperty("elevator.dispatch");
+        }
+        verify(messenger, times(1)).printErrorMessage("Способ диспетчеризации должен быть collective или destination");
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void parseParkingPropertyTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+
+        assertFalse(parseParkingProperty(messenger, exiter));
+        try {
+            System.setProperty("elevator.parking", "predictive");
+            assertTrue(parseParkingProperty(messenger, exiter));
+            System.setProperty("elevator.parking", "lobby");
+            parseParkingProperty(messenger, exiter);
+        } finally {
+            System.clearProperty("elevator.parking");
+        }
+        verify(messenger, times(1)).printErrorMessage("Парковка лифтов должна быть none или predictive");
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void parseSchedulingPropertyTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Elevator elevator = new Elevator(new SilentMessenger());
+
+        parseSchedulingProperty(messenger, exiter, elevator);
+        assertEquals(SchedulingPolicy.LOOK, elevator.getSchedulingPolicy());
+        try {
+            System.setProperty("elevator.scheduling", "scan");
+            parseSchedulingProperty(messenger, exiter, elevator);
+            assertEquals(SchedulingPolicy.SCAN, elevator.getSchedulingPolicy());
+            System.setProperty("elevator.scheduling", "fifo");
+            parseSchedulingProperty(messenger, exiter, elevator);
+        } finally {
+            System.clearProperty("elevator.scheduling");
+        }
+        verify(messenger, times(1)).printErrorMessage("Порядок обслуживания остановок должен быть look или scan");
+        verify(exiter, times(1)).exit();
+    }
+
+    @Test
+    void parsePassengerPropertiesTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Elevator elevator = new Elevator(new SilentMessenger());
+
+        parsePassengerProperties(messenger, exiter, elevator);
+        assertEquals(1000, elevator.getCapacity());
+        System.setProperty("elevator.capacity", "1600");
+        System.setProperty("elevator.boarding", "1500");
+        try {
+            parsePassengerProperties(messenger, exiter, elevator);
+        } finally {
+            System.clearProperty("elevator.capacity");
+            System.clearProperty("elevator.boarding");
+        }
+        assertEquals(1600, elevator.getCapacity());
+        assertEquals(1500, elevator.getBoardingTime());
+        verify(exiter, never()).exit();
+    }
+
+    @Test
+    void parsePacePropertyTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+
+        assertEquals(0.0, parsePaceProperty(messenger, exiter));
+        try {
+            System.setProperty("elevator.pace", "60");
+            assertEquals(60.0, parsePaceProperty(messenger, exiter));
+            System.setProperty("elevator.pace", "0");
+            parsePaceProperty(messenger, exiter);
+            System.setProperty("elevator.pace", "fast");
+            parsePaceProperty(messenger, exiter);
+        } finally {
+            System.clearProperty("elevator.pace");
+        }
+        verify(messenger, times(2)).printErrorMessage("Темп симуляции должен быть числом больше нуля");
+        verify(exiter, times(2)).exit();
+    }
+
+    @Test
+    void parseMotionPropertiesTest() {
+        Messenger messenger = mock(Messenger.class);
+        Exiter exiter = mock(Exiter.class);
+        Elevator elevator = new Elevator(new SilentMessenger());
+
+        parseMotionProperties(messenger, exiter, elevator);
+        assertEquals(0F, elevator.getAcceleration());
+        System.setProperty("elevator.acceleration", "1.2");
+        System.setProperty("elevator.jerk", "1.5");
+        try {
+            parseMotionProperties(messenger, exiter, elevator);
+            assertEquals(1.2F, elevator.getAcceleration());
+            assertEquals(1.5F, elevator.getJerk());
+            System.setProperty("elevator.jerk", "-1");
+            parseMotionProperties(messenger, exiter, elevator);
+        } finally {
+            System.clearProperty("elevator.acceleration");
+            System.clearProperty("elevator.jerk");
+        }
+        verify(messenger, times(1)).printErrorMessage("Ускорение и рывок лифта должны быть неотрицательными числами");
+        verify(exiter, times(1)).exit();
     }
 }
@@ -0,0 +1,140 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.jupiter.api.Test;
+
+class MessageRingBufferTest {
+
+    @Test
+    void capacityTest() {
+        PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(4, new MessageRingBuffer(out, 4, OverflowPolicy.DROP, 1).getCapacity());
+        assertEquals(8, new MessageRingBuffer(out, 5, OverflowPolicy.DROP, 1).getCapacity());
+        assertEquals(OverflowPolicy.DROP, new MessageRingBuffer(out, 4, OverflowPolicy.DROP, 1).getPolicy());
+    }
+
+    @Test
+    void writeBatchTest() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes, true, "UTF-8"), 8, OverflowPolicy.DROP, 1);
+
+        buffer.publish("", null, "Лифт открыл двери\n");
+        buffer.publish("[2] ", "Лифт на %s этаже\n", "5");
+        assertEquals(2, buffer.writeBatch());
+        assertEquals(0, buffer.writeBatch());
+
+        assertEquals("Лифт открыл двери\n[2] Лифт на 5 этаже\n", bytes.toString("UTF-8"));
+        assertEquals(2, buffer.getWrittenCount());
+    }
+
+    @Test
+    void writeNumberTest() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes, true, "UTF-8"), 8, OverflowPolicy.DROP, 1);
+
+        buffer.publish("[1] ", "Лифт на %s этаже\n", 7);
+        buffer.publish("[2] ", "Лифт на %s этаже\n", "5");
+        buffer.writeBatch();
+
+        assertEquals("[1] Лифт на 7 этаже\n[2] Лифт на 5 этаже\n", bytes.toString("UTF-8"));
+    }
+
+    @Test
+    void dropTest() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes), 4, OverflowPolicy.DROP, 1);
+
+        for (int i = 0; i < 10; i++) {
+            buffer.publish("", "%s\n", String.valueOf(i));
+        }
+        assertEquals(6, buffer.getDroppedCount());
+        buffer.writeBatch();
+        assertEquals("0\n1\n2\n3\n", bytes.toString());
+
+        // place is free again after writing
+        assertTrue(buffer.publish("", null, "4\n"));
+    }
+
+    @Test
+    void blockTest() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes), 4, OverflowPolicy.BLOCK, 1);
+        buffer.start();
+
+        for (int i = 0; i < 1000; i++) {
+            buffer.publish("", "%s,", String.valueOf(i));
+        }
+        buffer.close();
+
+        assertEquals(0, buffer.getDroppedCount());
+        assertEquals(1000, buffer.getWrittenCount());
+        assertTrue(bytes.toString().startsWith("0,1,2,"));
+        assertTrue(bytes.toString().endsWith("998,999,"));
+    }
+
+    @Test
+    void sampleTest() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes), 2, OverflowPolicy.SAMPLE, 3);
+
+        assertTrue(buffer.publish("", null, "a"));
+        assertTrue(buffer.publish("", null, "b"));
+        assertFalse(buffer.publish("", null, "c"));
+        assertFalse(buffer.publish("", null, "d"));
+        assertEquals(2, buffer.getDroppedCount());
+
+        // every third message of overflow waits for writer
+        buffer.start();
+        assertTrue(buffer.publish("", null, "e"));
+        buffer.close();
+        assertEquals("abe", bytes.toString());
+    }
+
+    @Test
+    void concurrentPublishTest() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes), 64, OverflowPolicy.BLOCK, 1);
+        buffer.start();
+
+        Thread[] producers = new Thread[4];
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                for (int message = 0; message < 5000; message++) {
+                    buffer.publish("", null, "x");
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        buffer.flush();
+
+        assertEquals(20000, buffer.getWrittenCount());
+        assertEquals(20000, bytes.size());
+        buffer.close();
+    }
+
+    @Test
+    void asyncMessengerTest() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessageRingBuffer buffer = new MessageRingBuffer(new PrintStream(bytes, true, "UTF-8"), 16, OverflowPolicy.BLOCK, 1);
+        AsyncMessenger messenger = new AsyncMessenger(buffer);
+        Messenger copy = messenger.copy();
+        copy.setPrefix("[2] ");
+        buffer.start();
+
+        messenger.printMessage("Лифт открыл двери\n");
+        copy.printFormattedMessage("Лифт проезжает %s этаж%n", "3");
+        buffer.close();
+
+        assertEquals(buffer, ((AsyncMessenger) copy).getBuffer());
+        assertEquals("Лифт открыл двери\n[2] Лифт проезжает 3 этаж" + System.lineSeparator(), bytes.toString("UTF-8"));
+    }
+}
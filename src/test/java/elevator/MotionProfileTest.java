@@ -0,0 +1,58 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MotionProfileTest {
+
+    @Test
+    void unlimitedAccelerationTest() {
+        MotionProfile profile = new MotionProfile(1F, 3F, 0F, 0F, 10);
+
+        assertEquals(0L, profile.getTravelTime(0));
+        assertEquals(3000L, profile.getTravelTime(1));
+        assertEquals(27000L, profile.getTravelTime(9));
+        // distance longer than building is computed without table
+        assertEquals(30000L, profile.getTravelTime(10));
+        assertEquals(0L, new MotionProfile(0F, 3F, 1F, 1F, 10).getTravelTime(5));
+    }
+
+    @Test
+    void jerkLimitedTest() {
+        // speed 2.5 m/s is reached after 8.75 m, acceleration 1 m/s2 is reached after 2 m
+        MotionProfile profile = new MotionProfile(2.5F, 3F, 1F, 1F, 20);
+
+        assertEquals(4606L, profile.getTravelTime(1));
+        assertEquals(6000L, profile.getTravelTime(2));
+        assertEquals(15500L, profile.getTravelTime(10));
+        assertEquals(4 * Math.cbrt(0.5), MotionProfile.computeTravelTime(1, 2.5, 1, 1), 1e-9);
+        // short hop takes longer per floor than long run
+        assertTrue(profile.getTravelTime(1) > profile.getTravelTime(10) / 10);
+    }
+
+    @Test
+    void stoppingDistanceTest() {
+        MotionProfile unlimited = new MotionProfile(1F, 3F, 0F, 0F, 20);
+        // without acceleration elevator stops on any floor it has not passed yet
+        assertEquals(1, unlimited.getStoppingDistance(0));
+        assertEquals(4, unlimited.getStoppingDistance(10000));
+        assertEquals(4, unlimited.getStoppingDistance(12000));
+
+        // short run brakes at half of its time, long run brakes 3.5 s before arrival
+        MotionProfile profile = new MotionProfile(2.5F, 3F, 1F, 1F, 20);
+        assertEquals(1, profile.getStoppingDistance(2303));
+        assertEquals(2, profile.getStoppingDistance(2304));
+        assertEquals(10, profile.getStoppingDistance(12000));
+        assertEquals(20, profile.getStoppingDistance(Long.MAX_VALUE));
+    }
+
+    @Test
+    void unlimitedJerkTest() {
+        MotionProfile profile = new MotionProfile(2.5F, 3F, 1F, 0F, 20);
+
+        assertEquals(3464L, profile.getTravelTime(1));
+        assertEquals(14500L, profile.getTravelTime(10));
+    }
+}
@@ -0,0 +1,116 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ParameterSweepTest {
+
+    @Test
+    void parseGridTest() {
+        assertEquals(Collections.singletonList(3.0), ParameterSweep.parseGrid("3"));
+        assertEquals(Arrays.asList(1.0, 2.0, 4.0), ParameterSweep.parseGrid("1,2,4"));
+        assertEquals(Arrays.asList(1.0, 1.5, 2.0), ParameterSweep.parseGrid("1:2:0.5"));
+        assertEquals(Arrays.asList(0.1, 0.2, 0.30000000000000004), ParameterSweep.parseGrid("0.1:0.3:0.1"));
+        assertThrows(NumberFormatException.class, () -> ParameterSweep.parseGrid("1:2"));
+        assertThrows(NumberFormatException.class, () -> ParameterSweep.parseGrid("1:2:0"));
+        assertThrows(NumberFormatException.class, () -> ParameterSweep.parseGrid("3:1:1"));
+        assertThrows(NumberFormatException.class, () -> ParameterSweep.parseGrid("a,b"));
+    }
+
+    @Test
+    void createConfigurationsTest() {
+        List<SweepConfiguration> configurations = ParameterSweep.createConfigurations(Arrays.asList(10.0, 20.0),
+                Arrays.asList(3.0, 1.0), Collections.singletonList(3.0), Collections.singletonList(4.0),
+                Arrays.asList(2.0, 1.0));
+
+        assertEquals(8, configurations.size());
+        assertEquals(2.0, configurations.get(0).getCost());
+        assertEquals(1, configurations.get(0).getElevatorsNumber());
+        assertEquals(8.0, configurations.get(7).getCost());
+        for (int i = 1; i < configurations.size(); i++) {
+            assertTrue(configurations.get(i - 1).getCost() <= configurations.get(i).getCost());
+        }
+    }
+
+    @Test
+    void runTest() {
+        List<SweepConfiguration> configurations = ParameterSweep.createConfigurations(
+                Collections.singletonList(20.0), Arrays.asList(1.0, 2.0), Collections.singletonList(3.0),
+                Collections.singletonList(4.0), Arrays.asList(1.0, 2.0, 3.0, 4.0));
+        SimulationRunner runner = new SimulationRunner(2);
+        ParameterSweep sweep = new ParameterSweep(runner, 60000, 4, 200, 1);
+        SweepConfiguration best;
+        try {
+            best = sweep.run(configurations);
+        } finally {
+            runner.shutdown();
+        }
+
+        assertEquals(best, sweep.getBest());
+        assertEquals(SweepStatus.FEASIBLE, best.getStatus());
+        assertEquals(4, best.getRuns());
+        assertTrue(best.getWaitTime().getPercentile(95) <= 60000);
+        for (SweepConfiguration configuration : configurations) {
+            assertTrue(configuration.getStatus() != SweepStatus.NEW);
+            if (configuration.getCost() < best.getCost()) {
+                // cheaper configurations can not meet target
+                assertTrue(configuration.getStatus() == SweepStatus.INFEASIBLE
+                        || configuration.getStatus() == SweepStatus.STOPPED);
+            }
+        }
+    }
+
+    @Test
+    void evaluateTest() {
+        SweepConfiguration first = new SweepConfiguration(20, 2F, 3F, 4, 2);
+        SweepConfiguration second = new SweepConfiguration(20, 2F, 3F, 4, 2);
+        ParameterSweep sweep = new ParameterSweep(new SimulationRunner(1), 1000000, 3, 100, 5);
+
+        sweep.evaluate(first);
+        new ParameterSweep(new SimulationRunner(1), 1000000, 3, 100, 5).evaluate(second);
+
+        // the same seeds give the same runs in any sweep
+        assertEquals(SweepStatus.FEASIBLE, first.getStatus());
+        assertEquals(3, first.getRuns());
+        assertTrue(first.getWaitTime().getCount() > 0);
+        assertEquals(first.getWaitTime().getCount(), second.getWaitTime().getCount());
+        assertEquals(first.getWaitTime().getMean(), second.getWaitTime().getMean());
+        assertEquals(first, sweep.getBest());
+    }
+
+    @Test
+    void unreachableTargetTest() {
+        SweepConfiguration configuration = new SweepConfiguration(100, 1F, 3F, 4, 1);
+        ParameterSweep sweep = new ParameterSweep(new SimulationRunner(1), 1, 8, 100, 1);
+
+        sweep.evaluate(configuration);
+
+        assertEquals(SweepStatus.STOPPED, configuration.getStatus());
+        assertEquals(2, configuration.getRuns());
+        assertNull(sweep.getBest());
+    }
+
+    @Test
+    void writeResultsTest() throws IOException {
+        SweepConfiguration configuration = new SweepConfiguration(20, 2F, 3F, 4, 2);
+        configuration.setStatus(SweepStatus.PRUNED);
+        StringWriter writer = new StringWriter();
+
+        ParameterSweep.writeResults(Collections.singletonList(configuration), writer);
+
+        String[] lines = writer.toString().split("\\R");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("floors,speed,height,doors,elevators,cost,runs"));
+        assertEquals("20,2.00,3.00,4,2,6.00,0,0.0,0.0,0.0,pruned", lines[1]);
+    }
+}
@@ -0,0 +1,164 @@
+package elevator;
+
+import static elevator.TrafficProfile.HOUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PredictiveParkingTest {
+
+    private final Elevator settings = TestBuilding.createSettings(20, 2F, 5);
+
+    @BeforeEach
+    void setSettings() {
+        this.settings.setExpressRuns(true);
+    }
+
+    private List<Elevator> createElevators(int number) {
+        List<Elevator> elevators = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            Elevator elevator = new Elevator(new SilentMessenger());
+            elevator.setFloorsNumber(10);
+            elevators.add(elevator);
+        }
+        return elevators;
+    }
+
+    @Test
+    void recordCallTest() {
+        PredictiveParking parking = new PredictiveParking(this.createElevators(1), 10, 24 * HOUR);
+        assertEquals(0.0, parking.getWeight(3, 0));
+
+        parking.recordCall(3, 0);
+        parking.recordCall(3, 1000);
+        parking.recordCall(11, 1000);
+        assertEquals(2.0, parking.getWeight(3, 1000), 0.001);
+        assertEquals(0.0, parking.getWeight(11, 1000));
+
+        // weight is halved after half-life and calls of next slot are taken in advance
+        assertEquals(1.0, parking.getWeight(3, 24 * HOUR + 1000), 0.001);
+        assertEquals(2.0, parking.getWeight(3, 1000 - PredictiveParking.SLOT), 0.001);
+        assertEquals(0.0, parking.getWeight(3, 1000 + PredictiveParking.SLOT));
+
+        parking.clear();
+        assertEquals(0.0, parking.getWeight(3, 1000));
+    }
+
+    @Test
+    void selectFloorTest() {
+        List<Elevator> elevators = this.createElevators(2);
+        PredictiveParking parking = new PredictiveParking(elevators, 10, HOUR);
+        assertEquals(1, parking.selectFloor(elevators.get(0), 0));
+
+        for (int i = 0; i < 4; i++) {
+            parking.recordCall(7, 0);
+        }
+        parking.recordCall(4, 0);
+        parking.recordCall(4, 0);
+        // targets are kept until elevator becomes free
+        assertEquals(1, parking.selectFloor(elevators.get(0), 0));
+        parking.invalidateTargets();
+        assertEquals(7, parking.selectFloor(elevators.get(0), 0));
+
+        // floor taken by other free elevator is left to it
+        elevators.get(1).setCurrentFloor(7);
+        assertEquals(4, parking.selectFloor(elevators.get(0), 0));
+
+        // elevator stays on floor almost as likely as the best one
+        elevators.get(0).setCurrentFloor(5);
+        parking.recordCall(5, 0);
+        parking.recordCall(5, 0);
+        parking.invalidateTargets();
+        assertEquals(5, parking.selectFloor(elevators.get(0), 0));
+    }
+
+    @Test
+    void targetsSlotTest() {
+        List<Elevator> elevators = this.createElevators(3);
+        elevators.get(1).setCurrentFloor(2);
+        elevators.get(2).setCurrentFloor(3);
+        PredictiveParking parking = new PredictiveParking(elevators, 10, HOUR);
+        for (int floor = 2; floor <= 8; floor++) {
+            parking.recordCall(floor, 0);
+        }
+        parking.recordCall(8, 0);
+        parking.recordCall(9, 3 * PredictiveParking.SLOT);
+        parking.recordCall(9, 3 * PredictiveParking.SLOT);
+        assertEquals(8, parking.selectFloor(elevators.get(0), 0));
+
+        // floors taken by other elevators are skipped, floor left by elevator is free again
+        elevators.get(2).setCurrentFloor(8);
+        assertEquals(3, parking.selectFloor(elevators.get(0), 0));
+
+        // targets are recomputed in next slot
+        assertEquals(9, parking.selectFloor(elevators.get(0), 2 * PredictiveParking.SLOT));
+    }
+
+    @Test
+    void parkFreeElevatorTest() throws InterruptedException {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        simulation.enableParking();
+        GroupController groupController = simulation.getGroupController();
+        groupController.getElevators().get(0).setCurrentFloor(15);
+        groupController.getElevators().get(1).setCurrentFloor(12);
+        groupController.getElevators().get(2).setCurrentFloor(10);
+        groupController.getParking().recordCall(1, 0);
+        groupController.getParking().recordCall(1, 0);
+
+        // call from floor 10 is served by elevator there, free elevators go to likely floors without opening of doors
+        groupController.getPorchCalls().set(10);
+        groupController.dispatchHallCalls();
+        simulation.getEventLoop().runUntil(HOUR);
+
+        assertEquals(1, groupController.getElevators().get(0).getCurrentFloor());
+        assertEquals(10, groupController.getElevators().get(1).getCurrentFloor());
+        assertEquals(10, groupController.getElevators().get(2).getCurrentFloor());
+        assertEquals(1L, simulation.getMetrics().getDoorDwell().getCount());
+        for (Elevator elevator : groupController.getElevators()) {
+            assertEquals(false, elevator.getBusy());
+        }
+    }
+
+    @Test
+    void upPeakTest() throws InterruptedException {
+        TrafficProfile profile = TrafficProfile.create("up", 20, 60);
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        simulation.scheduleTraffic(profile, 1, 2 * HOUR);
+        simulation.run();
+        Simulation parked = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        parked.enableParking();
+        parked.scheduleTraffic(profile, 1, 2 * HOUR);
+        parked.run();
+
+        // free elevators learn to wait in lobby, so passengers of up peak wait less
+        assertEquals(simulation.getMetrics().getPassengerWaitTime().getCount(),
+                parked.getMetrics().getPassengerWaitTime().getCount());
+        assertTrue(parked.getMetrics().getWaitTimeMean() < simulation.getMetrics().getWaitTimeMean() / 2);
+    }
+
+    @Test
+    void stateTest() throws IOException {
+        List<Elevator> elevators = this.createElevators(1);
+        PredictiveParking parking = new PredictiveParking(elevators, 10, HOUR);
+        parking.recordCall(2, 1000);
+        parking.recordCall(9, 5 * HOUR);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        parking.writeState(new DataOutputStream(bytes));
+
+        PredictiveParking restored = new PredictiveParking(elevators, 10, HOUR);
+        restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(parking.getWeight(2, 2 * HOUR), restored.getWeight(2, 2 * HOUR));
+        assertEquals(parking.getWeight(9, 5 * HOUR), restored.getWeight(9, 5 * HOUR));
+        assertEquals(0.0, restored.getWeight(5, 5 * HOUR));
+    }
+}
@@ -0,0 +1,172 @@
+package elevator;
+
+import static elevator.TrafficProfile.HOUR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SimulationCheckpointTest {
+
+    private final Elevator settings = TestBuilding.createSettings(12, 1.5F, 5);
+
+    @BeforeEach
+    void setSettings() {
+        this.settings.setAcceleration(1F);
+        this.settings.setCapacity(400);
+    }
+
+    private static byte[] write(Simulation simulation, TrafficGenerator generator) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SimulationCheckpoint.write(simulation, generator, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static TrafficGenerator read(Simulation simulation, TrafficProfile profile, byte[] checkpoint)
+            throws IOException {
+        return SimulationCheckpoint.read(simulation, profile,
+                new DataInputStream(new ByteArrayInputStream(checkpoint)));
+    }
+
+    private static void assertSameResults(Simulation expected, Simulation actual) {
+        SimulationMetrics expectedMetrics = expected.getMetrics();
+        SimulationMetrics actualMetrics = actual.getMetrics();
+        assertEquals(expected.getEventLoop().getTime(), actual.getEventLoop().getTime());
+        assertEquals(expected.getEventLoop().getExecutedCount(), actual.getEventLoop().getExecutedCount());
+        assertEquals(expectedMetrics.getWaitTimeMean(), actualMetrics.getWaitTimeMean());
+        assertEquals(expectedMetrics.getPassengerWaitTime().getPercentile(95),
+                actualMetrics.getPassengerWaitTime().getPercentile(95));
+        assertEquals(expectedMetrics.getPassengerRideTime().getMean(), actualMetrics.getPassengerRideTime().getMean());
+        assertArrayEquals(expectedMetrics.getHallCallsPerFloor(), actualMetrics.getHallCallsPerFloor());
+        assertArrayEquals(expectedMetrics.getUtilization(), actualMetrics.getUtilization());
+    }
+
+    @Test
+    void resumeTest() throws IOException, InterruptedException {
+        TrafficProfile profile = TrafficProfile.create("office", 12, 900);
+        Simulation whole = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficGenerator wholeGenerator = whole.scheduleTraffic(profile, 5, 24 * HOUR);
+        whole.run();
+
+        Simulation first = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficGenerator firstGenerator = first.scheduleTraffic(profile, 5, 24 * HOUR);
+        first.getEventLoop().runUntil(8 * HOUR + 123);
+        byte[] checkpoint = write(first, firstGenerator);
+        Simulation second = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficGenerator generator = read(second, profile, checkpoint);
+
+        // restored simulation is written to the same checkpoint
+        assertArrayEquals(checkpoint, write(second, generator));
+        first.run();
+        second.run();
+
+        // resumed simulation continues exactly as simulation without interruption
+        assertEquals(wholeGenerator.getGeneratedCount(), generator.getGeneratedCount());
+        assertSameResults(whole, first);
+        assertSameResults(whole, second);
+    }
+
+    @Test
+    void resumeParkingTest() throws IOException, InterruptedException {
+        TrafficProfile profile = TrafficProfile.create("office", 12, 300);
+        Simulation whole = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        whole.enableParking();
+        whole.scheduleTraffic(profile, 3, 24 * HOUR);
+        whole.run();
+
+        Simulation first = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        first.enableParking();
+        TrafficGenerator firstGenerator = first.scheduleTraffic(profile, 3, 24 * HOUR);
+        first.getEventLoop().runUntil(9 * HOUR);
+        byte[] checkpoint = write(first, firstGenerator);
+        Simulation second = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        second.enableParking();
+        TrafficGenerator generator = read(second, profile, checkpoint);
+        assertArrayEquals(checkpoint, write(second, generator));
+        second.run();
+
+        // learned model of calls is resumed with simulation
+        assertSameResults(whole, second);
+
+        // simulation without parking skips model of checkpoint
+        Simulation other = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        read(other, profile, checkpoint);
+        other.run();
+        assertTrue(other.getMetrics().getWaitTime().getCount() > 0);
+    }
+
+    @Test
+    void forkTest() throws IOException, InterruptedException {
+        TrafficProfile profile = TrafficProfile.create("up", 12, 1200);
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 2);
+        TrafficGenerator generator = simulation.scheduleTraffic(profile, 9, 2 * HOUR);
+        simulation.getEventLoop().runUntil(HOUR);
+        byte[] checkpoint = write(simulation, generator);
+
+        // the same checkpoint is continued with other dispatch and with other traffic
+        Simulation destination = TestBuilding.createSimulation(new DestinationDispatcher(), this.settings, 2);
+        TrafficGenerator destinationGenerator = read(destination, profile, checkpoint);
+        destination.run();
+        Simulation down = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 2);
+        TrafficGenerator downGenerator = read(down, TrafficProfile.create("down", 12, 1200), checkpoint);
+        down.run();
+        simulation.run();
+
+        long before = simulation.getMetrics().getHallCallsPerFloor()[0];
+        assertTrue(destinationGenerator.getGeneratedCount() > generator.getGeneratedCount() / 2);
+        assertTrue(down.getMetrics().getHallCallsPerFloor()[0] < before);
+        assertEquals(0, destination.getGroupController().getLandings().getWaitingCount());
+    }
+
+    @Test
+    void fileTest() throws IOException, InterruptedException {
+        TrafficProfile profile = TrafficProfile.create("inter", 12, 600);
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 2);
+        TrafficGenerator generator = simulation.scheduleTraffic(profile, 2, HOUR);
+        Path directory = Files.createTempDirectory("checkpoint");
+        Path path = directory.resolve("simulation.bin");
+        try {
+            simulation.getEventLoop().runUntil(HOUR / 4);
+            SimulationCheckpoint.write(simulation, generator, path);
+            simulation.getEventLoop().runUntil(HOUR / 2);
+            SimulationCheckpoint.write(simulation, generator, path);
+
+            // file is replaced by last checkpoint, temporary files are removed
+            Simulation restored = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 2);
+            SimulationCheckpoint.read(restored, profile, path);
+            assertEquals(HOUR / 2, restored.getEventLoop().getTime());
+            assertEquals(1, directory.toFile().list().length);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void incorrectCheckpointTest() throws IOException {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 2);
+        TrafficGenerator generator = simulation.scheduleTraffic(TrafficProfile.create("up", 12, 600), 1, HOUR);
+        byte[] checkpoint = write(simulation, generator);
+
+        Simulation bigger = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        assertThrows(IOException.class, () -> read(bigger, null, checkpoint));
+        checkpoint[0] = 0;
+        Simulation same = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 2);
+        assertThrows(IOException.class, () -> read(same, null, checkpoint));
+
+        // events of trace replay can not be written
+        simulation.getEventLoop().schedule(0, EventType.HALL_CALL, 1, event -> { });
+        assertThrows(IOException.class, () -> write(simulation, generator));
+    }
+}
@@ -0,0 +1,136 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationMetricsTest {
+
+    @Test
+    void waitAndRideTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        SimulationMetrics metrics = new SimulationMetrics(eventLoop, 2);
+
+        metrics.hallCall(5);
+        metrics.carCall(1, 7);
+        eventLoop.runUntil(1000);
+        // repeated call does not restart waiting
+        metrics.hallCall(5);
+        eventLoop.runUntil(3000);
+        metrics.doorsOpened(0, 5);
+        eventLoop.runUntil(5000);
+        metrics.doorsClosed(0);
+        metrics.doorsOpened(0, 7);
+        eventLoop.runUntil(9000);
+        metrics.doorsOpened(1, 7);
+
+        assertEquals(1L, metrics.getWaitTime().getCount());
+        assertEquals(3000L, metrics.getWaitTimeMax());
+        assertEquals(1L, metrics.getRideCount());
+        assertEquals(9000L, metrics.getRideTimeMax());
+        assertEquals(2000.0, metrics.getDoorDwellMean());
+        assertEquals(2L, metrics.getHallCallsCount());
+        assertEquals(2L, metrics.getHallCallsPerFloor()[4]);
+        assertEquals(1L, metrics.getCarCallsPerFloor()[6]);
+        assertEquals(Main.MAX_FLOORS_NUMBER, metrics.getCarCallsPerFloor().length);
+    }
+
+    @Test
+    void utilizationTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        SimulationMetrics metrics = new SimulationMetrics(eventLoop, 2);
+
+        metrics.busyChanged(0, true);
+        eventLoop.runUntil(3000);
+        metrics.busyChanged(0, false);
+        metrics.busyChanged(1, true);
+        eventLoop.runUntil(4000);
+
+        assertArrayEquals(new double[] {0.75, 0.25}, metrics.getUtilization(), 0.001);
+
+        metrics.reset();
+        eventLoop.runUntil(6000);
+        assertArrayEquals(new double[] {0, 1}, metrics.getUtilization(), 0.001);
+        assertEquals(0L, metrics.getHallCallsCount());
+    }
+
+    @Test
+    void elevatorMetricsTest() throws InterruptedException {
+        EventLoop eventLoop = new EventLoop(false);
+        Elevator elevator = new Elevator(new SilentMessenger(), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.setFloorsNumber(10);
+        elevator.setElevatorSpeed(1F);
+        elevator.setFloorHeight(1F);
+        elevator.setDoorsTime(2);
+
+        eventLoop.scheduleAt(0, EventType.HALL_CALL, 4, elevator);
+        eventLoop.scheduleAt(0, EventType.CAR_CALL, 6, elevator);
+        eventLoop.run();
+
+        SimulationMetrics metrics = elevator.getMetrics();
+        assertEquals(3000L, metrics.getWaitTimeMax());
+        assertEquals(7000L, metrics.getRideTimeMax());
+        assertEquals(2000.0, metrics.getDoorDwellMean());
+        assertArrayEquals(new double[] {1}, metrics.getUtilization(), 0.001);
+    }
+
+    @Test
+    void summaryTest() {
+        SimulationMetrics metrics = new SimulationMetrics(new EventLoop(false), 1);
+        metrics.getWaitTime().record(1500);
+        metrics.hallCall(3);
+        Messenger messenger = mock(Messenger.class);
+
+        metrics.printSummary(messenger);
+
+        verify(messenger, times(1)).printFormattedMessage("Ожидание лифта: %s\n",
+                "количество - 1, среднее - 1.5 с, 95% - 1.5 с, максимум - 1.5 с");
+        verify(messenger, times(1)).printFormattedMessage("Вызовы по этажам (подъезд/кабина): %s\n", "3 - 1/0");
+        verify(messenger, times(1)).printFormattedMessage("Загрузка лифта 1 - %s%%\n", "0");
+    }
+
+    @Test
+    void mbeanTest() throws JMException {
+        SimulationMetrics metrics = new SimulationMetrics(new EventLoop(false), 1);
+        metrics.hallCall(2);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("elevator:type=SimulationMetrics,name=test");
+        server.registerMBean(metrics, name);
+        try {
+            assertEquals(1L, server.getAttribute(name, "HallCallsCount"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    void passengersTest() {
+        SimulationMetrics metrics = new SimulationMetrics(new EventLoop(false), 1);
+        metrics.passengerBoarded(3000);
+        metrics.passengerBoarded(5000);
+        metrics.passengerAlighted(20000);
+        metrics.passengersLeft();
+
+        assertEquals(2L, metrics.getPassengersCount());
+        assertEquals(4000.0, metrics.getPassengerWaitTimeMean(), 100);
+        assertEquals(20000.0, metrics.getPassengerRideTimeMean(), 500);
+        assertEquals(1L, metrics.getLeftBehindCount());
+        Messenger messenger = mock(Messenger.class);
+        metrics.printSummary(messenger);
+        verify(messenger, times(1)).printFormattedMessage("Отправлений с оставшимися пассажирами - %s\n", "1");
+
+        metrics.reset();
+        assertEquals(0L, metrics.getPassengersCount());
+        assertEquals(0L, metrics.getLeftBehindCount());
+    }
+}
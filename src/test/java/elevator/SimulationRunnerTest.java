@@ -0,0 +1,73 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationRunnerTest {
+
+    private final LongFunction<Simulation> factory = seed -> {
+        Simulation simulation = new Simulation(false);
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(30);
+        elevator.setExpressRuns(true);
+        simulation.createElevators(elevator, 2);
+        simulation.scheduleRandomCalls(seed, 100, 20000);
+        return simulation;
+    };
+
+    @Test
+    void seedsTest() {
+        Set<Long> seeds = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            seeds.add(SimulationRunner.getSeed(7, i));
+        }
+        assertEquals(1000, seeds.size());
+        assertEquals(SimulationRunner.getSeed(7, 3), SimulationRunner.getSeed(7, 3));
+    }
+
+    @Test
+    void runTest() {
+        SimulationRunner runner = new SimulationRunner(4);
+        assertEquals(4, runner.getParallelism());
+
+        List<SimulationMetrics> results = runner.run(50, 11, this.factory);
+        runner.shutdown();
+
+        assertEquals(50, results.size());
+        for (SimulationMetrics metrics : results) {
+            assertEquals(100L, metrics.getHallCallsCount());
+            assertTrue(metrics.getWaitTime().getCount() > 0);
+        }
+    }
+
+    @Test
+    void reproducibleRunTest() {
+        SimulationRunner parallel = new SimulationRunner(4);
+        SimulationRunner single = new SimulationRunner(1);
+
+        List<SimulationMetrics> first = parallel.run(20, 5, this.factory);
+        List<SimulationMetrics> second = single.run(20, 5, this.factory);
+        parallel.shutdown();
+        single.shutdown();
+
+        // results do not depend on number of threads
+        for (int i = 0; i < 20; i++) {
+            assertEquals(first.get(i).getWaitTimeMean(), second.get(i).getWaitTimeMean());
+            assertEquals(first.get(i).getRideTimeMax(), second.get(i).getRideTimeMax());
+        }
+    }
+
+    @Test
+    void emptyRunTest() {
+        SimulationRunner runner = new SimulationRunner(2);
+        assertTrue(runner.run(0, 1, this.factory).isEmpty());
+        runner.shutdown();
+    }
+}
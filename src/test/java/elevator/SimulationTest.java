@@ -0,0 +1,164 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationTest {
+
+    private final Elevator settings = TestBuilding.createSettings(20, 2F, 5);
+
+    @Test
+    void createElevatorsTest() {
+        Simulation simulation = new Simulation(false);
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        simulation.createElevators(elevator, 2);
+
+        assertEquals(simulation.getEventLoop(), elevator.getEventLoop());
+        assertEquals(2, simulation.getGroupController().getElevators().size());
+        assertEquals(simulation.getPorchCalls(), simulation.getGroupController().getPorchCalls());
+        assertEquals(simulation.getMetrics(), elevator.getMetrics());
+    }
+
+    @Test
+    void pacedAgentsTest() throws InterruptedException {
+        // minute of rush with 100000 passengers is played in 1 second of wall clock
+        Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(true, 60), new EtaDispatcher());
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.setFloorsNumber(20);
+        elevator.setExpressRuns(true);
+        simulation.createElevators(elevator, 4);
+        TrafficGenerator generator = simulation.scheduleTraffic(
+                TrafficProfile.create("up", 20, 6000000), 1, 60000);
+        int threads = Thread.activeCount();
+        long start = System.nanoTime();
+        simulation.getEventLoop().runUntil(60000);
+
+        // all passengers are waiting or riding at once, without thread per passenger
+        long waiting = simulation.getGroupController().getLandings().getWaitingCount();
+        assertTrue(generator.getGeneratedCount() > 90000);
+        assertTrue(waiting > 80000);
+        assertTrue(System.nanoTime() - start >= 900000000L);
+        assertTrue(Thread.activeCount() <= threads);
+    }
+
+    @Test
+    void simulationsAreIndependentTest() {
+        Simulation first = new Simulation(false);
+        Simulation second = new Simulation(false);
+        assertTrue(first.getPorchCalls() != second.getPorchCalls());
+
+        first.getPorchCalls().set(5);
+        assertTrue(second.getPorchCalls().isEmpty());
+    }
+
+    @Test
+    void connectTest() {
+        Simulation simulation = new Simulation(true);
+        simulation.createElevators(simulation.createElevator(new SilentMessenger()), 2);
+        InputLoop inputLoop = new InputLoop(new SilentMessenger());
+        inputLoop.setFloorsNumber(20);
+
+        simulation.connect(inputLoop);
+        inputLoop.parseInput("э7");
+        inputLoop.parseInput("2л9");
+
+        assertTrue(simulation.getPorchCalls().isSet(7));
+        assertTrue(simulation.getGroupController().getElevators().get(1).getElevatorCalls().isSet(9));
+        assertEquals(1L, simulation.getMetrics().getHallCallsCount());
+        assertEquals(simulation.getMetrics(), inputLoop.getMetrics());
+        assertEquals(simulation.getEventLoop().getCallSignal(), inputLoop.getCallSignal());
+    }
+
+    @Test
+    void randomCallsTest() throws InterruptedException {
+        Simulation first = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        Simulation second = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        first.scheduleRandomCalls(42, 200, 10000);
+        second.scheduleRandomCalls(42, 200, 10000);
+        assertEquals(400, first.getEventLoop().getEventsCount());
+
+        first.run();
+        second.run();
+
+        // the same seed gives the same simulation
+        assertEquals(200L, first.getMetrics().getHallCallsCount());
+        assertEquals(first.getEventLoop().getTime(), second.getEventLoop().getTime());
+        assertEquals(first.getEventLoop().getExecutedCount(), second.getEventLoop().getExecutedCount());
+        assertEquals(first.getMetrics().getWaitTimeMean(), second.getMetrics().getWaitTimeMean());
+        assertTrue(first.getMetrics().getWaitTime().getCount() > 0);
+    }
+
+    @Test
+    void resetTest() throws InterruptedException {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        simulation.scheduleRandomCalls(42, 200, 10000);
+        simulation.run();
+        long time = simulation.getEventLoop().getTime();
+        long executed = simulation.getEventLoop().getExecutedCount();
+        double waitTime = simulation.getMetrics().getWaitTimeMean();
+
+        simulation.reset(this.settings);
+        for (Elevator elevator : simulation.getGroupController().getElevators()) {
+            assertEquals(1, elevator.getCurrentFloor());
+            assertEquals(false, elevator.getBusy());
+        }
+        assertEquals(0L, simulation.getMetrics().getHallCallsCount());
+        assertEquals(0, simulation.getEventLoop().getEventsCount());
+
+        // reused simulation gives the same results as new one
+        simulation.scheduleRandomCalls(42, 200, 10000);
+        simulation.run();
+        assertEquals(time, simulation.getEventLoop().getTime());
+        assertEquals(executed, simulation.getEventLoop().getExecutedCount());
+        assertEquals(waitTime, simulation.getMetrics().getWaitTimeMean());
+    }
+
+    @Test
+    void steadyStateAllocationTest() throws InterruptedException {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        simulation.scheduleRandomCalls(42, 200, 10000);
+        EventLoop eventLoop = simulation.getEventLoop();
+        GroupController group = simulation.getGroupController();
+
+        // every 5 seconds one call from porch and one call from cabin, calls are not allocated
+        eventLoop.schedule(0, EventType.HALL_CALL, 0, new EventHandler() {
+            private int step = 0;
+
+            public void handleEvent(SimulationEvent event) {
+                this.step++;
+                eventLoop.schedule(0, EventType.HALL_CALL, this.step * 7 % 20 + 1, group);
+                eventLoop.schedule(0, EventType.CAR_CALL, this.step * 13 % 20 + 1,
+                        group.getElevators().get(this.step % 3));
+                eventLoop.schedule(5000, EventType.HALL_CALL, 0, this);
+            }
+        });
+        // passengers arrive on landings, board and alight
+        TrafficGenerator generator = simulation.scheduleTraffic(TrafficProfile.create("inter", 20, 300), 42,
+                Long.MAX_VALUE);
+        eventLoop.runUntil(10 * TrafficProfile.HOUR);
+
+        // every window is checked with its own events, allocation in every step takes at least 16 bytes per event
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        SimulationMetrics metrics = simulation.getMetrics();
+        for (int i = 0; i < 10; i++) {
+            long executed = eventLoop.getExecutedCount();
+            long generated = generator.getGeneratedCount();
+            long rides = metrics.getRideCount();
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            eventLoop.runUntil(eventLoop.getTime() + TrafficProfile.HOUR);
+            allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+            long events = eventLoop.getExecutedCount() - executed;
+
+            assertTrue(events > 1000);
+            assertTrue(generator.getGeneratedCount() - generated > 100);
+            assertTrue(metrics.getRideCount() - rides > 100);
+            assertTrue(allocated < events, "Hour " + (i + 1) + " of simulation allocates " + allocated + " bytes for "
+                    + events + " events");
+        }
+    }
+}
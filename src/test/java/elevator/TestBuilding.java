@@ -0,0 +1,68 @@
+package elevator;
+
+/**
+ * Building with elevators for tests, elevators copy settings of given elevator
+ */
+final class TestBuilding {
+
+    private TestBuilding() {
+    }
+
+    /**
+     * Create elevator with settings for elevators of building
+     * @param floorsNumber - number of floors in building
+     * @param elevatorSpeed - speed of elevator's moving (meters per second)
+     * @param doorsTime - time of cycle open-close for elevator's doors (seconds)
+     * @return elevator with settings
+     */
+    static Elevator createSettings(int floorsNumber, float elevatorSpeed, int doorsTime) {
+        Elevator settings = new Elevator(new SilentMessenger());
+        settings.setFloorsNumber(floorsNumber);
+        settings.setElevatorSpeed(elevatorSpeed);
+        settings.setDoorsTime(doorsTime);
+        return settings;
+    }
+
+    /**
+     * Create single elevator standing on floor
+     * @param eventLoop - event loop of elevator
+     * @param settings - elevator which settings are copied
+     * @param currentFloor - floor of elevator
+     * @return elevator
+     */
+    static Elevator createElevator(EventLoop eventLoop, Elevator settings, int currentFloor) {
+        Elevator elevator = new Elevator(new SilentMessenger(), eventLoop, new FloorCalls(), new FloorCalls());
+        elevator.copySettings(settings);
+        elevator.setCurrentFloor(currentFloor);
+        return elevator;
+    }
+
+    /**
+     * Create group of elevators with dispatcher by arrival time
+     * @param settings - elevator which settings are copied
+     * @param elevatorsNumber - number of elevators in group
+     * @return group of elevators
+     */
+    static GroupController createGroup(Elevator settings, int elevatorsNumber) {
+        EventLoop eventLoop = new EventLoop(false);
+        GroupController group = new GroupController(new SilentMessenger(), eventLoop, new EtaDispatcher(),
+                new FloorCalls());
+        group.createElevators(createElevator(eventLoop, settings, 1), elevatorsNumber);
+        return group;
+    }
+
+    /**
+     * Create simulation of group of elevators
+     * @param dispatcher - dispatcher of calls from porch
+     * @param settings - elevator which settings are copied
+     * @param elevatorsNumber - number of elevators in group
+     * @return simulation
+     */
+    static Simulation createSimulation(Dispatcher dispatcher, Elevator settings, int elevatorsNumber) {
+        Simulation simulation = new Simulation(new SilentMessenger(), new EventLoop(false), dispatcher);
+        Elevator elevator = simulation.createElevator(new SilentMessenger());
+        elevator.copySettings(settings);
+        simulation.createElevators(elevator, elevatorsNumber);
+        return simulation;
+    }
+}
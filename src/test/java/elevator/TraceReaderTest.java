@@ -0,0 +1,143 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TraceReaderTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("trace");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    @Test
+    void textTraceTest() throws IOException {
+        Path trace = this.directory.resolve("trace.txt");
+        Files.write(trace, Arrays.asList("# morning", "0 э5", "", "1500\tл12\r", "2500 3л7", "3000 2э5", "abc",
+                "4000 л", "5000 э4 x", "6000 э20"), StandardCharsets.UTF_8);
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            assertFalse(reader.isBinary());
+
+            assertTrue(reader.next());
+            assertEquals(0L, reader.getTime());
+            assertEquals(EventType.HALL_CALL, reader.getType());
+            assertEquals(5, reader.getFloor());
+
+            assertTrue(reader.next());
+            assertEquals(1500L, reader.getTime());
+            assertEquals(EventType.CAR_CALL, reader.getType());
+            assertEquals(1, reader.getElevator());
+            assertEquals(12, reader.getFloor());
+
+            assertTrue(reader.next());
+            assertEquals(3, reader.getElevator());
+            assertEquals(7, reader.getFloor());
+
+            // incorrect lines are skipped
+            assertTrue(reader.next());
+            assertEquals(6000L, reader.getTime());
+            assertEquals(20, reader.getFloor());
+
+            assertFalse(reader.next());
+            assertEquals(4L, reader.getReadCount());
+            assertEquals(4L, reader.getSkippedCount());
+        }
+    }
+
+    @Test
+    void lastLineWithoutNewLineTest() throws IOException {
+        Path trace = this.directory.resolve("trace.txt");
+        Files.write(trace, "10 э3\n20 л4".getBytes(StandardCharsets.UTF_8));
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            assertTrue(reader.next());
+            assertTrue(reader.next());
+            assertEquals(20L, reader.getTime());
+            assertEquals(4, reader.getFloor());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void binaryTraceTest() throws IOException {
+        Path text = this.directory.resolve("trace.txt");
+        Path binary = this.directory.resolve("trace.bin");
+        Files.write(text, Arrays.asList("100 э5", "100 2л9", "86400000 л3"), StandardCharsets.UTF_8);
+        try (TraceReader reader = new TraceReader(text); TraceWriter writer = new TraceWriter(binary)) {
+            writer.writeAll(reader);
+        }
+        assertEquals(8L + 3 * TraceReader.RECORD_SIZE, Files.size(binary));
+
+        try (TraceReader reader = new TraceReader(binary)) {
+            assertTrue(reader.isBinary());
+
+            assertTrue(reader.next());
+            assertEquals(100L, reader.getTime());
+            assertEquals(EventType.HALL_CALL, reader.getType());
+            assertEquals(5, reader.getFloor());
+
+            assertTrue(reader.next());
+            assertEquals(100L, reader.getTime());
+            assertEquals(EventType.CAR_CALL, reader.getType());
+            assertEquals(2, reader.getElevator());
+            assertEquals(9, reader.getFloor());
+
+            assertTrue(reader.next());
+            assertEquals(86400000L, reader.getTime());
+            assertEquals(3, reader.getFloor());
+
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void wrongBinaryTraceTest() throws IOException {
+        Path binary = this.directory.resolve("trace.bin");
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(binary))) {
+            output.writeInt(TraceReader.MAGIC);
+            output.writeInt(TraceReader.VERSION + 1);
+        }
+        assertThrows(IOException.class, () -> new TraceReader(binary));
+
+        try (TraceWriter writer = new TraceWriter(this.directory.resolve("unordered.bin"))) {
+            writer.write(1000, EventType.HALL_CALL, 0, 5);
+            assertThrows(IOException.class, () -> writer.write(500, EventType.HALL_CALL, 0, 6));
+        }
+    }
+
+    @Test
+    void emptyTraceTest() throws IOException {
+        Path trace = this.directory.resolve("trace.txt");
+        Files.write(trace, new byte[0]);
+        try (TraceReader reader = new TraceReader(trace)) {
+            assertFalse(reader.next());
+        }
+    }
+}
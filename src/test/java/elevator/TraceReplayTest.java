@@ -0,0 +1,104 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TraceReplayTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        this.directory = Files.createTempDirectory("trace");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(this.directory);
+    }
+
+    private final Elevator settings = TestBuilding.createSettings(20, 2F, 3);
+
+    @Test
+    void replayTest() throws IOException, InterruptedException {
+        Path trace = this.directory.resolve("trace.bin");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            writer.write(0, EventType.HALL_CALL, 0, 10);
+            writer.write(1000, EventType.CAR_CALL, 2, 15);
+            writer.write(60000, EventType.CAR_CALL, 1, 1);
+        }
+        GroupController group = TestBuilding.createGroup(this.settings, 2);
+        EventLoop eventLoop = group.getEventLoop();
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            TraceReplay replay = new TraceReplay(group, reader);
+            replay.start();
+            assertEquals(1, eventLoop.getEventsCount());
+
+            eventLoop.run();
+
+            assertEquals(3L, replay.getReplayedCount());
+            assertEquals(0L, replay.getSkippedCount());
+        }
+        assertEquals(1, group.getElevators().get(0).getCurrentFloor());
+        assertEquals(15, group.getElevators().get(1).getCurrentFloor());
+        assertTrue(eventLoop.getTime() >= 60000);
+    }
+
+    @Test
+    void lazyReplayTest() throws IOException, InterruptedException {
+        Path trace = this.directory.resolve("trace.bin");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            for (int i = 0; i < 100000; i++) {
+                writer.write(i * 100000L, EventType.HALL_CALL, 0, i % 20 + 1);
+            }
+        }
+        GroupController group = TestBuilding.createGroup(this.settings, 3);
+        EventLoop eventLoop = group.getEventLoop();
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            TraceReplay replay = new TraceReplay(group, reader);
+            replay.start();
+            // only next call of trace waits in event loop
+            while (eventLoop.runNext()) {
+                assertTrue(eventLoop.getEventsCount() < 20);
+            }
+            assertEquals(100000L, replay.getReplayedCount());
+        }
+    }
+
+    @Test
+    void skipWrongCallsTest() throws IOException, InterruptedException {
+        Path trace = this.directory.resolve("trace.bin");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            writer.write(0, EventType.HALL_CALL, 0, 21);
+            writer.write(0, EventType.CAR_CALL, 3, 5);
+            writer.write(0, EventType.CAR_CALL, 1, 0);
+            writer.write(0, EventType.CAR_CALL, 1, 5);
+        }
+        GroupController group = TestBuilding.createGroup(this.settings, 2);
+
+        try (TraceReader reader = new TraceReader(trace)) {
+            TraceReplay replay = new TraceReplay(group, reader);
+            replay.start();
+            group.getEventLoop().run();
+            assertEquals(1L, replay.getReplayedCount());
+            assertEquals(3L, replay.getSkippedCount());
+        }
+        assertEquals(5, group.getElevators().get(0).getCurrentFloor());
+    }
+}
@@ -0,0 +1,90 @@
+package elevator;
+
+import static elevator.TrafficProfile.HOUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TrafficGeneratorTest {
+
+    private final Elevator settings = TestBuilding.createSettings(20, 2F, 5);
+
+    @BeforeEach
+    void setSettings() {
+        this.settings.setExpressRuns(true);
+    }
+
+    @Test
+    void lazyGenerationTest() throws InterruptedException {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficGenerator generator = simulation.scheduleTraffic(
+                TrafficProfile.create("up", 20, 3600), 7, 10 * HOUR);
+
+        // only next call is scheduled
+        assertEquals(1, simulation.getEventLoop().getEventsCount());
+        assertEquals(10 * HOUR, generator.getEndTime());
+        simulation.run();
+
+        // mean number of calls is 36000, deviation is 190
+        assertTrue(Math.abs(generator.getGeneratedCount() - 36000) < 1000);
+        assertEquals(generator.getGeneratedCount(), sum(simulation.getMetrics().getCarCallsPerFloor()));
+        // most of calls from porch are made in lobby
+        long[] hallCalls = simulation.getMetrics().getHallCallsPerFloor();
+        assertTrue(hallCalls[0] > generator.getGeneratedCount() * 0.8);
+    }
+
+    @Test
+    void seedTest() throws InterruptedException {
+        Simulation first = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        Simulation second = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        Simulation other = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficProfile profile = TrafficProfile.create("office", 20, 600);
+
+        first.scheduleTraffic(profile, 3, 24 * HOUR);
+        second.scheduleTraffic(profile, 3, 24 * HOUR);
+        other.scheduleTraffic(profile, 4, 24 * HOUR);
+        first.run();
+        second.run();
+        other.run();
+
+        assertEquals(first.getEventLoop().getExecutedCount(), second.getEventLoop().getExecutedCount());
+        assertEquals(first.getMetrics().getWaitTimeMean(), second.getMetrics().getWaitTimeMean());
+        assertTrue(first.getEventLoop().getExecutedCount() != other.getEventLoop().getExecutedCount());
+    }
+
+    @Test
+    void profilePeriodsTest() throws InterruptedException {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficProfile profile = new TrafficProfile();
+        profile.addPeriod(0, 0, TrafficMatrix.mixed(20, 1, 0, 0));
+        profile.addPeriod(12 * HOUR, 3600, TrafficMatrix.mixed(20, 0, 1, 0));
+
+        TrafficGenerator generator = simulation.scheduleTraffic(profile, 1, 13 * HOUR);
+        simulation.run();
+
+        // night without calls is skipped, all calls of afternoon go down to lobby
+        long[] carCalls = simulation.getMetrics().getCarCallsPerFloor();
+        assertTrue(generator.getGeneratedCount() > 3000);
+        assertEquals(generator.getGeneratedCount(), carCalls[0]);
+        assertEquals(0L, simulation.getMetrics().getHallCallsPerFloor()[0]);
+    }
+
+    @Test
+    void noCallsTest() {
+        Simulation simulation = TestBuilding.createSimulation(new EtaDispatcher(), this.settings, 3);
+        TrafficGenerator generator = simulation.scheduleTraffic(
+                TrafficProfile.constant(0, TrafficMatrix.mixed(20, 1, 0, 0)), 1, Long.MAX_VALUE);
+        assertEquals(0, simulation.getEventLoop().getEventsCount());
+        assertEquals(0L, generator.getGeneratedCount());
+    }
+
+    private static long sum(long[] values) {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,66 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class TrafficMatrixTest {
+
+    @Test
+    void fromWeightsTest() {
+        TrafficMatrix matrix = TrafficMatrix.fromWeights(new double[][]{{5, 1, 3}, {0, 0, 0}, {2, 2, 0}});
+
+        assertEquals(3, matrix.getFloorsNumber());
+        // row of first floor has total 4, row of second floor is empty, row of third floor has total 4
+        assertEquals(1, matrix.drawOrigin(0));
+        assertEquals(1, matrix.drawOrigin(0.49));
+        assertEquals(3, matrix.drawOrigin(0.5));
+        assertEquals(3, matrix.drawOrigin(0.99));
+        // weight of trip to the same floor is ignored
+        assertEquals(2, matrix.drawDestination(1, 0));
+        assertEquals(3, matrix.drawDestination(1, 0.25));
+        assertEquals(1, matrix.drawDestination(3, 0.49));
+        assertEquals(2, matrix.drawDestination(3, 0.5));
+    }
+
+    @Test
+    void incorrectWeightsTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TrafficMatrix.fromWeights(new double[][]{{0, 1}, {1}}));
+        assertThrows(IllegalArgumentException.class,
+                () -> TrafficMatrix.fromWeights(new double[][]{{0, -1}, {1, 0}}));
+        assertThrows(IllegalArgumentException.class,
+                () -> TrafficMatrix.fromWeights(new double[][]{{3, 0}, {0, 3}}));
+        assertThrows(IllegalArgumentException.class, () -> TrafficMatrix.fromWeights(new double[0][]));
+    }
+
+    @Test
+    void mixedTest() {
+        TrafficMatrix matrix = TrafficMatrix.mixed(5, 0.5, 0.3, 0.2);
+
+        assertEquals(5, matrix.getFloorsNumber());
+        assertEquals(1, matrix.drawOrigin(0.49));
+        assertEquals(2, matrix.drawOrigin(0.5));
+        assertEquals(5, matrix.drawOrigin(0.99));
+        // trips from lobby go uniformly up
+        assertEquals(2, matrix.drawDestination(1, 0));
+        assertEquals(5, matrix.drawDestination(1, 0.99));
+        // trips from upper floors go to lobby or between upper floors in proportion 0.3 to 0.2
+        assertEquals(1, matrix.drawDestination(3, 0.59));
+        assertEquals(2, matrix.drawDestination(3, 0.61));
+        assertEquals(5, matrix.drawDestination(3, 0.99));
+    }
+
+    @Test
+    void parseTest() {
+        TrafficMatrix matrix = TrafficMatrix.parse(Arrays.asList("# trips", "0 1", "", "2,0"));
+        assertEquals(2, matrix.getFloorsNumber());
+        assertEquals(1, matrix.drawOrigin(0.3));
+        assertEquals(2, matrix.drawOrigin(0.4));
+
+        assertThrows(IllegalArgumentException.class, () -> TrafficMatrix.parse(Arrays.asList("0 a", "1 0")));
+    }
+}
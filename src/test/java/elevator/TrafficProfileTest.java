@@ -0,0 +1,59 @@
+package elevator;
+
+import static elevator.TrafficProfile.DAY;
+import static elevator.TrafficProfile.HOUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TrafficProfileTest {
+
+    @Test
+    void periodsTest() {
+        TrafficMatrix matrix = TrafficMatrix.mixed(10, 1, 0, 0);
+        TrafficProfile profile = new TrafficProfile();
+        profile.addPeriod(0, 0, matrix);
+        profile.addPeriod(8 * HOUR, 3600, matrix);
+
+        assertEquals(2, profile.getPeriodsNumber());
+        assertEquals(0, profile.getPeriod(0));
+        assertEquals(0, profile.getPeriod(8 * HOUR - 1));
+        assertEquals(1, profile.getPeriod(8 * HOUR));
+        assertEquals(8 * HOUR, profile.getPeriodEnd(0));
+        assertEquals(DAY, profile.getPeriodEnd(8 * HOUR));
+        // profile is repeated every day
+        assertEquals(0, profile.getPeriod(DAY + HOUR));
+        assertEquals(DAY + 8 * HOUR, profile.getPeriodEnd(DAY + HOUR));
+        assertEquals(1.0 / 1000, profile.getRate(1));
+        assertEquals(matrix, profile.getMatrix(1));
+        assertTrue(profile.hasCalls());
+    }
+
+    @Test
+    void incorrectPeriodsTest() {
+        TrafficMatrix matrix = TrafficMatrix.mixed(10, 1, 0, 0);
+        TrafficProfile profile = new TrafficProfile();
+        assertThrows(IllegalArgumentException.class, () -> profile.addPeriod(HOUR, 10, matrix));
+        profile.addPeriod(0, 0, matrix);
+        assertThrows(IllegalArgumentException.class, () -> profile.addPeriod(0, 10, matrix));
+        assertThrows(IllegalArgumentException.class, () -> profile.addPeriod(DAY, 10, matrix));
+        assertThrows(IllegalArgumentException.class, () -> profile.addPeriod(HOUR, -1, matrix));
+        assertFalse(profile.hasCalls());
+    }
+
+    @Test
+    void createTest() {
+        assertEquals(1, TrafficProfile.create("up", 20, 100).getPeriodsNumber());
+        assertEquals(1, TrafficProfile.create("down", 20, 100).getPeriodsNumber());
+        assertEquals(1, TrafficProfile.create("inter", 20, 100).getPeriodsNumber());
+        TrafficProfile office = TrafficProfile.create("office", 20, 100);
+        assertEquals(7, office.getPeriodsNumber());
+        assertEquals(100.0 / HOUR, office.getRate(office.getPeriod(8 * HOUR)));
+        assertEquals(100.0 / HOUR, office.getRate(office.getPeriod(18 * HOUR)));
+        assertNull(TrafficProfile.create("weekend", 20, 100));
+    }
+}